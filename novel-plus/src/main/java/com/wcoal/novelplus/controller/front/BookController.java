@@ -2,6 +2,8 @@ package com.wcoal.novelplus.controller.front;
 
 
 import com.wcoal.novelplus.core.common.constant.ApiRouterConsts;
+import com.wcoal.novelplus.core.common.enums.BookRankTypeEnum;
+import com.wcoal.novelplus.core.common.enums.TrendingWindowEnum;
 import com.wcoal.novelplus.core.common.resp.RestResp;
 import com.wcoal.novelplus.dto.req.BookVisitReqDto;
 import com.wcoal.novelplus.dto.resp.*;
@@ -139,6 +141,41 @@ public class BookController {
         return bookService.listUpdateRankBooks();
     }
 
+    /**
+     * 小说热榜查询接口
+     */
+    @Operation(summary = "小说热榜查询接口")
+    @GetMapping("trending_rank")
+    public RestResp<List<BookRankRespDto>> listTrendingRankBooks(
+            @Parameter(description = "统计窗口：HOUR-最近1小时 DAY-最近24小时 WEEK-最近7天")
+            @RequestParam(value = "window", defaultValue = "DAY") TrendingWindowEnum window) {
+        return bookService.listTrendingRankBooks(window);
+    }
+
+    /**
+     * 小说分类排行榜查询接口
+     */
+    @Operation(summary = "小说分类排行榜查询接口")
+    @GetMapping("category_rank")
+    public RestResp<List<BookRankRespDto>> listCategoryRankBooks(
+            @Parameter(description = "排行榜类型：VISIT-点击榜 UPDATE-更新榜 NEWEST-新书榜")
+            @RequestParam(value = "rankType", defaultValue = "VISIT") BookRankTypeEnum rankType,
+            @Parameter(description = "类别ID", required = true) @RequestParam("categoryId") Long categoryId) {
+        return bookService.listCategoryRankBooks(rankType, categoryId);
+    }
+
+    /**
+     * 小说作品方向排行榜查询接口
+     */
+    @Operation(summary = "小说作品方向排行榜查询接口")
+    @GetMapping("work_direction_rank")
+    public RestResp<List<BookRankRespDto>> listWorkDirectionRankBooks(
+            @Parameter(description = "排行榜类型：VISIT-点击榜 UPDATE-更新榜 NEWEST-新书榜")
+            @RequestParam(value = "rankType", defaultValue = "VISIT") BookRankTypeEnum rankType,
+            @Parameter(description = "作品方向", required = true) @RequestParam("workDirection") Integer workDirection) {
+        return bookService.listWorkDirectionRankBooks(rankType, workDirection);
+    }
+
     /**
      * 小说最新评论查询接口
      */
@@ -148,4 +185,16 @@ public class BookController {
             @Parameter(description = "小说ID") Long bookId) {
         return bookService.listNewestComments(bookId);
     }
+
+    /**
+     * 小说评论游标分页查询接口
+     */
+    @Operation(summary = "小说评论游标分页查询接口")
+    @GetMapping("comment/list")
+    public RestResp<BookCommentRespDto> listComments(
+            @Parameter(description = "小说ID", required = true) @RequestParam("bookId") Long bookId,
+            @Parameter(description = "上一页返回的游标，为空时查询第一页") @RequestParam(value = "cursor", required = false) String cursor,
+            @Parameter(description = "每页条数，最大20") @RequestParam(value = "pageSize", defaultValue = "20") Integer pageSize) {
+        return bookService.listComments(bookId, cursor, pageSize);
+    }
 }
@@ -0,0 +1,181 @@
+package com.wcoal.novelplus.core.cache;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import com.wcoal.novelplus.core.common.constant.CacheConsts;
+import com.wcoal.novelplus.core.config.CacheSizingProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地缓存总预算动态分配
+ * <p>
+ * 配置了堆内存百分比时，把总预算分给所有按字节限制的本地缓存：
+ * 启动时按各缓存配置的字节预算等比例分配，之后定期按各缓存在上个周期的命中次数（指数平滑）重新分配，
+ * 命中越多的缓存分到的容量越大，每个缓存至少保留 minShare 比例，避免冷缓存被压缩为0。
+ * 调整通过 Caffeine 的 eviction policy 在线修改 maximumWeight，无需重建缓存。
+ *
+ * @author wcoal
+ * @since 2025-12-13
+ */
+@Slf4j
+@Component
+public class CacheBudgetRebalancer {
+
+    /**
+     * 命中次数的平滑系数
+     */
+    private static final double SMOOTHING = 0.5;
+
+    private final CacheManager caffeineCacheManager;
+
+    private final CacheSizingProperties properties;
+
+    /**
+     * 缓存名 -> 上次统计的累计命中次数
+     */
+    private final Map<String, Long> lastHits = new HashMap<>();
+
+    /**
+     * 缓存名 -> 平滑后的周期命中次数
+     */
+    private final Map<String, Double> hitValues = new HashMap<>();
+
+    private final ScheduledExecutorService scheduler;
+
+    public CacheBudgetRebalancer(@Qualifier(CacheConsts.CAFFEINE_CACHE_MANAGER) CacheManager caffeineCacheManager,
+                                 CacheSizingProperties properties) {
+        this.caffeineCacheManager = caffeineCacheManager;
+        this.properties = properties;
+        if (properties.getHeapPercent() <= 0) {
+            this.scheduler = null;
+            return;
+        }
+        applyInitialBudgets();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-budget-rebalance");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getRebalanceInterval().toMillis();
+        this.scheduler.scheduleWithFixedDelay(this::rebalanceQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 本地缓存总预算（字节）
+     */
+    public long totalBudget() {
+        return (long) (Runtime.getRuntime().maxMemory() * properties.getHeapPercent() / 100);
+    }
+
+    /**
+     * 按最近的命中情况重新分配总预算
+     *
+     * @return 缓存名 -> 新的字节预算，没有命中数据时返回空
+     */
+    public synchronized Map<String, Long> rebalance() {
+        Map<String, Policy.Eviction<?, ?>> evictions = weightedEvictions();
+        double totalValue = 0;
+        for (String name : evictions.keySet()) {
+            com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine = nativeCache(name);
+            long hits = caffeine.stats().hitCount();
+            long delta = hits - lastHits.getOrDefault(name, hits);
+            lastHits.put(name, hits);
+            double value = SMOOTHING * delta + (1 - SMOOTHING) * hitValues.getOrDefault(name, 0D);
+            hitValues.put(name, value);
+            totalValue += value;
+        }
+        if (totalValue <= 0) {
+            return Map.of();
+        }
+        Map<String, Double> shares = new LinkedHashMap<>();
+        for (String name : evictions.keySet()) {
+            shares.put(name, hitValues.get(name) / totalValue);
+        }
+        return apply(evictions, shares);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void rebalanceQuietly() {
+        try {
+            Map<String, Long> budgets = rebalance();
+            if (!budgets.isEmpty()) {
+                log.info("本地缓存预算已重新分配: {}", budgets);
+            }
+        } catch (Exception e) {
+            log.error("本地缓存预算重新分配失败", e);
+        }
+    }
+
+    private synchronized void applyInitialBudgets() {
+        Map<String, Policy.Eviction<?, ?>> evictions = weightedEvictions();
+        long configured = evictions.keySet().stream().mapToLong(properties::budgetOf).sum();
+        if (configured <= 0) {
+            return;
+        }
+        Map<String, Double> shares = new LinkedHashMap<>();
+        for (String name : evictions.keySet()) {
+            shares.put(name, (double) properties.budgetOf(name) / configured);
+        }
+        log.info("本地缓存总预算: {} bytes，初始分配: {}", totalBudget(), apply(evictions, shares));
+    }
+
+    /**
+     * 按比例设置各缓存的 maximumWeight，每个缓存的比例不低于 minShare
+     */
+    private Map<String, Long> apply(Map<String, Policy.Eviction<?, ?>> evictions, Map<String, Double> shares) {
+        long total = totalBudget();
+        double minShare = Math.min(properties.getMinShare(), 1D / evictions.size());
+        double flexible = 1 - minShare * evictions.size();
+        Map<String, Long> budgets = new LinkedHashMap<>();
+        evictions.forEach((name, eviction) -> {
+            long budget = (long) (total * (minShare + flexible * shares.get(name)));
+            eviction.setMaximum(budget);
+            budgets.put(name, budget);
+        });
+        return budgets;
+    }
+
+    /**
+     * 所有按字节限制的本地缓存的淘汰策略
+     */
+    private Map<String, Policy.Eviction<?, ?>> weightedEvictions() {
+        Map<String, Policy.Eviction<?, ?>> result = new LinkedHashMap<>();
+        for (var c : CacheConsts.CacheEnum.values()) {
+            if (!c.isLocal() || properties.budgetOf(c.getName()) <= 0) {
+                continue;
+            }
+            com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine = nativeCache(c.getName());
+            if (caffeine != null) {
+                caffeine.policy().eviction()
+                        .filter(Policy.Eviction::isWeighted)
+                        .ifPresent(eviction -> result.put(c.getName(), eviction));
+            }
+        }
+        return result;
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<?, ?> nativeCache(String name) {
+        Cache cache = caffeineCacheManager.getCache(name);
+        if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            return caffeine;
+        }
+        return null;
+    }
+}
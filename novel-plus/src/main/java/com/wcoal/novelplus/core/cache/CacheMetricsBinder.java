@@ -0,0 +1,182 @@
+package com.wcoal.novelplus.core.cache;
+
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.wcoal.novelplus.core.common.constant.CacheConsts;
+import com.wcoal.novelplus.manager.cache.ChapterPrefetchManager;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.CacheStatistics;
+import org.springframework.data.redis.cache.RedisCacheWriter;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 缓存指标绑定器
+ * <p>
+ * 按 {@link CacheConsts.CacheEnum} 逐个把缓存统计注册到 Micrometer：
+ * 本地层使用 Caffeine 自带统计（命中、未命中、加载耗时、淘汰、容量），
+ * 远程层使用 RedisCacheWriter 的统计（命中、未命中、写入、删除），两层通过 tier 标签区分；
+ * 同时注册合并加载统计和章节预取统计，并提供供管理端接口使用的统计快照。
+ * 缓存均经过装饰器包装，Spring Boot 自带的缓存指标无法识别，因此通过 getNativeCache 取到底层缓存后自行绑定。
+ *
+ * @author wcoal
+ * @since 2025-12-12
+ */
+@Component
+public class CacheMetricsBinder implements MeterBinder {
+
+    private static final String TAG_TIER = "tier";
+
+    private static final String TIER_LOCAL = "local";
+
+    private static final String TIER_REMOTE = "remote";
+
+    private final CacheManager caffeineCacheManager;
+
+    private final CacheManager redisCacheManager;
+
+    private final SingleFlightMetrics singleFlightMetrics;
+
+    private final RedisOperationMetrics redisOperationMetrics;
+
+    private final ChapterPrefetchManager chapterPrefetchManager;
+
+    public CacheMetricsBinder(@Qualifier(CacheConsts.CAFFEINE_CACHE_MANAGER) CacheManager caffeineCacheManager,
+                              @Qualifier(CacheConsts.REDIS_CACHE_MANAGER) CacheManager redisCacheManager,
+                              SingleFlightMetrics singleFlightMetrics,
+                              RedisOperationMetrics redisOperationMetrics,
+                              ChapterPrefetchManager chapterPrefetchManager) {
+        this.caffeineCacheManager = caffeineCacheManager;
+        this.redisCacheManager = redisCacheManager;
+        this.singleFlightMetrics = singleFlightMetrics;
+        this.redisOperationMetrics = redisOperationMetrics;
+        this.chapterPrefetchManager = chapterPrefetchManager;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (var c : CacheConsts.CacheEnum.values()) {
+            com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine = localCache(c);
+            if (caffeine != null) {
+                CaffeineCacheMetrics.monitor(registry, caffeine, c.getName(), TAG_TIER, TIER_LOCAL);
+            }
+            RedisCacheWriter writer = remoteCacheWriter(c);
+            if (writer != null) {
+                bindRemote(registry, c.getName(), writer);
+            }
+        }
+        // 缓存管理器创建时已经生成所有合并加载统计对象
+        singleFlightMetrics.bindTo(registry);
+        chapterPrefetchManager.bindTo(registry);
+    }
+
+    /**
+     * 所有缓存的统计快照
+     * 缓存名 -> {配置、本地层统计、远程层统计、合并加载统计}，以及手写 Redis 缓存的操作统计和章节预取统计
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Map<String, Long>> singleFlight = singleFlightMetrics.snapshot();
+        Map<String, Object> caches = new LinkedHashMap<>();
+        for (var c : CacheConsts.CacheEnum.values()) {
+            Map<String, Object> item = new LinkedHashMap<>();
+            item.put("type", c.isTwoLevel() ? "TWO_LEVEL" : c.isLocal() ? "LOCAL" : "REMOTE");
+            item.put("ttl", c.getTtl());
+            item.put("maxSize", c.getMaxSize());
+
+            com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine = localCache(c);
+            if (caffeine != null) {
+                CacheStats stats = caffeine.stats();
+                Map<String, Object> local = new LinkedHashMap<>();
+                local.put("size", caffeine.estimatedSize());
+                caffeine.policy().eviction().filter(Policy.Eviction::isWeighted).ifPresent(eviction -> {
+                    local.put("maxBytes", eviction.getMaximum());
+                    local.put("weightedBytes", eviction.weightedSize().orElse(0));
+                });
+                local.put("hits", stats.hitCount());
+                local.put("misses", stats.missCount());
+                local.put("hitRate", stats.hitRate());
+                local.put("evictions", stats.evictionCount());
+                local.put("loads", stats.loadCount());
+                local.put("loadFailures", stats.loadFailureCount());
+                local.put("averageLoadMillis", stats.averageLoadPenalty() / 1_000_000);
+                item.put(TIER_LOCAL, local);
+            }
+
+            RedisCacheWriter writer = remoteCacheWriter(c);
+            if (writer != null) {
+                CacheStatistics stats = writer.getCacheStatistics(c.getName());
+                Map<String, Object> remote = new LinkedHashMap<>();
+                remote.put("hits", stats.getHits());
+                remote.put("misses", stats.getMisses());
+                remote.put("hitRate", stats.getGets() == 0 ? 0D : (double) stats.getHits() / stats.getGets());
+                remote.put("puts", stats.getPuts());
+                remote.put("deletes", stats.getDeletes());
+                item.put(TIER_REMOTE, remote);
+            }
+
+            if (singleFlight.containsKey(c.getName())) {
+                item.put("singleFlight", singleFlight.get(c.getName()));
+            }
+            caches.put(c.getName(), item);
+        }
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("caches", caches);
+        result.put("manualRedis", redisOperationMetrics.snapshot());
+        result.put("prefetch", chapterPrefetchManager.getStats());
+        return result;
+    }
+
+    /**
+     * 本地层的 Caffeine 缓存（装饰器的 getNativeCache 均委托到底层缓存）
+     */
+    private com.github.benmanes.caffeine.cache.Cache<?, ?> localCache(CacheConsts.CacheEnum c) {
+        if (!c.isLocal()) {
+            return null;
+        }
+        Cache cache = caffeineCacheManager.getCache(c.getName());
+        if (cache != null && cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine) {
+            return caffeine;
+        }
+        return null;
+    }
+
+    /**
+     * 远程层的 RedisCacheWriter（RedisCache 的 native cache 即 writer，统计按缓存名区分）
+     */
+    private RedisCacheWriter remoteCacheWriter(CacheConsts.CacheEnum c) {
+        if (!c.isRemote()) {
+            return null;
+        }
+        Cache cache = redisCacheManager.getCache(c.getName());
+        if (cache != null && cache.getNativeCache() instanceof RedisCacheWriter writer) {
+            return writer;
+        }
+        return null;
+    }
+
+    private static void bindRemote(MeterRegistry registry, String cacheName, RedisCacheWriter writer) {
+        Tags tags = Tags.of("cache", cacheName, TAG_TIER, TIER_REMOTE);
+        remoteCounter(registry, "cache.gets", tags.and("result", "hit"), writer, cacheName, CacheStatistics::getHits);
+        remoteCounter(registry, "cache.gets", tags.and("result", "miss"), writer, cacheName, CacheStatistics::getMisses);
+        remoteCounter(registry, "cache.puts", tags, writer, cacheName, CacheStatistics::getPuts);
+        remoteCounter(registry, "cache.removals", tags, writer, cacheName, CacheStatistics::getDeletes);
+    }
+
+    private static void remoteCounter(MeterRegistry registry, String metric, Tags tags, RedisCacheWriter writer,
+                                      String cacheName, ToDoubleFunction<CacheStatistics> f) {
+        FunctionCounter.builder(metric, writer, w -> f.applyAsDouble(w.getCacheStatistics(cacheName)))
+                .tags(tags)
+                .register(registry);
+    }
+}
@@ -0,0 +1,32 @@
+package com.wcoal.novelplus.core.cache;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 缓存统计监控端点：GET /actuator/cachestats
+ * 时序数据通过 /actuator/prometheus 采集，这里返回当前时刻的累计统计，便于直接查看和调整缓存容量；
+ * 统计中包含缓存名、容量等内部信息，因此与其他监控端点一样只在管理端口（仅内网开放）暴露
+ *
+ * @author wcoal
+ * @since 2025-12-12
+ */
+@Component
+@Endpoint(id = "cachestats")
+@RequiredArgsConstructor
+public class CacheStatsEndpoint {
+
+    private final CacheMetricsBinder cacheMetricsBinder;
+
+    /**
+     * 所有缓存的统计快照
+     */
+    @ReadOperation
+    public Map<String, Object> stats() {
+        return cacheMetricsBinder.snapshot();
+    }
+}
@@ -0,0 +1,110 @@
+package com.wcoal.novelplus.core.cache;
+
+import com.wcoal.novelplus.core.common.utils.TransactionUtils;
+import com.wcoal.novelplus.core.mq.CacheInvalidationProducer;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 失效广播缓存装饰器
+ * <p>
+ * 包装节点本地的 Caffeine 缓存：evict/clear 先作用于本地，再通过失效总线通知其他节点。
+ * put 只写本地不广播（缓存未命中回填同一份数据，无需打扰其他节点），
+ * 需要让其他节点感知的更新应先 evict 再 put，或直接调用 {@link CacheInvalidationProducer}。
+ * 处于事务中时广播等到事务提交后发出，L2 的失效同样推迟到提交后；提交前的读取可能从仍是旧值的 L2
+ * 把旧数据回填到本地，因此事务提交后（L2 失效之后）再清除一次本地缓存。
+ *
+ * @author wcoal
+ * @since 2025-12-03
+ */
+public class InvalidationBroadcastingCache implements Cache {
+
+    private final Cache delegate;
+
+    private final CacheInvalidationProducer producer;
+
+    public InvalidationBroadcastingCache(Cache delegate, CacheInvalidationProducer producer) {
+        this.delegate = delegate;
+        this.producer = producer;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        return delegate.get(key, valueLoader);
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+        producer.publishEvict(getName(), key);
+        TransactionUtils.afterCommitIfInTransaction(() -> delegate.evict(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean present = delegate.evictIfPresent(key);
+        // 其他节点可能存在该 key，无论本地是否命中都要广播
+        producer.publishEvict(getName(), key);
+        TransactionUtils.afterCommitIfInTransaction(() -> delegate.evict(key));
+        return present;
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+        producer.publishClear(getName());
+        TransactionUtils.afterCommitIfInTransaction(delegate::clear);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean notEmpty = delegate.invalidate();
+        producer.publishClear(getName());
+        return notEmpty;
+    }
+
+    /**
+     * 仅清除本节点的 key（处理其他节点广播时使用，不再次广播）
+     */
+    public void evictLocal(Object key) {
+        delegate.evict(key);
+    }
+
+    /**
+     * 仅清空本节点缓存（处理其他节点广播时使用，不再次广播）
+     */
+    public void clearLocal() {
+        delegate.clear();
+    }
+}
@@ -0,0 +1,59 @@
+package com.wcoal.novelplus.core.cache;
+
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 带随机浮动的 Caffeine 过期策略
+ * 每次写入（新增或更新）时在 TTL 的 ±jitterPercent 范围内随机取过期时间，读取不影响过期时间，
+ * 避免同一批加载的缓存同时过期后集中回源
+ *
+ * @author wcoal
+ * @since 2025-12-15
+ */
+public class JitteredExpiry implements Expiry<Object, Object> {
+
+    private final long ttlNanos;
+
+    private final double jitterPercent;
+
+    public JitteredExpiry(Duration ttl, double jitterPercent) {
+        this.ttlNanos = ttl.toNanos();
+        this.jitterPercent = jitterPercent;
+    }
+
+    @Override
+    public long expireAfterCreate(Object key, Object value, long currentTime) {
+        return jitter(ttlNanos, jitterPercent);
+    }
+
+    @Override
+    public long expireAfterUpdate(Object key, Object value, long currentTime, long currentDuration) {
+        return jitter(ttlNanos, jitterPercent);
+    }
+
+    @Override
+    public long expireAfterRead(Object key, Object value, long currentTime, long currentDuration) {
+        return currentDuration;
+    }
+
+    /**
+     * 在 ttl 的 ±percent% 范围内随机取值
+     */
+    public static long jitter(long ttl, double percent) {
+        if (percent <= 0) {
+            return ttl;
+        }
+        double factor = 1 + ThreadLocalRandom.current().nextDouble(-percent, percent) / 100;
+        return Math.max(1, (long) (ttl * factor));
+    }
+
+    /**
+     * 在 ttl 的 ±percent% 范围内随机取值
+     */
+    public static Duration jitter(Duration ttl, double percent) {
+        return Duration.ofMillis(jitter(ttl.toMillis(), percent));
+    }
+}
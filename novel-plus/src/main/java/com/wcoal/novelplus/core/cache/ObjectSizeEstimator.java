@@ -0,0 +1,153 @@
+package com.wcoal.novelplus.core.cache;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Field;
+import java.lang.reflect.Modifier;
+import java.time.temporal.Temporal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 缓存对象大小估算器
+ * <p>
+ * 供本地缓存的 weigher 使用，按 64 位 JVM 开启压缩指针的布局粗略估算对象占用的堆内存（字节），
+ * 字符串按 UTF-16 计算（小说内容以中文为主），集合元素较多时抽样估算后按数量放大。
+ * 只用于容量控制，不追求精确，估算耗时只发生在写入缓存时。
+ *
+ * @author wcoal
+ * @since 2025-12-13
+ */
+public final class ObjectSizeEstimator {
+
+    private static final int OBJECT_HEADER = 16;
+
+    private static final int ARRAY_HEADER = 16;
+
+    private static final int REFERENCE = 4;
+
+    /**
+     * 集合、Map 的固定开销
+     */
+    private static final int COLLECTION_OVERHEAD = 48;
+
+    /**
+     * 集合元素的节点/引用开销（HashMap 节点按 32 字节计）
+     */
+    private static final int ENTRY_OVERHEAD = 32;
+
+    /**
+     * 超过该数量的集合抽样估算
+     */
+    private static final int SAMPLE_SIZE = 64;
+
+    /**
+     * 对象图的最大递归深度，更深的引用只计引用本身
+     */
+    private static final int MAX_DEPTH = 8;
+
+    private static final ClassValue<Field[]> INSTANCE_FIELDS = new ClassValue<>() {
+        @Override
+        protected Field[] computeValue(Class<?> type) {
+            List<Field> fields = new ArrayList<>();
+            for (Class<?> c = type; c != null && c != Object.class; c = c.getSuperclass()) {
+                for (Field field : c.getDeclaredFields()) {
+                    if (!Modifier.isStatic(field.getModifiers()) && field.trySetAccessible()) {
+                        fields.add(field);
+                    }
+                }
+            }
+            return fields.toArray(new Field[0]);
+        }
+    };
+
+    private ObjectSizeEstimator() {
+    }
+
+    /**
+     * 估算对象占用的字节数
+     */
+    public static long estimate(Object value) {
+        return estimate(value, 0);
+    }
+
+    private static long estimate(Object value, int depth) {
+        if (value == null) {
+            return 0;
+        }
+        if (depth > MAX_DEPTH) {
+            return REFERENCE;
+        }
+        if (value instanceof String s) {
+            return 24 + ARRAY_HEADER + 2L * s.length();
+        }
+        if (value instanceof byte[] bytes) {
+            return ARRAY_HEADER + bytes.length;
+        }
+        if (value instanceof char[] chars) {
+            return ARRAY_HEADER + 2L * chars.length;
+        }
+        if (value instanceof Number || value instanceof Boolean || value instanceof Character) {
+            return OBJECT_HEADER + 8;
+        }
+        if (value instanceof Enum<?>) {
+            // 枚举常量全局共享
+            return 0;
+        }
+        if (value instanceof Temporal) {
+            return OBJECT_HEADER + 32;
+        }
+        if (value instanceof Collection<?> collection) {
+            return COLLECTION_OVERHEAD + estimateElements(collection.iterator(), collection.size(), ENTRY_OVERHEAD, depth);
+        }
+        if (value instanceof Map<?, ?> map) {
+            return COLLECTION_OVERHEAD + estimateElements(map.entrySet().iterator(), map.size(), ENTRY_OVERHEAD, depth);
+        }
+        if (value instanceof Map.Entry<?, ?> entry) {
+            return estimate(entry.getKey(), depth + 1) + estimate(entry.getValue(), depth + 1);
+        }
+        Class<?> type = value.getClass();
+        if (type.isArray()) {
+            return estimateArray(value, type, depth);
+        }
+        if (type.getName().startsWith("java.")) {
+            // 其他 JDK 类型无法反射访问，按固定大小估算
+            return OBJECT_HEADER + 16;
+        }
+        long size = OBJECT_HEADER;
+        for (Field field : INSTANCE_FIELDS.get(type)) {
+            if (field.getType().isPrimitive()) {
+                size += 8;
+                continue;
+            }
+            size += REFERENCE;
+            try {
+                size += estimate(field.get(value), depth + 1);
+            } catch (IllegalAccessException e) {
+                // 忽略无法访问的字段
+            }
+        }
+        return size;
+    }
+
+    private static long estimateElements(Iterator<?> iterator, int size, int elementOverhead, int depth) {
+        long sampled = 0;
+        int count = 0;
+        while (iterator.hasNext() && count < SAMPLE_SIZE) {
+            sampled += elementOverhead + estimate(iterator.next(), depth + 1);
+            count++;
+        }
+        return count == 0 ? 0 : sampled * size / count;
+    }
+
+    private static long estimateArray(Object array, Class<?> type, int depth) {
+        if (type.getComponentType().isPrimitive()) {
+            return ARRAY_HEADER + 8L * Array.getLength(array);
+        }
+        Object[] elements = (Object[]) array;
+        return ARRAY_HEADER + estimateElements(Arrays.asList(elements).iterator(), elements.length, REFERENCE, depth);
+    }
+}
@@ -0,0 +1,120 @@
+package com.wcoal.novelplus.core.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 手写 Redis 缓存操作统计
+ * 为直接使用 StringRedisTemplate 的管理器（评论点赞、阅读进度等）提供操作耗时计时器和命中/未命中计数器，
+ * 指标名：redis.manual.operation（标签 manager、operation）、redis.manual.lookup（标签 manager、lookup、result）
+ *
+ * @author wcoal
+ * @since 2025-12-12
+ */
+@Component
+@RequiredArgsConstructor
+public class RedisOperationMetrics {
+
+    private static final String TIMER_NAME = "redis.manual.operation";
+
+    private static final String LOOKUP_NAME = "redis.manual.lookup";
+
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+
+    private final Map<String, Counter> counters = new ConcurrentHashMap<>();
+
+    /**
+     * 记录一次有返回值的 Redis 操作耗时
+     */
+    public <T> T record(String manager, String operation, Supplier<T> action) {
+        long start = System.nanoTime();
+        try {
+            return action.get();
+        } finally {
+            timer(manager, operation).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 记录一次无返回值的 Redis 操作耗时
+     */
+    public void record(String manager, String operation, Runnable action) {
+        long start = System.nanoTime();
+        try {
+            action.run();
+        } finally {
+            timer(manager, operation).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * 记录一次缓存命中
+     */
+    public void hit(String manager, String lookup) {
+        counter(manager, lookup, "hit").increment();
+    }
+
+    /**
+     * 记录一次缓存未命中（回源数据库）
+     */
+    public void miss(String manager, String lookup) {
+        counter(manager, lookup, "miss").increment();
+    }
+
+    /**
+     * 记录批量查询的命中、未命中次数
+     */
+    public void hits(String manager, String lookup, int hits, int misses) {
+        counter(manager, lookup, "hit").increment(hits);
+        counter(manager, lookup, "miss").increment(misses);
+    }
+
+    /**
+     * 统计快照（管理器.操作 -> 指标名 -> 数值）
+     */
+    public Map<String, Map<String, Object>> snapshot() {
+        Map<String, Map<String, Object>> result = new TreeMap<>();
+        timers.forEach((key, timer) -> {
+            Map<String, Object> item = result.computeIfAbsent(key, k -> new LinkedHashMap<>());
+            item.put("count", timer.count());
+            item.put("meanMillis", timer.mean(TimeUnit.MILLISECONDS));
+            item.put("maxMillis", timer.max(TimeUnit.MILLISECONDS));
+        });
+        counters.forEach((key, counter) -> {
+            int index = key.lastIndexOf('.');
+            result.computeIfAbsent(key.substring(0, index), k -> new LinkedHashMap<>())
+                    .put(key.substring(index + 1) + "s", (long) counter.count());
+        });
+        return result;
+    }
+
+    private Timer timer(String manager, String operation) {
+        return timers.computeIfAbsent(manager + "." + operation, k -> Timer.builder(TIMER_NAME)
+                .description("手写 Redis 缓存操作耗时")
+                .tag("manager", manager)
+                .tag("operation", operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    private Counter counter(String manager, String lookup, String result) {
+        return counters.computeIfAbsent(manager + "." + lookup + "." + result, k -> Counter.builder(LOOKUP_NAME)
+                .description("手写 Redis 缓存查找结果")
+                .tag("manager", manager)
+                .tag("lookup", lookup)
+                .tag("result", result)
+                .register(meterRegistry));
+    }
+}
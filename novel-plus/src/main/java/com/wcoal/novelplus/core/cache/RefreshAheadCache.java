@@ -0,0 +1,216 @@
+package com.wcoal.novelplus.core.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.cache.Cache;
+import org.springframework.cache.support.SimpleValueWrapper;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 提前刷新缓存装饰器（refresh-ahead / stale-while-revalidate）
+ * <p>
+ * 写入时把值包装为 {@link RefreshAheadValue}，记录软过期时间；被装饰缓存自身的 TTL 作为硬过期时间。
+ * 通过 {@link #get(Object, Callable)} 读取到超过软过期时间的值时照常返回旧值，
+ * 同时在后台用同一个加载器刷新（同一节点同一 key 同时只有一个刷新任务），请求不会因为过期而回源。
+ * 硬过期后的未命中仍由内层的合并加载处理。
+ * 软过期时间按 ±jitterPercent 随机浮动；开启概率提前刷新（XFetch）时，
+ * 根据加载耗时在软过期时间之前随机触发刷新，进一步把同一批写入的刷新分散开。
+ * <p>
+ * 后台刷新开始后，同一 key 被 put/evict/clear 时会标记该次刷新已过时，刷新结果不再写回，
+ * 避免刷新开始前加载的旧值覆盖失效或更新；标记与写回在同一把锁下完成（仅限本节点）。
+ *
+ * @author wcoal
+ * @since 2025-12-11
+ */
+@Slf4j
+public class RefreshAheadCache implements Cache {
+
+    private final Cache delegate;
+
+    /**
+     * 软过期时间（毫秒）
+     */
+    private final long softTtlMillis;
+
+    /**
+     * 软过期时间浮动百分比
+     */
+    private final double jitterPercent;
+
+    /**
+     * 概率提前刷新系数，0-不开启
+     */
+    private final double earlyExpirationBeta;
+
+    private final Executor refreshExecutor;
+
+    /**
+     * 正在刷新的 key -> 刷新结果是否仍可写回（期间被 put/evict/clear 时置为 false）
+     */
+    private final ConcurrentHashMap<Object, Boolean> refreshing = new ConcurrentHashMap<>();
+
+    public RefreshAheadCache(Cache delegate, long softTtlMillis, double jitterPercent, double earlyExpirationBeta,
+                             Executor refreshExecutor) {
+        this.delegate = delegate;
+        this.softTtlMillis = softTtlMillis;
+        this.jitterPercent = jitterPercent;
+        this.earlyExpirationBeta = earlyExpirationBeta;
+        this.refreshExecutor = refreshExecutor;
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return unwrap(delegate.get(key));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object value = delegate.get(key, () -> load(valueLoader));
+        if (value instanceof RefreshAheadValue refreshAheadValue) {
+            if (needsRefresh(refreshAheadValue)) {
+                scheduleRefresh(key, valueLoader);
+            }
+            return (T) refreshAheadValue.value();
+        }
+        // 升级前写入的未包装值，按原样返回，硬过期后自然替换
+        return (T) value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        markStale(key);
+        delegate.put(key, wrap(value));
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        markStale(key);
+        return unwrap(delegate.putIfAbsent(key, wrap(value)));
+    }
+
+    @Override
+    public void evict(Object key) {
+        markStale(key);
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        markStale(key);
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        refreshing.replaceAll((k, writable) -> Boolean.FALSE);
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        refreshing.replaceAll((k, writable) -> Boolean.FALSE);
+        return delegate.invalidate();
+    }
+
+    private void scheduleRefresh(Object key, Callable<?> valueLoader) {
+        if (refreshing.putIfAbsent(key, Boolean.TRUE) != null) {
+            return;
+        }
+        try {
+            refreshExecutor.execute(() -> {
+                try {
+                    RefreshAheadValue value = load(valueLoader);
+                    // 在 key 的锁内检查并写回，与 markStale 互斥
+                    refreshing.computeIfPresent(key, (k, writable) -> {
+                        if (!writable) {
+                            log.debug("缓存后台刷新期间 key 已失效或更新，丢弃刷新结果: cache={}, key={}", getName(), key);
+                        } else if (value != null) {
+                            delegate.put(key, value);
+                        } else {
+                            delegate.evict(key);
+                        }
+                        return writable;
+                    });
+                } catch (Exception e) {
+                    // 刷新失败继续使用旧值，等待下次读取或硬过期
+                    log.warn("缓存后台刷新失败: cache={}, key={}", getName(), key, e);
+                } finally {
+                    refreshing.remove(key);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            refreshing.remove(key);
+            log.debug("缓存后台刷新任务被拒绝: cache={}, key={}", getName(), key);
+        }
+    }
+
+    /**
+     * 该 key 正在后台刷新时，标记刷新结果不再写回
+     * 需在操作被装饰缓存之前调用：之前完成的写回会被随后的操作覆盖，之后的写回会被丢弃
+     */
+    private void markStale(Object key) {
+        refreshing.replace(key, Boolean.FALSE);
+    }
+
+    private boolean needsRefresh(RefreshAheadValue value) {
+        long now = System.currentTimeMillis();
+        return earlyExpirationBeta > 0 ? value.needsRefresh(now, earlyExpirationBeta) : value.needsRefresh(now);
+    }
+
+    /**
+     * 调用加载器并记录加载耗时
+     */
+    private RefreshAheadValue load(Callable<?> valueLoader) throws Exception {
+        long start = System.currentTimeMillis();
+        Object value = valueLoader.call();
+        return wrap(value, System.currentTimeMillis() - start);
+    }
+
+    private RefreshAheadValue wrap(Object value) {
+        return wrap(value, 0);
+    }
+
+    /**
+     * null 不包装，保持被装饰缓存对 null 值的处理方式
+     */
+    private RefreshAheadValue wrap(Object value, long loadMillis) {
+        return value == null ? null : new RefreshAheadValue(value,
+                System.currentTimeMillis() + JitteredExpiry.jitter(softTtlMillis, jitterPercent), loadMillis);
+    }
+
+    private static ValueWrapper unwrap(ValueWrapper wrapper) {
+        if (wrapper != null && wrapper.get() instanceof RefreshAheadValue refreshAheadValue) {
+            return new SimpleValueWrapper(refreshAheadValue.value());
+        }
+        return wrapper;
+    }
+}
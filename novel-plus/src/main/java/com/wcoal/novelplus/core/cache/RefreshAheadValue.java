@@ -0,0 +1,36 @@
+package com.wcoal.novelplus.core.cache;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 带逻辑过期时间的缓存值
+ * 由 {@link RefreshAheadCache} 写入和解包，同时保存在本地缓存和 Redis 中
+ *
+ * @param value      缓存值
+ * @param refreshAt  逻辑过期时间戳（毫秒），超过后仍可读取，但会触发后台刷新
+ * @param loadMillis 加载该值的耗时（毫秒），用于概率提前刷新；升级前写入的值为 0
+ * @author wcoal
+ * @since 2025-12-11
+ */
+public record RefreshAheadValue(Object value, long refreshAt, long loadMillis) implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    public boolean needsRefresh(long now) {
+        return now >= refreshAt;
+    }
+
+    /**
+     * 概率提前刷新（XFetch）：越接近逻辑过期时间、加载耗时越长，提前刷新的概率越大
+     * 判断条件为 now - loadMillis * beta * ln(random) >= refreshAt，各节点、各请求的刷新时间自然错开
+     *
+     * @param beta 提前刷新系数
+     */
+    public boolean needsRefresh(long now, double beta) {
+        double random = ThreadLocalRandom.current().nextDouble();
+        return now - loadMillis * beta * Math.log(random) >= refreshAt;
+    }
+}
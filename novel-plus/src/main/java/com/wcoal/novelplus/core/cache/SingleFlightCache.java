@@ -0,0 +1,222 @@
+package com.wcoal.novelplus.core.cache;
+
+import com.wcoal.novelplus.core.config.CacheSingleFlightProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 合并加载缓存装饰器（single-flight）
+ * <p>
+ * 只增强 {@link #get(Object, Callable)}（{@code @Cacheable(sync = true)} 与编程式加载都走这里）：
+ * 同一节点同一 key 并发未命中时只有一个线程回源，其他线程等待同一份结果；
+ * 跨节点模式下回源前还要抢占 Redisson 租约，没抢到的节点等待租约释放后重新读取缓存，
+ * 等待超时或 Redis 不可用时退化为自行回源，不会因为合并而让请求失败。
+ * 加载结果为 null 时不写入缓存，不存在的数据由负缓存（{@link com.wcoal.novelplus.manager.redis.BookIdFilterManager}）处理。
+ * 其余方法直接委托给被装饰的缓存。
+ *
+ * @author wcoal
+ * @since 2025-12-10
+ */
+@Slf4j
+public class SingleFlightCache implements Cache {
+
+    private static final String LEASE_KEY_PREFIX = "Lock::SingleFlight::";
+
+    private final Cache delegate;
+
+    private final CacheSingleFlightProperties properties;
+
+    private final SingleFlightMetrics.CacheStats stats;
+
+    /**
+     * 为 null 时只做节点内合并
+     */
+    private final RedissonClient redissonClient;
+
+    private final ConcurrentHashMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    private SingleFlightCache(Cache delegate, CacheSingleFlightProperties properties, SingleFlightMetrics metrics,
+                              RedissonClient redissonClient) {
+        this.delegate = delegate;
+        this.properties = properties;
+        this.stats = metrics.of(delegate.getName());
+        this.redissonClient = redissonClient;
+    }
+
+    /**
+     * 节点内合并（本地缓存）
+     */
+    public static SingleFlightCache local(Cache delegate, CacheSingleFlightProperties properties,
+                                          SingleFlightMetrics metrics) {
+        return new SingleFlightCache(delegate, properties, metrics, null);
+    }
+
+    /**
+     * 节点内 + 跨节点合并（Redis 缓存、二级缓存）
+     */
+    public static SingleFlightCache distributed(Cache delegate, CacheSingleFlightProperties properties,
+                                                SingleFlightMetrics metrics, RedissonClient redissonClient) {
+        return new SingleFlightCache(delegate, properties, metrics,
+                properties.isDistributed() ? redissonClient : null);
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return delegate.getNativeCache();
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        return delegate.get(key);
+    }
+
+    @Override
+    public <T> T get(Object key, Class<T> type) {
+        return delegate.get(key, type);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        ValueWrapper wrapper = delegate.get(key);
+        if (wrapper != null) {
+            return (T) wrapper.get();
+        }
+
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> running = inFlight.putIfAbsent(key, future);
+        if (running != null) {
+            return (T) await(key, running, valueLoader);
+        }
+
+        try {
+            Object value = loadWithLease(key, valueLoader);
+            future.complete(value);
+            return (T) value;
+        } catch (Throwable e) {
+            future.completeExceptionally(e);
+            throw e instanceof ValueRetrievalException ex ? ex : new ValueRetrievalException(key, valueLoader, e);
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        delegate.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        return delegate.putIfAbsent(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        delegate.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        return delegate.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        delegate.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        return delegate.invalidate();
+    }
+
+    /**
+     * 等待同一节点内正在进行的加载，超时后自行回源
+     */
+    private Object await(Object key, CompletableFuture<Object> running, Callable<?> valueLoader) {
+        stats.coalescedWaits.increment();
+        long start = System.nanoTime();
+        try {
+            return running.get(properties.getWaitTimeout(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            stats.waitTimeouts.increment();
+            log.warn("等待缓存加载超时，自行回源: cache={}, key={}", getName(), key);
+            return loadAndPut(key, valueLoader);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ValueRetrievalException(key, valueLoader, e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof ValueRetrievalException ex ? ex : new ValueRetrievalException(key, valueLoader, cause);
+        } finally {
+            stats.coalescedWaitNanos.add(System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * 抢占分布式租约后回源；租约被其他节点持有时等待其释放，再从缓存读取其他节点的加载结果
+     */
+    private Object loadWithLease(Object key, Callable<?> valueLoader) {
+        if (redissonClient == null) {
+            return loadAndPut(key, valueLoader);
+        }
+        RLock lease = redissonClient.getLock(LEASE_KEY_PREFIX + getName() + "::" + key);
+        boolean acquired = false;
+        try {
+            acquired = lease.tryLock(properties.getLeaseWait(), properties.getLeaseTime(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("获取缓存加载租约失败，退化为节点内合并: cache={}, key={}", getName(), key, e);
+        }
+        try {
+            if (!acquired) {
+                stats.leaseTimeouts.increment();
+            }
+            ValueWrapper wrapper = delegate.get(key);
+            if (wrapper != null) {
+                stats.remoteFills.increment();
+                return wrapper.get();
+            }
+            return loadAndPut(key, valueLoader);
+        } finally {
+            if (acquired) {
+                try {
+                    lease.unlock();
+                } catch (Exception e) {
+                    // 租约已过期被自动释放
+                    log.debug("释放缓存加载租约失败: cache={}, key={}", getName(), key, e);
+                }
+            }
+        }
+    }
+
+    private Object loadAndPut(Object key, Callable<?> valueLoader) {
+        stats.loads.increment();
+        Object value;
+        try {
+            value = valueLoader.call();
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+        if (value != null) {
+            delegate.put(key, value);
+        }
+        return value;
+    }
+}
@@ -0,0 +1,108 @@
+package com.wcoal.novelplus.core.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 缓存合并加载统计
+ * 按缓存名统计回源次数、合并等待次数及耗时、租约抢占情况
+ *
+ * @author wcoal
+ * @since 2025-12-10
+ */
+@Component
+public class SingleFlightMetrics {
+
+    private final Map<String, CacheStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * 获取指定缓存的统计对象
+     */
+    public CacheStats of(String cacheName) {
+        return stats.computeIfAbsent(cacheName, k -> new CacheStats());
+    }
+
+    /**
+     * 所有缓存的统计快照（缓存名 -> 指标名 -> 数值）
+     */
+    public Map<String, Map<String, Long>> snapshot() {
+        Map<String, Map<String, Long>> result = new TreeMap<>();
+        stats.forEach((name, s) -> result.put(name, s.snapshot()));
+        return result;
+    }
+
+    /**
+     * 将已创建缓存的统计注册为 Micrometer 计数器（指标名 cache.singleflight.*，标签 cache）
+     */
+    public void bindTo(MeterRegistry registry) {
+        stats.forEach((name, s) -> {
+            counter(registry, "cache.singleflight.loads", name, s, x -> x.loads.sum());
+            counter(registry, "cache.singleflight.coalesced.waits", name, s, x -> x.coalescedWaits.sum());
+            counter(registry, "cache.singleflight.coalesced.wait.seconds", name, s,
+                    x -> x.coalescedWaitNanos.sum() / 1e9);
+            counter(registry, "cache.singleflight.wait.timeouts", name, s, x -> x.waitTimeouts.sum());
+            counter(registry, "cache.singleflight.remote.fills", name, s, x -> x.remoteFills.sum());
+            counter(registry, "cache.singleflight.lease.timeouts", name, s, x -> x.leaseTimeouts.sum());
+        });
+    }
+
+    private static void counter(MeterRegistry registry, String metric, String cacheName, CacheStats s,
+                                ToDoubleFunction<CacheStats> f) {
+        FunctionCounter.builder(metric, s, f).tag("cache", cacheName).register(registry);
+    }
+
+    /**
+     * 单个缓存的统计
+     */
+    public static class CacheStats {
+
+        /**
+         * 实际回源次数
+         */
+        final LongAdder loads = new LongAdder();
+
+        /**
+         * 合并等待次数（同一节点内等待其他线程的加载结果）
+         */
+        final LongAdder coalescedWaits = new LongAdder();
+
+        /**
+         * 合并等待总耗时（纳秒）
+         */
+        final LongAdder coalescedWaitNanos = new LongAdder();
+
+        /**
+         * 合并等待超时次数
+         */
+        final LongAdder waitTimeouts = new LongAdder();
+
+        /**
+         * 抢到分布式租约后发现其他节点已回填缓存的次数
+         */
+        final LongAdder remoteFills = new LongAdder();
+
+        /**
+         * 等待分布式租约超时次数
+         */
+        final LongAdder leaseTimeouts = new LongAdder();
+
+        Map<String, Long> snapshot() {
+            Map<String, Long> result = new LinkedHashMap<>();
+            result.put("loads", loads.sum());
+            result.put("coalescedWaits", coalescedWaits.sum());
+            result.put("coalescedWaitMillis", coalescedWaitNanos.sum() / 1_000_000);
+            result.put("waitTimeouts", waitTimeouts.sum());
+            result.put("remoteFills", remoteFills.sum());
+            result.put("leaseTimeouts", leaseTimeouts.sum());
+            return result;
+        }
+    }
+}
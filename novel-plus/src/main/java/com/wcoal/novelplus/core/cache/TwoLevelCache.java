@@ -0,0 +1,159 @@
+package com.wcoal.novelplus.core.cache;
+
+import com.wcoal.novelplus.core.common.utils.TransactionUtils;
+import org.springframework.cache.Cache;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 二级缓存（L1 本地 Caffeine + L2 Redis）
+ * <p>
+ * 读：L1 -> L2（命中后回填 L1）-> 加载器（结果同时写入两级）；
+ * 写：同时写入两级；失效：两级同时失效，L1 的失效由广播装饰器同步到其他节点。
+ * Redis 不缓存 null 值，null 只保存在 L1。
+ * 处于事务中时 L2（事务感知）的失效推迟到提交后，L1 立即失效：提交前的读取会从旧的 L2 回填 L1，
+ * 所以事务提交后（L2 失效之后）再清除一次 L1，已由广播装饰器通知其他节点的不再重复广播。
+ *
+ * @author wcoal
+ * @since 2025-12-04
+ */
+public class TwoLevelCache implements Cache {
+
+    private final String name;
+
+    private final Cache localCache;
+
+    private final Cache remoteCache;
+
+    public TwoLevelCache(String name, Cache localCache, Cache remoteCache) {
+        this.name = name;
+        this.localCache = localCache;
+        this.remoteCache = remoteCache;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return this;
+    }
+
+    public Cache getLocalCache() {
+        return localCache;
+    }
+
+    public Cache getRemoteCache() {
+        return remoteCache;
+    }
+
+    @Override
+    public ValueWrapper get(Object key) {
+        ValueWrapper wrapper = localCache.get(key);
+        if (wrapper != null) {
+            return wrapper;
+        }
+        wrapper = remoteCache.get(key);
+        if (wrapper != null) {
+            localCache.put(key, wrapper.get());
+        }
+        return wrapper;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Class<T> type) {
+        ValueWrapper wrapper = get(key);
+        if (wrapper == null) {
+            return null;
+        }
+        Object value = wrapper.get();
+        if (value != null && type != null && !type.isInstance(value)) {
+            throw new IllegalStateException(
+                    "Cached value is not of required type [" + type.getName() + "]: " + value);
+        }
+        return (T) value;
+    }
+
+    @Override
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        // 通过 L1 的 get(key, loader) 加载，同一节点同一 key 只会回源一次
+        return localCache.get(key, () -> {
+            ValueWrapper wrapper = remoteCache.get(key);
+            if (wrapper != null) {
+                @SuppressWarnings("unchecked")
+                T value = (T) wrapper.get();
+                return value;
+            }
+            T value = valueLoader.call();
+            if (value != null) {
+                remoteCache.put(key, value);
+            }
+            return value;
+        });
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        if (value != null) {
+            remoteCache.put(key, value);
+        }
+        localCache.put(key, value);
+    }
+
+    @Override
+    public ValueWrapper putIfAbsent(Object key, Object value) {
+        ValueWrapper existing = get(key);
+        if (existing != null) {
+            return existing;
+        }
+        put(key, value);
+        return null;
+    }
+
+    @Override
+    public void evict(Object key) {
+        remoteCache.evict(key);
+        localCache.evict(key);
+        TransactionUtils.afterCommitIfInTransaction(() -> evictLocal(key));
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        boolean remotePresent = remoteCache.evictIfPresent(key);
+        boolean localPresent = localCache.evictIfPresent(key);
+        return remotePresent || localPresent;
+    }
+
+    @Override
+    public void clear() {
+        remoteCache.clear();
+        localCache.clear();
+        TransactionUtils.afterCommitIfInTransaction(this::clearLocal);
+    }
+
+    @Override
+    public boolean invalidate() {
+        boolean remoteNotEmpty = remoteCache.invalidate();
+        boolean localNotEmpty = localCache.invalidate();
+        return remoteNotEmpty || localNotEmpty;
+    }
+
+    private void evictLocal(Object key) {
+        if (localCache instanceof InvalidationBroadcastingCache broadcastingCache) {
+            broadcastingCache.evictLocal(key);
+        } else {
+            localCache.evict(key);
+        }
+    }
+
+    private void clearLocal() {
+        if (localCache instanceof InvalidationBroadcastingCache broadcastingCache) {
+            broadcastingCache.clearLocal();
+        } else {
+            localCache.clear();
+        }
+    }
+}
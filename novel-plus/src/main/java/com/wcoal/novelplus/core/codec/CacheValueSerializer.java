@@ -0,0 +1,182 @@
+package com.wcoal.novelplus.core.codec;
+
+import com.esotericsoftware.kryo.Kryo;
+import com.esotericsoftware.kryo.Serializer;
+import com.esotericsoftware.kryo.SerializerFactory;
+import com.esotericsoftware.kryo.io.Input;
+import com.esotericsoftware.kryo.io.Output;
+import com.esotericsoftware.kryo.serializers.CompatibleFieldSerializer;
+import com.esotericsoftware.kryo.serializers.ImmutableCollectionsSerializers;
+import com.esotericsoftware.kryo.util.DefaultInstantiatorStrategy;
+import com.esotericsoftware.kryo.util.Pool;
+import com.wcoal.novelplus.core.cache.RefreshAheadValue;
+import com.wcoal.novelplus.core.config.CacheSerializerProperties;
+import com.wcoal.novelplus.dto.AuthorInfoDto;
+import com.wcoal.novelplus.dto.BookChapterCatalogDto;
+import com.wcoal.novelplus.dto.BookDimensionRankDto;
+import com.wcoal.novelplus.dto.resp.BookInfoRespDto;
+import com.wcoal.novelplus.dto.resp.BookRankRespDto;
+import lombok.extern.slf4j.Slf4j;
+import org.objenesis.strategy.StdInstantiatorStrategy;
+import org.springframework.cache.support.NullValue;
+import org.springframework.data.redis.serializer.JdkSerializationRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+
+/**
+ * Redis 缓存值序列化器
+ * <p>
+ * KRYO 格式：[魔数 0xC5][格式版本][Kryo 负载]，常用 DTO 以固定编号注册，不写完整类名；
+ * JDK 格式：标准 JDK 序列化（以 0xACED 开头）。
+ * 读取时按数据头识别格式，与写入格式无关，因此升级前写入的 JDK 数据和切换格式前后的数据都能正常读取。
+ * DTO 使用 CompatibleFieldSerializer，按字段名写入（分块编码），新增、删除字段后新旧版本可以互相读取，
+ * 滚动发布期间不同版本的节点共用同一份 Redis 缓存不会读出错位的字段；
+ * 修改字段类型、record 组件或注册编号属于不兼容变更，需要递增格式版本。
+ * 无法解析的数据（版本不匹配、不兼容的结构变更等）按缓存未命中处理，由调用方回源后覆盖。
+ *
+ * @author wcoal
+ * @since 2025-12-16
+ */
+@Slf4j
+@Component
+public class CacheValueSerializer implements RedisSerializer<Object> {
+
+    private static final byte MAGIC = (byte) 0xC5;
+
+    /**
+     * 当前格式版本，注册表或负载格式不兼容变更时递增
+     * 2: DTO 由 FieldSerializer（不写字段信息）改为 CompatibleFieldSerializer
+     */
+    private static final byte VERSION = 2;
+
+    private static final int HEADER_LENGTH = 2;
+
+    private final boolean kryoFormat;
+
+    private final JdkSerializationRedisSerializer jdkSerializer = new JdkSerializationRedisSerializer();
+
+    private final Pool<Kryo> kryoPool;
+
+    public CacheValueSerializer(CacheSerializerProperties properties) {
+        this.kryoFormat = "KRYO".equalsIgnoreCase(properties.getFormat());
+        this.kryoPool = new Pool<>(true, false, properties.getPoolSize()) {
+            @Override
+            protected Kryo create() {
+                return createKryo();
+            }
+        };
+    }
+
+    /**
+     * 创建指定写入格式的序列化器（测试等非 Spring 场景使用）
+     */
+    public static CacheValueSerializer of(String format) {
+        CacheSerializerProperties properties = new CacheSerializerProperties();
+        properties.setFormat(format);
+        return new CacheValueSerializer(properties);
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        if (!kryoFormat) {
+            return jdkSerializer.serialize(value);
+        }
+        Kryo kryo = kryoPool.obtain();
+        try (Output output = new Output(256, -1)) {
+            output.writeByte(MAGIC);
+            output.writeByte(VERSION);
+            kryo.writeClassAndObject(output, value);
+            return output.toBytes();
+        } catch (RuntimeException e) {
+            throw new SerializationException("Kryo 序列化失败: " + value.getClass().getName(), e);
+        } finally {
+            kryoPool.free(kryo);
+        }
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes.length >= HEADER_LENGTH && bytes[0] == MAGIC) {
+            if (bytes[1] != VERSION) {
+                log.warn("缓存值格式版本不匹配，按未命中处理: version={}", bytes[1]);
+                return null;
+            }
+            Kryo kryo = kryoPool.obtain();
+            try (Input input = new Input(bytes, HEADER_LENGTH, bytes.length - HEADER_LENGTH)) {
+                return kryo.readClassAndObject(input);
+            } catch (RuntimeException e) {
+                log.warn("缓存值 Kryo 反序列化失败，按未命中处理", e);
+                return null;
+            } finally {
+                kryoPool.free(kryo);
+            }
+        }
+        // 升级前写入或 JDK 格式写入的数据
+        try {
+            return jdkSerializer.deserialize(bytes);
+        } catch (SerializationException e) {
+            log.warn("缓存值 JDK 反序列化失败，按未命中处理", e);
+            return null;
+        }
+    }
+
+    /**
+     * 创建 Kryo 实例
+     * 注册编号写入了缓存数据，只能追加，不能修改或删除已有编号
+     */
+    private static Kryo createKryo() {
+        Kryo kryo = new Kryo();
+        // 未注册的类写完整类名，仍可序列化
+        kryo.setRegistrationRequired(false);
+        // 缓存值都是无环的树形结构，关闭引用跟踪以减小体积
+        kryo.setReferences(false);
+        // DTO 可能没有无参构造器（如不可变的章节目录）
+        kryo.setInstantiatorStrategy(new DefaultInstantiatorStrategy(new StdInstantiatorStrategy()));
+        // 写入字段名，字段增删后仍可读取；分块编码使读取方能跳过自己不认识的字段
+        CompatibleFieldSerializer.CompatibleFieldSerializerConfig fieldConfig =
+                new CompatibleFieldSerializer.CompatibleFieldSerializerConfig();
+        fieldConfig.setChunkedEncoding(true);
+        kryo.setDefaultSerializer(new SerializerFactory.CompatibleFieldSerializerFactory(fieldConfig));
+        // Stream.toList()、List.of() 返回的不可变集合无法反射访问，使用专用序列化器
+        ImmutableCollectionsSerializers.addDefaultSerializers(kryo);
+
+        kryo.register(byte[].class, 100);
+        kryo.register(int[].class, 101);
+        kryo.register(long[].class, 102);
+        kryo.register(String[].class, 103);
+        kryo.register(ArrayList.class, 104);
+        kryo.register(HashMap.class, 105);
+        kryo.register(LinkedHashMap.class, 106);
+        kryo.register(LocalDateTime.class, 107);
+        // Spring 以单例判断空值，反序列化时必须返回同一个实例
+        kryo.register(NullValue.class, new Serializer<Object>() {
+            @Override
+            public void write(Kryo kryo, Output output, Object object) {
+            }
+
+            @Override
+            public Object read(Kryo kryo, Input input, Class<?> type) {
+                return NullValue.INSTANCE;
+            }
+        }, 108);
+        kryo.register(RefreshAheadValue.class, 120);
+        kryo.register(BookInfoRespDto.class, 121);
+        kryo.register(BookRankRespDto.class, 122);
+        kryo.register(BookChapterCatalogDto.class, 123);
+        kryo.register(BookDimensionRankDto.class, 124);
+        kryo.register(AuthorInfoDto.class, 125);
+        return kryo;
+    }
+}
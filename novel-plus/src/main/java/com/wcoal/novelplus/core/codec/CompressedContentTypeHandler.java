@@ -0,0 +1,57 @@
+package com.wcoal.novelplus.core.codec;
+
+import org.apache.ibatis.type.BaseTypeHandler;
+import org.apache.ibatis.type.JdbcType;
+import org.apache.ibatis.type.TypeHandlerRegistry;
+
+import java.sql.CallableStatement;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * 小说内容压缩 TypeHandler
+ * 写入时按配置压缩，读取时自动解压（兼容历史未压缩数据）
+ * 持有 Spring 管理的编解码器，由 {@link #register} 把实例登记到 MyBatis，
+ * {@code @TableField(typeHandler = CompressedContentTypeHandler.class)} 引用时使用该实例
+ *
+ * @author wcoal
+ * @since 2025-12-02
+ */
+public class CompressedContentTypeHandler extends BaseTypeHandler<String> {
+
+    private final ContentCodec contentCodec;
+
+    public CompressedContentTypeHandler(ContentCodec contentCodec) {
+        this.contentCodec = contentCodec;
+    }
+
+    /**
+     * 只按处理器类型登记实例，不关联 Java 类型，其他 String 字段仍使用默认的 TypeHandler
+     */
+    public static void register(TypeHandlerRegistry registry, ContentCodec contentCodec) {
+        registry.register((Class<String>) null, null, new CompressedContentTypeHandler(contentCodec));
+    }
+
+    @Override
+    public void setNonNullParameter(PreparedStatement ps, int i, String parameter, JdbcType jdbcType)
+            throws SQLException {
+        ps.setString(i, contentCodec.encodeColumn(parameter));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, String columnName) throws SQLException {
+        return contentCodec.decodeColumn(rs.getString(columnName));
+    }
+
+    @Override
+    public String getNullableResult(ResultSet rs, int columnIndex) throws SQLException {
+        return contentCodec.decodeColumn(rs.getString(columnIndex));
+    }
+
+    @Override
+    public String getNullableResult(CallableStatement cs, int columnIndex) throws SQLException {
+        return contentCodec.decodeColumn(cs.getString(columnIndex));
+    }
+
+}
@@ -0,0 +1,191 @@
+package com.wcoal.novelplus.core.codec;
+
+import com.wcoal.novelplus.core.config.ContentCodecProperties;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * 小说内容编解码器
+ * <p>
+ * 二进制格式（Redis 缓存值）：[1 字节头][负载]，头部高 4 位为格式版本，低 4 位为压缩算法。
+ * 数据库列格式：未压缩时直接存原文（兼容历史数据）；压缩时存 MARKER + Base64(二进制格式)。
+ * 解码时同时兼容历史的未压缩原文，对调用方透明。
+ * <p>
+ * 内容列是 TEXT，压缩结果要经 Base64 转成文本，体积为二进制的 4/3：压缩后字节数为原文 UTF-8 字节数的 r 倍时，
+ * 列值约为原文的 4r/3，r 超过 3/4 时反而变大，这种内容直接存原文，列值不会比原文大。
+ * 改用 BLOB 列可以省掉 Base64 的开销，但要变更表结构、迁移全部历史数据，列值也不能再直接当文本查看，
+ * 暂不采用；实际压缩率和 Base64 后的节省量见压缩迁移任务（BookContentCompressJob）输出的统计。
+ *
+ * @author wcoal
+ * @since 2025-12-02
+ */
+@Component
+public class ContentCodec {
+
+    /**
+     * 数据库列中压缩内容的标记字符（正常文本不会以该控制字符开头）
+     */
+    public static final char COLUMN_MARKER = '\u0001';
+
+    /**
+     * 当前格式版本
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * 算法：不压缩
+     */
+    private static final int ALGORITHM_NONE = 0;
+
+    /**
+     * 算法：deflate
+     */
+    private static final int ALGORITHM_DEFLATE = 1;
+
+    private final int algorithm;
+
+    private final int level;
+
+    private final int minLength;
+
+    public ContentCodec(ContentCodecProperties properties) {
+        this.algorithm = "NONE".equalsIgnoreCase(properties.getAlgorithm()) ? ALGORITHM_NONE : ALGORITHM_DEFLATE;
+        this.level = properties.getLevel();
+        this.minLength = properties.getMinLength();
+    }
+
+    /**
+     * 编码为二进制格式
+     */
+    public byte[] encode(String content) {
+        if (content == null) {
+            return null;
+        }
+        byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+        if (algorithm == ALGORITHM_NONE || content.length() < minLength) {
+            return withHeader(ALGORITHM_NONE, raw);
+        }
+        return deflate(raw);
+    }
+
+    private byte[] deflate(byte[] raw) {
+        Deflater deflater = new Deflater(level, true);
+        try {
+            deflater.setInput(raw);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 2 + 16);
+            out.write(header(ALGORITHM_DEFLATE));
+            byte[] buffer = new byte[8192];
+            while (!deflater.finished()) {
+                int len = deflater.deflate(buffer);
+                out.write(buffer, 0, len);
+            }
+            return out.toByteArray();
+        } finally {
+            deflater.end();
+        }
+    }
+
+    /**
+     * 从二进制格式解码
+     */
+    public String decode(byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        if (data.length == 0) {
+            return "";
+        }
+        int version = (data[0] & 0xF0) >>> 4;
+        int algo = data[0] & 0x0F;
+        if (version != VERSION) {
+            throw new IllegalStateException("不支持的小说内容编码版本: " + version);
+        }
+        if (algo == ALGORITHM_NONE) {
+            return new String(data, 1, data.length - 1, StandardCharsets.UTF_8);
+        }
+        if (algo == ALGORITHM_DEFLATE) {
+            return new String(inflate(data), StandardCharsets.UTF_8);
+        }
+        throw new IllegalStateException("不支持的小说内容压缩算法: " + algo);
+    }
+
+    /**
+     * 编码为数据库列值
+     */
+    public String encodeColumn(String content) {
+        if (content == null) {
+            return null;
+        }
+        if (algorithm != ALGORITHM_NONE && content.length() >= minLength) {
+            byte[] raw = content.getBytes(StandardCharsets.UTF_8);
+            byte[] compressed = deflate(raw);
+            // 标记字符 + Base64 后不小于原文时不压缩
+            if (1 + (compressed.length + 2) / 3 * 4 < raw.length) {
+                return COLUMN_MARKER + Base64.getEncoder().encodeToString(compressed);
+            }
+        }
+        if (!content.isEmpty() && content.charAt(0) == COLUMN_MARKER) {
+            // 原文恰好以标记字符开头时，以未压缩的二进制格式存储，避免解码歧义
+            return COLUMN_MARKER + Base64.getEncoder().encodeToString(
+                    withHeader(ALGORITHM_NONE, content.getBytes(StandardCharsets.UTF_8)));
+        }
+        return content;
+    }
+
+    /**
+     * 从数据库列值解码（兼容历史未压缩数据）
+     */
+    public String decodeColumn(String column) {
+        if (!isEncodedColumn(column)) {
+            return column;
+        }
+        return decode(Base64.getDecoder().decode(column.substring(1)));
+    }
+
+    /**
+     * 数据库列值是否为编码后的内容
+     */
+    public boolean isEncodedColumn(String column) {
+        return column != null && !column.isEmpty() && column.charAt(0) == COLUMN_MARKER;
+    }
+
+    private byte[] inflate(byte[] data) {
+        Inflater inflater = new Inflater(true);
+        try {
+            inflater.setInput(data, 1, data.length - 1);
+            ByteArrayOutputStream out = new ByteArrayOutputStream(data.length * 3);
+            byte[] buffer = new byte[8192];
+            while (!inflater.finished()) {
+                int len = inflater.inflate(buffer);
+                if (len == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                out.write(buffer, 0, len);
+            }
+            return out.toByteArray();
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("小说内容解压失败", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private static byte header(int algo) {
+        return (byte) ((VERSION << 4) | algo);
+    }
+
+    private static byte[] withHeader(int algo, byte[] payload) {
+        byte[] data = new byte[payload.length + 1];
+        data[0] = header(algo);
+        System.arraycopy(payload, 0, data, 1, payload.length);
+        return data;
+    }
+
+}
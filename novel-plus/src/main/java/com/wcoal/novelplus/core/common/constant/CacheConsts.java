@@ -24,6 +24,11 @@ public class CacheConsts {
      */
     public static final String REDIS_CACHE_MANAGER = "redisCacheManager";
 
+    /**
+     * 二级缓存管理器（本地 + Redis）
+     */
+    public static final String TWO_LEVEL_CACHE_MANAGER = "twoLevelCacheManager";
+
     /**
      * 首页小说推荐缓存
      */
@@ -49,6 +54,11 @@ public class CacheConsts {
      */
     public static final String BOOK_UPDATE_RANK_CACHE_NAME = "bookUpdateRankCache";
 
+    /**
+     * 小说分类/作品方向排行榜缓存
+     */
+    public static final String BOOK_DIMENSION_RANK_CACHE_NAME = "bookDimensionRankCache";
+
     /**
      * 小说分类列表缓存
      */
@@ -64,6 +74,11 @@ public class CacheConsts {
      */
     public static final String BOOK_CHAPTER_CACHE_NAME = "bookChapterCache";
 
+    /**
+     * 小说章节目录缓存
+     */
+    public static final String BOOK_CHAPTER_CATALOG_CACHE_NAME = "bookChapterCatalogCache";
+
     /**
      * 小说内容缓存
      */
@@ -79,6 +94,11 @@ public class CacheConsts {
      */
     public static final String LAST_UPDATE_BOOK_ID_LIST_CACHE_NAME = "lastUpdateBookIdListCache";
 
+    /**
+     * 不存在的小说/章节ID缓存（负缓存）
+     */
+    public static final String MISSING_ID_CACHE_NAME = "missingIdCache";
+
     /**
      * 图片验证码缓存 KEY
      */
@@ -105,6 +125,11 @@ public class CacheConsts {
      */
     public static final String COMMENT_LIKE_STATUS_CACHE_NAME = "commentLikeStatusCache";
 
+    /**
+     * 小说评论第一页缓存
+     */
+    public static final String BOOK_COMMENT_FIRST_PAGE_CACHE_NAME = "bookCommentFirstPageCache";
+
     /**
      * 缓存配置常量
      */
@@ -114,22 +139,28 @@ public class CacheConsts {
 
         LATEST_NEWS_CACHE(0, LATEST_NEWS_CACHE_NAME, 60 * 10, 1),
 
-        BOOK_VISIT_RANK_CACHE(2, BOOK_VISIT_RANK_CACHE_NAME, 60 * 60 * 6, 1),
+        BOOK_VISIT_RANK_CACHE(2, BOOK_VISIT_RANK_CACHE_NAME, 60 * 60 * 6, 1, 60 * 60),
 
-        BOOK_NEWEST_RANK_CACHE(0, BOOK_NEWEST_RANK_CACHE_NAME, 60 * 30, 1),
+        BOOK_NEWEST_RANK_CACHE(0, BOOK_NEWEST_RANK_CACHE_NAME, 60 * 30, 1, 60 * 10),
 
-        BOOK_UPDATE_RANK_CACHE(0, BOOK_UPDATE_RANK_CACHE_NAME, 60 * 30, 1),
+        BOOK_UPDATE_RANK_CACHE(0, BOOK_UPDATE_RANK_CACHE_NAME, 60 * 30, 1, 60 * 10),
+
+        BOOK_DIMENSION_RANK_CACHE(1, BOOK_DIMENSION_RANK_CACHE_NAME, 60 * 60, 1),
 
         BOOK_CATEGORY_LIST_CACHE(0, BOOK_CATEGORY_LIST_CACHE_NAME, 0, 2),
 
-        BOOK_INFO_CACHE(0, BOOK_INFO_CACHE_NAME, 60 * 60 * 18, 500),
+        BOOK_INFO_CACHE(1, BOOK_INFO_CACHE_NAME, 60 * 60 * 18, 500, 60 * 60 * 12),
 
         BOOK_CHAPTER_CACHE(0, BOOK_CHAPTER_CACHE_NAME, 60 * 60 * 6, 5000),
 
-        BOOK_CONTENT_CACHE(2, BOOK_CONTENT_CACHE_NAME, 60 * 60 * 12, 3000),
+        BOOK_CHAPTER_CATALOG_CACHE(1, BOOK_CHAPTER_CATALOG_CACHE_NAME, 60 * 60 * 6, 1000),
+
+        BOOK_CONTENT_CACHE(1, BOOK_CONTENT_CACHE_NAME, 60 * 60 * 12, 3000),
 
         BOOK_VISIT_COUNT_CACHE(2, BOOK_VISIT_COUNT_CACHE_NAME, 60, 1),
 
+        MISSING_ID_CACHE(1, MISSING_ID_CACHE_NAME, 60, 10000),
+
         LAST_UPDATE_BOOK_ID_LIST_CACHE(1, LAST_UPDATE_BOOK_ID_LIST_CACHE_NAME, 60 * 60, 10),
 
         USER_INFO_CACHE(2, USER_INFO_CACHE_NAME, 60 * 60 * 24, 10000),
@@ -138,7 +169,9 @@ public class CacheConsts {
 
         COMMENT_LIKE_COUNT_CACHE(2, COMMENT_LIKE_COUNT_CACHE_NAME, 60 * 60 * 24 * 7, 10000),
 
-        COMMENT_LIKE_STATUS_CACHE(2, COMMENT_LIKE_STATUS_CACHE_NAME, 60 * 60 * 24 * 7, 50000);
+        COMMENT_LIKE_STATUS_CACHE(2, COMMENT_LIKE_STATUS_CACHE_NAME, 60 * 60 * 24 * 7, 50000),
+
+        BOOK_COMMENT_FIRST_PAGE_CACHE(1, BOOK_COMMENT_FIRST_PAGE_CACHE_NAME, 60 * 30, 1000);
 
         /**
          * 缓存类型 0-本地 1-本地和远程 2-远程
@@ -153,15 +186,24 @@ public class CacheConsts {
          */
         private int ttl;
         /**
-         * 最大容量
+         * 最大容量（条数），在 novel-plus.cache-sizing.max-bytes 中配置了字节预算的本地缓存以字节预算为准
          */
         private int maxSize;
+        /**
+         * 软过期时间（秒），超过后继续返回旧值并在后台刷新 0-不提前刷新
+         */
+        private int softTtl;
 
         CacheEnum(int type, String name, int ttl, int maxSize) {
+            this(type, name, ttl, maxSize, 0);
+        }
+
+        CacheEnum(int type, String name, int ttl, int maxSize, int softTtl) {
             this.type = type;
             this.name = name;
             this.ttl = ttl;
             this.maxSize = maxSize;
+            this.softTtl = softTtl;
         }
 
         public boolean isLocal() {
@@ -172,6 +214,10 @@ public class CacheConsts {
             return type >= 1;
         }
 
+        public boolean isTwoLevel() {
+            return type == 1;
+        }
+
         public String getName() {
             return name;
         }
@@ -184,6 +230,14 @@ public class CacheConsts {
             return maxSize;
         }
 
+        public int getSoftTtl() {
+            return softTtl;
+        }
+
+        public boolean isRefreshAhead() {
+            return softTtl > 0;
+        }
+
     }
 
 }
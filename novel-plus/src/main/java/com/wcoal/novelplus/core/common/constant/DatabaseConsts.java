@@ -76,6 +76,8 @@ public class DatabaseConsts {
             throw new IllegalStateException(SystemConfigConsts.CONST_INSTANCE_EXCEPTION_MSG);
         }
 
+        public static final String COLUMN_WORK_DIRECTION = "work_direction";
+
         public static final String COLUMN_CATEGORY_ID = "category_id";
 
         public static final String COLUMN_BOOK_NAME = "book_name";
@@ -103,6 +105,10 @@ public class DatabaseConsts {
 
         public static final String COLUMN_CHAPTER_NUM = "chapter_num";
 
+        public static final String COLUMN_CHAPTER_NAME = "chapter_name";
+
+        public static final String COLUMN_IS_VIP = "is_vip";
+
         public static final String COLUMN_LAST_CHAPTER_UPDATE_TIME = "last_chapter_update_time";
 
     }
@@ -0,0 +1,24 @@
+package com.wcoal.novelplus.core.common.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 小说排行榜类型枚举
+ *
+ * @author wcoal
+ * @since 2025-12-09
+ */
+@Getter
+@AllArgsConstructor
+public enum BookRankTypeEnum {
+
+    VISIT("点击榜"),
+    UPDATE("更新榜"),
+    NEWEST("新书榜");
+
+    /**
+     * 中文描述
+     */
+    private final String desc;
+}
@@ -144,6 +144,11 @@ public enum ErrorCodeEnum {
      */
     COMMENT_NOT_LIKED("A2006", "您还未点赞该评论"),
 
+    /**
+     * 评论内容包含敏感词
+     */
+    USER_COMMENT_SENSITIVE("A2007", "评论内容包含敏感词"),
+
     /**
      * 作家发布异常
      */
@@ -159,6 +164,11 @@ public enum ErrorCodeEnum {
      */
     AUTHOR_BOOK_NOT_EXIST("A3002", "小说不存在"),
 
+    /**
+     * 发布内容包含敏感词
+     */
+    AUTHOR_CONTENT_SENSITIVE("A3003", "发布内容包含敏感词"),
+
     /**
      * 用户上传文件异常
      */
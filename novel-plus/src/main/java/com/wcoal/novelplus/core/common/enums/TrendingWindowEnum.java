@@ -0,0 +1,29 @@
+package com.wcoal.novelplus.core.common.enums;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+/**
+ * 小说热榜统计窗口枚举
+ *
+ * @author wcoal
+ * @since 2025-12-07
+ */
+@Getter
+@AllArgsConstructor
+public enum TrendingWindowEnum {
+
+    HOUR("最近1小时", 60),
+    DAY("最近24小时", 60 * 5),
+    WEEK("最近7天", 60 * 30);
+
+    /**
+     * 中文描述
+     */
+    private final String desc;
+
+    /**
+     * 合并结果缓存时间（秒）
+     */
+    private final int resultTtl;
+}
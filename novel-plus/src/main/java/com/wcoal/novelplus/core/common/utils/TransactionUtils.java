@@ -0,0 +1,52 @@
+package com.wcoal.novelplus.core.common.utils;
+
+import lombok.experimental.UtilityClass;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * 事务工具类
+ * <p>
+ * 事务提交后的回调注册在 afterCompletion(STATUS_COMMITTED) 上，而不是 afterCommit：
+ * Spring 执行 afterCommit 时事务同步仍处于激活状态，回调中再注册的同步（事务感知的 Redis 缓存失效、
+ * 失效广播等）会被加入一个不再执行的列表而被静默丢弃；执行 afterCompletion 前事务同步已清除，
+ * 回调中的缓存操作会直接执行。
+ *
+ * @author wcoal
+ * @since 2025-12-26
+ */
+@UtilityClass
+public class TransactionUtils {
+
+    /**
+     * 事务提交后执行，不在事务中时立即执行；事务回滚时不执行
+     *
+     * @param action 要执行的操作
+     */
+    public void afterCommit(Runnable action) {
+        if (!afterCommitIfInTransaction(action)) {
+            action.run();
+        }
+    }
+
+    /**
+     * 处于事务中时登记为事务提交后执行
+     *
+     * @param action 要执行的操作
+     * @return 已登记返回 true，不在事务中时不执行并返回 false
+     */
+    public boolean afterCommitIfInTransaction(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return false;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                if (status == STATUS_COMMITTED) {
+                    action.run();
+                }
+            }
+        });
+        return true;
+    }
+}
@@ -1,22 +1,40 @@
 package com.wcoal.novelplus.core.config;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wcoal.novelplus.core.cache.InvalidationBroadcastingCache;
+import com.wcoal.novelplus.core.cache.JitteredExpiry;
+import com.wcoal.novelplus.core.cache.ObjectSizeEstimator;
+import com.wcoal.novelplus.core.cache.RefreshAheadCache;
+import com.wcoal.novelplus.core.cache.SingleFlightCache;
+import com.wcoal.novelplus.core.cache.SingleFlightMetrics;
+import com.wcoal.novelplus.core.cache.TwoLevelCache;
+import com.wcoal.novelplus.core.codec.CacheValueSerializer;
 import com.wcoal.novelplus.core.common.constant.CacheConsts;
+import com.wcoal.novelplus.core.mq.CacheInvalidationProducer;
+import org.redisson.api.RedissonClient;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.caffeine.CaffeineCache;
 import org.springframework.cache.support.SimpleCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
+import org.springframework.data.redis.cache.CacheStatisticsCollector;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.cache.RedisCacheWriter;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
 
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 
 /**
  * <p>
@@ -29,25 +47,70 @@ import java.util.List;
 @Configuration
 public class CacheConfig {
 
+    /**
+     * 缓存后台刷新线程池
+     * 刷新是尽力而为的，队列满时直接丢弃（旧值仍可用）
+     */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolExecutor cacheRefreshExecutor() {
+        return new ThreadPoolExecutor(2, 4, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(256),
+                r -> {
+                    Thread thread = new Thread(r, "cache-refresh");
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.DiscardPolicy());
+    }
+
     /**
      * caffeine缓存管理器
+     * 开启失效广播时，本地缓存的 evict/clear 会同步到集群中的其他节点；
+     * 开启合并加载时，同一 key 并发未命中只回源一次；配置了软过期时间的纯本地缓存提前在后台刷新；
+     * 配置了字节预算的缓存按估算的对象大小限制容量
      * @return caffeine缓存管理器
      */
     @Bean
     @Primary
-    public CacheManager caffeineCacheManager() {
+    public CacheManager caffeineCacheManager(CacheInvalidationProperties invalidationProperties,
+                                             CacheInvalidationProducer cacheInvalidationProducer,
+                                             CacheSingleFlightProperties singleFlightProperties,
+                                             SingleFlightMetrics singleFlightMetrics,
+                                             CacheSizingProperties sizingProperties,
+                                             CacheExpiryProperties expiryProperties,
+                                             @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor) {
         SimpleCacheManager cacheManager = new SimpleCacheManager();
 
-        List<CaffeineCache> caches = new ArrayList<>(CacheConsts.CacheEnum.values().length);
+        List<Cache> caches = new ArrayList<>(CacheConsts.CacheEnum.values().length);
 
         for (var c : CacheConsts.CacheEnum.values()) {
             if (c.isLocal()) {
-                Caffeine<Object, Object> caffeine = Caffeine.newBuilder().recordStats()
-                        .maximumSize(c.getMaxSize());
+                Caffeine<Object, Object> caffeine = Caffeine.newBuilder().recordStats();
+                long budget = sizingProperties.budgetOf(c.getName());
+                if (budget > 0) {
+                    // 按估算的对象大小限制容量，条数限制不再生效
+                    caffeine.maximumWeight(budget).weigher(CacheConfig::weigh);
+                } else {
+                    caffeine.maximumSize(c.getMaxSize());
+                }
                 if (c.getTtl() > 0) {
-                    caffeine.expireAfterWrite(Duration.ofSeconds(c.getTtl()));
+                    // 每个条目的过期时间随机浮动，避免同一批写入同时过期
+                    caffeine.expireAfter(new JitteredExpiry(Duration.ofSeconds(c.getTtl()),
+                            expiryProperties.getJitterPercent()));
                 }
-                caches.add(new CaffeineCache(c.getName(), caffeine.build()));
+                Cache cache = new CaffeineCache(c.getName(), caffeine.build());
+                if (singleFlightProperties.isEnabled()) {
+                    cache = SingleFlightCache.local(cache, singleFlightProperties, singleFlightMetrics);
+                }
+                // 二级缓存的提前刷新由二级缓存管理器在外层处理，L1 只保存包装后的值
+                if (c.isRefreshAhead() && !c.isTwoLevel()) {
+                    cache = refreshAhead(cache, c, expiryProperties, cacheRefreshExecutor);
+                }
+                // 失效广播装饰器必须在最外层，失效消息消费者按类型查找它
+                if (invalidationProperties.isEnabled()) {
+                    cache = new InvalidationBroadcastingCache(cache, cacheInvalidationProducer);
+                }
+                caches.add(cache);
             }
         }
         cacheManager.setCaches(caches);
@@ -56,37 +119,121 @@ public class CacheConfig {
 
     /**
      * redis缓存管理器
+     * 开启合并加载时，同一 key 未命中在集群内只回源一次；配置了软过期时间的纯远程缓存提前在后台刷新
      * @return redis缓存管理器
      */
     @Bean
-    public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory) {
+    public CacheManager redisCacheManager(RedisConnectionFactory connectionFactory,
+                                          CacheSingleFlightProperties singleFlightProperties,
+                                          SingleFlightMetrics singleFlightMetrics,
+                                          RedissonClient redissonClient,
+                                          CacheExpiryProperties expiryProperties,
+                                          CacheValueSerializer cacheValueSerializer,
+                                          @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor) {
 
-        RedisCacheWriter redisCacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory);
+        // 开启统计，供缓存指标（命中、未命中、写入、删除）使用
+        RedisCacheWriter redisCacheWriter = RedisCacheWriter.nonLockingRedisCacheWriter(connectionFactory)
+                .withStatisticsCollector(CacheStatisticsCollector.create());
 
         //作用：设置默认缓存配置
+        //serializeValuesWith：缓存值使用紧凑二进制序列化（兼容读取 JDK 序列化的旧数据）
         //disableCachingNullValues：禁用缓存null值
         //prefixCacheNameWith：为缓存名称添加前缀
-        RedisCacheConfiguration defaultCacheConfig = RedisCacheConfiguration.defaultCacheConfig()
-                .disableCachingNullValues().prefixCacheNameWith(CacheConsts.REDIS_CACHE_PREFIX);
+        RedisCacheConfiguration baseCacheConfig = RedisCacheConfiguration.defaultCacheConfig()
+                .serializeValuesWith(RedisSerializationContext.SerializationPair.fromSerializer(cacheValueSerializer))
+                .prefixCacheNameWith(CacheConsts.REDIS_CACHE_PREFIX);
+        RedisCacheConfiguration defaultCacheConfig = baseCacheConfig.disableCachingNullValues();
 
         LinkedHashMap<String, RedisCacheConfiguration> cacheMap = new LinkedHashMap<>(CacheConsts.CacheEnum.values().length);//初始化缓存映射表
         for (var c : CacheConsts.CacheEnum.values()) {
             if(c.isRemote()) {
-                if (c.getTtl() > 0) {//如果缓存过期时间大于0，设置缓存过期时间
+                if (c.getTtl() > 0) {//如果缓存过期时间大于0，设置缓存过期时间（每次写入随机浮动）
+                    Duration ttl = Duration.ofSeconds(c.getTtl());
                     cacheMap.put(c.getName(),
-                            RedisCacheConfiguration.defaultCacheConfig().disableCachingNullValues()
-                                    .prefixCacheNameWith(CacheConsts.REDIS_CACHE_PREFIX)
-                                    .entryTtl(Duration.ofSeconds(c.getTtl())));
+                            defaultCacheConfig.entryTtl((key, value) -> JitteredExpiry.jitter(ttl,
+                                            expiryProperties.getJitterPercent())));
                 } else {//如果缓存过期时间不大于0，使用默认缓存配置
-                    cacheMap.put(c.getName(),
-                            RedisCacheConfiguration.defaultCacheConfig()
-                                    .prefixCacheNameWith(CacheConsts.REDIS_CACHE_PREFIX));
+                    cacheMap.put(c.getName(), baseCacheConfig);
                 }
             }
         }
-        RedisCacheManager redisCacheManager = new RedisCacheManager(redisCacheWriter, defaultCacheConfig, cacheMap);//初始化redis缓存管理器
+        RedisCacheManager redisCacheManager = new RedisCacheManager(redisCacheWriter, defaultCacheConfig, cacheMap) {
+            @Override
+            protected Cache decorateCache(Cache cache) {
+                Cache decorated = super.decorateCache(cache);
+                if (singleFlightProperties.isEnabled()) {
+                    decorated = SingleFlightCache.distributed(decorated, singleFlightProperties, singleFlightMetrics,
+                            redissonClient);
+                }
+                CacheConsts.CacheEnum c = findCacheEnum(cache.getName());
+                if (c != null && c.isRefreshAhead() && !c.isLocal()) {
+                    decorated = refreshAhead(decorated, c, expiryProperties, cacheRefreshExecutor);
+                }
+                return decorated;
+            }
+        };//初始化redis缓存管理器
         redisCacheManager.setTransactionAware(true);//设置事务感知，开启事务时，会将缓存操作放入事务中
         redisCacheManager.initializeCaches();//初始化缓存
         return redisCacheManager;
     }
+
+    /**
+     * 二级缓存管理器
+     * 类型为本地和远程的缓存组合为 L1 Caffeine + L2 Redis，其余缓存直接使用对应的单级缓存
+     * @return 二级缓存管理器
+     */
+    @Bean
+    public CacheManager twoLevelCacheManager(@Qualifier(CacheConsts.CAFFEINE_CACHE_MANAGER) CacheManager caffeineCacheManager,
+                                             @Qualifier(CacheConsts.REDIS_CACHE_MANAGER) CacheManager redisCacheManager,
+                                             CacheSingleFlightProperties singleFlightProperties,
+                                             SingleFlightMetrics singleFlightMetrics,
+                                             RedissonClient redissonClient,
+                                             CacheExpiryProperties expiryProperties,
+                                             @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor) {
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+
+        List<Cache> caches = new ArrayList<>(CacheConsts.CacheEnum.values().length);
+        for (var c : CacheConsts.CacheEnum.values()) {
+            if (c.isTwoLevel()) {
+                Cache cache = new TwoLevelCache(c.getName(), caffeineCacheManager.getCache(c.getName()),
+                        redisCacheManager.getCache(c.getName()));
+                if (singleFlightProperties.isEnabled()) {
+                    // 在二级缓存外层合并：L1、L2 都未命中时才抢占租约回源
+                    cache = SingleFlightCache.distributed(cache, singleFlightProperties, singleFlightMetrics,
+                            redissonClient);
+                }
+                if (c.isRefreshAhead()) {
+                    cache = refreshAhead(cache, c, expiryProperties, cacheRefreshExecutor);
+                }
+                caches.add(cache);
+            } else if (c.isLocal()) {
+                caches.add(caffeineCacheManager.getCache(c.getName()));
+            } else {
+                caches.add(redisCacheManager.getCache(c.getName()));
+            }
+        }
+        cacheManager.setCaches(caches);
+        return cacheManager;
+    }
+
+    private static RefreshAheadCache refreshAhead(Cache cache, CacheConsts.CacheEnum c,
+                                                  CacheExpiryProperties expiryProperties, Executor executor) {
+        double beta = expiryProperties.isEarlyExpiration() ? expiryProperties.getBeta() : 0;
+        return new RefreshAheadCache(cache, c.getSoftTtl() * 1000L, expiryProperties.getJitterPercent(), beta,
+                executor);
+    }
+
+    private static int weigh(Object key, Object value) {
+        long size = ObjectSizeEstimator.estimate(key) + ObjectSizeEstimator.estimate(value);
+        return (int) Math.max(1, Math.min(Integer.MAX_VALUE, size));
+    }
+
+    private static CacheConsts.CacheEnum findCacheEnum(String name) {
+        for (var c : CacheConsts.CacheEnum.values()) {
+            if (c.getName().equals(name)) {
+                return c;
+            }
+        }
+        return null;
+    }
 }
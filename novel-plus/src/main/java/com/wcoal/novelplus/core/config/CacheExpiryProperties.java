@@ -0,0 +1,33 @@
+package com.wcoal.novelplus.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 缓存过期时间打散配置
+ *
+ * @author wcoal
+ * @since 2025-12-15
+ */
+@Component
+@ConfigurationProperties(prefix = "novel-plus.cache-expiry")
+@Data
+public class CacheExpiryProperties {
+
+    /**
+     * 过期时间随机浮动百分比（±），同一批写入的缓存不会同时过期，0-不浮动
+     */
+    private double jitterPercent = 10;
+
+    /**
+     * 是否开启概率提前刷新（XFetch），只对配置了软过期时间的缓存生效
+     */
+    private boolean earlyExpiration = false;
+
+    /**
+     * 提前刷新系数，越大越早刷新，1.0 为推荐值
+     */
+    private double beta = 1.0;
+
+}
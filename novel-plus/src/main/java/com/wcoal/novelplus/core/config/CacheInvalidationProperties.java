@@ -0,0 +1,33 @@
+package com.wcoal.novelplus.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 本地缓存集群失效广播配置
+ *
+ * @author wcoal
+ * @since 2025-12-03
+ */
+@Component
+@ConfigurationProperties(prefix = "novel-plus.cache-invalidation")
+@Data
+public class CacheInvalidationProperties {
+
+    /**
+     * 是否开启本地缓存失效广播（单节点部署可关闭）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 失效消息合并发送间隔（毫秒）
+     */
+    private long flushInterval = 50;
+
+    /**
+     * 单个缓存一批最多广播的 key 数量，超过后改为广播清空整个缓存
+     */
+    private int maxKeysPerCache = 500;
+
+}
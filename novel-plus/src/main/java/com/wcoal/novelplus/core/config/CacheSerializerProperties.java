@@ -0,0 +1,28 @@
+package com.wcoal.novelplus.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Redis 缓存值序列化配置
+ *
+ * @author wcoal
+ * @since 2025-12-16
+ */
+@Component
+@ConfigurationProperties(prefix = "novel-plus.cache-serializer")
+@Data
+public class CacheSerializerProperties {
+
+    /**
+     * 写入格式：JDK-JDK 序列化 KRYO-Kryo 紧凑二进制（读取时按数据头自动识别，两种格式可随时切换）
+     */
+    private String format = "KRYO";
+
+    /**
+     * Kryo 实例池大小
+     */
+    private int poolSize = 16;
+
+}
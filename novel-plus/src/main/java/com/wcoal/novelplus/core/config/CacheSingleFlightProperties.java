@@ -0,0 +1,43 @@
+package com.wcoal.novelplus.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 缓存未命中合并加载（single-flight）配置
+ *
+ * @author wcoal
+ * @since 2025-12-10
+ */
+@Component
+@ConfigurationProperties(prefix = "novel-plus.cache-single-flight")
+@Data
+public class CacheSingleFlightProperties {
+
+    /**
+     * 是否开启合并加载
+     */
+    private boolean enabled = true;
+
+    /**
+     * 是否开启跨节点合并（Redis 远程缓存、二级缓存未命中时先抢占分布式租约再回源）
+     */
+    private boolean distributed = true;
+
+    /**
+     * 同一节点内等待其他线程加载结果的最长时间（毫秒），超时后自行回源
+     */
+    private long waitTimeout = 3000;
+
+    /**
+     * 等待分布式租约的最长时间（毫秒），超时后重新读取缓存，仍未命中则自行回源
+     */
+    private long leaseWait = 500;
+
+    /**
+     * 分布式租约时长（毫秒），持有节点宕机时租约到期自动释放
+     */
+    private long leaseTime = 5000;
+
+}
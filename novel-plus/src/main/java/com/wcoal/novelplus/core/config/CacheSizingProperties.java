@@ -0,0 +1,59 @@
+package com.wcoal.novelplus.core.config;
+
+import com.wcoal.novelplus.core.common.constant.CacheConsts;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 本地缓存容量配置
+ * 配置了字节预算的本地缓存按估算的对象大小（maximumWeight）限制容量，其余缓存仍按条数限制
+ *
+ * @author wcoal
+ * @since 2025-12-13
+ */
+@Component
+@ConfigurationProperties(prefix = "novel-plus.cache-sizing")
+@Data
+public class CacheSizingProperties {
+
+    /**
+     * 各缓存的字节预算（缓存名 -> 预算），配置文件中的值与默认值合并
+     */
+    private Map<String, DataSize> maxBytes = new LinkedHashMap<>(Map.of(
+            CacheConsts.BOOK_INFO_CACHE_NAME, DataSize.ofMegabytes(32),
+            CacheConsts.BOOK_CHAPTER_CACHE_NAME, DataSize.ofMegabytes(16),
+            CacheConsts.BOOK_CHAPTER_CATALOG_CACHE_NAME, DataSize.ofMegabytes(32),
+            CacheConsts.BOOK_CONTENT_CACHE_NAME, DataSize.ofMegabytes(128)));
+
+    /**
+     * 本地缓存总预算占最大堆内存的百分比，大于0时总预算按各缓存的命中情况动态分配，0-不启用
+     */
+    private double heapPercent = 0;
+
+    /**
+     * 动态分配的调整间隔
+     */
+    private Duration rebalanceInterval = Duration.ofMinutes(5);
+
+    /**
+     * 动态分配时每个缓存至少保留的总预算比例
+     */
+    private double minShare = 0.05;
+
+    /**
+     * 获取缓存的字节预算
+     *
+     * @return 字节数，0-未配置（按条数限制）
+     */
+    public long budgetOf(String cacheName) {
+        DataSize size = maxBytes.get(cacheName);
+        return size == null ? 0 : size.toBytes();
+    }
+
+}
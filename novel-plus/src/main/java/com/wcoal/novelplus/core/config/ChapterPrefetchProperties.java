@@ -0,0 +1,52 @@
+package com.wcoal.novelplus.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 章节预取配置
+ *
+ * @author wcoal
+ * @since 2025-12-01
+ */
+@Component
+@ConfigurationProperties(prefix = "novel-plus.prefetch")
+@Data
+public class ChapterPrefetchProperties {
+
+    /**
+     * 是否开启章节预取
+     */
+    private boolean enabled = true;
+
+    /**
+     * 每次预取后续章节的数量
+     */
+    private int chapterCount = 2;
+
+    /**
+     * 同时执行预取任务的最大数量
+     */
+    private int maxConcurrency = 8;
+
+    /**
+     * 预取任务队列长度
+     */
+    private int queueCapacity = 512;
+
+    /**
+     * 队列已满时的拒绝策略：DISCARD-丢弃新任务 DISCARD_OLDEST-丢弃最早的任务，丢弃次数计入 rejected 指标
+     */
+    private RejectPolicy rejectPolicy = RejectPolicy.DISCARD_OLDEST;
+
+    /**
+     * 预取标记的保留时间（秒），用于统计预取命中率并避免重复预取
+     */
+    private int markTtl = 60 * 30;
+
+    public enum RejectPolicy {
+        DISCARD, DISCARD_OLDEST
+    }
+
+}
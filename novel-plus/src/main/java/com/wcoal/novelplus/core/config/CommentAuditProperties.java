@@ -0,0 +1,51 @@
+package com.wcoal.novelplus.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 评论审核消费配置
+ *
+ * @author wcoal
+ * @since 2025-12-21
+ */
+@Component
+@ConfigurationProperties(prefix = "novel-plus.comment-audit")
+@Data
+public class CommentAuditProperties {
+
+    /**
+     * 是否批量消费（关闭时逐条消费）
+     */
+    private boolean batchEnabled = true;
+
+    /**
+     * 每批最多消息数（同时作为预取数量）
+     */
+    private int batchSize = 50;
+
+    /**
+     * 单次取消息的空闲等待时间：超过该时间没有新消息时立即处理已收到的消息；
+     * 消息持续到达时每来一条都会重新计时，不能限制一批的总等待时间
+     */
+    private Duration receiveTimeout = Duration.ofMillis(200);
+
+    /**
+     * 凑批最长等待时间：从一批的第一条消息起算，到达后无论是否攒够 batchSize 都立即处理
+     */
+    private Duration batchTimeout = Duration.ofSeconds(1);
+
+    /**
+     * 批内并行审核线程数
+     */
+    private int parallelism = 4;
+
+    /**
+     * 单条消息最大重试次数，超过后转入死信队列
+     */
+    private int maxRetries = 3;
+
+}
@@ -0,0 +1,38 @@
+package com.wcoal.novelplus.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 评论点赞同步任务配置
+ *
+ * @author wcoal
+ * @since 2025-12-19
+ */
+@Component
+@ConfigurationProperties(prefix = "novel-plus.comment-like-sync")
+@Data
+public class CommentLikeSyncProperties {
+
+    /**
+     * 遍历待同步集合时每次 SSCAN 的 COUNT 参数
+     */
+    private int scanCount = 1000;
+
+    /**
+     * 每批同步的评论数量
+     */
+    private int chunkSize = 200;
+
+    /**
+     * 每条批量插入、删除、更新语句的最大行数
+     */
+    private int batchSize = 500;
+
+    /**
+     * 单个执行器内并行同步的批次数
+     */
+    private int parallelism = 4;
+
+}
@@ -0,0 +1,33 @@
+package com.wcoal.novelplus.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 小说内容压缩配置
+ *
+ * @author wcoal
+ * @since 2025-12-02
+ */
+@Component
+@ConfigurationProperties(prefix = "novel-plus.content-codec")
+@Data
+public class ContentCodecProperties {
+
+    /**
+     * 压缩算法：NONE-不压缩 DEFLATE-deflate 压缩
+     */
+    private String algorithm = "DEFLATE";
+
+    /**
+     * 压缩级别（1-9）
+     */
+    private int level = 6;
+
+    /**
+     * 小于该长度（字符数）的内容不压缩
+     */
+    private int minLength = 256;
+
+}
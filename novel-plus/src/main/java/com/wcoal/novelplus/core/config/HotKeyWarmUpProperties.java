@@ -0,0 +1,55 @@
+package com.wcoal.novelplus.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 热点 key 快照与启动预热配置
+ *
+ * @author wcoal
+ * @since 2025-12-14
+ */
+@Component
+@ConfigurationProperties(prefix = "novel-plus.hot-key-warm-up")
+@Data
+public class HotKeyWarmUpProperties {
+
+    /**
+     * 是否开启热点 key 快照与启动预热
+     */
+    private boolean enabled = true;
+
+    /**
+     * 快照间隔（首次快照在启动一个间隔后执行，避免刚启动时的冷数据覆盖快照）
+     */
+    private Duration snapshotInterval = Duration.ofMinutes(10);
+
+    /**
+     * 每个缓存最多快照的 key 数量
+     */
+    private int keysPerCache = 2000;
+
+    /**
+     * 预热并发数
+     */
+    private int concurrency = 4;
+
+    /**
+     * 预热时每批查询数据库的 key 数量
+     */
+    private int batchSize = 200;
+
+    /**
+     * 预热最长耗时，超时后不再等待，直接对外提供服务
+     */
+    private Duration timeout = Duration.ofSeconds(60);
+
+    /**
+     * 快照在 Redis 中的保留时间
+     */
+    private Duration snapshotTtl = Duration.ofDays(3);
+
+}
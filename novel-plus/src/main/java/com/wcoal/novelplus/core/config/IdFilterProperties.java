@@ -0,0 +1,43 @@
+package com.wcoal.novelplus.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 小说/章节ID存在性过滤器配置
+ *
+ * @author wcoal
+ * @since 2025-12-12
+ */
+@Component
+@ConfigurationProperties(prefix = "novel-plus.id-filter")
+@Data
+public class IdFilterProperties {
+
+    /**
+     * 是否开启布隆过滤器（关闭后只使用负缓存）
+     */
+    private boolean enabled = true;
+
+    /**
+     * 小说ID预期数量
+     */
+    private long bookExpectedInsertions = 1_000_000;
+
+    /**
+     * 章节ID预期数量
+     */
+    private long chapterExpectedInsertions = 20_000_000;
+
+    /**
+     * 误判率
+     */
+    private double falsePositiveProbability = 0.01;
+
+    /**
+     * 重建时每页读取的ID数量
+     */
+    private int rebuildPageSize = 5000;
+
+}
@@ -1,8 +1,11 @@
 package com.wcoal.novelplus.core.config;
 
+import com.baomidou.mybatisplus.autoconfigure.ConfigurationCustomizer;
 import com.baomidou.mybatisplus.core.handlers.MetaObjectHandler;
 import com.baomidou.mybatisplus.extension.plugins.MybatisPlusInterceptor;
 import com.baomidou.mybatisplus.extension.plugins.inner.PaginationInnerInterceptor;
+import com.wcoal.novelplus.core.codec.CompressedContentTypeHandler;
+import com.wcoal.novelplus.core.codec.ContentCodec;
 import org.apache.ibatis.reflection.MetaObject;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -22,6 +25,15 @@ public class MybatisPlusConfig {
         return mybatisPlusInterceptor;
     }
 
+    /**
+     * 登记小说内容压缩 TypeHandler（持有 Spring 管理的编解码器）
+     */
+    @Bean
+    public ConfigurationCustomizer contentTypeHandlerCustomizer(ContentCodec contentCodec) {
+        return configuration -> CompressedContentTypeHandler.register(configuration.getTypeHandlerRegistry(),
+                contentCodec);
+    }
+
     /**
      * 自动填充处理器
      */
@@ -14,8 +14,10 @@ import org.springframework.context.annotation.Configuration;
  * 
  * 功能说明：
  * 1. 配置评论审核队列、交换机、死信队列
- * 2. 配置消息序列化方式（JSON）
- * 3. 配置消息确认机制
+ * 2. 配置本地缓存失效广播交换机（扇出模式）
+ * 3. 配置消息序列化方式（JSON）
+ * 4. 配置消息确认机制
+ * 5. 配置评论审核批量消费
  * 
  * @author wcoal
  * @since 2025-10-10
@@ -72,6 +74,18 @@ public class RabbitMQConfig {
      */
     public static final String BOOKSHELF_PROGRESS_ROUTING_KEY = "bookshelf.progress";
 
+    // ==================== 本地缓存失效广播相关配置 ====================
+
+    /**
+     * 本地缓存失效广播交换机
+     */
+    public static final String CACHE_INVALIDATION_EXCHANGE = "novel.cache.invalidation.exchange";
+
+    /**
+     * 本地缓存失效临时队列名称前缀（每个节点一个队列）
+     */
+    public static final String CACHE_INVALIDATION_QUEUE_PREFIX = "novel.cache.invalidation.";
+
     /**
      * 声明评论审核队列
      * 配置死信交换机，当消息处理失败时转发到死信队列
@@ -159,6 +173,35 @@ public class RabbitMQConfig {
                 .with(BOOKSHELF_PROGRESS_ROUTING_KEY);
     }
 
+    // ==================== 本地缓存失效广播配置 ====================
+
+    /**
+     * 声明本地缓存失效队列
+     * 每个节点独占一个非持久化的临时队列，节点下线后自动删除
+     */
+    @Bean
+    public Queue cacheInvalidationQueue() {
+        return new AnonymousQueue(new Base64UrlNamingStrategy(CACHE_INVALIDATION_QUEUE_PREFIX));
+    }
+
+    /**
+     * 声明本地缓存失效交换机（扇出模式，广播到所有节点）
+     */
+    @Bean
+    public FanoutExchange cacheInvalidationExchange() {
+        return new FanoutExchange(CACHE_INVALIDATION_EXCHANGE, true, false);
+    }
+
+    /**
+     * 绑定本地缓存失效队列到交换机
+     */
+    @Bean
+    public Binding cacheInvalidationBinding() {
+        return BindingBuilder
+                .bind(cacheInvalidationQueue())
+                .to(cacheInvalidationExchange());
+    }
+
     // ==================== 消息转换器配置 ====================
 
     /**
@@ -211,5 +254,26 @@ public class RabbitMQConfig {
         factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
         return factory;
     }
+
+    /**
+     * 评论审核批量消费的监听器容器工厂
+     * 攒够 batchSize 条、receiveTimeout 内没有新消息或自第一条消息起超过 batchTimeout 时交给监听器处理，
+     * 预取数量与批大小一致
+     */
+    @Bean
+    public SimpleRabbitListenerContainerFactory commentAuditBatchContainerFactory(
+            ConnectionFactory connectionFactory, CommentAuditProperties properties) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        factory.setConnectionFactory(connectionFactory);
+        factory.setMessageConverter(messageConverter());
+        factory.setAcknowledgeMode(AcknowledgeMode.MANUAL);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(properties.getBatchSize());
+        factory.setPrefetchCount(properties.getBatchSize());
+        factory.setReceiveTimeout(properties.getReceiveTimeout().toMillis());
+        factory.setBatchReceiveTimeout(properties.getBatchTimeout().toMillis());
+        return factory;
+    }
 }
 
@@ -0,0 +1,47 @@
+package com.wcoal.novelplus.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 敏感词配置
+ *
+ * @author wcoal
+ * @since 2025-12-20
+ */
+@Component
+@ConfigurationProperties(prefix = "novel-plus.sensitive-word")
+@Data
+public class SensitiveWordProperties {
+
+    /**
+     * 词典文件位置（Spring Resource 路径，每行一个词，# 开头为注释），如 file:/data/novel/sensitive-words.txt
+     */
+    private String location = "classpath:sensitive-words.txt";
+
+    /**
+     * 词典文件之外额外追加的敏感词
+     */
+    private List<String> words = new ArrayList<>();
+
+    /**
+     * 评论、回复、书名等短文本是否忽略空白和标点（识别“傻 逼”“s.b”之类的写法）
+     */
+    private boolean ignoreSymbols = true;
+
+    /**
+     * 章节正文等长文本是否忽略空白和标点（长文本跳过符号后跨句误命中的概率高，默认不忽略）
+     */
+    private boolean contentIgnoreSymbols = false;
+
+    /**
+     * 检查词典文件是否变更的间隔，0-不检查
+     */
+    private Duration reloadInterval = Duration.ofMinutes(1);
+
+}
@@ -1,6 +1,8 @@
 package com.wcoal.novelplus.core.config;
 
 import com.baomidou.mybatisplus.extension.spring.MybatisSqlSessionFactoryBean;
+import com.wcoal.novelplus.core.codec.CompressedContentTypeHandler;
+import com.wcoal.novelplus.core.codec.ContentCodec;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.apache.shardingsphere.driver.api.yaml.YamlShardingSphereDataSourceFactory;
@@ -42,7 +44,7 @@ public class ShardingSphereConfig {
 
     @Bean
     @Primary
-    public SqlSessionFactory sqlSessionFactory(DataSource dataSource) throws Exception {
+    public SqlSessionFactory sqlSessionFactory(DataSource dataSource, ContentCodec contentCodec) throws Exception {
         log.info("初始化 MyBatis SqlSessionFactory...");
         
         MybatisSqlSessionFactoryBean sessionFactory = new MybatisSqlSessionFactoryBean();
@@ -51,6 +53,7 @@ public class ShardingSphereConfig {
         // 设置 MyBatis-Plus 配置
         com.baomidou.mybatisplus.core.MybatisConfiguration configuration = new com.baomidou.mybatisplus.core.MybatisConfiguration();
         configuration.setMapUnderscoreToCamelCase(true);
+        CompressedContentTypeHandler.register(configuration.getTypeHandlerRegistry(), contentCodec);
         sessionFactory.setConfiguration(configuration);
         
         // 设置 Mapper XML 文件位置
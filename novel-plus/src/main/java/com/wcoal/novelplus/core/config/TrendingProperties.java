@@ -0,0 +1,28 @@
+package com.wcoal.novelplus.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 小说热榜配置
+ *
+ * @author wcoal
+ * @since 2025-12-07
+ */
+@Component
+@ConfigurationProperties(prefix = "novel-plus.trending")
+@Data
+public class TrendingProperties {
+
+    /**
+     * 24小时热榜的小时衰减系数，第 n 个小时前的点击量权重为 hourDecay^n
+     */
+    private double hourDecay = 0.9;
+
+    /**
+     * 7日热榜的天衰减系数，第 n 天前的点击量权重为 dayDecay^n
+     */
+    private double dayDecay = 0.7;
+
+}
@@ -0,0 +1,28 @@
+package com.wcoal.novelplus.core.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * 小说点击量聚合配置
+ *
+ * @author wcoal
+ * @since 2025-12-05
+ */
+@Component
+@ConfigurationProperties(prefix = "novel-plus.visit-counter")
+@Data
+public class VisitCounterProperties {
+
+    /**
+     * 点击量刷盘间隔（毫秒），即进程异常退出时最多丢失的点击量时间窗口
+     */
+    private long flushInterval = 5000;
+
+    /**
+     * 单条批量更新 SQL 最多包含的小说数量
+     */
+    private int batchSize = 500;
+
+}
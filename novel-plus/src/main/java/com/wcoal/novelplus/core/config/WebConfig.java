@@ -28,6 +28,7 @@ public class WebConfig implements WebMvcConfigurer {
                                 "/api/front/search/books",
                                 "/swagger-ui/**",
                                 "/api/admin/crawl/**",
+                                "/actuator/**",
                                 "/v3/**",
                                 "/crawl-admin.html",
                                 "/api-docs",
@@ -2,6 +2,7 @@ package com.wcoal.novelplus.core.interceptor;
 
 import cn.dev33.satoken.stp.StpUtil;
 import com.wcoal.novelplus.core.auth.UserContext;
+import com.wcoal.novelplus.dto.AuthorInfoDto;
 import com.wcoal.novelplus.manager.cache.AuthorInfoCacheManager;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -30,8 +31,9 @@ public class UserContextInterceptor implements HandlerInterceptor {
             if (StpUtil.isLogin()) {
                 Long userId = StpUtil.getLoginIdAsLong();
                 UserContext.setUserId(userId);
-                if (authorInfoCacheManager.getAuthor(userId) != null) {
-                    UserContext.setAuthorId(authorInfoCacheManager.getAuthor(userId).getId());
+                AuthorInfoDto author = authorInfoCacheManager.getAuthor(userId);
+                if (author != null) {
+                    UserContext.setAuthorId(author.getId());
                     log.info("作家id：{}", UserContext.getAuthorId());
                     log.info("请求路径：{}", requestURI);
                 }
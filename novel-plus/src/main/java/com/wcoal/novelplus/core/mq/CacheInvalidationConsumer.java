@@ -0,0 +1,89 @@
+package com.wcoal.novelplus.core.mq;
+
+import com.rabbitmq.client.Channel;
+import com.wcoal.novelplus.core.cache.InvalidationBroadcastingCache;
+import com.wcoal.novelplus.core.common.constant.CacheConsts;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+/**
+ * 本地缓存失效消息消费者
+ * 每个节点使用独立的临时队列接收广播，只清理本节点的 Caffeine 缓存，不再次广播
+ *
+ * @author wcoal
+ * @since 2025-12-03
+ */
+@Slf4j
+@Component
+public class CacheInvalidationConsumer {
+
+    private final CacheManager caffeineCacheManager;
+
+    private final CacheInvalidationProducer cacheInvalidationProducer;
+
+    public CacheInvalidationConsumer(@Qualifier(CacheConsts.CAFFEINE_CACHE_MANAGER) CacheManager caffeineCacheManager,
+                                     CacheInvalidationProducer cacheInvalidationProducer) {
+        this.caffeineCacheManager = caffeineCacheManager;
+        this.cacheInvalidationProducer = cacheInvalidationProducer;
+    }
+
+    /**
+     * 处理本地缓存失效消息
+     *
+     * @param invalidationMessage 失效消息
+     * @param message             原始消息
+     * @param channel             消息通道
+     */
+    @RabbitListener(queues = "#{cacheInvalidationQueue.name}", ackMode = "MANUAL")
+    public void handleInvalidation(CacheInvalidationMessage invalidationMessage, Message message, Channel channel) {
+        long deliveryTag = message.getMessageProperties().getDeliveryTag();
+        try {
+            if (!cacheInvalidationProducer.getNodeId().equals(invalidationMessage.getNodeId())) {
+                applyInvalidation(invalidationMessage);
+            }
+        } catch (Exception e) {
+            // 失效失败时本地缓存最迟在过期后恢复一致，不重新入队
+            log.error("处理本地缓存失效消息失败: nodeId={}", invalidationMessage.getNodeId(), e);
+        }
+        try {
+            channel.basicAck(deliveryTag, false);
+        } catch (Exception e) {
+            log.error("确认本地缓存失效消息失败", e);
+        }
+    }
+
+    private void applyInvalidation(CacheInvalidationMessage invalidationMessage) {
+        if (invalidationMessage.getClearCaches() != null) {
+            for (String cacheName : invalidationMessage.getClearCaches()) {
+                InvalidationBroadcastingCache cache = getLocalCache(cacheName);
+                if (cache != null) {
+                    cache.clearLocal();
+                }
+            }
+        }
+        if (invalidationMessage.getEvictKeys() != null) {
+            invalidationMessage.getEvictKeys().forEach((cacheName, keys) -> {
+                InvalidationBroadcastingCache cache = getLocalCache(cacheName);
+                if (cache == null) {
+                    return;
+                }
+                for (String key : keys) {
+                    cache.evictLocal(CacheInvalidationMessage.decodeKey(key));
+                }
+            });
+        }
+        log.debug("已应用本地缓存失效消息: nodeId={}, clearCaches={}, evictKeys={}",
+                invalidationMessage.getNodeId(), invalidationMessage.getClearCaches(),
+                invalidationMessage.getEvictKeys());
+    }
+
+    private InvalidationBroadcastingCache getLocalCache(String cacheName) {
+        Cache cache = caffeineCacheManager.getCache(cacheName);
+        return cache instanceof InvalidationBroadcastingCache broadcastingCache ? broadcastingCache : null;
+    }
+}
@@ -0,0 +1,74 @@
+package com.wcoal.novelplus.core.mq;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 本地缓存失效消息
+ * 一条消息携带一个节点在一个发送周期内合并后的全部失效操作
+ *
+ * @author wcoal
+ * @since 2025-12-03
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CacheInvalidationMessage implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 发送节点ID，节点收到自己发送的消息时直接忽略
+     */
+    private String nodeId;
+
+    /**
+     * 需要整体清空的缓存名称
+     */
+    private List<String> clearCaches;
+
+    /**
+     * 需要失效的 key，缓存名称 -> 编码后的 key 列表
+     */
+    private Map<String, List<String>> evictKeys;
+
+    /**
+     * 消息发送时间戳
+     */
+    private Long timestamp;
+
+    /**
+     * 编码缓存 key，保留 key 的类型，保证接收端能还原出 equals 相等的 key
+     * 不支持的类型返回 null，由调用方改为清空整个缓存
+     */
+    public static String encodeKey(Object key) {
+        if (key instanceof Long l) {
+            return "L:" + l;
+        }
+        if (key instanceof Integer i) {
+            return "I:" + i;
+        }
+        if (key instanceof String s) {
+            return "S:" + s;
+        }
+        return null;
+    }
+
+    /**
+     * 解码缓存 key
+     */
+    public static Object decodeKey(String encoded) {
+        String value = encoded.substring(2);
+        return switch (encoded.charAt(0)) {
+            case 'L' -> Long.valueOf(value);
+            case 'I' -> Integer.valueOf(value);
+            case 'S' -> value;
+            default -> throw new IllegalArgumentException("无法识别的缓存 key: " + encoded);
+        };
+    }
+}
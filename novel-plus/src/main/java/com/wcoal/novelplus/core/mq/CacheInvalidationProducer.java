@@ -0,0 +1,151 @@
+package com.wcoal.novelplus.core.mq;
+
+import com.wcoal.novelplus.core.common.utils.TransactionUtils;
+import com.wcoal.novelplus.core.config.CacheInvalidationProperties;
+import com.wcoal.novelplus.core.config.RabbitMQConfig;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 本地缓存失效消息生产者
+ * <p>
+ * 本节点的失效操作先在内存中合并（同一 key 只发一次，整体清空覆盖单个 key），
+ * 每隔 flushInterval 毫秒批量广播到所有节点。处于事务中时等事务提交后再登记，
+ * 避免其他节点在提交前重新加载到旧数据。
+ *
+ * @author wcoal
+ * @since 2025-12-03
+ */
+@Slf4j
+@Component
+public class CacheInvalidationProducer {
+
+    /**
+     * 当前节点ID
+     */
+    private final String nodeId = UUID.randomUUID().toString();
+
+    private final RabbitTemplate rabbitTemplate;
+
+    private final CacheInvalidationProperties properties;
+
+    private final Object lock = new Object();
+
+    /**
+     * 待广播的 key，缓存名称 -> 编码后的 key
+     */
+    private Map<String, Set<String>> pendingKeys = new HashMap<>();
+
+    /**
+     * 待广播整体清空的缓存名称
+     */
+    private Set<String> pendingClears = new HashSet<>();
+
+    private final ScheduledExecutorService scheduler;
+
+    public CacheInvalidationProducer(RabbitTemplate rabbitTemplate, CacheInvalidationProperties properties) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-invalidation-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flush, properties.getFlushInterval(),
+                properties.getFlushInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    /**
+     * 广播单个 key 失效
+     */
+    public void publishEvict(String cacheName, Object key) {
+        String encodedKey = CacheInvalidationMessage.encodeKey(key);
+        if (encodedKey == null) {
+            // key 类型无法跨节点还原，退化为清空整个缓存
+            publishClear(cacheName);
+            return;
+        }
+        TransactionUtils.afterCommit(() -> {
+            synchronized (lock) {
+                if (pendingClears.contains(cacheName)) {
+                    return;
+                }
+                Set<String> keys = pendingKeys.computeIfAbsent(cacheName, k -> new LinkedHashSet<>());
+                keys.add(encodedKey);
+                if (keys.size() > properties.getMaxKeysPerCache()) {
+                    pendingKeys.remove(cacheName);
+                    pendingClears.add(cacheName);
+                }
+            }
+        });
+    }
+
+    /**
+     * 广播整个缓存清空
+     */
+    public void publishClear(String cacheName) {
+        TransactionUtils.afterCommit(() -> {
+            synchronized (lock) {
+                pendingKeys.remove(cacheName);
+                pendingClears.add(cacheName);
+            }
+        });
+    }
+
+    /**
+     * 发送合并后的失效消息
+     */
+    public void flush() {
+        Map<String, Set<String>> keys;
+        Set<String> clears;
+        synchronized (lock) {
+            if (pendingKeys.isEmpty() && pendingClears.isEmpty()) {
+                return;
+            }
+            keys = pendingKeys;
+            clears = pendingClears;
+            pendingKeys = new HashMap<>();
+            pendingClears = new HashSet<>();
+        }
+
+        Map<String, List<String>> evictKeys = new HashMap<>(keys.size());
+        keys.forEach((cacheName, cacheKeys) -> evictKeys.put(cacheName, new ArrayList<>(cacheKeys)));
+        CacheInvalidationMessage message = new CacheInvalidationMessage(
+                nodeId,
+                new ArrayList<>(clears),
+                evictKeys,
+                System.currentTimeMillis()
+        );
+        try {
+            rabbitTemplate.convertAndSend(RabbitMQConfig.CACHE_INVALIDATION_EXCHANGE, "", message);
+            log.debug("本地缓存失效消息发送成功: clearCaches={}, evictKeys={}", clears, evictKeys);
+        } catch (Exception e) {
+            // 发送失败时其他节点只能等待本地缓存过期，不阻塞业务
+            log.error("本地缓存失效消息发送失败: clearCaches={}, evictKeys={}", clears, evictKeys, e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        flush();
+    }
+}
@@ -1,18 +1,34 @@
 package com.wcoal.novelplus.core.mq;
 
 import com.rabbitmq.client.Channel;
+import com.wcoal.novelplus.core.common.constant.DatabaseConsts;
+import com.wcoal.novelplus.core.common.utils.TransactionUtils;
+import com.wcoal.novelplus.core.config.CommentAuditProperties;
 import com.wcoal.novelplus.core.config.RabbitMQConfig;
+import com.wcoal.novelplus.core.sensitive.SensitiveWordFilter;
 import com.wcoal.novelplus.dao.entity.BookComment;
 import com.wcoal.novelplus.dao.mapper.BookCommentMapper;
-import lombok.RequiredArgsConstructor;
+import com.wcoal.novelplus.manager.cache.BookCommentCacheManager;
+import com.wcoal.novelplus.manager.dao.BookCounterManager;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
 import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
-import java.util.Arrays;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 
 /**
  * 评论审核消息消费者
@@ -24,31 +40,160 @@ import java.util.List;
  * 2. 检查评论长度，过短或过长则审核不通过
  * 3. 其他情况审核通过
  * 
+ * 消费模式（novel-plus.comment-audit.batch-enabled）：
+ * - 批量：每次最多取 batchSize 条消息，批内并行审核，一条 SQL 批量更新审核状态，最后一次性确认整批消息
+ * - 逐条：每条消息单独审核、更新、确认
+ * 两种模式下单条消息失败都会带着重试次数重新投递，超过最大重试次数后转入死信队列
+ * 审核状态变为通过（或由通过变为不通过）时在同一事务中增减小说评论数，事务提交后清除小说评论第一页缓存
+ * 
  * @author wcoal
  * @since 2025-10-10
  */
 @Slf4j
 @Component
-@RequiredArgsConstructor
 public class CommentAuditConsumer {
 
     private final BookCommentMapper bookCommentMapper;
 
+    private final BookCounterManager bookCounterManager;
+
+    private final BookCommentCacheManager bookCommentCacheManager;
+
+    private final SensitiveWordFilter sensitiveWordFilter;
+
+    private final CommentAuditProducer commentAuditProducer;
+
+    private final Jackson2JsonMessageConverter messageConverter;
+
+    private final CommentAuditProperties properties;
+
+    private final TransactionTemplate transactionTemplate;
+
     /**
-     * 敏感词列表（实际项目中应该从配置中心或数据库读取）
+     * 批内并行审核线程池
      */
-    private static final List<String> SENSITIVE_WORDS = Arrays.asList(
-            "垃圾", "傻逼", "sb", "fuck", "shit", "政治", "暴力"
-    );
+    private final ExecutorService auditExecutor;
+
+    public CommentAuditConsumer(BookCommentMapper bookCommentMapper,
+                                BookCounterManager bookCounterManager,
+                                BookCommentCacheManager bookCommentCacheManager,
+                                SensitiveWordFilter sensitiveWordFilter,
+                                CommentAuditProducer commentAuditProducer,
+                                Jackson2JsonMessageConverter messageConverter,
+                                CommentAuditProperties properties,
+                                TransactionTemplate transactionTemplate) {
+        this.bookCommentMapper = bookCommentMapper;
+        this.bookCounterManager = bookCounterManager;
+        this.bookCommentCacheManager = bookCommentCacheManager;
+        this.sensitiveWordFilter = sensitiveWordFilter;
+        this.commentAuditProducer = commentAuditProducer;
+        this.messageConverter = messageConverter;
+        this.properties = properties;
+        this.transactionTemplate = transactionTemplate;
+        this.auditExecutor = Executors.newFixedThreadPool(properties.getParallelism(), r -> {
+            Thread thread = new Thread(r, "comment-audit");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        auditExecutor.shutdownNow();
+    }
 
     /**
-     * 消费评论审核消息
+     * 批量消费评论审核消息
+     *
+     * @param messages 一批原始消息
+     * @param channel  消息通道
+     */
+    @RabbitListener(queues = RabbitMQConfig.COMMENT_AUDIT_QUEUE, containerFactory = "commentAuditBatchContainerFactory",
+            autoStartup = "#{@commentAuditProperties.batchEnabled}")
+    public void handleCommentAuditBatch(List<Message> messages, Channel channel) {
+        long startTime = System.currentTimeMillis();
+
+        // 1. 解析消息，无法解析的消息直接转入死信队列
+        List<CommentAuditMessage> auditMessages = new ArrayList<>(messages.size());
+        List<Long> deliveryTags = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            long deliveryTag = message.getMessageProperties().getDeliveryTag();
+            try {
+                auditMessages.add((CommentAuditMessage) messageConverter.fromMessage(message));
+                deliveryTags.add(deliveryTag);
+            } catch (Exception e) {
+                log.error("评论审核消息解析失败，转入死信队列，deliveryTag: {}", deliveryTag, e);
+                nack(channel, deliveryTag, false);
+            }
+        }
+
+        // 2. 批内并行审核
+        List<CompletableFuture<Boolean>> futures = auditMessages.stream()
+                .map(auditMessage -> CompletableFuture.supplyAsync(() -> auditComment(auditMessage), auditExecutor))
+                .toList();
+        Map<Long, Integer> auditStatuses = new LinkedHashMap<>();
+        Map<Long, Long> bookIds = new HashMap<>();
+        List<Integer> failed = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                auditStatuses.put(auditMessages.get(i).getCommentId(), futures.get(i).join()
+                        ? DatabaseConsts.BookCommentTable.AUDIT_PASS : DatabaseConsts.BookCommentTable.AUDIT_REJECT);
+                bookIds.put(auditMessages.get(i).getCommentId(), auditMessages.get(i).getBookId());
+            } catch (Exception e) {
+                log.error("评论审核失败，commentId: {}", auditMessages.get(i).getCommentId(), e);
+                failed.add(i);
+            }
+        }
+
+        // 3. 一条 SQL 批量更新审核状态，失败时整批按单条失败处理
+        if (!auditStatuses.isEmpty()) {
+            try {
+                saveAuditResults(auditStatuses, bookIds);
+            } catch (Exception e) {
+                log.error("评论审核状态批量更新失败，commentIds: {}", auditStatuses.keySet(), e);
+                failed.clear();
+                for (int i = 0; i < auditMessages.size(); i++) {
+                    failed.add(i);
+                }
+            }
+        }
+
+        // 4. 失败的消息单独重试或转入死信队列（先于整批确认，避免被 multiple 确认覆盖）
+        for (int i : failed) {
+            retryOrDeadLetter(auditMessages.get(i), deliveryTags.get(i), channel);
+        }
+
+        // 5. 以成功消息中最大的 deliveryTag 一次性确认（multiple），
+        //    不能用整批最大的 tag：它可能属于已单独拒绝或重投的消息，重复确认会导致通道被关闭
+        Set<Integer> failedIndexes = new HashSet<>(failed);
+        long ackTag = -1;
+        for (int i = 0; i < deliveryTags.size(); i++) {
+            if (!failedIndexes.contains(i)) {
+                ackTag = Math.max(ackTag, deliveryTags.get(i));
+            }
+        }
+        if (ackTag > 0) {
+            try {
+                channel.basicAck(ackTag, true);
+            } catch (IOException e) {
+                log.error("评论审核消息批量确认失败，deliveryTag: {}", ackTag, e);
+            }
+        }
+
+        log.info("评论审核批次处理完成，消息数: {}, 审核通过: {}, 失败: {}, 耗时: {}ms", messages.size(),
+                auditStatuses.values().stream().filter(DatabaseConsts.BookCommentTable.AUDIT_PASS::equals).count(),
+                failed.size(), System.currentTimeMillis() - startTime);
+    }
+
+    /**
+     * 逐条消费评论审核消息（关闭批量消费时启用）
      * 
      * @param auditMessage 审核消息
      * @param message 原始消息
      * @param channel 消息通道
      */
-    @RabbitListener(queues = RabbitMQConfig.COMMENT_AUDIT_QUEUE)
+    @RabbitListener(queues = RabbitMQConfig.COMMENT_AUDIT_QUEUE,
+            autoStartup = "#{!@commentAuditProperties.batchEnabled}")
     public void handleCommentAudit(CommentAuditMessage auditMessage, Message message, Channel channel) {
         //deliveryTag 是 RabbitMQ 用于唯一标识消息的一个数字，用于确认消息是否被成功处理。
         long deliveryTag = message.getMessageProperties().getDeliveryTag();
@@ -60,23 +205,19 @@ public class CommentAuditConsumer {
             // 执行审核逻辑
             boolean auditPassed = auditComment(auditMessage);
 
-            // 更新评论审核状态
-            BookComment bookComment = new BookComment();
-            bookComment.setId(auditMessage.getCommentId());
-            
+            // 更新评论审核状态：1-审核通过 2-审核不通过
+            Integer auditStatus = auditPassed
+                    ? DatabaseConsts.BookCommentTable.AUDIT_PASS : DatabaseConsts.BookCommentTable.AUDIT_REJECT;
             if (auditPassed) {
-                // 审核通过：状态设置为1
-                bookComment.setAuditStatus(1);
                 log.info("评论审核通过，commentId: {}", auditMessage.getCommentId());
             } else {
-                // 审核不通过：状态设置为2
-                bookComment.setAuditStatus(2);
                 log.warn("评论审核不通过，commentId: {}, 原因: 包含敏感词或不符合规范", 
                         auditMessage.getCommentId());
             }
 
             // 更新数据库
-            bookCommentMapper.updateById(bookComment);
+            saveAuditResults(Map.of(auditMessage.getCommentId(), auditStatus),
+                    Map.of(auditMessage.getCommentId(), auditMessage.getBookId()));
 
             // 手动确认消息
             channel.basicAck(deliveryTag, false);
@@ -88,30 +229,7 @@ public class CommentAuditConsumer {
             log.error("评论审核消息处理失败，commentId: {}, error: {}", 
                     auditMessage.getCommentId(), e.getMessage(), e);
             
-            try {
-                // 获取重试次数
-                Integer retryCount = auditMessage.getRetryCount();
-                if (retryCount == null) {
-                    retryCount = 0;
-                }
-
-                // 如果重试次数小于3次，拒绝消息并重新入队
-                if (retryCount < 3) {
-                    auditMessage.setRetryCount(retryCount + 1);
-                    log.info("评论审核消息重试，commentId: {}, 重试次数: {}", 
-                            auditMessage.getCommentId(), retryCount + 1);
-                    // requeue = true，消息重新入队
-                    channel.basicNack(deliveryTag, false, true);
-                } else {
-                    // 重试次数超过3次，拒绝消息并转入死信队列
-                    log.error("评论审核消息重试次数超过限制，转入死信队列，commentId: {}", 
-                            auditMessage.getCommentId());
-                    // requeue = false，消息不重新入队，会进入死信队列
-                    channel.basicNack(deliveryTag, false, false);
-                }
-            } catch (IOException ioException) {
-                log.error("消息确认失败，commentId: {}", auditMessage.getCommentId(), ioException);
-            }
+            retryOrDeadLetter(auditMessage, deliveryTag, channel);
         }
     }
 
@@ -136,18 +254,84 @@ public class CommentAuditConsumer {
             return false;
         }
 
-        // 3. 检查是否包含敏感词
-        String lowerContent = content.toLowerCase();// 转换为小写，忽略大小写
-        for (String sensitiveWord : SENSITIVE_WORDS) {
-            if (lowerContent.contains(sensitiveWord.toLowerCase())) {
-                log.warn("评论包含敏感词: {}, 审核不通过", sensitiveWord);
-                return false;
-            }
+        // 3. 检查是否包含敏感词（忽略大小写、全角半角）
+        String sensitiveWord = sensitiveWordFilter.findFirst(content);
+        if (sensitiveWord != null) {
+            log.warn("评论包含敏感词: {}, 审核不通过", sensitiveWord);
+            return false;
         }
 
         return true;
     }
 
+    /**
+     * 保存审核结果：按小说分组条件更新审核状态，由实际更新的行数增减小说评论数，并清除小说评论第一页缓存
+     * 状态判断在 UPDATE 的条件中完成，并发或重复投递的消息只有一条能改变审核状态，评论数不会重复累加；
+     * 审核状态与评论数在同一事务中提交，计数校正任务不会在两者之间读到不一致的数据
+     * （私有方法的自调用不经过事务代理，这里用 TransactionTemplate 开启事务）
+     *
+     * @param auditStatuses 评论ID -> 审核状态
+     * @param bookIds       评论ID -> 小说ID
+     */
+    private void saveAuditResults(Map<Long, Integer> auditStatuses, Map<Long, Long> bookIds) {
+        transactionTemplate.executeWithoutResult(status -> doSaveAuditResults(auditStatuses, bookIds));
+    }
+
+    private void doSaveAuditResults(Map<Long, Integer> auditStatuses, Map<Long, Long> bookIds) {
+        Map<Long, List<Long>> passedByBook = new HashMap<>();
+        Map<Long, List<Long>> rejectedByBook = new HashMap<>();
+        auditStatuses.forEach((commentId, auditStatus) ->
+                (DatabaseConsts.BookCommentTable.AUDIT_PASS.equals(auditStatus) ? passedByBook : rejectedByBook)
+                        .computeIfAbsent(bookIds.get(commentId), k -> new ArrayList<>()).add(commentId));
+
+        Map<Long, Integer> commentCountDeltas = new HashMap<>();
+        // 审核通过：状态由其它值变为通过的评论各加1
+        passedByBook.forEach((bookId, commentIds) -> commentCountDeltas.merge(bookId,
+                bookCommentMapper.updateAuditStatusIfChanged(commentIds, DatabaseConsts.BookCommentTable.AUDIT_PASS),
+                Integer::sum));
+        // 审核不通过：状态由通过变为不通过的评论各减1，其余（待审核）只更新状态
+        rejectedByBook.forEach((bookId, commentIds) -> {
+            int revoked = bookCommentMapper.updateAuditStatusFrom(commentIds,
+                    DatabaseConsts.BookCommentTable.AUDIT_PASS, DatabaseConsts.BookCommentTable.AUDIT_REJECT);
+            commentCountDeltas.merge(bookId, -revoked, Integer::sum);
+            bookCommentMapper.updateAuditStatusIfChanged(commentIds, DatabaseConsts.BookCommentTable.AUDIT_REJECT);
+        });
+        bookCounterManager.addCommentCounts(commentCountDeltas);
+        // 评论内容可能已修改，审核状态未变化的小说同样清除第一页缓存
+        Set<Long> affectedBookIds = new HashSet<>(bookIds.values());
+        TransactionUtils.afterCommit(() -> affectedBookIds.forEach(bookCommentCacheManager::evictFirstPage));
+    }
+
+    /**
+     * 单条消息失败处理
+     * 未超过最大重试次数时带着加1后的重试次数重新投递并确认原消息，重新投递失败时原消息重新入队；
+     * 超过最大重试次数时拒绝消息，转入死信队列
+     */
+    private void retryOrDeadLetter(CommentAuditMessage auditMessage, long deliveryTag, Channel channel) {
+        int retryCount = auditMessage.getRetryCount() == null ? 0 : auditMessage.getRetryCount();
+        if (retryCount >= properties.getMaxRetries()) {
+            log.error("评论审核消息重试次数超过限制，转入死信队列，commentId: {}", auditMessage.getCommentId());
+            // requeue = false，消息不重新入队，会进入死信队列
+            nack(channel, deliveryTag, false);
+            return;
+        }
+        try {
+            commentAuditProducer.resendCommentAuditMessage(auditMessage);
+            channel.basicAck(deliveryTag, false);
+        } catch (Exception e) {
+            log.error("评论审核消息重新投递失败，原消息重新入队，commentId: {}", auditMessage.getCommentId(), e);
+            nack(channel, deliveryTag, true);
+        }
+    }
+
+    private static void nack(Channel channel, long deliveryTag, boolean requeue) {
+        try {
+            channel.basicNack(deliveryTag, false, requeue);
+        } catch (IOException e) {
+            log.error("消息拒绝失败，deliveryTag: {}", deliveryTag, e);
+        }
+    }
+
     /**
      * 处理死信队列中的消息
      * 这些是审核失败多次的消息，需要人工介入处理
@@ -54,5 +54,22 @@ public class CommentAuditProducer {
             // 这里可以记录到数据库，实现消息补偿机制
         }
     }
+
+    /**
+     * 重新发送审核失败的消息（重试次数加1）
+     * 发送失败时抛出异常，由调用方决定是否重新入队
+     *
+     * @param message 审核失败的消息
+     */
+    public void resendCommentAuditMessage(CommentAuditMessage message) {
+        int retryCount = message.getRetryCount() == null ? 0 : message.getRetryCount();
+        message.setRetryCount(retryCount + 1);
+        rabbitTemplate.convertAndSend(
+                RabbitMQConfig.COMMENT_AUDIT_EXCHANGE,
+                RabbitMQConfig.COMMENT_AUDIT_ROUTING_KEY,
+                message
+        );
+        log.info("评论审核消息重试，commentId: {}, 重试次数: {}", message.getCommentId(), retryCount + 1);
+    }
 }
 
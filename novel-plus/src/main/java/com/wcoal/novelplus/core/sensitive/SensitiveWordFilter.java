@@ -0,0 +1,153 @@
+package com.wcoal.novelplus.core.sensitive;
+
+import com.wcoal.novelplus.core.config.SensitiveWordProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 敏感词过滤器
+ * <p>
+ * 从词典文件和配置加载敏感词并编译为 {@link SensitiveWordMatcher}，评论审核、评论回复、小说和章节发布共用。
+ * 短文本和章节正文分别编译一份匹配器，正文默认不忽略空白和标点（novel-plus.sensitive-word.content-ignore-symbols）。
+ * 定期读取词典文件，内容变化时重新编译，编译完成后整体替换当前匹配器，匹配中的请求不受影响；
+ * 加载失败时保留上一份词典。
+ *
+ * @author wcoal
+ * @since 2025-12-20
+ */
+@Slf4j
+@Component
+public class SensitiveWordFilter {
+
+    private final SensitiveWordProperties properties;
+
+    private final ResourceLoader resourceLoader;
+
+    private volatile SensitiveWordMatcher matcher = SensitiveWordMatcher.EMPTY;
+
+    /**
+     * 章节正文使用的匹配器
+     */
+    private volatile SensitiveWordMatcher contentMatcher = SensitiveWordMatcher.EMPTY;
+
+    /**
+     * 当前词典文件内容，用于判断是否变更
+     */
+    private volatile String loadedContent;
+
+    private final ScheduledExecutorService scheduler;
+
+    public SensitiveWordFilter(SensitiveWordProperties properties, ResourceLoader resourceLoader) {
+        this.properties = properties;
+        this.resourceLoader = resourceLoader;
+        reload();
+        if (properties.getReloadInterval().isZero()) {
+            this.scheduler = null;
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "sensitive-word-reload");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getReloadInterval().toMillis();
+        this.scheduler.scheduleWithFixedDelay(this::reloadQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 是否包含敏感词
+     */
+    public boolean contains(String text) {
+        return matcher.contains(text);
+    }
+
+    /**
+     * 章节正文等长文本是否包含敏感词
+     */
+    public boolean contentContains(String text) {
+        return contentMatcher.contains(text);
+    }
+
+    /**
+     * 第一个命中的敏感词，没有时返回 null
+     */
+    public String findFirst(String text) {
+        return matcher.findFirst(text);
+    }
+
+    /**
+     * 所有命中的敏感词
+     */
+    public Set<String> findAll(String text) {
+        return matcher.findAll(text);
+    }
+
+    /**
+     * 重新加载词典，文件内容未变化时不重新编译
+     *
+     * @return 是否重新编译
+     */
+    public synchronized boolean reload() {
+        String content = readDictionary();
+        if (content == null || content.equals(loadedContent)) {
+            return false;
+        }
+        List<String> words = new ArrayList<>(properties.getWords());
+        content.lines()
+                .map(String::trim)
+                .filter(line -> !line.isEmpty() && !line.startsWith("#"))
+                .forEach(words::add);
+        long startTime = System.currentTimeMillis();
+        matcher = SensitiveWordMatcher.compile(words, properties.isIgnoreSymbols());
+        contentMatcher = properties.isContentIgnoreSymbols() == properties.isIgnoreSymbols()
+                ? matcher : SensitiveWordMatcher.compile(words, properties.isContentIgnoreSymbols());
+        loadedContent = content;
+        log.info("敏感词词典已加载: location={}, 词数={}, 耗时={}ms",
+                properties.getLocation(), matcher.size(), System.currentTimeMillis() - startTime);
+        return true;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void reloadQuietly() {
+        try {
+            reload();
+        } catch (Exception e) {
+            log.error("敏感词词典重新加载失败", e);
+        }
+    }
+
+    /**
+     * 读取词典文件，文件不存在时视为空词典，读取失败返回 null（保留上一份词典）
+     */
+    private String readDictionary() {
+        Resource resource = resourceLoader.getResource(properties.getLocation());
+        if (!resource.exists()) {
+            log.warn("敏感词词典文件不存在: {}", properties.getLocation());
+            return "";
+        }
+        try {
+            return resource.getContentAsString(StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            log.error("读取敏感词词典失败: {}", properties.getLocation(), e);
+            return null;
+        }
+    }
+}
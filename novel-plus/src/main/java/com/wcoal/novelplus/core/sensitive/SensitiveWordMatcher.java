@@ -0,0 +1,315 @@
+package com.wcoal.novelplus.core.sensitive;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 敏感词多模式匹配器（Aho-Corasick 自动机）
+ * <p>
+ * 词典编译为按字符索引的 Trie，每个节点的子节点以有序字符数组 + 节点编号数组存储（二分查找），
+ * 并预先计算失败指针和输出链接，匹配时对文本只扫描一遍，耗时与词典大小无关。
+ * 匹配前对词典和文本做相同的归一化：全角转半角、大写转小写；开启 ignoreSymbols 时跳过空白和标点，
+ * 可识别“傻 逼”“s.b”之类插入符号的写法。
+ * 只由英文字母和数字组成的词要求在文本中单独成词（前后不是英文字母或数字），
+ * 避免“this book”“was bad”这类正常文本跳过空格后误命中“sb”。
+ * 实例不可变、线程安全，词典变更时重新编译并整体替换。
+ *
+ * @author wcoal
+ * @since 2025-12-20
+ */
+public final class SensitiveWordMatcher {
+
+    private static final char[] NO_KEYS = new char[0];
+
+    private static final int[] NO_CHILDREN = new int[0];
+
+    /**
+     * 空词典
+     */
+    public static final SensitiveWordMatcher EMPTY = compile(List.of(), false);
+
+    private final boolean ignoreSymbols;
+
+    /**
+     * 节点 -> 有序的子节点字符
+     */
+    private final char[][] keys;
+
+    /**
+     * 节点 -> 子节点编号（与 keys 一一对应）
+     */
+    private final int[][] children;
+
+    /**
+     * 节点 -> 失败指针
+     */
+    private final int[] fail;
+
+    /**
+     * 节点 -> 以该节点结尾的词（没有时为 -1）
+     */
+    private final int[] wordAt;
+
+    /**
+     * 节点 -> 沿失败指针最近的词结尾节点（没有时为 0，根节点不会是词结尾）
+     */
+    private final int[] outputLink;
+
+    private final String[] words;
+
+    /**
+     * 词 -> 归一化后参与匹配的字符数
+     */
+    private final int[] wordLengths;
+
+    /**
+     * 词 -> 是否只由英文字母和数字组成（需要校验词边界）
+     */
+    private final boolean[] asciiWords;
+
+    private SensitiveWordMatcher(boolean ignoreSymbols, char[][] keys, int[][] children, int[] fail,
+                                 int[] wordAt, int[] outputLink, String[] words, int[] wordLengths,
+                                 boolean[] asciiWords) {
+        this.ignoreSymbols = ignoreSymbols;
+        this.keys = keys;
+        this.children = children;
+        this.fail = fail;
+        this.wordAt = wordAt;
+        this.outputLink = outputLink;
+        this.words = words;
+        this.wordLengths = wordLengths;
+        this.asciiWords = asciiWords;
+    }
+
+    /**
+     * 编译词典
+     *
+     * @param dictionary    敏感词（空白词忽略，重复词去重）
+     * @param ignoreSymbols 是否忽略空白和标点
+     */
+    public static SensitiveWordMatcher compile(Collection<String> dictionary, boolean ignoreSymbols) {
+        // 1. 构建 Trie
+        List<Map<Character, Integer>> edges = new ArrayList<>();
+        edges.add(new HashMap<>());
+        List<Integer> wordIndexes = new ArrayList<>();
+        wordIndexes.add(-1);
+        List<String> words = new ArrayList<>();
+        List<Integer> wordLengths = new ArrayList<>();
+        List<Boolean> asciiWords = new ArrayList<>();
+        for (String word : new LinkedHashSet<>(dictionary)) {
+            if (word == null) {
+                continue;
+            }
+            int node = 0;
+            int length = 0;
+            boolean ascii = true;
+            for (int i = 0; i < word.length(); i++) {
+                char c = normalize(word.charAt(i));
+                if (ignoreSymbols && isSymbol(c)) {
+                    continue;
+                }
+                length++;
+                ascii &= isAsciiLetterOrDigit(c);
+                Integer child = edges.get(node).get(c);
+                if (child == null) {
+                    child = edges.size();
+                    edges.add(new HashMap<>());
+                    wordIndexes.add(-1);
+                    edges.get(node).put(c, child);
+                }
+                node = child;
+            }
+            if (node != 0 && wordIndexes.get(node) < 0) {
+                wordIndexes.set(node, words.size());
+                words.add(word);
+                wordLengths.add(length);
+                asciiWords.add(ascii);
+            }
+        }
+
+        // 2. 子节点转为有序数组
+        int size = edges.size();
+        char[][] keys = new char[size][];
+        int[][] children = new int[size][];
+        int[] wordAt = new int[size];
+        for (int node = 0; node < size; node++) {
+            Map<Character, Integer> edge = edges.get(node);
+            char[] nodeKeys = edge.isEmpty() ? NO_KEYS : new char[edge.size()];
+            int k = 0;
+            for (Character c : edge.keySet()) {
+                nodeKeys[k++] = c;
+            }
+            Arrays.sort(nodeKeys);
+            int[] nodeChildren = edge.isEmpty() ? NO_CHILDREN : new int[nodeKeys.length];
+            for (int i = 0; i < nodeKeys.length; i++) {
+                nodeChildren[i] = edge.get(nodeKeys[i]);
+            }
+            keys[node] = nodeKeys;
+            children[node] = nodeChildren;
+            wordAt[node] = wordIndexes.get(node);
+        }
+
+        // 3. 按层遍历计算失败指针和输出链接
+        int[] fail = new int[size];
+        int[] outputLink = new int[size];
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int child : children[0]) {
+            queue.add(child);
+        }
+        while (!queue.isEmpty()) {
+            int node = queue.poll();
+            for (int i = 0; i < keys[node].length; i++) {
+                char c = keys[node][i];
+                int child = children[node][i];
+                int f = fail[node];
+                int target = childOf(keys, children, f, c);
+                while (target < 0 && f != 0) {
+                    f = fail[f];
+                    target = childOf(keys, children, f, c);
+                }
+                fail[child] = target < 0 ? 0 : target;
+                outputLink[child] = wordAt[fail[child]] >= 0 ? fail[child] : outputLink[fail[child]];
+                queue.add(child);
+            }
+        }
+        boolean[] asciiWordArray = new boolean[asciiWords.size()];
+        for (int i = 0; i < asciiWordArray.length; i++) {
+            asciiWordArray[i] = asciiWords.get(i);
+        }
+        return new SensitiveWordMatcher(ignoreSymbols, keys, children, fail, wordAt, outputLink,
+                words.toArray(new String[0]), wordLengths.stream().mapToInt(Integer::intValue).toArray(),
+                asciiWordArray);
+    }
+
+    /**
+     * 词典中的词数
+     */
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * 是否包含敏感词
+     */
+    public boolean contains(String text) {
+        return findFirst(text) != null;
+    }
+
+    /**
+     * 第一个命中的敏感词（按在文本中结束的位置），没有时返回 null
+     */
+    public String findFirst(String text) {
+        if (text == null || words.length == 0) {
+            return null;
+        }
+        // 参与匹配的字符在原文中的位置，用于还原命中词的起始位置
+        int[] positions = new int[text.length()];
+        int matched = 0;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = normalize(text.charAt(i));
+            if (ignoreSymbols && isSymbol(c)) {
+                continue;
+            }
+            positions[matched++] = i;
+            state = next(state, c);
+            for (int output = wordAt[state] >= 0 ? state : outputLink[state]; output > 0;
+                 output = outputLink[output]) {
+                if (isWordMatch(text, positions, matched, i, wordAt[output])) {
+                    return words[wordAt[output]];
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * 所有命中的敏感词（去重，按首次命中顺序）
+     */
+    public Set<String> findAll(String text) {
+        Set<String> result = new LinkedHashSet<>();
+        if (text == null || words.length == 0) {
+            return result;
+        }
+        int[] positions = new int[text.length()];
+        int matched = 0;
+        int state = 0;
+        for (int i = 0; i < text.length(); i++) {
+            char c = normalize(text.charAt(i));
+            if (ignoreSymbols && isSymbol(c)) {
+                continue;
+            }
+            positions[matched++] = i;
+            state = next(state, c);
+            for (int output = wordAt[state] >= 0 ? state : outputLink[state]; output > 0;
+                 output = outputLink[output]) {
+                if (isWordMatch(text, positions, matched, i, wordAt[output])) {
+                    result.add(words[wordAt[output]]);
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 英文词要求命中位置前后不是英文字母或数字，其它词直接命中
+     *
+     * @param positions 参与匹配的字符在原文中的位置
+     * @param matched   已参与匹配的字符数
+     * @param end       命中词最后一个字符在原文中的位置
+     * @param word      词编号
+     */
+    private boolean isWordMatch(String text, int[] positions, int matched, int end, int word) {
+        if (!asciiWords[word]) {
+            return true;
+        }
+        int start = positions[matched - wordLengths[word]];
+        return (start == 0 || !isAsciiLetterOrDigit(normalize(text.charAt(start - 1))))
+                && (end == text.length() - 1 || !isAsciiLetterOrDigit(normalize(text.charAt(end + 1))));
+    }
+
+    private int next(int state, char c) {
+        int target = childOf(keys, children, state, c);
+        while (target < 0 && state != 0) {
+            state = fail[state];
+            target = childOf(keys, children, state, c);
+        }
+        return target < 0 ? 0 : target;
+    }
+
+    private static int childOf(char[][] keys, int[][] children, int node, char c) {
+        int index = Arrays.binarySearch(keys[node], c);
+        return index < 0 ? -1 : children[node][index];
+    }
+
+    /**
+     * 字符归一化：全角转半角、大写转小写
+     */
+    static char normalize(char c) {
+        if (c == '　') {
+            return ' ';
+        }
+        if (c >= '！' && c <= '～') {
+            c = (char) (c - 0xFEE0);
+        }
+        return Character.toLowerCase(c);
+    }
+
+    /**
+     * 空白、标点、表情等非文字字符
+     */
+    private static boolean isSymbol(char c) {
+        return !Character.isLetterOrDigit(c);
+    }
+
+    private static boolean isAsciiLetterOrDigit(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || (c >= '0' && c <= '9');
+    }
+}
@@ -1,10 +1,13 @@
 package com.wcoal.novelplus.dao.entity;
 
+import com.baomidou.mybatisplus.annotation.TableField;
 import com.baomidou.mybatisplus.annotation.TableName;
 import com.baomidou.mybatisplus.annotation.IdType;
 import com.baomidou.mybatisplus.annotation.TableId;
 import java.time.LocalDateTime;
 import java.io.Serializable;
+
+import com.wcoal.novelplus.core.codec.CompressedContentTypeHandler;
 import io.swagger.v3.oas.annotations.media.Schema;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
@@ -21,7 +24,7 @@ import lombok.experimental.Accessors;
 @Data
 @EqualsAndHashCode(callSuper = false)
 @Accessors(chain = true)
-@TableName("book_content")
+@TableName(value = "book_content", autoResultMap = true)
 @Schema(name="BookContent对象", description="小说内容")
 public class BookContent implements Serializable {
 
@@ -35,6 +38,7 @@ public class BookContent implements Serializable {
     private Long chapterId;
 
     @Schema(description = "小说章节内容")
+    @TableField(typeHandler = CompressedContentTypeHandler.class)
     private String content;
 
     private LocalDateTime createTime;
@@ -2,6 +2,12 @@ package com.wcoal.novelplus.dao.mapper;
 
 import com.wcoal.novelplus.dao.entity.BookChapter;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import com.wcoal.novelplus.dao.entity.BookInfo;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * <p>
@@ -13,4 +19,16 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface BookChapterMapper extends BaseMapper<BookChapter> {
 
+    /**
+     * 按小说统计章节总字数
+     * @param bookIds 小说ID
+     * @return 小说ID（id）和总字数（wordCount），没有章节的小说不返回
+     */
+    @Select({"<script>",
+            "select book_id as id, sum(word_count) as word_count from book_chapter where book_id in",
+            "<foreach collection='bookIds' item='bookId' open='(' separator=',' close=')'>#{bookId}</foreach>",
+            "group by book_id",
+            "</script>"})
+    List<BookInfo> sumWordCountByBookIds(@Param("bookIds") Collection<Long> bookIds);
+
 }
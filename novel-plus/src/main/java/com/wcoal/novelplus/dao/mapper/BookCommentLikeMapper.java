@@ -2,6 +2,10 @@ package com.wcoal.novelplus.dao.mapper;
 
 import com.wcoal.novelplus.dao.entity.BookCommentLike;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 /**
  * <p>
@@ -13,4 +17,15 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface BookCommentLikeMapper extends BaseMapper<BookCommentLike> {
 
+    /**
+     * 批量插入点赞记录，已存在的（评论ID + 用户ID 唯一）忽略
+     * @param likes 点赞记录
+     * @return 实际插入行数
+     */
+    @Insert({"<script>",
+            "insert ignore into book_comment_like (comment_id, user_id, create_time, update_time) values",
+            "<foreach collection='likes' item='like' separator=','>(#{like.commentId}, #{like.userId}, now(), now())</foreach>",
+            "</script>"})
+    int batchInsertIgnore(@Param("likes") List<BookCommentLike> likes);
+
 }
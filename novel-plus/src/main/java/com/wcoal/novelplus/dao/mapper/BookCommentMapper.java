@@ -1,7 +1,16 @@
 package com.wcoal.novelplus.dao.mapper;
 
 import com.wcoal.novelplus.dao.entity.BookComment;
+import com.wcoal.novelplus.dao.entity.BookInfo;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
 
 /**
  * <p>
@@ -13,4 +22,105 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface BookCommentMapper extends BaseMapper<BookComment> {
 
+    /**
+     * 批量设置评论点赞数量（只更新有变化的评论）
+     * @param likeCounts 评论ID -> 点赞数量
+     * @return 更新行数
+     */
+    @Update({"<script>",
+            "update book_comment set like_count = case id",
+            "<foreach collection='likeCounts' index='commentId' item='likeCount'> when #{commentId} then #{likeCount} </foreach>",
+            "end, update_time = now() where id in",
+            "<foreach collection='likeCounts' index='commentId' open='(' separator=',' close=')'>#{commentId}</foreach>",
+            "and like_count != case id",
+            "<foreach collection='likeCounts' index='commentId' item='likeCount'> when #{commentId} then #{likeCount} </foreach>",
+            "end",
+            "</script>"})
+    int batchUpdateLikeCount(@Param("likeCounts") Map<Long, Integer> likeCounts);
+
+    /**
+     * 批量设置评论审核状态，只更新审核状态与目标状态不同的评论（未设置审核状态的按待审核处理）
+     * @param commentIds 评论ID
+     * @param auditStatus 目标审核状态
+     * @return 审核状态实际发生变化的评论数
+     */
+    @Update({"<script>",
+            "update book_comment set audit_status = #{auditStatus}, update_time = now() where id in",
+            "<foreach collection='commentIds' item='commentId' open='(' separator=',' close=')'>#{commentId}</foreach>",
+            "and ifnull(audit_status, 0) != #{auditStatus}",
+            "</script>"})
+    int updateAuditStatusIfChanged(@Param("commentIds") Collection<Long> commentIds,
+                                   @Param("auditStatus") Integer auditStatus);
+
+    /**
+     * 批量把审核状态为 fromStatus 的评论改为 toStatus
+     * @param commentIds 评论ID
+     * @param fromStatus 当前审核状态
+     * @param toStatus 目标审核状态
+     * @return 更新行数
+     */
+    @Update({"<script>",
+            "update book_comment set audit_status = #{toStatus}, update_time = now() where id in",
+            "<foreach collection='commentIds' item='commentId' open='(' separator=',' close=')'>#{commentId}</foreach>",
+            "and audit_status = #{fromStatus}",
+            "</script>"})
+    int updateAuditStatusFrom(@Param("commentIds") Collection<Long> commentIds,
+                              @Param("fromStatus") Integer fromStatus, @Param("toStatus") Integer toStatus);
+
+    /**
+     * 按 (create_time, id) 倒序游标分页查询小说的已审核通过评论，翻到多深都只扫描一页的数据
+     * 依赖索引：idx_bookId_auditStatus_createTime(book_id, audit_status, create_time, id)
+     * @param bookId 小说ID
+     * @param cursorTime 上一页最后一条评论的创建时间，为 null 时查询第一页
+     * @param cursorId 上一页最后一条评论的ID
+     * @param limit 查询条数
+     * @return 评论列表
+     */
+    @Select({"<script>",
+            "select id, book_id, user_id, comment_content, reply_count, like_count, create_time from book_comment",
+            "where book_id = #{bookId} and audit_status = 1",
+            "<if test='cursorTime != null'> and (create_time &lt; #{cursorTime} or (create_time = #{cursorTime} and id &lt; #{cursorId})) </if>",
+            "order by create_time desc, id desc limit #{limit}",
+            "</script>"})
+    List<BookComment> listPassedCommentsByCursor(@Param("bookId") Long bookId, @Param("cursorTime") LocalDateTime cursorTime,
+                                                 @Param("cursorId") Long cursorId, @Param("limit") int limit);
+
+    /**
+     * 增减评论回复数（原子增减，结果小于0时取0）
+     * @param commentId 评论ID
+     * @param delta 回复数增量（可为负数）
+     * @return 更新行数
+     */
+    @Update("update book_comment set reply_count = greatest(cast(reply_count as signed) + #{delta}, 0) where id = #{commentId}")
+    int addReplyCount(@Param("commentId") Long commentId, @Param("delta") int delta);
+
+    /**
+     * 批量校正评论回复数，只更新当前值仍等于 expected 的评论（期间有并发增减的留到下次校正）
+     * @param counts 评论ID -> 实际回复数
+     * @param expected 评论ID -> 校正前读取的回复数
+     * @return 更新行数
+     */
+    @Update({"<script>",
+            "update book_comment set reply_count = case id",
+            "<foreach collection='counts' index='commentId' item='count'> when #{commentId} then #{count} </foreach>",
+            "end where id in",
+            "<foreach collection='counts' index='commentId' open='(' separator=',' close=')'>#{commentId}</foreach>",
+            "and reply_count = case id",
+            "<foreach collection='expected' index='commentId' item='count'> when #{commentId} then #{count} </foreach>",
+            "end",
+            "</script>"})
+    int batchUpdateReplyCount(@Param("counts") Map<Long, Integer> counts, @Param("expected") Map<Long, Integer> expected);
+
+    /**
+     * 按小说统计审核通过的评论数
+     * @param bookIds 小说ID
+     * @return 小说ID（id）和评论数（commentCount），没有评论的小说不返回
+     */
+    @Select({"<script>",
+            "select book_id as id, count(*) as comment_count from book_comment where book_id in",
+            "<foreach collection='bookIds' item='bookId' open='(' separator=',' close=')'>#{bookId}</foreach>",
+            "and audit_status = 1 group by book_id",
+            "</script>"})
+    List<BookInfo> countPassedCommentsByBookIds(@Param("bookIds") Collection<Long> bookIds);
+
 }
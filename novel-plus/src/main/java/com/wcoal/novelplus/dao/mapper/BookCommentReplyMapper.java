@@ -1,7 +1,13 @@
 package com.wcoal.novelplus.dao.mapper;
 
+import com.wcoal.novelplus.dao.entity.BookComment;
 import com.wcoal.novelplus.dao.entity.BookCommentReply;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+
+import java.util.Collection;
+import java.util.List;
 
 /**
  * <p>
@@ -13,4 +19,16 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface BookCommentReplyMapper extends BaseMapper<BookCommentReply> {
 
+    /**
+     * 按评论统计审核通过的回复数
+     * @param commentIds 评论ID
+     * @return 评论ID（id）和回复数（replyCount），没有回复的评论不返回
+     */
+    @Select({"<script>",
+            "select comment_id as id, count(*) as reply_count from book_comment_reply where comment_id in",
+            "<foreach collection='commentIds' item='commentId' open='(' separator=',' close=')'>#{commentId}</foreach>",
+            "and audit_status = 1 group by comment_id",
+            "</script>"})
+    List<BookComment> countPassedRepliesByCommentIds(@Param("commentIds") Collection<Long> commentIds);
+
 }
@@ -2,6 +2,12 @@ package com.wcoal.novelplus.dao.mapper;
 
 import com.wcoal.novelplus.dao.entity.BookContent;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.apache.ibatis.annotations.Update;
+
+import java.time.LocalDateTime;
+import java.util.List;
 
 /**
  * <p>
@@ -13,4 +19,31 @@ import com.baomidou.mybatisplus.core.mapper.BaseMapper;
  */
 public interface BookContentMapper extends BaseMapper<BookContent> {
 
+    /**
+     * 按章节ID游标分页查询原始内容（不经过压缩 TypeHandler，返回数据库中的原始列值）
+     *
+     * @param lastChapterId 上一批最后一个章节ID
+     * @param limit         批大小
+     * @return 原始内容列表
+     */
+    @Select("select id, chapter_id, content, update_time from book_content where chapter_id > #{lastChapterId} " +
+            "order by chapter_id limit #{limit}")
+    List<BookContent> selectRawBatch(@Param("lastChapterId") Long lastChapterId, @Param("limit") int limit);
+
+    /**
+     * 写入已编码的内容（不经过压缩 TypeHandler）
+     * 只在更新时间和内容的 SHA-256 都与读取时一致时更新，读取之后作者修改过的章节不会被旧内容覆盖；
+     * 按哈希比较是逐字节的，不受列排序规则（忽略大小写、尾部空格）影响，也不用把原文再传回数据库
+     *
+     * @param chapterId      章节ID
+     * @param updateTime     读取时的更新时间
+     * @param rawHash        读取时原始内容（UTF-8）的 SHA-256 十六进制值
+     * @param encodedContent 已编码的内容
+     * @return 更新行数，内容已被修改时为0
+     */
+    @Update("update book_content set content = #{encodedContent} where chapter_id = #{chapterId} " +
+            "and update_time <=> #{updateTime} and sha2(content, 256) = #{rawHash}")
+    int updateRawContent(@Param("chapterId") Long chapterId, @Param("updateTime") LocalDateTime updateTime,
+                         @Param("rawHash") String rawHash, @Param("encodedContent") String encodedContent);
+
 }
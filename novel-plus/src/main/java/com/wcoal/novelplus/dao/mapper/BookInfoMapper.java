@@ -7,9 +7,11 @@ import com.wcoal.novelplus.dao.entity.BookInfo;
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
 import com.wcoal.novelplus.dto.resp.BookInfoRespDto;
 import com.wcoal.novelplus.dto.resp.BookSearchReqDto;
+import org.apache.ibatis.annotations.Param;
 import org.apache.ibatis.annotations.Update;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * <p>
@@ -27,6 +29,76 @@ public interface BookInfoMapper extends BaseMapper<BookInfo> {
      */
     @Update("update book_info set visit_count = visit_count + 1 where id = #{bookId}")
     void addVisitCount(Long bookId);
+
+    /**
+     * 批量增加小说点击量
+     * @param deltas 小说ID -> 点击量增量
+     * @return 更新行数
+     */
+    @Update({"<script>",
+            "update book_info set visit_count = visit_count + case id",
+            "<foreach collection='deltas' index='bookId' item='delta'> when #{bookId} then #{delta} </foreach>",
+            "end where id in",
+            "<foreach collection='deltas' index='bookId' open='(' separator=',' close=')'>#{bookId}</foreach>",
+            "</script>"})
+    int batchAddVisitCount(@Param("deltas") Map<Long, Long> deltas);
+
+    /**
+     * 批量增减小说评论数（原子增减，结果小于0时取0）
+     * @param deltas 小说ID -> 评论数增量（可为负数）
+     * @return 更新行数
+     */
+    @Update({"<script>",
+            "update book_info set comment_count = greatest(cast(comment_count as signed) + case id",
+            "<foreach collection='deltas' index='bookId' item='delta'> when #{bookId} then #{delta} </foreach>",
+            "end, 0) where id in",
+            "<foreach collection='deltas' index='bookId' open='(' separator=',' close=')'>#{bookId}</foreach>",
+            "</script>"})
+    int batchAddCommentCount(@Param("deltas") Map<Long, Integer> deltas);
+
+    /**
+     * 增减小说总字数（原子增减，结果小于0时取0）
+     * @param bookId 小说ID
+     * @param delta 字数增量（可为负数）
+     * @return 更新行数
+     */
+    @Update("update book_info set word_count = greatest(cast(word_count as signed) + #{delta}, 0) where id = #{bookId}")
+    int addWordCount(@Param("bookId") Long bookId, @Param("delta") int delta);
+
+    /**
+     * 批量校正小说评论数，只更新当前值仍等于 expected 的小说（期间有并发增减的留到下次校正）
+     * @param counts 小说ID -> 实际评论数
+     * @param expected 小说ID -> 校正前读取的评论数
+     * @return 更新行数
+     */
+    @Update({"<script>",
+            "update book_info set comment_count = case id",
+            "<foreach collection='counts' index='bookId' item='count'> when #{bookId} then #{count} </foreach>",
+            "end where id in",
+            "<foreach collection='counts' index='bookId' open='(' separator=',' close=')'>#{bookId}</foreach>",
+            "and comment_count = case id",
+            "<foreach collection='expected' index='bookId' item='count'> when #{bookId} then #{count} </foreach>",
+            "end",
+            "</script>"})
+    int batchUpdateCommentCount(@Param("counts") Map<Long, Integer> counts, @Param("expected") Map<Long, Integer> expected);
+
+    /**
+     * 批量校正小说总字数，只更新当前值仍等于 expected 的小说（期间有并发增减的留到下次校正）
+     * @param counts 小说ID -> 实际总字数
+     * @param expected 小说ID -> 校正前读取的总字数
+     * @return 更新行数
+     */
+    @Update({"<script>",
+            "update book_info set word_count = case id",
+            "<foreach collection='counts' index='bookId' item='count'> when #{bookId} then #{count} </foreach>",
+            "end where id in",
+            "<foreach collection='counts' index='bookId' open='(' separator=',' close=')'>#{bookId}</foreach>",
+            "and word_count = case id",
+            "<foreach collection='expected' index='bookId' item='count'> when #{bookId} then #{count} </foreach>",
+            "end",
+            "</script>"})
+    int batchUpdateWordCount(@Param("counts") Map<Long, Integer> counts, @Param("expected") Map<Long, Integer> expected);
+
     /**
      * 小说搜索
      * @param page mybatis-plus 分页对象
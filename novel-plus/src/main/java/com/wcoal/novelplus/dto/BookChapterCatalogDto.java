@@ -0,0 +1,115 @@
+package com.wcoal.novelplus.dto;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+
+/**
+ * 小说章节目录 DTO
+ * 按章节号升序保存一本书的全部章节，使用并行的原始类型数组以减少内存占用。
+ * 实例不可变，可安全地在多线程间共享。
+ *
+ * @author wcoal
+ * @since 2025-12-01
+ */
+public class BookChapterCatalogDto implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /**
+     * 小说ID
+     */
+    private final Long bookId;
+
+    /**
+     * 章节ID（按章节号升序）
+     */
+    private final long[] chapterIds;
+
+    /**
+     * 章节号（升序）
+     */
+    private final int[] chapterNums;
+
+    /**
+     * 章节名
+     */
+    private final String[] chapterNames;
+
+    /**
+     * 是否收费;1-收费 0-免费
+     */
+    private final byte[] vipFlags;
+
+    public BookChapterCatalogDto(Long bookId, long[] chapterIds, int[] chapterNums,
+                                 String[] chapterNames, byte[] vipFlags) {
+        this.bookId = bookId;
+        this.chapterIds = chapterIds;
+        this.chapterNums = chapterNums;
+        this.chapterNames = chapterNames;
+        this.vipFlags = vipFlags;
+    }
+
+    public Long getBookId() {
+        return bookId;
+    }
+
+    /**
+     * 章节总数
+     */
+    public int size() {
+        return chapterIds.length;
+    }
+
+    public long getChapterId(int index) {
+        return chapterIds[index];
+    }
+
+    public int getChapterNum(int index) {
+        return chapterNums[index];
+    }
+
+    public String getChapterName(int index) {
+        return chapterNames[index];
+    }
+
+    public int getIsVip(int index) {
+        return vipFlags[index];
+    }
+
+    /**
+     * 根据章节号二分查找章节下标
+     *
+     * @param chapterNum 章节号
+     * @return 找到时返回下标，否则返回 -(插入点) - 1
+     */
+    public int indexOfChapterNum(int chapterNum) {
+        return Arrays.binarySearch(chapterNums, chapterNum);
+    }
+
+    /**
+     * 上一章节ID
+     *
+     * @param chapterNum 当前章节号
+     * @return 上一章节ID，不存在返回 null
+     */
+    public Long getPreChapterId(int chapterNum) {
+        int index = indexOfChapterNum(chapterNum);
+        int pre = index >= 0 ? index - 1 : -index - 2;
+        return pre >= 0 ? chapterIds[pre] : null;
+    }
+
+    /**
+     * 下一章节ID
+     *
+     * @param chapterNum 当前章节号
+     * @return 下一章节ID，不存在返回 null
+     */
+    public Long getNextChapterId(int chapterNum) {
+        int index = indexOfChapterNum(chapterNum);
+        int next = index >= 0 ? index + 1 : -index - 1;
+        return next < chapterIds.length ? chapterIds[next] : null;
+    }
+
+}
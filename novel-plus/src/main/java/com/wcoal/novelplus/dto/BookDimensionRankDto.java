@@ -0,0 +1,70 @@
+package com.wcoal.novelplus.dto;
+
+import com.wcoal.novelplus.core.common.enums.BookRankTypeEnum;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Map;
+
+/**
+ * 分类/作品方向排行榜快照 DTO
+ * 一次全表扫描得到的所有分类、作品方向的各类排行榜小说ID（按名次排列），实例不可变。
+ *
+ * @author wcoal
+ * @since 2025-12-09
+ */
+public class BookDimensionRankDto implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    private static final long[] EMPTY = new long[0];
+
+    /**
+     * 排行榜 Key -> 按名次排列的小说ID
+     */
+    private final Map<String, long[]> ranks;
+
+    /**
+     * 生成时间戳
+     */
+    private final long buildTime;
+
+    public BookDimensionRankDto(Map<String, long[]> ranks, long buildTime) {
+        this.ranks = ranks;
+        this.buildTime = buildTime;
+    }
+
+    public long getBuildTime() {
+        return buildTime;
+    }
+
+    /**
+     * 榜单数量
+     */
+    public int getRankCount() {
+        return ranks.size();
+    }
+
+    /**
+     * 分类排行榜小说ID
+     */
+    public long[] getCategoryRank(BookRankTypeEnum type, Long categoryId) {
+        return ranks.getOrDefault(categoryKey(type, categoryId), EMPTY);
+    }
+
+    /**
+     * 作品方向排行榜小说ID
+     */
+    public long[] getWorkDirectionRank(BookRankTypeEnum type, Integer workDirection) {
+        return ranks.getOrDefault(workDirectionKey(type, workDirection), EMPTY);
+    }
+
+    public static String categoryKey(BookRankTypeEnum type, Long categoryId) {
+        return type.name() + "::C::" + categoryId;
+    }
+
+    public static String workDirectionKey(BookRankTypeEnum type, Integer workDirection) {
+        return type.name() + "::W::" + workDirection;
+    }
+}
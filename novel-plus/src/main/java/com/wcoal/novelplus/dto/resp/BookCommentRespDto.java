@@ -4,9 +4,12 @@ import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.wcoal.novelplus.json.UsernameSerializer;
 import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
+import lombok.NoArgsConstructor;
 
+import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.util.List;
 
@@ -17,7 +20,11 @@ import java.util.List;
  */
 @Data
 @Builder
-public class BookCommentRespDto {
+@NoArgsConstructor
+@AllArgsConstructor
+public class BookCommentRespDto implements Serializable {
+
+    private static final long serialVersionUID = 1L;
 
     @Schema(description = "评论总数")
     private Long commentTotal;
@@ -25,9 +32,16 @@ public class BookCommentRespDto {
     @Schema(description = "评论列表")
     private List<CommentInfo> comments;
 
+    @Schema(description = "下一页游标，为空表示没有更多评论")
+    private String nextCursor;
+
     @Data
-    @Builder
-    public static class CommentInfo {
+    @Builder(toBuilder = true)
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class CommentInfo implements Serializable {
+
+        private static final long serialVersionUID = 1L;
 
         @Schema(description = "评论ID")
         private Long id;
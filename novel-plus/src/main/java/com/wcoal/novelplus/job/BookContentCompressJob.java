@@ -0,0 +1,112 @@
+package com.wcoal.novelplus.job;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import com.wcoal.novelplus.core.codec.ContentCodec;
+import com.wcoal.novelplus.dao.entity.BookContent;
+import com.wcoal.novelplus.dao.mapper.BookContentMapper;
+import com.xxl.job.core.context.XxlJobHelper;
+import com.xxl.job.core.handler.annotation.XxlJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * 小说内容压缩迁移任务
+ * 按章节ID游标分批扫描历史未压缩的小说内容，压缩后写回数据库；
+ * 输出压缩前后的字节数（压缩后为 Base64 编码后的列值），作为 TEXT 列存 Base64 的实际开销参考
+ *
+ * @author wcoal
+ * @since 2025-12-02
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookContentCompressJob {
+
+    /**
+     * 默认每批处理数量
+     */
+    private static final int DEFAULT_BATCH_SIZE = 200;
+
+    private final BookContentMapper bookContentMapper;
+    private final ContentCodec contentCodec;
+
+    /**
+     * 压缩历史小说内容
+     * 手动触发即可，任务参数为每批处理数量（默认200），可重复执行
+     */
+    @XxlJob("bookContentCompressJob")
+    public void execute() {
+        long startTime = System.currentTimeMillis();
+        XxlJobHelper.log("========== 开始压缩小说内容 ==========");
+
+        int batchSize = DEFAULT_BATCH_SIZE;
+        String param = XxlJobHelper.getJobParam();
+        if (StringUtils.isNumeric(param)) {
+            batchSize = Integer.parseInt(param);
+        }
+
+        int scanCount = 0;
+        int compressCount = 0;
+        int failCount = 0;
+        int skipCount = 0;
+        long rawBytes = 0L;
+        long encodedBytes = 0L;
+        long lastChapterId = 0L;
+
+        try {
+            while (true) {
+                List<BookContent> batch = bookContentMapper.selectRawBatch(lastChapterId, batchSize);
+                if (batch.isEmpty()) {
+                    break;
+                }
+                for (BookContent bookContent : batch) {
+                    String content = bookContent.getContent();
+                    if (content == null || contentCodec.isEncodedColumn(content)) {
+                        continue;
+                    }
+                    String encoded = contentCodec.encodeColumn(content);
+                    if (encoded.equals(content)) {
+                        // 内容过短或未开启压缩
+                        continue;
+                    }
+                    try {
+                        if (bookContentMapper.updateRawContent(bookContent.getChapterId(),
+                                bookContent.getUpdateTime(), DigestUtil.sha256Hex(content), encoded) > 0) {
+                            compressCount++;
+                            rawBytes += content.getBytes(StandardCharsets.UTF_8).length;
+                            // 编码后的列值只含 ASCII 字符
+                            encodedBytes += encoded.length();
+                        } else {
+                            // 读取之后章节被修改，跳过，下次执行时再压缩
+                            skipCount++;
+                        }
+                    } catch (Exception e) {
+                        failCount++;
+                        log.error("压缩小说内容失败: chapterId={}", bookContent.getChapterId(), e);
+                    }
+                }
+                scanCount += batch.size();
+                lastChapterId = batch.get(batch.size() - 1).getChapterId();
+            }
+
+            String result = String.format(
+                    "========== 压缩完成 ========== 扫描: %d, 压缩: %d, 跳过: %d, 失败: %d, " +
+                            "压缩前: %d 字节, 压缩后: %d 字节 (%.1f%%), 耗时: %dms",
+                    scanCount, compressCount, skipCount, failCount, rawBytes, encodedBytes,
+                    rawBytes == 0 ? 0.0 : encodedBytes * 100.0 / rawBytes, (System.currentTimeMillis() - startTime)
+            );
+            XxlJobHelper.log(result);
+            log.info(result);
+
+        } catch (Exception e) {
+            log.error("小说内容压缩任务执行失败, lastChapterId={}", lastChapterId, e);
+            XxlJobHelper.log("任务执行失败: " + e.getMessage());
+            XxlJobHelper.handleFail(e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.wcoal.novelplus.job;
+
+import com.wcoal.novelplus.manager.redis.BookIdFilterManager;
+import com.xxl.job.core.context.XxlJobHelper;
+import com.xxl.job.core.handler.annotation.XxlJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * 小说/章节ID过滤器重建定时任务
+ * 按主键流式扫描小说表和章节表重建布隆过滤器，清除已删除ID残留的位，
+ * 首次部署或调整过滤器容量后需要手动执行一次
+ *
+ * 建议 Cron: 0 30 4 * * ? (每天凌晨4点半执行)
+ * 路由策略：第一个（单机执行即可）
+ *
+ * @author wcoal
+ * @since 2025-12-12
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class BookIdFilterRebuildJob {
+
+    private final BookIdFilterManager bookIdFilterManager;
+
+    @XxlJob("rebuildIdFilterJob")
+    public void execute() {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            XxlJobHelper.log("========== 开始重建小说/章节ID过滤器 ==========");
+            log.info("开始重建小说/章节ID过滤器");
+
+            long bookTotal = bookIdFilterManager.rebuildBookFilter();
+            long chapterTotal = bookIdFilterManager.rebuildChapterFilter();
+
+            long costTime = System.currentTimeMillis() - startTime;
+            String successMsg = String.format("ID过滤器重建成功，小说数: %d，章节数: %d，耗时: %d ms",
+                    bookTotal, chapterTotal, costTime);
+            XxlJobHelper.log(successMsg);
+            log.info(successMsg);
+
+            XxlJobHelper.handleSuccess(successMsg);
+
+        } catch (Exception e) {
+            long costTime = System.currentTimeMillis() - startTime;
+            String errorMsg = String.format("ID过滤器重建失败，耗时: %d ms，错误: %s",
+                    costTime, e.getMessage());
+            XxlJobHelper.log(errorMsg);
+            log.error(errorMsg, e);
+
+            XxlJobHelper.handleFail(errorMsg);
+        }
+    }
+}
@@ -1,10 +1,14 @@
 package com.wcoal.novelplus.job;
 
+import com.wcoal.novelplus.dto.BookDimensionRankDto;
+import com.wcoal.novelplus.manager.cache.BookLatestRankManager;
 import com.wcoal.novelplus.manager.cache.BookRankCacheManager;
+import com.wcoal.novelplus.manager.cache.BookVisitRankManager;
 import com.xxl.job.core.context.XxlJobHelper;
 import com.xxl.job.core.handler.annotation.XxlJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Component;
 
 /**
@@ -19,10 +23,12 @@ import org.springframework.stereotype.Component;
  * - 点击榜刷新：每小时执行一次，Cron: 0 0 * * * ?
  * - 新书榜刷新：每天凌晨2点执行，Cron: 0 0 2 * * ?
  * - 更新榜刷新：每天凌晨3点执行，Cron: 0 0 3 * * ?
+ * - 点击量 ZSET 对账：每天凌晨4点执行，Cron: 0 0 4 * * ?
+ * - 分类/作品方向排行榜刷新：每30分钟执行一次，Cron: 0 0/30 * * * ?
  * 
  * 优化说明：
  * 旧版本：需要手动调用 evictVisitRankCache() 等方法清除缓存
- * 新版本：通过定时任务自动刷新，无需人工介入
+ * 新版本：通过定时任务自动刷新，无需人工介入；刷新时直接覆盖缓存，不再先清除后加载
  * 
  * @author wcoal
  * @since 2025-10-10
@@ -34,6 +40,15 @@ public class BookRankRefreshJob {
 
     private final BookRankCacheManager bookRankCacheManager;
 
+    private final BookVisitRankManager bookVisitRankManager;
+
+    private final BookLatestRankManager bookLatestRankManager;
+
+    /**
+     * 点击量 ZSET 对账默认分页大小
+     */
+    private static final int DEFAULT_REBUILD_PAGE_SIZE = 1000;
+
     /**
      * 刷新点击榜缓存
      * 
@@ -48,11 +63,8 @@ public class BookRankRefreshJob {
             XxlJobHelper.log("========== 开始刷新点击榜缓存 ==========");
             log.info("开始刷新点击榜缓存");
 
-            // 清除旧缓存
-            bookRankCacheManager.evictVisitRankCache();
-            
-            // 预加载新数据（调用查询方法会自动缓存）
-            bookRankCacheManager.listVisitRankBooks();
+            // 查询新数据后直接覆盖缓存，刷新期间旧数据一直可读
+            bookRankCacheManager.refreshVisitRankBooks();
 
             long costTime = System.currentTimeMillis() - startTime;
             String successMsg = String.format("点击榜缓存刷新成功，耗时: %d ms", costTime);
@@ -72,6 +84,87 @@ public class BookRankRefreshJob {
         }
     }
 
+    /**
+     * 点击量 ZSET 对账
+     * 按主键分页从数据库重建实时点击榜 ZSET，修正 Redis 与数据库之间的偏差
+     *
+     * 执行策略：每天凌晨4点执行，任务参数为分页大小（默认1000）
+     * 路由策略：第一个（单机执行即可）
+     */
+    @XxlJob("rebuildVisitRankJob")
+    public void rebuildVisitRank() {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            XxlJobHelper.log("========== 开始重建点击量 ZSET ==========");
+            log.info("开始重建点击量 ZSET");
+
+            int pageSize = DEFAULT_REBUILD_PAGE_SIZE;
+            String param = XxlJobHelper.getJobParam();
+            if (StringUtils.isNumeric(param)) {
+                pageSize = Integer.parseInt(param);
+            }
+            long total = bookVisitRankManager.rebuild(pageSize);
+            if (total < 0) {
+                XxlJobHelper.log("其它节点正在重建点击量 ZSET，本次跳过");
+                XxlJobHelper.handleSuccess("其它节点正在重建，跳过");
+                return;
+            }
+
+            long costTime = System.currentTimeMillis() - startTime;
+            String successMsg = String.format("点击量 ZSET 重建成功，小说数: %d，耗时: %d ms", total, costTime);
+            XxlJobHelper.log(successMsg);
+            log.info(successMsg);
+
+            XxlJobHelper.handleSuccess(successMsg);
+
+        } catch (Exception e) {
+            long costTime = System.currentTimeMillis() - startTime;
+            String errorMsg = String.format("点击量 ZSET 重建失败，耗时: %d ms，错误: %s",
+                    costTime, e.getMessage());
+            XxlJobHelper.log(errorMsg);
+            log.error(errorMsg, e);
+
+            XxlJobHelper.handleFail(errorMsg);
+        }
+    }
+
+    /**
+     * 刷新分类/作品方向排行榜
+     * 一次扫描小说表生成所有分类、作品方向的点击榜、更新榜、新书榜快照并替换缓存
+     *
+     * 执行策略：每30分钟执行一次
+     * 路由策略：第一个（单机执行即可）
+     */
+    @XxlJob("refreshDimensionRankJob")
+    public void refreshDimensionRank() {
+        long startTime = System.currentTimeMillis();
+
+        try {
+            XxlJobHelper.log("========== 开始刷新分类/作品方向排行榜 ==========");
+            log.info("开始刷新分类/作品方向排行榜");
+
+            BookDimensionRankDto ranks = bookRankCacheManager.refreshDimensionRanks();
+
+            long costTime = System.currentTimeMillis() - startTime;
+            String successMsg = String.format("分类/作品方向排行榜刷新成功，榜单数: %d，耗时: %d ms",
+                    ranks.getRankCount(), costTime);
+            XxlJobHelper.log(successMsg);
+            log.info(successMsg);
+
+            XxlJobHelper.handleSuccess(successMsg);
+
+        } catch (Exception e) {
+            long costTime = System.currentTimeMillis() - startTime;
+            String errorMsg = String.format("分类/作品方向排行榜刷新失败，耗时: %d ms，错误: %s",
+                    costTime, e.getMessage());
+            XxlJobHelper.log(errorMsg);
+            log.error(errorMsg, e);
+
+            XxlJobHelper.handleFail(errorMsg);
+        }
+    }
+
     /**
      * 刷新新书榜缓存
      * 
@@ -86,11 +179,11 @@ public class BookRankRefreshJob {
             XxlJobHelper.log("========== 开始刷新新书榜缓存 ==========");
             log.info("开始刷新新书榜缓存");
 
-            // 清除旧缓存
-            bookRankCacheManager.evictNewestRankCache();
-            
-            // 预加载新数据
-            bookRankCacheManager.listNewestRankBooks();
+            // 直接覆盖数据库排行榜缓存（不先清除，避免刷新期间请求全部未命中）
+            bookRankCacheManager.refreshNewestRankBooks();
+
+            // 从数据库重建 Redis 新书榜（修正增量维护的偏差）
+            bookLatestRankManager.rebuildNewestRank();
 
             long costTime = System.currentTimeMillis() - startTime;
             String successMsg = String.format("新书榜缓存刷新成功，耗时: %d ms", costTime);
@@ -124,11 +217,11 @@ public class BookRankRefreshJob {
             XxlJobHelper.log("========== 开始刷新更新榜缓存 ==========");
             log.info("开始刷新更新榜缓存");
 
-            // 清除旧缓存
-            bookRankCacheManager.evictUpdateRankCache();
-            
-            // 预加载新数据
-            bookRankCacheManager.listUpdateRankBooks();
+            // 直接覆盖数据库排行榜缓存（不先清除，避免刷新期间请求全部未命中）
+            bookRankCacheManager.refreshUpdateRankBooks();
+
+            // 从数据库重建 Redis 更新榜（修正增量维护的偏差）
+            bookLatestRankManager.rebuildUpdateRank();
 
             long costTime = System.currentTimeMillis() - startTime;
             String successMsg = String.format("更新榜缓存刷新成功，耗时: %d ms", costTime);
@@ -162,10 +255,11 @@ public class BookRankRefreshJob {
             XxlJobHelper.log("========== 开始刷新所有排行榜缓存 ==========");
             log.info("开始刷新所有排行榜缓存");
 
-            // 依次刷新三个排行榜
+            // 依次刷新所有排行榜
             refreshVisitRank();
             refreshNewestRank();
             refreshUpdateRank();
+            refreshDimensionRank();
 
             long costTime = System.currentTimeMillis() - startTime;
             String successMsg = String.format("所有排行榜缓存刷新成功，耗时: %d ms", costTime);
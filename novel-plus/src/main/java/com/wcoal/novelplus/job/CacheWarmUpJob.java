@@ -1,8 +1,8 @@
 package com.wcoal.novelplus.job;
 
-import com.wcoal.novelplus.manager.cache.BookInfoCacheManager;
 import com.wcoal.novelplus.manager.cache.BookRankCacheManager;
 import com.wcoal.novelplus.manager.cache.HomeBookCacheManager;
+import com.wcoal.novelplus.manager.cache.HotKeyWarmUpManager;
 import com.xxl.job.core.context.XxlJobHelper;
 import com.xxl.job.core.handler.annotation.XxlJob;
 import lombok.RequiredArgsConstructor;
@@ -20,7 +20,7 @@ import org.springframework.stereotype.Component;
  * 预热策略：
  * - 首页推荐书籍
  * - 三大排行榜（点击榜、新书榜、更新榜）
- * - 可扩展：热门书籍详情、热门章节等
+ * - 热点 key 快照：热门书籍详情、章节、内容、目录（应用启动时也会自动回放，见 HotKeyWarmUpManager）
  * 
  * 任务配置建议（在XXL-Job管理后台配置）：
  * - 执行时间：每天凌晨4点，Cron: 0 0 4 * * ?
@@ -42,7 +42,7 @@ public class CacheWarmUpJob {
 
     private final HomeBookCacheManager homeBookCacheManager;
     private final BookRankCacheManager bookRankCacheManager;
-    private final BookInfoCacheManager bookInfoCacheManager;
+    private final HotKeyWarmUpManager hotKeyWarmUpManager;
 
     /**
      * 缓存预热主任务
@@ -108,25 +108,17 @@ public class CacheWarmUpJob {
                 log.error("更新榜预热失败", e);
             }
 
-            // 5. 可扩展：预热热门书籍详情
-            // 这里可以根据实际需求，预热访问量最高的书籍详情
-            // 例如：从点击榜中取前10本书，预热它们的详情
-            /*
+            // 5. 回放热点 key 快照（热门书籍详情、章节、内容、目录）
             try {
-                XxlJobHelper.log("5. 预热热门书籍详情...");
-                List<BookRankRespDto> topBooks = bookRankCacheManager.listVisitRankBooks()
-                        .stream().limit(10).toList();
-                for (BookRankRespDto book : topBooks) {
-                    bookInfoCacheManager.getBookInfo(book.getId());
-                }
+                XxlJobHelper.log("5. 回放热点 key 快照...");
+                int warmed = hotKeyWarmUpManager.warmUp();
                 successCount++;
-                XxlJobHelper.log("   ✓ 热门书籍详情预热成功");
+                XxlJobHelper.log("   ✓ 热点 key 预热成功，key 数: " + warmed);
             } catch (Exception e) {
                 failCount++;
-                XxlJobHelper.log("   ✗ 热门书籍详情预热失败: " + e.getMessage());
-                log.error("热门书籍详情预热失败", e);
+                XxlJobHelper.log("   ✗ 热点 key 预热失败: " + e.getMessage());
+                log.error("热点 key 预热失败", e);
             }
-            */
 
             long costTime = System.currentTimeMillis() - startTime;
             String resultMsg = String.format(
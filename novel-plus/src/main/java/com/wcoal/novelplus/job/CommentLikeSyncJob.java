@@ -1,7 +1,8 @@
 package com.wcoal.novelplus.job;
 
+import cn.hutool.core.collection.ListUtil;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
-import com.wcoal.novelplus.dao.entity.BookComment;
+import com.wcoal.novelplus.core.config.CommentLikeSyncProperties;
 import com.wcoal.novelplus.dao.entity.BookCommentLike;
 import com.wcoal.novelplus.dao.mapper.BookCommentLikeMapper;
 import com.wcoal.novelplus.dao.mapper.BookCommentMapper;
@@ -10,19 +11,27 @@ import com.xxl.job.core.context.XxlJobHelper;
 import com.xxl.job.core.handler.annotation.XxlJob;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
-import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
-import java.util.stream.Collectors;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * 评论点赞数据同步定时任务
  * 将 Redis 中的点赞数据定期同步到 MySQL
+ * <p>
+ * 同步流程：SSCAN 逐批遍历待同步集合，按评论ID对分片总数取模只处理本分片的评论，
+ * 每攒够一批交给线程池并行同步：先移除这批评论的同步标记，再一次 pipeline 读取点赞集合、
+ * 一次 IN 查询数据库已有记录，差集通过多行 INSERT IGNORE 和按主键批量删除写回，点赞数量批量更新。
+ * 同步失败的批次恢复同步标记，下次重试；所有写操作都是幂等的，重复同步不会产生错误数据。
  *
  * @author wcoal
  * @since 2025-11-13
@@ -35,50 +44,59 @@ public class CommentLikeSyncJob {
     private final CommentLikeCacheManager commentLikeCacheManager;
     private final BookCommentMapper bookCommentMapper;
     private final BookCommentLikeMapper bookCommentLikeMapper;
+    private final CommentLikeSyncProperties properties;
 
     /**
      * 同步点赞数据到数据库
      * Cron: 0 *\/5 * * * ? (每5分钟执行一次)
+     * 路由策略：分片广播（多个执行器按评论ID分担），单机部署时选第一个即可
      */
     @XxlJob("commentLikeSyncJob")
     public void execute() {
         long startTime = System.currentTimeMillis();
-        XxlJobHelper.log("========== 开始同步评论点赞数据 ==========");
+        int shardIndex = XxlJobHelper.getShardIndex();
+        int shardTotal = Math.max(XxlJobHelper.getShardTotal(), 1);
+        XxlJobHelper.log("========== 开始同步评论点赞数据 ========== 分片: " + shardIndex + "/" + shardTotal);
+
+        AtomicInteger successCount = new AtomicInteger();
+        AtomicInteger failCount = new AtomicInteger();
+        // 队列满时由扫描线程自己执行，扫描速度不会超过同步速度
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(properties.getParallelism(), properties.getParallelism(),
+                0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(properties.getParallelism()), r -> {
+            Thread thread = new Thread(r, "comment-like-sync");
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
 
         try {
-            // 1. 获取待同步的评论ID列表
-            Set<String> commentIds = commentLikeCacheManager.getCommentIdsToSync();
-
-            if (commentIds == null || commentIds.isEmpty()) {
-                XxlJobHelper.log("没有待同步的数据");
-                return;
+            // 1. 逐批遍历待同步的评论ID，只处理本分片的评论
+            List<List<Long>> pending = new ArrayList<>(List.of(new ArrayList<>()));
+            commentLikeCacheManager.scanCommentIdsToSync(properties.getScanCount(), commentId -> {
+                if (Math.floorMod(commentId, shardTotal) != shardIndex) {
+                    return;
+                }
+                List<Long> chunk = pending.get(0);
+                chunk.add(commentId);
+                if (chunk.size() >= properties.getChunkSize()) {
+                    pending.set(0, new ArrayList<>());
+                    executor.execute(() -> syncChunk(chunk, successCount, failCount));
+                }
+            });
+            if (!pending.get(0).isEmpty()) {
+                List<Long> chunk = pending.get(0);
+                executor.execute(() -> syncChunk(chunk, successCount, failCount));
             }
 
-            XxlJobHelper.log("待同步评论数量: " + commentIds.size());
-
-            int successCount = 0;
-            int failCount = 0;
-
-            // 2. 遍历每个评论进行同步
-            for (String commentIdStr : commentIds) {
-                try {
-                    Long commentId = Long.parseLong(commentIdStr);
-                    syncCommentLikeData(commentId);
-                    successCount++;
-
-                    XxlJobHelper.log("同步成功: commentId=" + commentId);
-
-                } catch (Exception e) {
-                    failCount++;
-                    log.error("同步评论点赞数据失败: commentId={}", commentIdStr, e);
-                    XxlJobHelper.log("同步失败: commentId=" + commentIdStr + ", error=" + e.getMessage());
-                }
+            // 2. 等待所有批次完成
+            executor.shutdown();
+            while (!executor.awaitTermination(1, TimeUnit.MINUTES)) {
+                XxlJobHelper.log("同步进行中，成功: " + successCount.get() + ", 失败: " + failCount.get());
             }
 
-            long endTime = System.currentTimeMillis();
             String result = String.format(
-                    "========== 同步完成 ========== 总数: %d, 成功: %d, 失败: %d, 耗时: %dms",
-                    commentIds.size(), successCount, failCount, (endTime - startTime)
+                    "========== 同步完成 ========== 分片: %d/%d, 成功: %d, 失败: %d, 耗时: %dms",
+                    shardIndex, shardTotal, successCount.get(), failCount.get(),
+                    (System.currentTimeMillis() - startTime)
             );
 
             XxlJobHelper.log(result);
@@ -88,102 +106,90 @@ public class CommentLikeSyncJob {
             log.error("评论点赞数据同步任务执行失败", e);
             XxlJobHelper.log("任务执行失败: " + e.getMessage());
             XxlJobHelper.handleFail(e.getMessage());
+        } finally {
+            executor.shutdownNow();
         }
     }
 
     /**
-     * 同步单个评论的点赞数据
+     * 同步一批评论，失败时恢复同步标记
      */
-    @Transactional(rollbackFor = Exception.class)
-    public void syncCommentLikeData(Long commentId) {
-        log.info("开始同步评论点赞数据: commentId={}", commentId);
-
-        // 1. 从 Redis 获取点赞用户列表
-        Set<String> redisUserIdStrs = commentLikeCacheManager.getLikeUserIds(commentId);
-
-        Set<Long> redisUserIds = new HashSet<>();
-        if (redisUserIdStrs != null && !redisUserIdStrs.isEmpty()) {
-            redisUserIds = redisUserIdStrs.stream()
-                    .map(Long::parseLong)
-                    .collect(Collectors.toSet());
+    private void syncChunk(List<Long> commentIds, AtomicInteger successCount, AtomicInteger failCount) {
+        // 先移除标记再读取 Redis：移除之后的点赞变更会重新打上标记，不会丢失
+        commentLikeCacheManager.removeSyncMarks(commentIds);
+        try {
+            int synced = syncCommentLikeData(commentIds);
+            successCount.addAndGet(synced);
+        } catch (Exception e) {
+            failCount.addAndGet(commentIds.size());
+            log.error("同步评论点赞数据失败: commentIds={}", commentIds, e);
+            XxlJobHelper.log("同步失败: " + commentIds.size() + " 条评论, error=" + e.getMessage());
+            commentLikeCacheManager.addSyncMarks(commentIds);
         }
+    }
 
-        // 2. 查询数据库中已有的点赞记录
+    /**
+     * 同步一批评论的点赞数据
+     *
+     * @return 实际同步的评论数量（点赞数据已不在 Redis 中的评论跳过）
+     */
+    public int syncCommentLikeData(List<Long> commentIds) {
+        // 1. 一次 pipeline 从 Redis 获取点赞用户（未加载到 Redis 的评论以数据库为准，不同步）
+        Map<Long, Set<Long>> redisLikes = commentLikeCacheManager.getLikeUserIds(commentIds);
+        if (redisLikes.isEmpty()) {
+            return 0;
+        }
+
+        // 2. 一次查询数据库中已有的点赞记录
         QueryWrapper<BookCommentLike> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("comment_id", commentId);
+        queryWrapper.select("id", "comment_id", "user_id")
+                .in("comment_id", redisLikes.keySet());
         List<BookCommentLike> existingLikes = bookCommentLikeMapper.selectList(queryWrapper);
 
-        Set<Long> dbUserIds = existingLikes.stream()
-                .map(BookCommentLike::getUserId)
-                .collect(Collectors.toSet());
-
-        // 3. 计算需要新增的点赞记录（Redis 有，数据库没有）
-        Set<Long> toAdd = new HashSet<>(redisUserIds);
-        toAdd.removeAll(dbUserIds);
-
-        // 4. 计算需要删除的点赞记录（数据库有，Redis 没有）
-        Set<Long> toRemove = new HashSet<>(dbUserIds);
-        toRemove.removeAll(redisUserIds);
-
-        // 5. 批量新增点赞记录
-        if (!toAdd.isEmpty()) {
-            int addCount = 0;
-            for (Long userId : toAdd) {
-                try {
-                    BookCommentLike like = new BookCommentLike();
-                    like.setCommentId(commentId);
-                    like.setUserId(userId);
-                    like.setCreateTime(LocalDateTime.now());
-                    like.setUpdateTime(LocalDateTime.now());
-
-                    bookCommentLikeMapper.insert(like);
-                    addCount++;
-
-                } catch (DuplicateKeyException e) {
-                    // 忽略重复记录
-                    log.debug("点赞记录已存在: commentId={}, userId={}", commentId, userId);
+        // 3. 计算差集：数据库有、Redis 没有的记录删除；Redis 有、数据库没有的记录新增
+        Map<Long, Set<Long>> dbLikes = new HashMap<>();
+        List<Long> toRemove = new ArrayList<>();
+        for (BookCommentLike like : existingLikes) {
+            if (redisLikes.get(like.getCommentId()).contains(like.getUserId())) {
+                dbLikes.computeIfAbsent(like.getCommentId(), k -> new HashSet<>()).add(like.getUserId());
+            } else {
+                toRemove.add(like.getId());
+            }
+        }
+        List<BookCommentLike> toAdd = new ArrayList<>();
+        Map<Long, Integer> likeCounts = new HashMap<>(redisLikes.size());
+        redisLikes.forEach((commentId, userIds) -> {
+            Set<Long> existing = dbLikes.getOrDefault(commentId, Set.of());
+            for (Long userId : userIds) {
+                if (!existing.contains(userId)) {
+                    toAdd.add(new BookCommentLike().setCommentId(commentId).setUserId(userId));
                 }
             }
+            likeCounts.put(commentId, userIds.size());
+        });
 
-            log.info("新增点赞记录: commentId={}, count={}", commentId, addCount);
-            XxlJobHelper.log("  新增点赞记录: " + addCount);
+        // 4. 多行 INSERT IGNORE 批量新增
+        int addCount = 0;
+        for (List<BookCommentLike> batch : ListUtil.partition(toAdd, properties.getBatchSize())) {
+            addCount += bookCommentLikeMapper.batchInsertIgnore(batch);
         }
 
-        // 6. 批量删除点赞记录
-        if (!toRemove.isEmpty()) {
-            QueryWrapper<BookCommentLike> deleteWrapper = new QueryWrapper<>();
-            deleteWrapper.eq("comment_id", commentId)
-                    .in("user_id", toRemove);
-
-            int deleteCount = bookCommentLikeMapper.delete(deleteWrapper);
-
-            log.info("删除点赞记录: commentId={}, count={}", commentId, deleteCount);
-            XxlJobHelper.log("  删除点赞记录: " + deleteCount);
+        // 5. 按主键批量删除
+        int deleteCount = 0;
+        for (List<Long> batch : ListUtil.partition(toRemove, properties.getBatchSize())) {
+            deleteCount += bookCommentLikeMapper.deleteBatchIds(batch);
         }
 
-        // 7. 更新评论的点赞数量
-        BookComment comment = bookCommentMapper.selectById(commentId);
-        if (comment != null) {
-            int newLikeCount = redisUserIds.size();
-            int oldLikeCount = comment.getLikeCount();
-
-            if (oldLikeCount != newLikeCount) {
-                comment.setLikeCount(newLikeCount);
-                comment.setUpdateTime(LocalDateTime.now());
-                bookCommentMapper.updateById(comment);
-
-                log.info("更新评论点赞数: commentId={}, {} -> {}", 
-                        commentId, oldLikeCount, newLikeCount);
-                XxlJobHelper.log(String.format("  更新点赞数: %d -> %d", oldLikeCount, newLikeCount));
-            }
-        } else {
-            log.warn("评论不存在: commentId={}", commentId);
-            XxlJobHelper.log("  警告: 评论不存在");
+        // 6. 批量更新评论的点赞数量
+        int updateCount = 0;
+        for (List<Long> batch : ListUtil.partition(new ArrayList<>(likeCounts.keySet()), properties.getBatchSize())) {
+            Map<Long, Integer> counts = new HashMap<>(batch.size());
+            batch.forEach(commentId -> counts.put(commentId, likeCounts.get(commentId)));
+            updateCount += bookCommentMapper.batchUpdateLikeCount(counts);
         }
 
-        // 8. 移除同步标记
-        commentLikeCacheManager.removeSyncMark(commentId);
-
-        log.info("同步评论点赞数据完成: commentId={}, likeCount={}", commentId, redisUserIds.size());
+        log.info("同步评论点赞数据完成: 评论数={}, 新增={}, 删除={}, 更新点赞数={}",
+                redisLikes.size(), addCount, deleteCount, updateCount);
+        return redisLikes.size();
     }
 }
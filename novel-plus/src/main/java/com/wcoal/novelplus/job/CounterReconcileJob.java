@@ -0,0 +1,203 @@
+package com.wcoal.novelplus.job;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.wcoal.novelplus.core.common.constant.DatabaseConsts;
+import com.wcoal.novelplus.dao.entity.BookComment;
+import com.wcoal.novelplus.dao.entity.BookInfo;
+import com.wcoal.novelplus.dao.mapper.BookChapterMapper;
+import com.wcoal.novelplus.dao.mapper.BookCommentMapper;
+import com.wcoal.novelplus.dao.mapper.BookCommentReplyMapper;
+import com.wcoal.novelplus.dao.mapper.BookInfoMapper;
+import com.wcoal.novelplus.manager.cache.BookCommentCacheManager;
+import com.wcoal.novelplus.manager.cache.BookInfoCacheManager;
+import com.xxl.job.core.context.XxlJobHelper;
+import com.xxl.job.core.handler.annotation.XxlJob;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 冗余计数校正定时任务
+ * 按主键顺序逐批扫描小说和评论，用明细数据重新统计小说评论数、小说总字数和评论回复数，
+ * 与冗余字段不一致的批量写回。写回时带上扫描时读到的旧值做条件（CAS），
+ * 扫描期间被 BookCounterManager 并发增减过的行不会被覆盖，留到下次校正。
+ * CAS 只能识别已提交的计数变化：前提是计数增减与对应的明细变更（评论增删、审核状态变更、
+ * 回复增删、章节增删）在同一事务中提交，否则明细已提交、计数尚未提交的窗口内统计出的新值
+ * 会被写回，随后的增量再叠加一次，造成重复计数。
+ *
+ * @author wcoal
+ * @since 2025-12-23
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CounterReconcileJob {
+
+    /**
+     * 默认每批扫描的行数
+     */
+    private static final int DEFAULT_BATCH_SIZE = 500;
+
+    private final BookInfoMapper bookInfoMapper;
+    private final BookCommentMapper bookCommentMapper;
+    private final BookCommentReplyMapper bookCommentReplyMapper;
+    private final BookChapterMapper bookChapterMapper;
+    private final BookInfoCacheManager bookInfoCacheManager;
+    private final BookCommentCacheManager bookCommentCacheManager;
+
+    /**
+     * 校正冗余计数
+     * Cron: 0 30 3 * * ? (每天凌晨3:30执行一次)
+     * 任务参数为每批扫描的行数（默认500）
+     */
+    @XxlJob("counterReconcileJob")
+    public void execute() {
+        long startTime = System.currentTimeMillis();
+        XxlJobHelper.log("========== 开始校正冗余计数 ==========");
+
+        int batchSize = DEFAULT_BATCH_SIZE;
+        String param = XxlJobHelper.getJobParam();
+        if (StringUtils.isNumeric(param)) {
+            batchSize = Integer.parseInt(param);
+        }
+
+        try {
+            int[] bookResult = reconcileBooks(batchSize);
+            int replyFixed = reconcileReplyCounts(batchSize);
+
+            String result = String.format(
+                    "========== 校正完成 ========== 小说: %d, 评论数校正: %d, 总字数校正: %d, 回复数校正: %d, 耗时: %dms",
+                    bookResult[0], bookResult[1], bookResult[2], replyFixed, System.currentTimeMillis() - startTime);
+            XxlJobHelper.log(result);
+            log.info(result);
+            XxlJobHelper.handleSuccess(result);
+
+        } catch (Exception e) {
+            log.error("冗余计数校正任务执行失败", e);
+            XxlJobHelper.log("任务执行失败: " + e.getMessage());
+            XxlJobHelper.handleFail(e.getMessage());
+        }
+    }
+
+    /**
+     * 校正小说评论数和小说总字数
+     *
+     * @return [扫描的小说数, 评论数校正数, 总字数校正数]
+     */
+    private int[] reconcileBooks(int batchSize) {
+        int scanned = 0;
+        int commentFixed = 0;
+        int wordFixed = 0;
+        long lastId = 0;
+        while (true) {
+            QueryWrapper<BookInfo> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select(DatabaseConsts.CommonColumnEnum.ID.getName(), "comment_count",
+                            DatabaseConsts.BookTable.COLUMN_WORD_COUNT)
+                    .gt(DatabaseConsts.CommonColumnEnum.ID.getName(), lastId)
+                    .orderByAsc(DatabaseConsts.CommonColumnEnum.ID.getName())
+                    .last("limit " + batchSize);
+            List<BookInfo> books = bookInfoMapper.selectList(queryWrapper);
+            if (books.isEmpty()) {
+                break;
+            }
+            scanned += books.size();
+            lastId = books.get(books.size() - 1).getId();
+            Set<Long> bookIds = books.stream().map(BookInfo::getId).collect(Collectors.toSet());
+
+            // 1. 评论数
+            Map<Long, Integer> commentCounts = bookCommentMapper.countPassedCommentsByBookIds(bookIds).stream()
+                    .collect(Collectors.toMap(BookInfo::getId, BookInfo::getCommentCount));
+            Map<Long, Integer> expected = new HashMap<>();
+            Map<Long, Integer> actual = new HashMap<>();
+            for (BookInfo book : books) {
+                int current = Objects.requireNonNullElse(book.getCommentCount(), 0);
+                int count = commentCounts.getOrDefault(book.getId(), 0);
+                if (current != count) {
+                    expected.put(book.getId(), current);
+                    actual.put(book.getId(), count);
+                }
+            }
+            if (!actual.isEmpty()) {
+                commentFixed += bookInfoMapper.batchUpdateCommentCount(actual, expected);
+                actual.keySet().forEach(bookCommentCacheManager::evictFirstPage);
+                XxlJobHelper.log("校正小说评论数: " + actual.keySet());
+            }
+
+            // 2. 总字数
+            Map<Long, Integer> wordCounts = bookChapterMapper.sumWordCountByBookIds(bookIds).stream()
+                    .collect(Collectors.toMap(BookInfo::getId, BookInfo::getWordCount));
+            expected = new HashMap<>();
+            actual = new HashMap<>();
+            for (BookInfo book : books) {
+                int current = Objects.requireNonNullElse(book.getWordCount(), 0);
+                int count = wordCounts.getOrDefault(book.getId(), 0);
+                if (current != count) {
+                    expected.put(book.getId(), current);
+                    actual.put(book.getId(), count);
+                }
+            }
+            if (!actual.isEmpty()) {
+                wordFixed += bookInfoMapper.batchUpdateWordCount(actual, expected);
+                actual.keySet().forEach(bookInfoCacheManager::evictBookInfoCache);
+                XxlJobHelper.log("校正小说总字数: " + actual.keySet());
+            }
+        }
+        return new int[]{scanned, commentFixed, wordFixed};
+    }
+
+    /**
+     * 校正评论回复数
+     *
+     * @return 校正的评论数
+     */
+    private int reconcileReplyCounts(int batchSize) {
+        int fixed = 0;
+        long lastId = 0;
+        while (true) {
+            QueryWrapper<BookComment> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select(DatabaseConsts.CommonColumnEnum.ID.getName(),
+                            DatabaseConsts.BookCommentTable.COLUMN_BOOK_ID, "reply_count")
+                    .gt(DatabaseConsts.CommonColumnEnum.ID.getName(), lastId)
+                    .orderByAsc(DatabaseConsts.CommonColumnEnum.ID.getName())
+                    .last("limit " + batchSize);
+            List<BookComment> comments = bookCommentMapper.selectList(queryWrapper);
+            if (comments.isEmpty()) {
+                break;
+            }
+            lastId = comments.get(comments.size() - 1).getId();
+            Map<Long, BookComment> commentMap = comments.stream()
+                    .collect(Collectors.toMap(BookComment::getId, Function.identity()));
+
+            Map<Long, Integer> replyCounts = bookCommentReplyMapper.countPassedRepliesByCommentIds(commentMap.keySet())
+                    .stream().collect(Collectors.toMap(BookComment::getId, BookComment::getReplyCount));
+            Map<Long, Integer> expected = new HashMap<>();
+            Map<Long, Integer> actual = new HashMap<>();
+            for (BookComment comment : comments) {
+                int current = Objects.requireNonNullElse(comment.getReplyCount(), 0);
+                int count = replyCounts.getOrDefault(comment.getId(), 0);
+                if (current != count) {
+                    expected.put(comment.getId(), current);
+                    actual.put(comment.getId(), count);
+                }
+            }
+            if (!actual.isEmpty()) {
+                fixed += bookCommentMapper.batchUpdateReplyCount(actual, expected);
+                Set<Long> bookIds = new HashSet<>();
+                actual.keySet().forEach(commentId -> bookIds.add(commentMap.get(commentId).getBookId()));
+                bookIds.forEach(bookCommentCacheManager::evictFirstPage);
+                XxlJobHelper.log("校正评论回复数: " + actual.keySet());
+            }
+        }
+        return fixed;
+    }
+}
@@ -6,45 +6,61 @@ import com.wcoal.novelplus.core.common.constant.DatabaseConsts;
 import com.wcoal.novelplus.dao.entity.AuthorInfo;
 import com.wcoal.novelplus.dao.mapper.AuthorInfoMapper;
 import com.wcoal.novelplus.dto.AuthorInfoDto;
-import lombok.RequiredArgsConstructor;
-import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.stereotype.Component;
 
 import java.util.Objects;
 
 /**
  * 作家信息缓存管理器
+ * 拦截器每个请求都会查询当前用户的作家信息，非作家用户同样缓存一个 id 为空的占位对象，
+ * 避免每次请求都穿透到数据库（Redis 缓存不允许缓存 null）
  */
 @Component
-@RequiredArgsConstructor
 public class AuthorInfoCacheManager {
 
     private final AuthorInfoMapper authorInfoMapper;
 
+    private final Cache authorCache;
+
+    public AuthorInfoCacheManager(AuthorInfoMapper authorInfoMapper,
+                                  @Qualifier(CacheConsts.REDIS_CACHE_MANAGER) CacheManager redisCacheManager) {
+        this.authorInfoMapper = authorInfoMapper;
+        this.authorCache = redisCacheManager.getCache(CacheConsts.AUTHOR_INFO_CACHE_NAME);
+    }
+
     /**
      * 查询作家信息，并放入缓存中
+     *
+     * @return 作家信息，用户不是作家时返回 null
      */
-    @Cacheable(cacheManager = CacheConsts.REDIS_CACHE_MANAGER,
-            value = CacheConsts.AUTHOR_INFO_CACHE_NAME, unless = "#result == null")
     public AuthorInfoDto getAuthor(Long userId) {
+        AuthorInfoDto author = authorCache.get(userId, () -> loadAuthor(userId));
+        return author == null || author.getId() == null ? null : author;
+    }
+
+    /**
+     * 清除用户的作家信息缓存（注册作家后调用）
+     */
+    public void evictAuthorCache(Long userId) {
+        authorCache.evict(userId);
+    }
+
+    private AuthorInfoDto loadAuthor(Long userId) {
         QueryWrapper<AuthorInfo> queryWrapper = new QueryWrapper<>();
         queryWrapper
                 .eq(DatabaseConsts.AuthorInfoTable.COLUMN_USER_ID, userId)
                 .last(DatabaseConsts.SqlEnum.LIMIT_1.getSql());
         AuthorInfo authorInfo = authorInfoMapper.selectOne(queryWrapper);
         if (Objects.isNull(authorInfo)) {
-            return null;
+            // 非作家占位
+            return AuthorInfoDto.builder().build();
         }
         return AuthorInfoDto.builder()
                 .id(authorInfo.getId())
                 .penName(authorInfo.getPenName())
                 .status(authorInfo.getStatus()).build();
     }
-
-    @CacheEvict(cacheManager = CacheConsts.REDIS_CACHE_MANAGER,
-            value = CacheConsts.AUTHOR_INFO_CACHE_NAME)
-    public void evictAuthorCache() {
-        // 调用此方法自动清除作家信息的缓存
-    }
 }
@@ -28,7 +28,7 @@ public class BookCategoryCacheManager {
      * @return 小说分类列表
      */
     @Cacheable(cacheManager = CacheConsts.CAFFEINE_CACHE_MANAGER,
-            value = CacheConsts.BOOK_CATEGORY_LIST_CACHE_NAME)
+            value = CacheConsts.BOOK_CATEGORY_LIST_CACHE_NAME, sync = true)
     public List<BookCategoryRespDto> list(Integer workDirection) {
         QueryWrapper<BookCategory> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq(DatabaseConsts.BookCategoryTable.COLUMN_WORK_DIRECTION, workDirection);
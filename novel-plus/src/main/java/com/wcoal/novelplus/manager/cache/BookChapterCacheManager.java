@@ -4,11 +4,16 @@ import com.wcoal.novelplus.core.common.constant.CacheConsts;
 import com.wcoal.novelplus.dao.entity.BookChapter;
 import com.wcoal.novelplus.dao.mapper.BookChapterMapper;
 import com.wcoal.novelplus.dto.resp.BookChapterRespDto;
+import com.wcoal.novelplus.manager.redis.BookIdFilterManager;
 import lombok.RequiredArgsConstructor;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * 小说章节 缓存管理类
  *
@@ -21,15 +26,46 @@ public class BookChapterCacheManager {
 
     private final BookChapterMapper bookChapterMapper;
 
+    private final BookIdFilterManager bookIdFilterManager;
+
     /**
      * 查询小说章节信息，并放入缓存中
+     * 章节不存在时返回 null（不缓存，由负缓存拦截后续请求）
      */
     @Cacheable(cacheManager = CacheConsts.CAFFEINE_CACHE_MANAGER,
-        value = CacheConsts.BOOK_CHAPTER_CACHE_NAME)
+        value = CacheConsts.BOOK_CHAPTER_CACHE_NAME, sync = true)
     public BookChapterRespDto getChapter(Long chapterId) {
+        if (bookIdFilterManager.isChapterMissing(chapterId)) {
+            return null;
+        }
         BookChapter bookChapter = bookChapterMapper.selectById(chapterId);
+        if (bookChapter == null) {
+            bookIdFilterManager.markChapterMissing(chapterId);
+            return null;
+        }
+        return toRespDto(bookChapter);
+    }
+
+    /**
+     * 批量查询小说章节信息（缓存预热使用，不经过缓存）
+     *
+     * @param chapterIds 章节ID列表
+     * @return 章节ID -> 章节信息，不存在的章节不包含在结果中
+     */
+    public Map<Long, BookChapterRespDto> loadChapters(Collection<Long> chapterIds) {
+        if (chapterIds.isEmpty()) {
+            return Map.of();
+        }
+        Map<Long, BookChapterRespDto> result = new HashMap<>(chapterIds.size());
+        for (BookChapter bookChapter : bookChapterMapper.selectBatchIds(chapterIds)) {
+            result.put(bookChapter.getId(), toRespDto(bookChapter));
+        }
+        return result;
+    }
+
+    private BookChapterRespDto toRespDto(BookChapter bookChapter) {
         return BookChapterRespDto.builder()
-            .id(chapterId)
+            .id(bookChapter.getId())
             .bookId(bookChapter.getBookId())
             .chapterNum(bookChapter.getChapterNum())
             .chapterName(bookChapter.getChapterName())
@@ -0,0 +1,111 @@
+package com.wcoal.novelplus.manager.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.wcoal.novelplus.core.common.constant.CacheConsts;
+import com.wcoal.novelplus.core.common.constant.DatabaseConsts;
+import com.wcoal.novelplus.core.common.utils.TransactionUtils;
+import com.wcoal.novelplus.dao.entity.BookChapter;
+import com.wcoal.novelplus.dao.mapper.BookChapterMapper;
+import com.wcoal.novelplus.dto.BookChapterCatalogDto;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 小说章节目录 缓存管理类
+ * 每本书缓存一份紧凑的章节目录（本地 Caffeine + Redis 二级缓存），
+ * 章节列表、上一章/下一章、章节总数均基于目录计算，不再逐次查询数据库；
+ * 章节的新增、修改、删除在事务提交后清除目录缓存，下次读取时重新加载。
+ * （不在缓存中增量修改目录：先读后写的修改不是原子的，并发保存章节时会丢失更新。）
+ *
+ * @author wcoal
+ * @since 2025-12-01
+ */
+@Component
+@Slf4j
+public class BookChapterCatalogCacheManager {
+
+    private final BookChapterMapper bookChapterMapper;
+
+    private final Cache catalogCache;
+
+    public BookChapterCatalogCacheManager(BookChapterMapper bookChapterMapper,
+                                          @Qualifier(CacheConsts.TWO_LEVEL_CACHE_MANAGER) CacheManager twoLevelCacheManager) {
+        this.bookChapterMapper = bookChapterMapper;
+        this.catalogCache = twoLevelCacheManager.getCache(CacheConsts.BOOK_CHAPTER_CATALOG_CACHE_NAME);
+    }
+
+    /**
+     * 获取小说章节目录：本地缓存 -> Redis -> 数据库
+     *
+     * @param bookId 小说ID
+     * @return 章节目录
+     */
+    public BookChapterCatalogDto getCatalog(Long bookId) {
+        return catalogCache.get(bookId, () -> loadCatalog(bookId));
+    }
+
+    /**
+     * 获取上一章节ID
+     */
+    public Long getPreChapterId(Long bookId, Integer chapterNum) {
+        return getCatalog(bookId).getPreChapterId(chapterNum);
+    }
+
+    /**
+     * 获取下一章节ID
+     */
+    public Long getNextChapterId(Long bookId, Integer chapterNum) {
+        return getCatalog(bookId).getNextChapterId(chapterNum);
+    }
+
+    /**
+     * 获取章节总数
+     */
+    public long getChapterTotal(Long bookId) {
+        return getCatalog(bookId).size();
+    }
+
+    /**
+     * 清除小说章节目录缓存
+     * 处于事务中时延迟到事务提交后再清除：回滚不会留下不存在的章节，
+     * 提交前被其他请求按旧数据重新加载的目录也会被一并清除
+     */
+    public void evictCatalog(Long bookId) {
+        TransactionUtils.afterCommit(() -> catalogCache.evict(bookId));
+    }
+
+    /**
+     * 从数据库加载章节目录（只查询目录所需的列）
+     */
+    private BookChapterCatalogDto loadCatalog(Long bookId) {
+        QueryWrapper<BookChapter> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select(DatabaseConsts.CommonColumnEnum.ID.getName(),
+                        DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM,
+                        DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NAME,
+                        DatabaseConsts.BookChapterTable.COLUMN_IS_VIP)
+                .eq(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID, bookId)
+                .orderByAsc(DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM);
+        List<BookChapter> chapters = bookChapterMapper.selectList(queryWrapper);
+
+        int size = chapters.size();
+        long[] chapterIds = new long[size];
+        int[] chapterNums = new int[size];
+        String[] chapterNames = new String[size];
+        byte[] vipFlags = new byte[size];
+        for (int i = 0; i < size; i++) {
+            BookChapter chapter = chapters.get(i);
+            chapterIds[i] = chapter.getId();
+            chapterNums[i] = chapter.getChapterNum();
+            chapterNames[i] = chapter.getChapterName();
+            vipFlags[i] = chapter.getIsVip() != null ? chapter.getIsVip().byteValue() : 0;
+        }
+        log.debug("加载小说章节目录: bookId={}, chapterTotal={}", bookId, size);
+        return new BookChapterCatalogDto(bookId, chapterIds, chapterNums, chapterNames, vipFlags);
+    }
+
+}
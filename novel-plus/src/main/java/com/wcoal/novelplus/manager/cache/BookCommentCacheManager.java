@@ -0,0 +1,196 @@
+package com.wcoal.novelplus.manager.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.wcoal.novelplus.core.common.constant.CacheConsts;
+import com.wcoal.novelplus.core.common.constant.DatabaseConsts;
+import com.wcoal.novelplus.core.common.enums.ErrorCodeEnum;
+import com.wcoal.novelplus.core.common.exception.BusinessException;
+import com.wcoal.novelplus.dao.entity.BookComment;
+import com.wcoal.novelplus.dao.entity.BookInfo;
+import com.wcoal.novelplus.dao.entity.UserInfo;
+import com.wcoal.novelplus.dao.mapper.BookCommentMapper;
+import com.wcoal.novelplus.dao.mapper.BookInfoMapper;
+import com.wcoal.novelplus.dto.resp.BookCommentRespDto;
+import com.wcoal.novelplus.manager.dao.UserDaoManager;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 小说评论 缓存管理类
+ * 评论按 (create_time, id) 倒序游标分页，翻页游标为上一页最后一条评论的“创建时间秒_纳秒_评论ID”，
+ * 创建时间按 create_time 的原值编码（不经过时区换算、不截断精度），翻页时不会跳过或重复评论；
+ * 每本书的第一页连同评论总数（book_info.comment_count）缓存在本地 Caffeine + Redis 二级缓存中，
+ * 评论审核通过或被删除时清除，其它页直接查询数据库。
+ *
+ * @author wcoal
+ * @since 2025-12-22
+ */
+@Component
+@Slf4j
+public class BookCommentCacheManager {
+
+    /**
+     * 第一页缓存的评论条数，也是单页最大条数
+     */
+    public static final int FIRST_PAGE_SIZE = 20;
+
+    private static final String CURSOR_SEPARATOR = "_";
+
+    private final BookCommentMapper bookCommentMapper;
+
+    private final BookInfoMapper bookInfoMapper;
+
+    private final UserDaoManager userDaoManager;
+
+    private final Cache firstPageCache;
+
+    public BookCommentCacheManager(BookCommentMapper bookCommentMapper, BookInfoMapper bookInfoMapper,
+                                   UserDaoManager userDaoManager,
+                                   @Qualifier(CacheConsts.TWO_LEVEL_CACHE_MANAGER) CacheManager twoLevelCacheManager) {
+        this.bookCommentMapper = bookCommentMapper;
+        this.bookInfoMapper = bookInfoMapper;
+        this.userDaoManager = userDaoManager;
+        this.firstPageCache = twoLevelCacheManager.getCache(CacheConsts.BOOK_COMMENT_FIRST_PAGE_CACHE_NAME);
+    }
+
+    /**
+     * 获取小说评论第一页（含评论总数）：本地缓存 -> Redis -> 数据库
+     *
+     * @param bookId 小说ID
+     * @return 第一页评论，点赞数量为写入缓存时的值
+     */
+    public BookCommentRespDto getFirstPage(Long bookId) {
+        return firstPageCache.get(bookId, () -> loadPage(bookId, null, FIRST_PAGE_SIZE, loadCommentTotal(bookId)));
+    }
+
+    /**
+     * 游标分页查询小说评论
+     *
+     * @param bookId   小说ID
+     * @param cursor   上一页返回的游标，为空时查询第一页
+     * @param pageSize 每页条数（不超过 FIRST_PAGE_SIZE）
+     * @return 一页评论，点赞数量为数据库或缓存中的值
+     */
+    public BookCommentRespDto listComments(Long bookId, String cursor, int pageSize) {
+        BookCommentRespDto firstPage = getFirstPage(bookId);
+        if (StringUtils.isBlank(cursor)) {
+            if (pageSize >= firstPage.getComments().size()) {
+                return firstPage;
+            }
+            // 第一页截取前 pageSize 条，游标指向截取后的最后一条
+            List<BookCommentRespDto.CommentInfo> comments = firstPage.getComments().subList(0, pageSize);
+            BookCommentRespDto.CommentInfo last = comments.get(comments.size() - 1);
+            return BookCommentRespDto.builder()
+                    .commentTotal(firstPage.getCommentTotal())
+                    .comments(List.copyOf(comments))
+                    .nextCursor(encodeCursor(last.getCommentTime(), last.getId()))
+                    .build();
+        }
+        return loadPage(bookId, cursor, pageSize, firstPage.getCommentTotal());
+    }
+
+    /**
+     * 清除小说评论第一页缓存
+     */
+    public void evictFirstPage(Long bookId) {
+        firstPageCache.evict(bookId);
+    }
+
+    /**
+     * 从数据库加载一页评论，多查一条用于判断是否还有下一页
+     */
+    private BookCommentRespDto loadPage(Long bookId, String cursor, int pageSize, Long commentTotal) {
+        LocalDateTime cursorTime = null;
+        Long cursorId = null;
+        if (StringUtils.isNotBlank(cursor)) {
+            String[] parts = cursor.split(CURSOR_SEPARATOR);
+            if (parts.length != 3 || !StringUtils.isNumeric(parts[0]) || !StringUtils.isNumeric(parts[1])
+                    || !StringUtils.isNumeric(parts[2])) {
+                throw new BusinessException(ErrorCodeEnum.USER_REQUEST_PARAM_ERROR);
+            }
+            try {
+                cursorTime = LocalDateTime.ofEpochSecond(Long.parseLong(parts[0]), Integer.parseInt(parts[1]),
+                        ZoneOffset.UTC);
+                cursorId = Long.parseLong(parts[2]);
+            } catch (RuntimeException e) {
+                throw new BusinessException(ErrorCodeEnum.USER_REQUEST_PARAM_ERROR);
+            }
+        }
+        List<BookComment> bookComments = bookCommentMapper.listPassedCommentsByCursor(
+                bookId, cursorTime, cursorId, pageSize + 1);
+        String nextCursor = null;
+        if (bookComments.size() > pageSize) {
+            bookComments = bookComments.subList(0, pageSize);
+            BookComment last = bookComments.get(pageSize - 1);
+            nextCursor = encodeCursor(last.getCreateTime(), last.getId());
+        }
+
+        return BookCommentRespDto.builder()
+                .commentTotal(commentTotal)
+                .comments(toCommentInfos(bookId, bookComments))
+                .nextCursor(nextCursor)
+                .build();
+    }
+
+    /**
+     * 组装评论用户信息，过滤掉用户信息不存在的评论
+     */
+    private List<BookCommentRespDto.CommentInfo> toCommentInfos(Long bookId, List<BookComment> bookComments) {
+        if (bookComments.isEmpty()) {
+            return List.of();
+        }
+        List<Long> userIds = bookComments.stream().map(BookComment::getUserId).distinct().toList();
+        Map<Long, UserInfo> userInfoMap = userDaoManager.listUserInfos(userIds).stream()
+                .collect(Collectors.toMap(UserInfo::getId, Function.identity()));
+        if (userInfoMap.size() < userIds.size()) {
+            log.warn("评论用户信息不完整，书籍ID: {}, 缺失的用户ID: {}", bookId,
+                    userIds.stream().filter(userId -> !userInfoMap.containsKey(userId)).toList());
+        }
+        return bookComments.stream()
+                .filter(bookComment -> userInfoMap.containsKey(bookComment.getUserId()))
+                .map(bookComment -> {
+                    UserInfo userInfo = userInfoMap.get(bookComment.getUserId());
+                    return BookCommentRespDto.CommentInfo.builder()
+                            .id(bookComment.getId())
+                            .commentUserId(bookComment.getUserId())
+                            .commentUser(userInfo.getUserName())
+                            .commentUserPhoto(userInfo.getUserPhoto())
+                            .commentContent(bookComment.getCommentContent())
+                            .commentTime(bookComment.getCreateTime())
+                            .replyCount(bookComment.getReplyCount())
+                            .likeCount(bookComment.getLikeCount())
+                            .build();
+                }).toList();
+    }
+
+    /**
+     * 评论总数取自 book_info.comment_count（评论审核通过时累加），不再 COUNT(*)
+     */
+    private Long loadCommentTotal(Long bookId) {
+        QueryWrapper<BookInfo> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select("comment_count")
+                .eq(DatabaseConsts.CommonColumnEnum.ID.getName(), bookId);
+        BookInfo bookInfo = bookInfoMapper.selectOne(queryWrapper);
+        return bookInfo == null ? 0L : Objects.requireNonNullElse(bookInfo.getCommentCount(), 0).longValue();
+    }
+
+    /**
+     * 以 UTC 偏移把 create_time 原值换算成秒和纳秒，只是无损编码，与服务器时区无关
+     */
+    private static String encodeCursor(LocalDateTime createTime, Long commentId) {
+        return createTime.toEpochSecond(ZoneOffset.UTC) + CURSOR_SEPARATOR + createTime.getNano()
+                + CURSOR_SEPARATOR + commentId;
+    }
+}
@@ -1,41 +1,115 @@
 package com.wcoal.novelplus.manager.cache;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.wcoal.novelplus.core.codec.ContentCodec;
 import com.wcoal.novelplus.core.common.constant.CacheConsts;
 import com.wcoal.novelplus.core.common.constant.DatabaseConsts;
 import com.wcoal.novelplus.dao.entity.BookContent;
 import com.wcoal.novelplus.dao.mapper.BookContentMapper;
-import lombok.RequiredArgsConstructor;
+import com.wcoal.novelplus.manager.redis.BookIdFilterManager;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
-import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * 小说内容 缓存管理类
+ * 本地和 Redis 两级缓存中保存的都是压缩后的二进制内容，读取时解压，对调用方透明
  *
  * @author wcoal
  * @since 2025/10/2
  */
 @Component
-@RequiredArgsConstructor
 public class BookContentCacheManager {
 
     private final BookContentMapper bookContentMapper;
 
+    private final ContentCodec contentCodec;
+
+    private final Cache contentCache;
+
+    private final BookIdFilterManager bookIdFilterManager;
+
+    public BookContentCacheManager(BookContentMapper bookContentMapper, ContentCodec contentCodec,
+                                   @Qualifier(CacheConsts.TWO_LEVEL_CACHE_MANAGER) CacheManager twoLevelCacheManager,
+                                   BookIdFilterManager bookIdFilterManager) {
+        this.bookContentMapper = bookContentMapper;
+        this.contentCodec = contentCodec;
+        this.bookIdFilterManager = bookIdFilterManager;
+        this.contentCache = twoLevelCacheManager.getCache(CacheConsts.BOOK_CONTENT_CACHE_NAME);
+    }
+
     /**
      * 查询小说内容，并放入缓存中
+     * 同一章节并发未命中时只查询一次数据库（见 {@link com.wcoal.novelplus.core.cache.SingleFlightCache}）
+     * 章节不存在时返回 null
      */
-    @Cacheable(cacheManager = CacheConsts.REDIS_CACHE_MANAGER,
-        value = CacheConsts.BOOK_CONTENT_CACHE_NAME)
     public String getBookContent(Long chapterId) {
+        return getBookContent(chapterId, null);
+    }
+
+    /**
+     * 查询小说内容，缓存未命中、从数据库加载时回调 onLoad（章节预取据此统计命中率）
+     *
+     * @param chapterId 章节ID
+     * @param onLoad    从数据库加载时的回调，可为 null
+     */
+    public String getBookContent(Long chapterId, Runnable onLoad) {
+        Object value = contentCache.<Object>get(chapterId, () -> {
+            if (onLoad != null) {
+                onLoad.run();
+            }
+            String content = loadBookContent(chapterId);
+            return content != null ? contentCodec.encode(content) : null;
+        });
+        if (value == null) {
+            return null;
+        }
+        if (value instanceof String content) {
+            // 兼容升级前写入的未压缩缓存
+            return content;
+        }
+        return contentCodec.decode((byte[]) value);
+    }
+
+    /**
+     * 批量查询小说内容（缓存预热使用，不经过缓存）
+     *
+     * @param chapterIds 章节ID列表
+     * @return 章节ID -> 编码后的内容（与缓存中保存的格式一致），不存在的章节不包含在结果中
+     */
+    public Map<Long, byte[]> loadEncodedContents(Collection<Long> chapterIds) {
+        if (chapterIds.isEmpty()) {
+            return Map.of();
+        }
+        QueryWrapper<BookContent> contentQueryWrapper = new QueryWrapper<>();
+        contentQueryWrapper.in(DatabaseConsts.BookContentTable.COLUMN_CHAPTER_ID, chapterIds);
+        Map<Long, byte[]> result = new HashMap<>(chapterIds.size());
+        for (BookContent bookContent : bookContentMapper.selectList(contentQueryWrapper)) {
+            if (bookContent.getContent() != null) {
+                result.put(bookContent.getChapterId(), contentCodec.encode(bookContent.getContent()));
+            }
+        }
+        return result;
+    }
+
+    private String loadBookContent(Long chapterId) {
+        if (bookIdFilterManager.isChapterMissing(chapterId)) {
+            return null;
+        }
         QueryWrapper<BookContent> contentQueryWrapper = new QueryWrapper<>();
         contentQueryWrapper.eq(DatabaseConsts.BookContentTable.COLUMN_CHAPTER_ID, chapterId)
             .last(DatabaseConsts.SqlEnum.LIMIT_1.getSql());
         BookContent bookContent = bookContentMapper.selectOne(contentQueryWrapper);
-        return bookContent.getContent();
+        return bookContent != null ? bookContent.getContent() : null;
     }
 
-    @CacheEvict(cacheManager = CacheConsts.REDIS_CACHE_MANAGER,
+    @CacheEvict(cacheManager = CacheConsts.TWO_LEVEL_CACHE_MANAGER,
         value = CacheConsts.BOOK_CONTENT_CACHE_NAME)
     public void evictBookContentCache(Long chapterId) {
         // 调用此方法自动清除小说内容信息的缓存
@@ -9,6 +9,7 @@ import com.wcoal.novelplus.dao.entity.BookInfo;
 import com.wcoal.novelplus.dao.mapper.BookChapterMapper;
 import com.wcoal.novelplus.dao.mapper.BookInfoMapper;
 import com.wcoal.novelplus.dto.resp.BookInfoRespDto;
+import com.wcoal.novelplus.manager.redis.BookIdFilterManager;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.CacheEvict;
@@ -16,7 +17,11 @@ import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 /**
@@ -31,21 +36,28 @@ public class BookInfoCacheManager {
 
     private final BookChapterMapper bookChapterMapper;
 
+    private final BookIdFilterManager bookIdFilterManager;
+
     //从缓存中获取小说信息，如果缓存中没有，则执行cacheput把小说信息放入缓存
-    @Cacheable(cacheManager = CacheConsts.CAFFEINE_CACHE_MANAGER,
-    value = CacheConsts.BOOK_INFO_CACHE_NAME)
+    @Cacheable(cacheManager = CacheConsts.TWO_LEVEL_CACHE_MANAGER,
+    value = CacheConsts.BOOK_INFO_CACHE_NAME, sync = true)
     public BookInfoRespDto getBookInfo(Long id) {
         return cachePutBookInfo(id);
     }
 
-    @CachePut(cacheManager = CacheConsts.CAFFEINE_CACHE_MANAGER,
-    value = CacheConsts.BOOK_INFO_CACHE_NAME)
+    @CachePut(cacheManager = CacheConsts.TWO_LEVEL_CACHE_MANAGER,
+    value = CacheConsts.BOOK_INFO_CACHE_NAME, unless = "#result == null")
     public BookInfoRespDto cachePutBookInfo(Long id) {
+        // 过滤不存在的小说ID，不查询数据库
+        if (bookIdFilterManager.isBookMissing(id)) {
+            return null;
+        }
         //查询基础信息
         BookInfo bookInfo = bookInfoMapper.selectById(id);
         // 检查bookInfo是否为null，避免空指针异常
         if (bookInfo == null) {
             log.warn("未查询到小说信息，id: {}", id);
+            bookIdFilterManager.markBookMissing(id);
             return null;
         }
         //查询首章id用于展示基础信息
@@ -55,27 +67,63 @@ public class BookInfoCacheManager {
                 .last(DatabaseConsts.SqlEnum.LIMIT_1.getSql());
         BookChapter firstBookChapter = bookChapterMapper.selectOne(queryWrapper);
         //封装查询结果为dto
-        BookInfoRespDto bookInfoRespDto = BeanUtils.copyBean(bookInfo, BookInfoRespDto.class);
-        bookInfoRespDto.setFirstChapterId(firstBookChapter != null ? firstBookChapter.getId() : null);
-        bookInfoRespDto.setUpdateTime(bookInfo.getLastChapterUpdateTime());
-        return bookInfoRespDto;
+        return toRespDto(bookInfo, firstBookChapter != null ? firstBookChapter.getId() : null);
     }
 
     /**
-     * 更新小说信息缓存中的点击量
-     * @param bookId 小说ID
-     * @param visitCount 点击量
-     * @return 更新后的小说信息
+     * 批量查询小说信息（缓存预热使用，不经过缓存）
+     * 首章ID通过两次批量查询得到：先按小说分组取最小章节号，再按章节号取章节ID
+     *
+     * @param ids 小说ID列表
+     * @return 小说ID -> 小说信息，不存在的小说不包含在结果中
      */
-    @CachePut(cacheManager = CacheConsts.CAFFEINE_CACHE_MANAGER,
-            value = CacheConsts.BOOK_INFO_CACHE_NAME, key = "#bookId")
-    public BookInfoRespDto updateBookInfoVisitCount(Long bookId, Long visitCount) {
-        // 从缓存中获取原有的小说信息
-        BookInfoRespDto bookInfoRespDto = getBookInfo(bookId);
-        if (bookInfoRespDto != null) {
-            // 更新点击量
-            bookInfoRespDto.setVisitCount(visitCount);
+    public Map<Long, BookInfoRespDto> loadBookInfos(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        List<BookInfo> bookInfos = bookInfoMapper.selectBatchIds(ids);
+        if (bookInfos.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> bookIds = bookInfos.stream().map(BookInfo::getId).toList();
+
+        QueryWrapper<BookChapter> minNumWrapper = new QueryWrapper<>();
+        minNumWrapper.select(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID,
+                        "min(" + DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM + ") as "
+                                + DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM)
+                .in(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID, bookIds)
+                .groupBy(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID);
+        Map<Long, Integer> firstChapterNums = new HashMap<>();
+        for (BookChapter chapter : bookChapterMapper.selectList(minNumWrapper)) {
+            firstChapterNums.put(chapter.getBookId(), chapter.getChapterNum());
         }
+
+        Map<Long, Long> firstChapterIds = new HashMap<>();
+        if (!firstChapterNums.isEmpty()) {
+            QueryWrapper<BookChapter> chapterWrapper = new QueryWrapper<>();
+            chapterWrapper.select(DatabaseConsts.CommonColumnEnum.ID.getName(),
+                            DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID,
+                            DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM)
+                    .in(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID, firstChapterNums.keySet())
+                    .in(DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM, new HashSet<>(firstChapterNums.values()));
+            for (BookChapter chapter : bookChapterMapper.selectList(chapterWrapper)) {
+                if (chapter.getChapterNum().equals(firstChapterNums.get(chapter.getBookId()))) {
+                    firstChapterIds.putIfAbsent(chapter.getBookId(), chapter.getId());
+                }
+            }
+        }
+
+        Map<Long, BookInfoRespDto> result = new HashMap<>(bookInfos.size());
+        for (BookInfo bookInfo : bookInfos) {
+            result.put(bookInfo.getId(), toRespDto(bookInfo, firstChapterIds.get(bookInfo.getId())));
+        }
+        return result;
+    }
+
+    private BookInfoRespDto toRespDto(BookInfo bookInfo, Long firstChapterId) {
+        BookInfoRespDto bookInfoRespDto = BeanUtils.copyBean(bookInfo, BookInfoRespDto.class);
+        bookInfoRespDto.setFirstChapterId(firstChapterId);
+        bookInfoRespDto.setUpdateTime(bookInfo.getLastChapterUpdateTime());
         return bookInfoRespDto;
     }
 
@@ -84,8 +132,8 @@ public class BookInfoCacheManager {
      * @param categoryId 分类ID
      * @return 最新更新的小说id列表
      */
-    @Cacheable(cacheManager = CacheConsts.CAFFEINE_CACHE_MANAGER,
-            value = CacheConsts.LAST_UPDATE_BOOK_ID_LIST_CACHE_NAME)
+    @Cacheable(cacheManager = CacheConsts.TWO_LEVEL_CACHE_MANAGER,
+            value = CacheConsts.LAST_UPDATE_BOOK_ID_LIST_CACHE_NAME, sync = true)
     public List<Long> getLastUpdateBookIds(Long categoryId) {
         QueryWrapper<BookInfo> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq(DatabaseConsts.BookTable.COLUMN_CATEGORY_ID, categoryId)
@@ -97,7 +145,7 @@ public class BookInfoCacheManager {
                 .collect(Collectors.toList());
     }
 
-    @CacheEvict(cacheManager = CacheConsts.CAFFEINE_CACHE_MANAGER,
+    @CacheEvict(cacheManager = CacheConsts.TWO_LEVEL_CACHE_MANAGER,
             value = CacheConsts.BOOK_INFO_CACHE_NAME)
     public void evictBookInfoCache(Long bookId) {
         // 调用此方法自动清除小说信息的缓存
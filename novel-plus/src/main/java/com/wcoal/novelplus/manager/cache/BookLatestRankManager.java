@@ -0,0 +1,338 @@
+package com.wcoal.novelplus.manager.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.wcoal.novelplus.core.common.constant.DatabaseConsts;
+import com.wcoal.novelplus.core.common.utils.TransactionUtils;
+import com.wcoal.novelplus.dao.entity.BookInfo;
+import com.wcoal.novelplus.dao.mapper.BookInfoMapper;
+import com.wcoal.novelplus.dto.resp.BookRankRespDto;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * 小说更新榜、新书榜管理器
+ * <p>
+ * 每个榜单在 Redis 中维护一个有界 ZSET（member 为小说ID，score 为更新时间/创建时间），
+ * 只保存前 {@link #CAPACITY} 名。写操作直接把变更的小说按新时间插入并截断尾部，
+ * 集合始终是全量排名的前缀；只有小说被移出导致剩余数量不足一页时才删除 ZSET，下次读取从数据库重建。
+ * <p>
+ * 重建由 Redisson 分布式锁保证同一榜单同时只有一个节点执行：先设置重建标记，再查询数据库写入本次重建
+ * 独有的临时 Key。标记存在期间的插入和移除同时记入待回放 Hash（member -> score，移除记为 -1），
+ * 替换时在同一个 Lua 脚本中把回放结果合并进临时 Key 再 RENAME，数据库快照之后的变更不会丢失。
+ *
+ * @author wcoal
+ * @since 2025-12-08
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BookLatestRankManager {
+
+    /**
+     * 榜单容量（展示数量 + 余量）
+     */
+    private static final int CAPACITY = BookRankCacheManager.RANK_SIZE + 20;
+
+    /**
+     * 重建标记和待回放 Hash 的过期时间（重建异常中断时自动清理）
+     */
+    private static final Duration REBUILD_MARK_TTL = Duration.ofMinutes(5);
+
+    /**
+     * 读取时等待其他线程/节点完成重建的时间，超时后使用数据库排行榜缓存
+     */
+    private static final long REBUILD_LOCK_WAIT_SECONDS = 3;
+
+    /**
+     * 重建中时记入待回放 Hash；ZSET 存在时插入并截断到容量，不存在时不处理，等待读取时重建
+     * KEYS: [榜单, 重建标记, 待回放 Hash]
+     */
+    private static final DefaultRedisScript<Long> OFFER_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[2]) == 1 then redis.call('hset', KEYS[3], ARGV[1], ARGV[2]) end " +
+                    "if redis.call('exists', KEYS[1]) == 0 then return 0 end " +
+                    "redis.call('zadd', KEYS[1], ARGV[2], ARGV[1]) " +
+                    "redis.call('zremrangebyrank', KEYS[1], 0, -(tonumber(ARGV[3]) + 1)) " +
+                    "return 1", Long.class);
+
+    /**
+     * 移除小说（重建中时在待回放 Hash 中记为 -1），剩余数量不足一页时删除 ZSET 触发重建
+     * KEYS: [榜单, 重建标记, 待回放 Hash]
+     */
+    private static final DefaultRedisScript<Long> REMOVE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[2]) == 1 then redis.call('hset', KEYS[3], ARGV[1], -1) end " +
+                    "local removed = redis.call('zrem', KEYS[1], ARGV[1]) " +
+                    "if removed == 1 and redis.call('zcard', KEYS[1]) < tonumber(ARGV[2]) then " +
+                    "redis.call('del', KEYS[1]) " +
+                    "end " +
+                    "return removed", Long.class);
+
+    /**
+     * 把待回放的变更合并进临时 Key，截断到容量后原子替换榜单，并清除重建标记
+     * KEYS: [临时 Key, 榜单, 重建标记, 待回放 Hash]
+     */
+    private static final DefaultRedisScript<Long> SWAP_SCRIPT = new DefaultRedisScript<>(
+            "local pending = redis.call('hgetall', KEYS[4]) " +
+                    "for i = 1, #pending, 2 do " +
+                    "if tonumber(pending[i + 1]) < 0 then redis.call('zrem', KEYS[1], pending[i]) " +
+                    "else redis.call('zadd', KEYS[1], pending[i + 1], pending[i]) end " +
+                    "end " +
+                    "redis.call('del', KEYS[3], KEYS[4]) " +
+                    "if redis.call('exists', KEYS[1]) == 0 then redis.call('del', KEYS[2]) return 0 end " +
+                    "redis.call('zremrangebyrank', KEYS[1], 0, -(tonumber(ARGV[1]) + 1)) " +
+                    "redis.call('persist', KEYS[1]) " +
+                    "redis.call('rename', KEYS[1], KEYS[2]) " +
+                    "return 1", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final BookInfoMapper bookInfoMapper;
+
+    private final BookRankCacheManager bookRankCacheManager;
+
+    private final RedissonClient redissonClient;
+
+    /**
+     * 榜单类型
+     */
+    @Getter
+    @AllArgsConstructor
+    private enum RankType {
+
+        UPDATE("Cache::Novel::BookUpdateRank", DatabaseConsts.CommonColumnEnum.UPDATE_TIME.getName(),
+                BookInfo::getUpdateTime),
+
+        NEWEST("Cache::Novel::BookNewestRank", DatabaseConsts.CommonColumnEnum.CREATE_TIME.getName(),
+                BookInfo::getCreateTime);
+
+        /**
+         * Redis Key
+         */
+        private final String key;
+
+        public String rebuildingKey() {
+            return key + "::Rebuilding";
+        }
+
+        public String pendingKey() {
+            return key + "::Pending";
+        }
+
+        public String lockKey() {
+            return key + "::RebuildLock";
+        }
+
+        /**
+         * 排序字段
+         */
+        private final String column;
+
+        /**
+         * 排序时间
+         */
+        private final Function<BookInfo, LocalDateTime> timeGetter;
+    }
+
+    /**
+     * 获取小说更新榜
+     */
+    public List<BookRankRespDto> listUpdateRankBooks() {
+        try {
+            return listRankBooks(RankType.UPDATE, bookRankCacheManager::listUpdateRankBooks);
+        } catch (Exception e) {
+            log.warn("读取 Redis 更新榜失败，使用数据库排行榜缓存", e);
+            return bookRankCacheManager.listUpdateRankBooks();
+        }
+    }
+
+    /**
+     * 获取小说新书榜
+     */
+    public List<BookRankRespDto> listNewestRankBooks() {
+        try {
+            return listRankBooks(RankType.NEWEST, bookRankCacheManager::listNewestRankBooks);
+        } catch (Exception e) {
+            log.warn("读取 Redis 新书榜失败，使用数据库排行榜缓存", e);
+            return bookRankCacheManager.listNewestRankBooks();
+        }
+    }
+
+    /**
+     * 小说更新后调整更新榜（事务提交后执行）
+     *
+     * @param bookId     小说ID
+     * @param wordCount  更新后的小说字数
+     * @param updateTime 更新时间
+     */
+    public void onBookUpdated(Long bookId, int wordCount, LocalDateTime updateTime) {
+        TransactionUtils.afterCommit(() -> {
+            if (wordCount > 0) {
+                offer(RankType.UPDATE, bookId, updateTime);
+            } else {
+                // 没有字数的小说不上榜
+                remove(RankType.UPDATE, bookId);
+                remove(RankType.NEWEST, bookId);
+            }
+        });
+    }
+
+    /**
+     * 小说发布首个章节后加入新书榜（事务提交后执行）
+     *
+     * @param bookId     小说ID
+     * @param createTime 小说创建时间
+     */
+    public void onBookPublished(Long bookId, LocalDateTime createTime) {
+        TransactionUtils.afterCommit(() -> offer(RankType.NEWEST, bookId, createTime));
+    }
+
+    /**
+     * 小说删除后移出榜单（事务提交后执行）
+     *
+     * @param bookId 小说ID
+     */
+    public void onBookDeleted(Long bookId) {
+        TransactionUtils.afterCommit(() -> {
+            remove(RankType.UPDATE, bookId);
+            remove(RankType.NEWEST, bookId);
+        });
+    }
+
+    /**
+     * 从数据库重建更新榜，其他节点正在重建时跳过
+     */
+    public void rebuildUpdateRank() {
+        rebuildWithLock(RankType.UPDATE, false);
+    }
+
+    /**
+     * 从数据库重建新书榜，其他节点正在重建时跳过
+     */
+    public void rebuildNewestRank() {
+        rebuildWithLock(RankType.NEWEST, false);
+    }
+
+    private List<BookRankRespDto> listRankBooks(RankType type, Supplier<List<BookRankRespDto>> fallback) {
+        Set<String> members = stringRedisTemplate.opsForZSet().reverseRange(type.getKey(), 0, CAPACITY - 1);
+        if (members == null || members.isEmpty()) {
+            members = rebuildWithLock(type, true);
+            if (members == null) {
+                // 等待其他节点重建超时
+                return fallback.get();
+            }
+        }
+        return bookRankCacheManager.listRankBooksByIds(members.stream().map(Long::valueOf).toList());
+    }
+
+    /**
+     * 持有分布式锁时重建榜单
+     *
+     * @param type      榜单类型
+     * @param onlyEmpty 为 true 时拿到锁后榜单已被其他节点重建则直接返回
+     * @return 重建后的榜单成员，未拿到锁时返回 null
+     */
+    private Set<String> rebuildWithLock(RankType type, boolean onlyEmpty) {
+        RLock lock = redissonClient.getLock(type.lockKey());
+        boolean acquired = false;
+        try {
+            // 不指定租期，由看门狗续期
+            acquired = lock.tryLock(onlyEmpty ? REBUILD_LOCK_WAIT_SECONDS : 0, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!acquired) {
+            log.info("排行榜正在由其他线程重建: type={}", type);
+            return null;
+        }
+        try {
+            if (onlyEmpty) {
+                Set<String> members = stringRedisTemplate.opsForZSet().reverseRange(type.getKey(), 0, CAPACITY - 1);
+                if (members != null && !members.isEmpty()) {
+                    return members;
+                }
+            }
+            return rebuild(type);
+        } finally {
+            if (lock.isHeldByCurrentThread()) {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void offer(RankType type, Long bookId, LocalDateTime time) {
+        try {
+            stringRedisTemplate.execute(OFFER_SCRIPT, List.of(type.getKey(), type.rebuildingKey(), type.pendingKey()),
+                    String.valueOf(bookId), String.valueOf(toScore(time)), String.valueOf(CAPACITY));
+        } catch (Exception e) {
+            // 增量更新失败时删除榜单，下次读取重建，避免榜单长期错误
+            log.warn("增量更新排行榜失败: type={}, bookId={}", type, bookId, e);
+            stringRedisTemplate.delete(type.getKey());
+        }
+    }
+
+    private void remove(RankType type, Long bookId) {
+        try {
+            stringRedisTemplate.execute(REMOVE_SCRIPT, List.of(type.getKey(), type.rebuildingKey(), type.pendingKey()),
+                    String.valueOf(bookId), String.valueOf(BookRankCacheManager.RANK_SIZE));
+        } catch (Exception e) {
+            log.warn("从排行榜移除小说失败: type={}, bookId={}", type, bookId, e);
+            stringRedisTemplate.delete(type.getKey());
+        }
+    }
+
+    /**
+     * 从数据库查询前 {@link #CAPACITY} 名，写入本次重建独有的临时 Key，合并重建期间的变更后原子替换
+     * 先清除上次残留的待回放数据再设置重建标记：标记设置前提交的变更已包含在随后的数据库查询中
+     */
+    private Set<String> rebuild(RankType type) {
+        stringRedisTemplate.delete(type.pendingKey());
+        stringRedisTemplate.opsForValue().set(type.rebuildingKey(), "1", REBUILD_MARK_TTL);
+        QueryWrapper<BookInfo> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select(DatabaseConsts.CommonColumnEnum.ID.getName(), type.getColumn())
+                .gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0)
+                .orderByDesc(type.getColumn())
+                .last("limit " + CAPACITY);
+        List<BookInfo> books = bookInfoMapper.selectList(queryWrapper);
+        String tmpKey = type.getKey() + "::Tmp::" + UUID.randomUUID();
+        if (!books.isEmpty()) {
+            Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>(books.size() * 2);
+            for (BookInfo book : books) {
+                tuples.add(new DefaultTypedTuple<>(String.valueOf(book.getId()),
+                        (double) toScore(type.getTimeGetter().apply(book))));
+            }
+            stringRedisTemplate.opsForZSet().add(tmpKey, tuples);
+            // 替换前异常中断时临时 Key 自动过期
+            stringRedisTemplate.expire(tmpKey, REBUILD_MARK_TTL);
+        }
+        Long swapped = stringRedisTemplate.execute(SWAP_SCRIPT,
+                List.of(tmpKey, type.getKey(), type.rebuildingKey(), type.pendingKey()), String.valueOf(CAPACITY));
+        log.info("重建排行榜: type={}, size={}", type, books.size());
+        if (swapped == null || swapped == 0) {
+            return Set.of();
+        }
+        return stringRedisTemplate.opsForZSet().reverseRange(type.getKey(), 0, CAPACITY - 1);
+    }
+
+    private static long toScore(LocalDateTime time) {
+        return time == null ? 0L : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+}
@@ -2,17 +2,33 @@ package com.wcoal.novelplus.manager.cache;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import com.wcoal.novelplus.core.common.constant.CacheConsts;
+import com.wcoal.novelplus.core.common.enums.BookRankTypeEnum;
+import com.wcoal.novelplus.core.mq.CacheInvalidationProducer;
 import com.wcoal.novelplus.core.common.constant.DatabaseConsts;
 import com.wcoal.novelplus.dao.entity.BookInfo;
 import com.wcoal.novelplus.dao.mapper.BookInfoMapper;
+import com.wcoal.novelplus.dto.BookDimensionRankDto;
+import com.wcoal.novelplus.dto.resp.BookInfoRespDto;
 import com.wcoal.novelplus.dto.resp.BookRankRespDto;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.CachePut;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Component;
 
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
@@ -21,46 +37,137 @@ import java.util.stream.Collectors;
  * @since  2025/10/2
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class BookRankCacheManager {
 
+    /**
+     * 排行榜展示数量
+     */
+    public static final int RANK_SIZE = 30;
+
+    /**
+     * 分类/作品方向排行榜保留的候选数量（小说删除或字数清零后仍能凑满排行榜）
+     */
+    private static final int DIMENSION_CANDIDATE_SIZE = RANK_SIZE + 10;
+
+    /**
+     * 分类/作品方向排行榜扫描分页大小
+     */
+    private static final int DIMENSION_SCAN_PAGE_SIZE = 1000;
+
+    /**
+     * 分类/作品方向排行榜快照缓存 Key（所有榜单一次扫描生成，整体缓存）
+     */
+    private static final String DIMENSION_RANK_KEY = "all";
+
+    /**
+     * 堆元素比较器：分数升序，分数相同时小说ID升序（即同分时ID大的排名靠前）
+     */
+    private static final Comparator<long[]> RANK_ENTRY_COMPARATOR =
+            Comparator.<long[]>comparingLong(e -> e[0]).thenComparingLong(e -> e[1]);
+
     private final BookInfoMapper bookInfoMapper;
 
+    private final Cache bookInfoCache;
+
+    private final Cache dimensionRankCache;
+
+    private final CacheInvalidationProducer cacheInvalidationProducer;
+
+    public BookRankCacheManager(BookInfoMapper bookInfoMapper,
+                                @Qualifier(CacheConsts.TWO_LEVEL_CACHE_MANAGER) CacheManager twoLevelCacheManager,
+                                CacheInvalidationProducer cacheInvalidationProducer) {
+        this.bookInfoMapper = bookInfoMapper;
+        this.cacheInvalidationProducer = cacheInvalidationProducer;
+        this.bookInfoCache = twoLevelCacheManager.getCache(CacheConsts.BOOK_INFO_CACHE_NAME);
+        this.dimensionRankCache = twoLevelCacheManager.getCache(CacheConsts.BOOK_DIMENSION_RANK_CACHE_NAME);
+    }
+
     /**
-     * 获取小说点击量排行榜
+     * 获取小说点击量排行榜（数据库排序）
+     * 实时点击榜见 {@link BookVisitRankManager}，此方法仅在点击量 ZSET 未初始化时使用
      * @return 小说点击量排行榜
      */
     @Cacheable(cacheManager = CacheConsts.REDIS_CACHE_MANAGER,
-    value = CacheConsts.BOOK_VISIT_RANK_CACHE_NAME)
+    value = CacheConsts.BOOK_VISIT_RANK_CACHE_NAME, sync = true)
     public List<BookRankRespDto> listVisitRankBooks() {
-        QueryWrapper<BookInfo> bookInfoQueryWrapper = new QueryWrapper<>();
-        bookInfoQueryWrapper.orderByDesc(DatabaseConsts.BookTable.COLUMN_VISIT_COUNT);
-        return listBookRanks(bookInfoQueryWrapper);
+        return queryVisitRankBooks();
+    }
+
+    /**
+     * 重新查询小说点击量排行榜并直接覆盖缓存（刷新期间旧值一直可读）
+     * @return 小说点击量排行榜
+     */
+    @CachePut(cacheManager = CacheConsts.REDIS_CACHE_MANAGER,
+            value = CacheConsts.BOOK_VISIT_RANK_CACHE_NAME)
+    public List<BookRankRespDto> refreshVisitRankBooks() {
+        return queryVisitRankBooks();
     }
 
 
     /**
-     * 获取小说新书榜
+     * 获取小说新书榜（数据库排序）
+     * 实时新书榜见 {@link BookLatestRankManager}，此方法仅在 Redis 不可用时使用
      * @return 小说新书榜
      */
     @Cacheable(cacheManager = CacheConsts.CAFFEINE_CACHE_MANAGER,
-            value = CacheConsts.BOOK_NEWEST_RANK_CACHE_NAME)
+            value = CacheConsts.BOOK_NEWEST_RANK_CACHE_NAME, sync = true)
     public List<BookRankRespDto> listNewestRankBooks() {
-        QueryWrapper<BookInfo> bookInfoQueryWrapper = new QueryWrapper<>();
-        bookInfoQueryWrapper
-                .ge(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0)
-                .orderByDesc(DatabaseConsts.CommonColumnEnum.CREATE_TIME.getName());
-        return listBookRanks(bookInfoQueryWrapper);
+        return queryNewestRankBooks();
+    }
+
+    /**
+     * 重新查询小说新书榜并直接覆盖缓存（刷新期间旧值一直可读）
+     * 本地缓存的 put 不会广播，覆盖本节点后通知其他节点丢弃本地旧榜单，下次读取时重新查询
+     * @return 小说新书榜
+     */
+    @CachePut(cacheManager = CacheConsts.CAFFEINE_CACHE_MANAGER,
+            value = CacheConsts.BOOK_NEWEST_RANK_CACHE_NAME)
+    public List<BookRankRespDto> refreshNewestRankBooks() {
+        List<BookRankRespDto> books = queryNewestRankBooks();
+        cacheInvalidationProducer.publishClear(CacheConsts.BOOK_NEWEST_RANK_CACHE_NAME);
+        return books;
     }
 
      /**
-     * 获取小说更新榜
+     * 获取小说更新榜（数据库排序）
+     * 实时更新榜见 {@link BookLatestRankManager}，此方法仅在 Redis 不可用时使用
      * @return 小说更新榜
      */
     @Cacheable(cacheManager = CacheConsts.CAFFEINE_CACHE_MANAGER,
-            value = CacheConsts.BOOK_UPDATE_RANK_CACHE_NAME)
+            value = CacheConsts.BOOK_UPDATE_RANK_CACHE_NAME, sync = true)
     public List<BookRankRespDto> listUpdateRankBooks() {
+        return queryUpdateRankBooks();
+    }
+
+    /**
+     * 重新查询小说更新榜并直接覆盖缓存（刷新期间旧值一直可读）
+     * 本地缓存的 put 不会广播，覆盖本节点后通知其他节点丢弃本地旧榜单，下次读取时重新查询
+     * @return 小说更新榜
+     */
+    @CachePut(cacheManager = CacheConsts.CAFFEINE_CACHE_MANAGER,
+            value = CacheConsts.BOOK_UPDATE_RANK_CACHE_NAME)
+    public List<BookRankRespDto> refreshUpdateRankBooks() {
+        List<BookRankRespDto> books = queryUpdateRankBooks();
+        cacheInvalidationProducer.publishClear(CacheConsts.BOOK_UPDATE_RANK_CACHE_NAME);
+        return books;
+    }
+
+    private List<BookRankRespDto> queryVisitRankBooks() {
+        QueryWrapper<BookInfo> bookInfoQueryWrapper = new QueryWrapper<>();
+        bookInfoQueryWrapper.orderByDesc(DatabaseConsts.BookTable.COLUMN_VISIT_COUNT);
+        return listBookRanks(bookInfoQueryWrapper);
+    }
+
+    private List<BookRankRespDto> queryNewestRankBooks() {
+        QueryWrapper<BookInfo> bookInfoQueryWrapper = new QueryWrapper<>();
+        bookInfoQueryWrapper
+                .ge(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0)
+                .orderByDesc(DatabaseConsts.CommonColumnEnum.CREATE_TIME.getName());
+        return listBookRanks(bookInfoQueryWrapper);
+    }
+
+    private List<BookRankRespDto> queryUpdateRankBooks() {
         QueryWrapper<BookInfo> bookInfoQueryWrapper = new QueryWrapper<>();
         bookInfoQueryWrapper
                 .gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0)
@@ -69,6 +176,128 @@ public class BookRankCacheManager {
     }
 
 
+    /**
+     * 获取小说分类排行榜
+     *
+     * @param type       排行榜类型
+     * @param categoryId 类别ID
+     * @return 小说分类排行榜
+     */
+    public List<BookRankRespDto> listCategoryRankBooks(BookRankTypeEnum type, Long categoryId) {
+        return listRankBooksByIds(toIdList(getDimensionRanks().getCategoryRank(type, categoryId)));
+    }
+
+    /**
+     * 获取小说作品方向排行榜
+     *
+     * @param type          排行榜类型
+     * @param workDirection 作品方向
+     * @return 小说作品方向排行榜
+     */
+    public List<BookRankRespDto> listWorkDirectionRankBooks(BookRankTypeEnum type, Integer workDirection) {
+        return listRankBooksByIds(toIdList(getDimensionRanks().getWorkDirectionRank(type, workDirection)));
+    }
+
+    /**
+     * 重新扫描数据库生成分类/作品方向排行榜快照并替换缓存
+     *
+     * @return 排行榜快照
+     */
+    public BookDimensionRankDto refreshDimensionRanks() {
+        BookDimensionRankDto ranks = buildDimensionRanks();
+        // 直接覆盖两级缓存，再通知其他节点丢弃本地旧快照（它们下次从 Redis 读取新快照，不会回源数据库）
+        dimensionRankCache.put(DIMENSION_RANK_KEY, ranks);
+        cacheInvalidationProducer.publishEvict(CacheConsts.BOOK_DIMENSION_RANK_CACHE_NAME, DIMENSION_RANK_KEY);
+        return ranks;
+    }
+
+    /**
+     * 获取排行榜快照，缓存未命中时扫描数据库生成（同一节点只有一个线程生成）
+     */
+    private BookDimensionRankDto getDimensionRanks() {
+        return dimensionRankCache.get(DIMENSION_RANK_KEY, this::buildDimensionRanks);
+    }
+
+    /**
+     * 按主键分页流式扫描一次小说表，同时计算所有分类、作品方向的点击榜、更新榜、新书榜
+     * 每个榜单维护一个容量为 {@link #DIMENSION_CANDIDATE_SIZE} 的小顶堆，内存占用与小说总量无关
+     */
+    private BookDimensionRankDto buildDimensionRanks() {
+        long startTime = System.currentTimeMillis();
+        Map<String, PriorityQueue<long[]>> heaps = new HashMap<>();
+        long total = 0;
+        long lastId = 0;
+        while (true) {
+            QueryWrapper<BookInfo> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select(DatabaseConsts.CommonColumnEnum.ID.getName(),
+                            DatabaseConsts.BookTable.COLUMN_CATEGORY_ID,
+                            DatabaseConsts.BookTable.COLUMN_WORK_DIRECTION,
+                            DatabaseConsts.BookTable.COLUMN_VISIT_COUNT,
+                            DatabaseConsts.CommonColumnEnum.CREATE_TIME.getName(),
+                            DatabaseConsts.CommonColumnEnum.UPDATE_TIME.getName())
+                    .gt(DatabaseConsts.CommonColumnEnum.ID.getName(), lastId)
+                    .gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0)
+                    .orderByAsc(DatabaseConsts.CommonColumnEnum.ID.getName())
+                    .last("limit " + DIMENSION_SCAN_PAGE_SIZE);
+            List<BookInfo> page = bookInfoMapper.selectList(queryWrapper);
+            if (page.isEmpty()) {
+                break;
+            }
+            for (BookInfo book : page) {
+                for (BookRankTypeEnum type : BookRankTypeEnum.values()) {
+                    long score = rankScore(type, book);
+                    if (book.getCategoryId() != null) {
+                        offer(heaps, BookDimensionRankDto.categoryKey(type, book.getCategoryId()), score, book.getId());
+                    }
+                    if (book.getWorkDirection() != null) {
+                        offer(heaps, BookDimensionRankDto.workDirectionKey(type, book.getWorkDirection()),
+                                score, book.getId());
+                    }
+                }
+            }
+            total += page.size();
+            lastId = page.get(page.size() - 1).getId();
+        }
+
+        Map<String, long[]> ranks = new HashMap<>(heaps.size() * 2);
+        heaps.forEach((key, heap) -> {
+            long[][] entries = heap.toArray(new long[0][]);
+            Arrays.sort(entries, RANK_ENTRY_COMPARATOR.reversed());
+            ranks.put(key, Arrays.stream(entries).mapToLong(e -> e[1]).toArray());
+        });
+        log.info("生成分类/作品方向排行榜: books={}, ranks={}, cost={}ms",
+                total, ranks.size(), System.currentTimeMillis() - startTime);
+        return new BookDimensionRankDto(ranks, System.currentTimeMillis());
+    }
+
+    private static void offer(Map<String, PriorityQueue<long[]>> heaps, String key, long score, long bookId) {
+        PriorityQueue<long[]> heap = heaps.computeIfAbsent(key,
+                k -> new PriorityQueue<>(DIMENSION_CANDIDATE_SIZE + 1, RANK_ENTRY_COMPARATOR));
+        long[] entry = {score, bookId};
+        if (heap.size() < DIMENSION_CANDIDATE_SIZE) {
+            heap.offer(entry);
+        } else if (RANK_ENTRY_COMPARATOR.compare(entry, heap.peek()) > 0) {
+            heap.poll();
+            heap.offer(entry);
+        }
+    }
+
+    private static long rankScore(BookRankTypeEnum type, BookInfo book) {
+        return switch (type) {
+            case VISIT -> book.getVisitCount() != null ? book.getVisitCount() : 0L;
+            case UPDATE -> toEpochMilli(book.getUpdateTime());
+            case NEWEST -> toEpochMilli(book.getCreateTime());
+        };
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time == null ? 0L : time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static List<Long> toIdList(long[] bookIds) {
+        return Arrays.stream(bookIds).boxed().toList();
+    }
+
      /**
       * 获取小说排行榜
       * @param bookInfoQueryWrapper 小说查询条件
@@ -79,20 +308,81 @@ public class BookRankCacheManager {
                 .gt(DatabaseConsts.BookTable.COLUMN_WORD_COUNT, 0)
                 .last(DatabaseConsts.SqlEnum.LIMIT_30.getSql());
         return bookInfoMapper.selectList(bookInfoQueryWrapper).stream()
-                .map(bookInfo -> {
-                    BookRankRespDto bookRankRespDto = new BookRankRespDto();
-                    bookRankRespDto.setId(bookInfo.getId());
-                    bookRankRespDto.setCategoryId(bookInfo.getCategoryId());
-                    bookRankRespDto.setCategoryName(bookInfo.getCategoryName());
-                    bookRankRespDto.setPicUrl(bookInfo.getPicUrl());
-                    bookRankRespDto.setBookName(bookInfo.getBookName());
-                    bookRankRespDto.setAuthorName(bookInfo.getAuthorName());
-                    bookRankRespDto.setBookDesc(bookInfo.getBookDesc());
-                    bookRankRespDto.setWordCount(bookInfo.getWordCount());
-                    bookRankRespDto.setLastChapterName(bookInfo.getLastChapterName());
-                    bookRankRespDto.setLastChapterUpdateTime(bookInfo.getLastChapterUpdateTime());
-                    return bookRankRespDto;
-                }).collect(Collectors.toList());
+                .map(BookRankCacheManager::toBookRankRespDto)
+                .collect(Collectors.toList());
+    }
+
+    /**
+     * 按给定的小说ID顺序组装排行榜（用于 Redis 维护的排行榜）
+     * 优先使用小说信息缓存，未命中的小说一次性从数据库查询；跳过暂无字数的小说，最多返回 {@link #RANK_SIZE} 条
+     *
+     * @param bookIds 按名次排列的候选小说ID
+     * @return 小说排行榜
+     */
+    public List<BookRankRespDto> listRankBooksByIds(List<Long> bookIds) {
+        Map<Long, BookRankRespDto> rankMap = new HashMap<>(bookIds.size() * 2);
+        List<Long> missIds = new ArrayList<>();
+        for (Long bookId : bookIds) {
+            BookInfoRespDto bookInfo = bookInfoCache.get(bookId, BookInfoRespDto.class);
+            if (bookInfo != null) {
+                rankMap.put(bookId, toBookRankRespDto(bookInfo));
+            } else {
+                missIds.add(bookId);
+            }
+        }
+        if (!missIds.isEmpty()) {
+            rankMap.putAll(bookInfoMapper.selectBatchIds(missIds).stream()
+                    .map(BookRankCacheManager::toBookRankRespDto)
+                    .collect(Collectors.toMap(BookRankRespDto::getId, Function.identity())));
+        }
+
+        List<BookRankRespDto> result = new ArrayList<>(RANK_SIZE);
+        for (Long bookId : bookIds) {
+            BookRankRespDto rank = rankMap.get(bookId);
+            if (rank != null && rank.getWordCount() != null && rank.getWordCount() > 0) {
+                result.add(rank);
+                if (result.size() >= RANK_SIZE) {
+                    break;
+                }
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 小说信息转换为排行榜数据
+     */
+    static BookRankRespDto toBookRankRespDto(BookInfo bookInfo) {
+        BookRankRespDto bookRankRespDto = new BookRankRespDto();
+        bookRankRespDto.setId(bookInfo.getId());
+        bookRankRespDto.setCategoryId(bookInfo.getCategoryId());
+        bookRankRespDto.setCategoryName(bookInfo.getCategoryName());
+        bookRankRespDto.setPicUrl(bookInfo.getPicUrl());
+        bookRankRespDto.setBookName(bookInfo.getBookName());
+        bookRankRespDto.setAuthorName(bookInfo.getAuthorName());
+        bookRankRespDto.setBookDesc(bookInfo.getBookDesc());
+        bookRankRespDto.setWordCount(bookInfo.getWordCount());
+        bookRankRespDto.setLastChapterName(bookInfo.getLastChapterName());
+        bookRankRespDto.setLastChapterUpdateTime(bookInfo.getLastChapterUpdateTime());
+        return bookRankRespDto;
+    }
+
+    /**
+     * 缓存中的小说信息转换为排行榜数据
+     */
+    static BookRankRespDto toBookRankRespDto(BookInfoRespDto bookInfo) {
+        BookRankRespDto bookRankRespDto = new BookRankRespDto();
+        bookRankRespDto.setId(bookInfo.getId());
+        bookRankRespDto.setCategoryId(bookInfo.getCategoryId());
+        bookRankRespDto.setCategoryName(bookInfo.getCategoryName());
+        bookRankRespDto.setPicUrl(bookInfo.getPicUrl());
+        bookRankRespDto.setBookName(bookInfo.getBookName());
+        bookRankRespDto.setAuthorName(bookInfo.getAuthorName());
+        bookRankRespDto.setBookDesc(bookInfo.getBookDesc());
+        bookRankRespDto.setWordCount(bookInfo.getWordCount());
+        bookRankRespDto.setLastChapterName(bookInfo.getLastChapterName());
+        bookRankRespDto.setLastChapterUpdateTime(bookInfo.getUpdateTime());
+        return bookRankRespDto;
     }
 
      /**
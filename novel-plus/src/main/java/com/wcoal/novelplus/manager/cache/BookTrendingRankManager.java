@@ -0,0 +1,179 @@
+package com.wcoal.novelplus.manager.cache;
+
+import com.wcoal.novelplus.core.common.enums.TrendingWindowEnum;
+import com.wcoal.novelplus.core.config.TrendingProperties;
+import com.wcoal.novelplus.dto.resp.BookRankRespDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 小说热榜管理器
+ * <p>
+ * 点击量按时间分桶保存在 Redis ZSET 中：每小时一个桶（保留25小时）、每天一个桶（保留8天），
+ * 由点击量聚合器刷盘时批量累加。查询时用 ZUNIONSTORE 按衰减权重合并窗口内的桶，
+ * 合并结果只保留候选名次并短时间缓存，桶内只有有点击的小说，查询耗时与小说总量无关。
+ * 合并、截断、设置过期时间在同一个 Lua 脚本中执行，其他节点不会读到未截断或没有过期时间的合并结果。
+ *
+ * @author wcoal
+ * @since 2025-12-07
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BookTrendingRankManager {
+
+    /**
+     * 小时桶 Key 前缀，Key 格式: Cache::Novel::BookTrending::Hour::{yyyyMMddHH}
+     */
+    private static final String HOUR_BUCKET_KEY_PREFIX = "Cache::Novel::BookTrending::Hour::";
+
+    /**
+     * 天桶 Key 前缀，Key 格式: Cache::Novel::BookTrending::Day::{yyyyMMdd}
+     */
+    private static final String DAY_BUCKET_KEY_PREFIX = "Cache::Novel::BookTrending::Day::";
+
+    /**
+     * 合并结果 Key 前缀，Key 格式: Cache::Novel::BookTrending::Result::{window}
+     */
+    private static final String RESULT_KEY_PREFIX = "Cache::Novel::BookTrending::Result::";
+
+    private static final DateTimeFormatter HOUR_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHH");
+
+    private static final DateTimeFormatter DAY_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMdd");
+
+    private static final Duration HOUR_BUCKET_EXPIRE = Duration.ofHours(25);
+
+    private static final Duration DAY_BUCKET_EXPIRE = Duration.ofDays(8);
+
+    /**
+     * 合并结果保留的候选数量（过滤掉暂无字数的小说后仍能凑满排行榜）
+     */
+    private static final int CANDIDATE_SIZE = BookRankCacheManager.RANK_SIZE * 2;
+
+    /**
+     * 按权重合并桶，截断到候选数量并设置过期时间，返回候选小说ID（按分数倒序）
+     * KEYS: [合并结果, 桶...]，ARGV: [候选数量, 过期秒数, 权重...]
+     */
+    @SuppressWarnings("rawtypes")
+    private static final DefaultRedisScript<List> MERGE_SCRIPT = new DefaultRedisScript<>(
+            "local args = {'zunionstore', KEYS[1], #KEYS - 1} " +
+                    "for i = 2, #KEYS do args[#args + 1] = KEYS[i] end " +
+                    "args[#args + 1] = 'weights' " +
+                    "for i = 3, #ARGV do args[#args + 1] = ARGV[i] end " +
+                    "local size = redis.call(unpack(args)) " +
+                    "if size == 0 then return {} end " +
+                    "local candidates = tonumber(ARGV[1]) " +
+                    "if size > candidates then redis.call('zremrangebyrank', KEYS[1], 0, size - candidates - 1) end " +
+                    "redis.call('expire', KEYS[1], ARGV[2]) " +
+                    "return redis.call('zrevrange', KEYS[1], 0, candidates - 1)", List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final BookRankCacheManager bookRankCacheManager;
+
+    private final TrendingProperties properties;
+
+    /**
+     * 累加当前小时桶和当天桶的点击量（一次 pipeline）
+     *
+     * @param deltas 小说ID -> 点击量增量
+     */
+    public void incrementVisitCounts(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        String hourKey = HOUR_BUCKET_KEY_PREFIX + now.format(HOUR_FORMATTER);
+        String dayKey = DAY_BUCKET_KEY_PREFIX + now.format(DAY_FORMATTER);
+        stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                deltas.forEach((bookId, delta) -> {
+                    String member = String.valueOf(bookId);
+                    ops.opsForZSet().incrementScore(hourKey, member, delta);
+                    ops.opsForZSet().incrementScore(dayKey, member, delta);
+                });
+                ops.expire(hourKey, HOUR_BUCKET_EXPIRE);
+                ops.expire(dayKey, DAY_BUCKET_EXPIRE);
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 获取小说热榜
+     *
+     * @param window 统计窗口
+     * @return 小说热榜
+     */
+    public List<BookRankRespDto> listTrendingRankBooks(TrendingWindowEnum window) {
+        String resultKey = RESULT_KEY_PREFIX + window.name();
+        Set<String> members = stringRedisTemplate.opsForZSet().reverseRange(resultKey, 0, CANDIDATE_SIZE - 1);
+        if (members == null || members.isEmpty()) {
+            members = mergeBuckets(window, resultKey);
+        }
+        if (members == null || members.isEmpty()) {
+            return List.of();
+        }
+        return bookRankCacheManager.listRankBooksByIds(members.stream().map(Long::valueOf).toList());
+    }
+
+    /**
+     * 按衰减权重合并窗口内的桶，只保留候选名次并设置过期时间
+     */
+    private Set<String> mergeBuckets(TrendingWindowEnum window, String resultKey) {
+        LocalDateTime now = LocalDateTime.now();
+        List<String> keys = new ArrayList<>();
+        List<Double> weights = new ArrayList<>();
+        switch (window) {
+            case HOUR -> {
+                // 当前小时全量 + 上一小时按剩余时间比例计入，近似 60 分钟滑动窗口
+                keys.add(HOUR_BUCKET_KEY_PREFIX + now.format(HOUR_FORMATTER));
+                weights.add(1.0);
+                keys.add(HOUR_BUCKET_KEY_PREFIX + now.minusHours(1).format(HOUR_FORMATTER));
+                weights.add(1.0 - now.getMinute() / 60.0);
+            }
+            case DAY -> {
+                for (int i = 0; i < 24; i++) {
+                    keys.add(HOUR_BUCKET_KEY_PREFIX + now.minusHours(i).format(HOUR_FORMATTER));
+                    weights.add(Math.pow(properties.getHourDecay(), i));
+                }
+            }
+            case WEEK -> {
+                for (int i = 0; i < 7; i++) {
+                    keys.add(DAY_BUCKET_KEY_PREFIX + now.minusDays(i).format(DAY_FORMATTER));
+                    weights.add(Math.pow(properties.getDayDecay(), i));
+                }
+            }
+        }
+        List<String> scriptKeys = new ArrayList<>(keys.size() + 1);
+        scriptKeys.add(resultKey);
+        scriptKeys.addAll(keys);
+        List<String> args = new ArrayList<>(weights.size() + 2);
+        args.add(String.valueOf(CANDIDATE_SIZE));
+        args.add(String.valueOf(window.getResultTtl()));
+        weights.forEach(weight -> args.add(String.valueOf(weight)));
+        @SuppressWarnings("unchecked")
+        List<String> members = stringRedisTemplate.execute(MERGE_SCRIPT, scriptKeys, args.toArray());
+        log.debug("合并小说热榜: window={}, buckets={}, books={}", window, keys.size(),
+                members == null ? 0 : members.size());
+        return members == null ? Set.of() : new LinkedHashSet<>(members);
+    }
+}
@@ -0,0 +1,299 @@
+package com.wcoal.novelplus.manager.cache;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.wcoal.novelplus.core.common.constant.DatabaseConsts;
+import com.wcoal.novelplus.dao.entity.BookInfo;
+import com.wcoal.novelplus.dao.mapper.BookInfoMapper;
+import com.wcoal.novelplus.dto.resp.BookRankRespDto;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RReadWriteLock;
+import org.redisson.api.RedissonClient;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.redis.core.DefaultTypedTuple;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 小说实时点击榜管理器
+ * <p>
+ * 点击总量保存在 Redis ZSET 中（member 为小说ID，score 为点击量），由点击量聚合器刷盘时增量累加；
+ * 读取点击榜只需 ZREVRANGE 取出小说ID，再从小说信息缓存中批量获取展示数据。
+ * ZSET 在应用启动时（初始化标记不存在时）和对账任务中按主键分页从数据库全量构建，完成后原子替换并写入初始化标记；
+ * 标记存在之前点击榜走数据库排行榜缓存，不会出现只包含部分小说的榜单。
+ * <p>
+ * 刷盘（写库 + 累加 ZSET）持有 Redisson 读写锁的读锁，重建持有写锁：重建期间不会有增量写库，
+ * 数据库快照与 ZSET 之间不会出现重复累加或丢失，被阻塞的增量留在聚合器内存中等重建完成后刷盘。
+ * 每次重建递增版本号，写库后同步 ZSET 失败的增量只在版本未变时重试（重建已从数据库读到它们）。
+ *
+ * @author wcoal
+ * @since 2025-12-06
+ */
+@Component
+@Slf4j
+@RequiredArgsConstructor
+public class BookVisitRankManager implements ApplicationRunner {
+
+    /**
+     * 小说点击量 ZSET Key
+     */
+    private static final String VISIT_RANK_KEY = "Cache::Novel::BookVisitRank";
+
+    /**
+     * 重建时使用的临时 Key 前缀（每次重建独有）
+     */
+    private static final String VISIT_RANK_TMP_KEY_PREFIX = VISIT_RANK_KEY + "::Rebuilding::";
+
+    /**
+     * 版本号 Key，每次重建加1
+     */
+    private static final String VISIT_RANK_GENERATION_KEY = VISIT_RANK_KEY + "::Generation";
+
+    /**
+     * 初始化标记 Key，存在表示 ZSET 已从数据库全量构建
+     */
+    private static final String VISIT_RANK_INIT_KEY = VISIT_RANK_KEY + "::Initialized";
+
+    /**
+     * 读写锁 Key：刷盘持有读锁，重建持有写锁（同一时间只允许一个节点重建）
+     */
+    private static final String VISIT_RANK_LOCK_KEY = VISIT_RANK_KEY + "::RebuildLock";
+
+    /**
+     * 重建等待写锁的时间（等待进行中的刷盘完成）
+     */
+    private static final long REBUILD_LOCK_WAIT_SECONDS = 10;
+
+    /**
+     * 刷盘等待读锁的时间，超时（正在重建）时本周期不刷盘
+     */
+    private static final long FLUSH_LOCK_WAIT_MILLIS = 100;
+
+    /**
+     * 临时 Key 过期时间，重建异常中断时自动清理
+     */
+    private static final Duration TMP_KEY_TTL = Duration.ofMinutes(30);
+
+    /**
+     * 启动时全量构建的分页大小
+     */
+    private static final int INIT_PAGE_SIZE = 1000;
+
+    /**
+     * 读取候选数量（过滤掉暂无字数的小说后仍能凑满排行榜）
+     */
+    private static final int CANDIDATE_SIZE = BookRankCacheManager.RANK_SIZE * 2;
+
+    /**
+     * 累加点击量：ZSET 已初始化时直接累加（新书从0开始累加），未初始化时由数据库为准不累加
+     * KEYS[1] 点击量 ZSET，KEYS[2] 初始化标记
+     */
+    private static final DefaultRedisScript<Long> INCR_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[2]) == 0 then return 0 end " +
+                    "for i = 1, #ARGV, 2 do " +
+                    "redis.call('zincrby', KEYS[1], ARGV[i + 1], ARGV[i]) " +
+                    "end " +
+                    "return 1", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final BookInfoMapper bookInfoMapper;
+
+    private final BookRankCacheManager bookRankCacheManager;
+
+    private final RedissonClient redissonClient;
+
+    /**
+     * 启动时 ZSET 未初始化则在后台全量构建，不阻塞启动
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        if (isInitialized()) {
+            return;
+        }
+        CompletableFuture.runAsync(() -> {
+            try {
+                rebuild(INIT_PAGE_SIZE);
+            } catch (Exception e) {
+                log.error("启动时构建小说点击量 ZSET 失败，点击榜暂时使用数据库排行榜", e);
+            }
+        });
+    }
+
+    /**
+     * 获取小说点击榜
+     * ZSET 尚未全量初始化时退化为数据库排行榜缓存
+     */
+    public List<BookRankRespDto> listVisitRankBooks() {
+        if (!isInitialized()) {
+            return bookRankCacheManager.listVisitRankBooks();
+        }
+        Set<String> members = stringRedisTemplate.opsForZSet()
+                .reverseRange(VISIT_RANK_KEY, 0, CANDIDATE_SIZE - 1);
+        if (members == null || members.isEmpty()) {
+            return bookRankCacheManager.listVisitRankBooks();
+        }
+        return bookRankCacheManager.listRankBooksByIds(members.stream().map(Long::valueOf).toList());
+    }
+
+    /**
+     * 获取小说点击量
+     * ZSET 中不存在时（尚未初始化或重建后新增、暂无点击的小说）返回 null，由调用方使用小说信息缓存中的点击量，
+     * 不逐次查询数据库；也不把数据库的值写回 ZSET：与其它节点的刷盘并发时，写回的旧值会覆盖增量，造成永久少计
+     *
+     * @param bookId 小说ID
+     * @return 点击量，不存在时返回 null
+     */
+    public Long getVisitCount(Long bookId) {
+        Double score = stringRedisTemplate.opsForZSet().score(VISIT_RANK_KEY, String.valueOf(bookId));
+        return score != null ? score.longValue() : null;
+    }
+
+    /**
+     * 刷盘前获取读锁（重建期间获取不到），与 {@link #unlockForFlush()} 成对使用
+     *
+     * @return 当前版本号，正在重建时返回 null
+     */
+    public Long lockForFlush() {
+        RLock readLock = readWriteLock().readLock();
+        try {
+            if (!readLock.tryLock(FLUSH_LOCK_WAIT_MILLIS, TimeUnit.MILLISECONDS)) {
+                return null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+        try {
+            String generation = stringRedisTemplate.opsForValue().get(VISIT_RANK_GENERATION_KEY);
+            return generation != null ? Long.parseLong(generation) : 0L;
+        } catch (RuntimeException e) {
+            readLock.unlock();
+            throw e;
+        }
+    }
+
+    /**
+     * 刷盘完成后释放读锁
+     */
+    public void unlockForFlush() {
+        RLock readLock = readWriteLock().readLock();
+        if (readLock.isHeldByCurrentThread()) {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * 批量累加点击量（一次脚本调用），需持有刷盘读锁
+     *
+     * @param deltas 小说ID -> 点击量增量
+     */
+    public void incrementVisitCounts(Map<Long, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        List<String> args = new ArrayList<>(deltas.size() * 2);
+        deltas.forEach((bookId, delta) -> {
+            args.add(String.valueOf(bookId));
+            args.add(String.valueOf(delta));
+        });
+        stringRedisTemplate.execute(INCR_SCRIPT, List.of(VISIT_RANK_KEY, VISIT_RANK_INIT_KEY), args.toArray());
+    }
+
+    /**
+     * 移除小说（小说删除时调用）
+     */
+    public void removeBooks(Set<Long> bookIds) {
+        if (bookIds.isEmpty()) {
+            return;
+        }
+        stringRedisTemplate.opsForZSet().remove(VISIT_RANK_KEY,
+                bookIds.stream().map(String::valueOf).toArray());
+    }
+
+    /**
+     * 从数据库重建点击量 ZSET
+     * 持有写锁（刷盘暂停）按主键分页流式读取，写入本次重建独有的临时 Key 后原子替换并写入初始化标记，
+     * 重建期间不影响读取；其它节点正在重建时直接跳过
+     *
+     * @param pageSize 每页数量
+     * @return 重建的小说数量，其它节点正在重建时返回 -1
+     */
+    public long rebuild(int pageSize) {
+        RLock writeLock = readWriteLock().writeLock();
+        boolean locked = false;
+        try {
+            // 不指定租期，由看门狗续期
+            locked = writeLock.tryLock(REBUILD_LOCK_WAIT_SECONDS, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!locked) {
+            log.info("其它节点正在重建小说点击量 ZSET，跳过");
+            return -1;
+        }
+        try {
+            // 之前写库后同步失败的增量已包含在本次读取的数据库中，版本变化后不再重试
+            stringRedisTemplate.opsForValue().increment(VISIT_RANK_GENERATION_KEY);
+            String tmpKey = VISIT_RANK_TMP_KEY_PREFIX + UUID.randomUUID();
+            long total = 0;
+            long lastId = 0;
+            while (true) {
+                QueryWrapper<BookInfo> queryWrapper = new QueryWrapper<>();
+                queryWrapper.select(DatabaseConsts.CommonColumnEnum.ID.getName(),
+                                DatabaseConsts.BookTable.COLUMN_VISIT_COUNT)
+                        .gt(DatabaseConsts.CommonColumnEnum.ID.getName(), lastId)
+                        .orderByAsc(DatabaseConsts.CommonColumnEnum.ID.getName())
+                        .last("limit " + pageSize);
+                List<BookInfo> page = bookInfoMapper.selectList(queryWrapper);
+                if (page.isEmpty()) {
+                    break;
+                }
+                Set<ZSetOperations.TypedTuple<String>> tuples = new HashSet<>(page.size() * 2);
+                for (BookInfo bookInfo : page) {
+                    long visitCount = bookInfo.getVisitCount() != null ? bookInfo.getVisitCount() : 0L;
+                    tuples.add(new DefaultTypedTuple<>(String.valueOf(bookInfo.getId()), (double) visitCount));
+                }
+                stringRedisTemplate.opsForZSet().add(tmpKey, tuples);
+                stringRedisTemplate.expire(tmpKey, TMP_KEY_TTL);
+                total += page.size();
+                lastId = page.get(page.size() - 1).getId();
+            }
+            if (total > 0) {
+                stringRedisTemplate.rename(tmpKey, VISIT_RANK_KEY);
+                stringRedisTemplate.persist(VISIT_RANK_KEY);
+            } else {
+                stringRedisTemplate.delete(VISIT_RANK_KEY);
+            }
+            stringRedisTemplate.opsForValue().set(VISIT_RANK_INIT_KEY, "1");
+            log.info("小说点击量 ZSET 重建完成: total={}", total);
+            return total;
+        } finally {
+            if (writeLock.isHeldByCurrentThread()) {
+                writeLock.unlock();
+            }
+        }
+    }
+
+    private RReadWriteLock readWriteLock() {
+        return redissonClient.getReadWriteLock(VISIT_RANK_LOCK_KEY);
+    }
+
+    private boolean isInitialized() {
+        return Boolean.TRUE.equals(stringRedisTemplate.hasKey(VISIT_RANK_INIT_KEY));
+    }
+}
@@ -0,0 +1,231 @@
+package com.wcoal.novelplus.manager.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.wcoal.novelplus.core.config.ChapterPrefetchProperties;
+import com.wcoal.novelplus.dto.BookChapterCatalogDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 章节预取管理器
+ * 读者打开某一章节时，异步把后续 N 章的章节信息和内容预热到缓存中，
+ * 使翻页请求直接命中缓存。
+ * <p>
+ * 1. 预取任务运行在有界的虚拟线程池中，队列已满时丢弃任务并计数，不会占用读者的请求线程
+ * 2. 同一本书同一时刻只会有一个预取任务，多个读者并发阅读同一本书只触发一次预取
+ * 3. 记录预取命中/未命中次数，用于评估预取收益，由 CacheMetricsBinder 注册到 Micrometer；
+ * 只有读取的章节被预取过且内容确实由缓存返回时才计为命中，预取后已被淘汰、重新查库的计为未命中
+ *
+ * @author wcoal
+ * @since 2025-12-01
+ */
+@Component
+@Slf4j
+public class ChapterPrefetchManager {
+
+    private final ChapterPrefetchProperties properties;
+
+    private final BookChapterCatalogCacheManager bookChapterCatalogCacheManager;
+
+    private final BookChapterCacheManager bookChapterCacheManager;
+
+    private final BookContentCacheManager bookContentCacheManager;
+
+    private final ThreadPoolExecutor executor;
+
+    /**
+     * 正在预取的小说ID（按书去重）
+     */
+    private final Set<Long> inFlightBooks = ConcurrentHashMap.newKeySet();
+
+    /**
+     * 已预取的章节ID标记，读取时据此统计命中率
+     */
+    private final Cache<Long, Boolean> prefetchedChapters;
+
+    private final LongAdder submitted = new LongAdder();
+    private final LongAdder deduplicated = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder prefetched = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ChapterPrefetchManager(ChapterPrefetchProperties properties,
+                                  BookChapterCatalogCacheManager bookChapterCatalogCacheManager,
+                                  BookChapterCacheManager bookChapterCacheManager,
+                                  BookContentCacheManager bookContentCacheManager) {
+        this.properties = properties;
+        this.bookChapterCatalogCacheManager = bookChapterCatalogCacheManager;
+        this.bookChapterCacheManager = bookChapterCacheManager;
+        this.bookContentCacheManager = bookContentCacheManager;
+        this.prefetchedChapters = Caffeine.newBuilder()
+                .maximumSize(100_000)
+                .expireAfterWrite(Duration.ofSeconds(properties.getMarkTtl()))
+                .build();
+        this.executor = new ThreadPoolExecutor(
+                properties.getMaxConcurrency(), properties.getMaxConcurrency(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                Thread.ofVirtual().name("chapter-prefetch-", 0).factory(),
+                buildRejectedHandler(properties.getRejectPolicy()));
+    }
+
+    /**
+     * 读者打开章节时调用：记录预取命中情况，并异步预取后续章节
+     *
+     * @param bookId          小说ID
+     * @param chapterId       当前章节ID
+     * @param chapterNum      当前章节号
+     * @param servedFromCache 章节内容是否由缓存返回（未从数据库加载）
+     */
+    public void onChapterRead(Long bookId, Long chapterId, Integer chapterNum, boolean servedFromCache) {
+        if (!properties.isEnabled() || bookId == null || chapterNum == null) {
+            return;
+        }
+        if (prefetchedChapters.asMap().remove(chapterId) != null && servedFromCache) {
+            hits.increment();
+        } else {
+            misses.increment();
+        }
+        if (!inFlightBooks.add(bookId)) {
+            // 该书已有预取任务在执行
+            deduplicated.increment();
+            return;
+        }
+        submitted.increment();
+        executor.execute(new PrefetchTask(bookId, chapterNum));
+    }
+
+    /**
+     * 预取统计信息
+     */
+    public Map<String, Long> getStats() {
+        Map<String, Long> stats = new LinkedHashMap<>();
+        stats.put("submitted", submitted.sum());
+        stats.put("deduplicated", deduplicated.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("prefetched", prefetched.sum());
+        stats.put("failed", failed.sum());
+        stats.put("hits", hits.sum());
+        stats.put("misses", misses.sum());
+        stats.put("queueSize", (long) executor.getQueue().size());
+        return stats;
+    }
+
+    /**
+     * 把预取统计注册到 Micrometer
+     */
+    public void bindTo(MeterRegistry registry) {
+        counter(registry, "cache.prefetch.tasks", "submitted", submitted);
+        counter(registry, "cache.prefetch.tasks", "deduplicated", deduplicated);
+        counter(registry, "cache.prefetch.tasks", "rejected", rejected);
+        counter(registry, "cache.prefetch.chapters", "prefetched", prefetched);
+        counter(registry, "cache.prefetch.chapters", "failed", failed);
+        counter(registry, "cache.prefetch.reads", "hit", hits);
+        counter(registry, "cache.prefetch.reads", "miss", misses);
+        Gauge.builder("cache.prefetch.queue.size", executor, e -> e.getQueue().size())
+                .register(registry);
+    }
+
+    private static void counter(MeterRegistry registry, String metric, String result, LongAdder adder) {
+        FunctionCounter.builder(metric, adder, LongAdder::sum).tag("result", result).register(registry);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 预取当前章节之后的 N 个章节
+     */
+    private void prefetch(Long bookId, Integer chapterNum) {
+        try {
+            BookChapterCatalogDto catalog = bookChapterCatalogCacheManager.getCatalog(bookId);
+            int index = catalog.indexOfChapterNum(chapterNum);
+            int start = index >= 0 ? index + 1 : -index - 1;
+            int end = Math.min(catalog.size(), start + properties.getChapterCount());
+            for (int i = start; i < end; i++) {
+                long nextChapterId = catalog.getChapterId(i);
+                if (prefetchedChapters.getIfPresent(nextChapterId) != null) {
+                    continue;
+                }
+                bookChapterCacheManager.getChapter(nextChapterId);
+                bookContentCacheManager.getBookContent(nextChapterId);
+                prefetchedChapters.put(nextChapterId, Boolean.TRUE);
+                prefetched.increment();
+            }
+        } catch (Exception e) {
+            failed.increment();
+            log.warn("章节预取失败: bookId={}, chapterNum={}", bookId, chapterNum, e);
+        } finally {
+            inFlightBooks.remove(bookId);
+        }
+    }
+
+    /**
+     * 队列已满时丢弃任务（预取只是优化，不能退化为在读者的请求线程中同步执行）
+     */
+    private RejectedExecutionHandler buildRejectedHandler(ChapterPrefetchProperties.RejectPolicy policy) {
+        return (runnable, pool) -> {
+            rejected.increment();
+            if (policy == ChapterPrefetchProperties.RejectPolicy.DISCARD_OLDEST && !pool.isShutdown()) {
+                Runnable oldest = pool.getQueue().poll();
+                if (oldest != null) {
+                    release(oldest);
+                }
+                pool.execute(runnable);
+                return;
+            }
+            release(runnable);
+        };
+    }
+
+    /**
+     * 被丢弃的任务需要释放去重标记，否则该书之后不会再触发预取
+     */
+    private void release(Runnable runnable) {
+        if (runnable instanceof PrefetchTask task) {
+            inFlightBooks.remove(task.bookId());
+        }
+    }
+
+    private final class PrefetchTask implements Runnable {
+
+        private final Long bookId;
+
+        private final Integer chapterNum;
+
+        private PrefetchTask(Long bookId, Integer chapterNum) {
+            this.bookId = bookId;
+            this.chapterNum = chapterNum;
+        }
+
+        Long bookId() {
+            return bookId;
+        }
+
+        @Override
+        public void run() {
+            prefetch(bookId, chapterNum);
+        }
+    }
+
+}
@@ -1,23 +1,39 @@
 package com.wcoal.novelplus.manager.cache;
 
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.wcoal.novelplus.core.cache.RedisOperationMetrics;
 import com.wcoal.novelplus.dao.entity.BookComment;
 import com.wcoal.novelplus.dao.entity.BookCommentLike;
 import com.wcoal.novelplus.dao.mapper.BookCommentLikeMapper;
 import com.wcoal.novelplus.dao.mapper.BookCommentMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.SessionCallback;
 import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
 import org.springframework.stereotype.Component;
 
-import java.util.HashSet;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
 
 /**
  * 评论点赞缓存管理器
  * 所有增删改操作都在 Redis 中完成，定时任务异步持久化到 MySQL
+ * 点赞、取消点赞由 Lua 脚本原子完成（点赞集合、点赞数量、用户点赞列表、待同步标记、过期时间），无需分布式锁
  *
  * @author wcoal
  * @since 2025-11-13
@@ -30,6 +46,12 @@ public class CommentLikeCacheManager {
     private final BookCommentMapper bookCommentMapper;
     private final BookCommentLikeMapper bookCommentLikeMapper;
     private final StringRedisTemplate stringRedisTemplate;
+    private final RedisOperationMetrics redisOperationMetrics;
+
+    /**
+     * 指标中的管理器名称
+     */
+    private static final String METRIC_MANAGER = "commentLike";
 
     /**
      * Redis Key 前缀
@@ -45,88 +67,118 @@ public class CommentLikeCacheManager {
      */
     private static final long CACHE_EXPIRE_DAYS = 7;
 
-    // ==================== 点赞操作 ====================
+    /**
+     * 点赞脚本返回值：1-操作成功 0-已点赞/未点赞（无需操作） -1-Redis 中没有该评论的点赞数据
+     */
+    private static final long RESULT_OK = 1;
+    private static final long RESULT_NOT_LOADED = -1;
 
     /**
-     * 点赞（只操作 Redis）
+     * 点赞脚本
+     * KEYS：点赞集合、点赞数量、用户点赞列表、待同步集合、空标记
+     * ARGV：用户ID、评论ID、过期秒数、是否跳过加载检查（1-刚从数据库重建过）
+     * 点赞集合是该评论全部点赞用户的完整副本，点赞数量直接取集合大小
      */
-    public void like(Long commentId, Long userId) {
-        String setKey = COMMENT_LIKE_SET_PREFIX + commentId;
-        String countKey = COMMENT_LIKE_COUNT_PREFIX + commentId;
-        String userLikeKey = USER_LIKE_COMMENTS_PREFIX + userId;
-
-        // 1. 添加到点赞集合
-        stringRedisTemplate.opsForSet().add(setKey, userId.toString());
-
-        // 2. 增加点赞数量（如果 count 不存在，先从数据库获取初始值）
-        String currentCount = stringRedisTemplate.opsForValue().get(countKey);
-        if (currentCount == null) {
-            // count 不存在，从数据库获取当前值
-            BookComment comment = bookCommentMapper.selectById(commentId);
-            int dbCount = (comment != null && comment.getLikeCount() != null) ? comment.getLikeCount() : 0;
-            // 设置为数据库值 + 1
-            stringRedisTemplate.opsForValue().set(countKey, String.valueOf(dbCount + 1), CACHE_EXPIRE_DAYS, TimeUnit.DAYS);
-        } else {
-            // count 存在，直接增加
-            stringRedisTemplate.opsForValue().increment(countKey);
-        }
+    private static final DefaultRedisScript<Long> LIKE_SCRIPT = new DefaultRedisScript<>(
+            "if ARGV[4] == '0' and redis.call('exists', KEYS[1]) == 0 " +
+                    "and redis.call('exists', KEYS[5]) == 0 then return -1 end " +
+                    "if redis.call('sadd', KEYS[1], ARGV[1]) == 0 then return 0 end " +
+                    "redis.call('del', KEYS[5]) " +
+                    "redis.call('set', KEYS[2], redis.call('scard', KEYS[1]), 'EX', ARGV[3]) " +
+                    "redis.call('sadd', KEYS[3], ARGV[2]) " +
+                    "redis.call('sadd', KEYS[4], ARGV[2]) " +
+                    "redis.call('expire', KEYS[1], ARGV[3]) " +
+                    "redis.call('expire', KEYS[3], ARGV[3]) " +
+                    "return 1", Long.class);
 
-        // 3. 添加到用户点赞列表
-        stringRedisTemplate.opsForSet().add(userLikeKey, commentId.toString());
+    /**
+     * 取消点赞脚本，KEYS、ARGV 同点赞脚本
+     * 最后一个用户取消后 Redis 会自动删除空集合，此时写入空标记，避免后续请求回查尚未同步的数据库
+     */
+    private static final DefaultRedisScript<Long> UNLIKE_SCRIPT = new DefaultRedisScript<>(
+            "if ARGV[4] == '0' and redis.call('exists', KEYS[1]) == 0 " +
+                    "and redis.call('exists', KEYS[5]) == 0 then return -1 end " +
+                    "if redis.call('srem', KEYS[1], ARGV[1]) == 0 then return 0 end " +
+                    "local count = redis.call('scard', KEYS[1]) " +
+                    "redis.call('set', KEYS[2], count, 'EX', ARGV[3]) " +
+                    "if count == 0 then redis.call('set', KEYS[5], '1', 'EX', ARGV[3]) " +
+                    "else redis.call('expire', KEYS[1], ARGV[3]) end " +
+                    "redis.call('srem', KEYS[3], ARGV[2]) " +
+                    "redis.call('sadd', KEYS[4], ARGV[2]) " +
+                    "return 1", Long.class);
 
-        // 4. 标记为待同步
-        stringRedisTemplate.opsForSet().add(COMMENT_LIKE_SYNC_SET, commentId.toString());
+    /**
+     * 重建脚本
+     * KEYS：每个评论依次为点赞集合、点赞数量、空标记
+     * ARGV：过期秒数、空标记过期秒数，之后每个评论依次为点赞用户数 n 和 n 个用户ID
+     * 只在点赞集合和空标记都不存在时写入：数据库查询之后、写入之前，并发请求可能已经重建并执行了点赞/取消点赞，
+     * 此时再写入会把已取消的点赞加回集合、覆盖最新的点赞数量
+     * 返回实际写入的评论数
+     */
+    private static final DefaultRedisScript<Long> REBUILD_SCRIPT = new DefaultRedisScript<>(
+            "local index = 3 " +
+                    "local loaded = 0 " +
+                    "for i = 1, #KEYS, 3 do " +
+                    "local n = tonumber(ARGV[index]) " +
+                    "if redis.call('exists', KEYS[i], KEYS[i + 2]) == 0 then " +
+                    "if n == 0 then redis.call('set', KEYS[i + 2], '1', 'EX', ARGV[2]) " +
+                    "else " +
+                    // unpack 的参数个数受 Lua 栈大小限制，分批 SADD
+                    "for j = index + 1, index + n, 5000 do " +
+                    "redis.call('sadd', KEYS[i], unpack(ARGV, j, math.min(j + 4999, index + n))) end " +
+                    "redis.call('expire', KEYS[i], ARGV[1]) " +
+                    "redis.call('set', KEYS[i + 1], n, 'EX', ARGV[1]) end " +
+                    "loaded = loaded + 1 end " +
+                    "index = index + n + 1 end " +
+                    "return loaded", Long.class);
 
-        // 5. 设置过期时间
-        stringRedisTemplate.expire(setKey, CACHE_EXPIRE_DAYS, TimeUnit.DAYS);
-        stringRedisTemplate.expire(countKey, CACHE_EXPIRE_DAYS, TimeUnit.DAYS);
-        stringRedisTemplate.expire(userLikeKey, CACHE_EXPIRE_DAYS, TimeUnit.DAYS);
+    // ==================== 点赞操作 ====================
 
-        log.debug("Redis 点赞成功: commentId={}, userId={}", commentId, userId);
+    /**
+     * 点赞（只操作 Redis，一次脚本调用完成）
+     *
+     * @return false-已经点赞过
+     */
+    public boolean like(Long commentId, Long userId) {
+        boolean liked = redisOperationMetrics.record(METRIC_MANAGER, "like",
+                () -> executeLikeScript(LIKE_SCRIPT, commentId, userId));
+        log.debug("Redis 点赞: commentId={}, userId={}, success={}", commentId, userId, liked);
+        return liked;
     }
 
     /**
-     * 取消点赞（只操作 Redis）
+     * 取消点赞（只操作 Redis，一次脚本调用完成）
+     *
+     * @return false-还未点赞
      */
-    public void unlike(Long commentId, Long userId) {
-        String setKey = COMMENT_LIKE_SET_PREFIX + commentId;
-        String countKey = COMMENT_LIKE_COUNT_PREFIX + commentId;
-        String userLikeKey = USER_LIKE_COMMENTS_PREFIX + userId;
-
-        // 1. 从点赞集合中移除
-        stringRedisTemplate.opsForSet().remove(setKey, userId.toString());
-
-        // 2. 减少点赞数量（如果 count 不存在，先从数据库获取初始值）
-        String currentCount = stringRedisTemplate.opsForValue().get(countKey);
-        if (currentCount == null) {
-            // count 不存在，从数据库获取当前值
-            BookComment comment = bookCommentMapper.selectById(commentId);
-            int dbCount = (comment != null && comment.getLikeCount() != null) ? comment.getLikeCount() : 0;
-            // 设置为数据库值 - 1（最小为0）
-            int newCount = Math.max(0, dbCount - 1);
-            stringRedisTemplate.opsForValue().set(countKey, String.valueOf(newCount), CACHE_EXPIRE_DAYS, TimeUnit.DAYS);
-        } else {
-            // count 存在，直接减少（但不能小于0）
-            Long count = stringRedisTemplate.opsForValue().decrement(countKey);
-            if (count != null && count < 0) {
-                stringRedisTemplate.opsForValue().set(countKey, "0", CACHE_EXPIRE_DAYS, TimeUnit.DAYS);
-            }
-        }
+    public boolean unlike(Long commentId, Long userId) {
+        boolean unliked = redisOperationMetrics.record(METRIC_MANAGER, "unlike",
+                () -> executeLikeScript(UNLIKE_SCRIPT, commentId, userId));
+        log.debug("Redis 取消点赞: commentId={}, userId={}, success={}", commentId, userId, unliked);
+        return unliked;
+    }
 
-        // 3. 检查 Set 是否为空，如果为空则删除
-        Long setSize = stringRedisTemplate.opsForSet().size(setKey);
-        if (setSize == null || setSize == 0) {
-            stringRedisTemplate.delete(setKey);
-            log.debug("点赞集合为空，删除 Set: commentId={}", commentId);
+    /**
+     * 执行点赞/取消点赞脚本
+     * Redis 中没有该评论的点赞数据时，先从数据库重建，再跳过加载检查重新执行一次
+     */
+    private boolean executeLikeScript(DefaultRedisScript<Long> script, Long commentId, Long userId) {
+        List<String> keys = List.of(
+                COMMENT_LIKE_SET_PREFIX + commentId,
+                COMMENT_LIKE_COUNT_PREFIX + commentId,
+                USER_LIKE_COMMENTS_PREFIX + userId,
+                COMMENT_LIKE_SYNC_SET,
+                COMMENT_LIKE_EMPTY_PREFIX + commentId);
+        String expireSeconds = String.valueOf(TimeUnit.DAYS.toSeconds(CACHE_EXPIRE_DAYS));
+
+        Long result = stringRedisTemplate.execute(script, keys,
+                userId.toString(), commentId.toString(), expireSeconds, "0");
+        if (result != null && result == RESULT_NOT_LOADED) {
+            rebuildCommentLikeCache(commentId);
+            result = stringRedisTemplate.execute(script, keys,
+                    userId.toString(), commentId.toString(), expireSeconds, "1");
         }
-
-        // 4. 从用户点赞列表中移除
-        stringRedisTemplate.opsForSet().remove(userLikeKey, commentId.toString());
-
-        // 5. 标记为待同步
-        stringRedisTemplate.opsForSet().add(COMMENT_LIKE_SYNC_SET, commentId.toString());
-
-        log.debug("Redis 取消点赞成功: commentId={}, userId={}", commentId, userId);
+        return result != null && result == RESULT_OK;
     }
 
     // ==================== 查询操作 ====================
@@ -137,18 +189,24 @@ public class CommentLikeCacheManager {
     public Boolean isLiked(Long commentId, Long userId) {
         String setKey = COMMENT_LIKE_SET_PREFIX + commentId;
 
-        // 1. 检查 Redis 是否存在该评论的点赞数据
-        Boolean hasKey = stringRedisTemplate.hasKey(setKey);
+        // 1. 检查 Redis 是否存在该评论的点赞数据（点赞集合或空标记），存在时直接判断（未命中返回 null）
+        Boolean isMember = redisOperationMetrics.record(METRIC_MANAGER, "isLiked", () -> {
+            if (Boolean.TRUE.equals(stringRedisTemplate.hasKey(setKey))) {
+                return Boolean.TRUE.equals(stringRedisTemplate.opsForSet().isMember(setKey, userId.toString()));
+            }
+            return Boolean.TRUE.equals(stringRedisTemplate.hasKey(COMMENT_LIKE_EMPTY_PREFIX + commentId))
+                    ? Boolean.FALSE : null;
+        });
 
-        if (Boolean.TRUE.equals(hasKey)) {
-            // Redis 中有数据，直接返回
-            Boolean isMember = stringRedisTemplate.opsForSet().isMember(setKey, userId.toString());
+        if (isMember != null) {
+            redisOperationMetrics.hit(METRIC_MANAGER, "isLiked");
             log.debug("从 Redis 查询点赞状态: commentId={}, userId={}, liked={}", 
                     commentId, userId, isMember);
             return isMember;
         }
 
         // 2. Redis 未命中，查询数据库
+        redisOperationMetrics.miss(METRIC_MANAGER, "isLiked");
         QueryWrapper<BookCommentLike> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq("comment_id", commentId)
                 .eq("user_id", userId);
@@ -174,13 +232,16 @@ public class CommentLikeCacheManager {
         String countKey = COMMENT_LIKE_COUNT_PREFIX + commentId;
 
         // 1. 从 Redis 获取
-        String countStr = stringRedisTemplate.opsForValue().get(countKey);
+        String countStr = redisOperationMetrics.record(METRIC_MANAGER, "getLikeCount",
+                () -> stringRedisTemplate.opsForValue().get(countKey));
         if (countStr != null) {
+            redisOperationMetrics.hit(METRIC_MANAGER, "getLikeCount");
             log.debug("从 Redis 查询点赞数量: commentId={}, count={}", commentId, countStr);
             return Integer.parseInt(countStr);
         }
 
         // 2. Redis 未命中，查询数据库
+        redisOperationMetrics.miss(METRIC_MANAGER, "getLikeCount");
         BookComment comment = bookCommentMapper.selectById(commentId);
         if (comment == null) {
             log.warn("评论不存在: commentId={}", commentId);
@@ -191,33 +252,109 @@ public class CommentLikeCacheManager {
         log.debug("从数据库查询点赞数量: commentId={}, count={}", commentId, likeCount);
 
         // 3. 缓存到 Redis
-        stringRedisTemplate.opsForValue().set(
+        redisOperationMetrics.record(METRIC_MANAGER, "setLikeCount", () -> stringRedisTemplate.opsForValue().set(
                 countKey,
                 likeCount.toString(),
                 CACHE_EXPIRE_DAYS,
                 TimeUnit.DAYS
-        );
+        ));
 
         return likeCount;
     }
 
     /**
-     * 批量查询用户对评论的点赞状态
+     * 批量获取点赞数量
+     * 一次 MGET 读取 Redis，未命中的评论一次 IN 查询数据库后通过 pipeline 回写
+     *
+     * @return 评论ID -> 点赞数量（评论不存在时为0）
      */
-    public Set<Long> getUserLikedComments(Long userId, Set<Long> commentIds) {
+    public Map<Long, Integer> getLikeCounts(Collection<Long> commentIds) {
         if (commentIds == null || commentIds.isEmpty()) {
-            return new HashSet<>();
+            return new HashMap<>();
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(commentIds));
+        List<String> countKeys = ids.stream().map(id -> COMMENT_LIKE_COUNT_PREFIX + id).toList();
+
+        // 1. 一次 MGET 批量读取
+        List<String> values = redisOperationMetrics.record(METRIC_MANAGER, "getLikeCounts",
+                () -> stringRedisTemplate.opsForValue().multiGet(countKeys));
+
+        Map<Long, Integer> result = new LinkedHashMap<>(ids.size());
+        List<Long> missIds = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            String value = values != null ? values.get(i) : null;
+            if (value != null) {
+                result.put(ids.get(i), Integer.parseInt(value));
+            } else {
+                missIds.add(ids.get(i));
+            }
         }
+        redisOperationMetrics.hits(METRIC_MANAGER, "getLikeCount", ids.size() - missIds.size(), missIds.size());
+        if (missIds.isEmpty()) {
+            return result;
+        }
+
+        // 2. 未命中的评论一次查询数据库
+        Map<Long, Integer> dbCounts = bookCommentMapper.selectBatchIds(missIds).stream()
+                .collect(Collectors.toMap(BookComment::getId,
+                        comment -> comment.getLikeCount() != null ? comment.getLikeCount() : 0));
+        for (Long id : missIds) {
+            result.put(id, dbCounts.getOrDefault(id, 0));
+        }
+        log.debug("从数据库批量查询点赞数量: commentIds={}", missIds);
 
-        Set<Long> likedComments = new HashSet<>();
+        // 3. 批量回写 Redis（不存在的评论不缓存）
+        if (!dbCounts.isEmpty()) {
+            redisOperationMetrics.record(METRIC_MANAGER, "setLikeCounts", () -> executePipelined(ops ->
+                    dbCounts.forEach((id, count) -> ops.opsForValue().set(COMMENT_LIKE_COUNT_PREFIX + id,
+                            count.toString(), CACHE_EXPIRE_DAYS, TimeUnit.DAYS))));
+        }
+        return result;
+    }
 
-        for (Long commentId : commentIds) {
-            if (Boolean.TRUE.equals(isLiked(commentId, userId))) {
-                likedComments.add(commentId);
+    /**
+     * 批量查询用户对评论的点赞状态
+     * 一次 pipeline 判断每个评论的点赞集合是否包含该用户、点赞数据是否已加载，
+     * 未加载的评论一次 IN 查询数据库得到点赞记录，同时批量重建这些评论的点赞缓存
+     *
+     * @return 评论ID -> 是否已点赞
+     */
+    public Map<Long, Boolean> areLiked(Long userId, Collection<Long> commentIds) {
+        if (commentIds == null || commentIds.isEmpty()) {
+            return new HashMap<>();
+        }
+        List<Long> ids = new ArrayList<>(new LinkedHashSet<>(commentIds));
+        String member = userId.toString();
+
+        // 1. 每个评论两条命令：SISMEMBER 点赞集合、EXISTS 点赞集合/空标记
+        List<Object> replies = redisOperationMetrics.record(METRIC_MANAGER, "areLiked", () -> executePipelined(ops -> {
+            for (Long id : ids) {
+                ops.opsForSet().isMember(COMMENT_LIKE_SET_PREFIX + id, member);
+                ops.countExistingKeys(List.of(COMMENT_LIKE_SET_PREFIX + id, COMMENT_LIKE_EMPTY_PREFIX + id));
+            }
+        }));
+
+        Map<Long, Boolean> result = new LinkedHashMap<>(ids.size());
+        List<Long> missIds = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Object loaded = replies.get(2 * i + 1);
+            if (loaded instanceof Long count && count > 0) {
+                result.put(ids.get(i), Boolean.TRUE.equals(replies.get(2 * i)));
+            } else {
+                missIds.add(ids.get(i));
             }
         }
+        redisOperationMetrics.hits(METRIC_MANAGER, "isLiked", ids.size() - missIds.size(), missIds.size());
+        if (missIds.isEmpty()) {
+            return result;
+        }
 
-        return likedComments;
+        // 2. 未加载的评论从数据库重建，顺带得到点赞状态
+        Map<Long, Set<Long>> likeUsers = rebuildCommentLikeCaches(missIds);
+        for (Long id : missIds) {
+            result.put(id, likeUsers.getOrDefault(id, Set.of()).contains(userId));
+        }
+        return result;
     }
 
     // ==================== 缓存管理 ====================
@@ -227,46 +364,44 @@ public class CommentLikeCacheManager {
      */
     public void rebuildCommentLikeCache(Long commentId) {
         log.info("开始重建评论点赞缓存: commentId={}", commentId);
+        Set<Long> userIds = rebuildCommentLikeCaches(List.of(commentId)).getOrDefault(commentId, Set.of());
+        log.info("重建评论点赞缓存成功: commentId={}, likeCount={}", commentId, userIds.size());
+    }
 
-        // 1. 查询该评论的所有点赞记录
+    /**
+     * 批量重建评论点赞缓存
+     * 一次 IN 查询所有评论的点赞记录，通过一次脚本调用写入点赞集合和点赞数量，无点赞记录的评论写入空标记；
+     * 已被并发请求重建的评论保持不变
+     *
+     * @return 评论ID -> 点赞用户ID集合（数据库中的点赞记录，无点赞的评论不包含在内）
+     */
+    public Map<Long, Set<Long>> rebuildCommentLikeCaches(Collection<Long> commentIds) {
+        // 1. 查询这些评论的所有点赞记录
         QueryWrapper<BookCommentLike> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq("comment_id", commentId);
-
-        List<BookCommentLike> likes = bookCommentLikeMapper.selectList(queryWrapper);
-
-        if (likes == null || likes.isEmpty()) {
-            log.debug("评论无点赞记录: commentId={}", commentId);
-            // 设置空标记
-            stringRedisTemplate.opsForValue().set(
-                    COMMENT_LIKE_EMPTY_PREFIX + commentId,
-                    "1",
-                    1,
-                    TimeUnit.HOURS
-            );
-            return;
+        queryWrapper.in("comment_id", commentIds);
+        Map<Long, Set<Long>> likeUsers = bookCommentLikeMapper.selectList(queryWrapper).stream()
+                .collect(Collectors.groupingBy(BookCommentLike::getCommentId,
+                        Collectors.mapping(BookCommentLike::getUserId, Collectors.toSet())));
+
+        // 2. 一次脚本调用写入 Redis（不存在时才写入）
+        List<String> keys = new ArrayList<>(commentIds.size() * 3);
+        List<String> args = new ArrayList<>();
+        args.add(String.valueOf(TimeUnit.DAYS.toSeconds(CACHE_EXPIRE_DAYS)));
+        args.add(String.valueOf(TimeUnit.HOURS.toSeconds(1)));
+        for (Long commentId : new LinkedHashSet<>(commentIds)) {
+            keys.add(COMMENT_LIKE_SET_PREFIX + commentId);
+            keys.add(COMMENT_LIKE_COUNT_PREFIX + commentId);
+            keys.add(COMMENT_LIKE_EMPTY_PREFIX + commentId);
+            Set<Long> userIds = likeUsers.getOrDefault(commentId, Set.of());
+            args.add(String.valueOf(userIds.size()));
+            userIds.forEach(userId -> args.add(userId.toString()));
         }
+        Long loaded = redisOperationMetrics.record(METRIC_MANAGER, "rebuild",
+                () -> stringRedisTemplate.execute(REBUILD_SCRIPT, keys, args.toArray()));
 
-        // 2. 批量添加到 Redis Set
-        String setKey = COMMENT_LIKE_SET_PREFIX + commentId;
-        String[] userIds = likes.stream()
-                .map(like -> like.getUserId().toString())
-                .toArray(String[]::new);
-
-        stringRedisTemplate.opsForSet().add(setKey, userIds);
-
-        // 3. 设置点赞数量
-        String countKey = COMMENT_LIKE_COUNT_PREFIX + commentId;
-        stringRedisTemplate.opsForValue().set(
-                countKey,
-                String.valueOf(likes.size()),
-                CACHE_EXPIRE_DAYS,
-                TimeUnit.DAYS
-        );
-
-        // 4. 设置过期时间
-        stringRedisTemplate.expire(setKey, CACHE_EXPIRE_DAYS, TimeUnit.DAYS);
-
-        log.info("重建评论点赞缓存成功: commentId={}, likeCount={}", commentId, likes.size());
+        log.debug("批量重建评论点赞缓存: commentIds={}, 有点赞的评论数={}, 写入数={}",
+                commentIds, likeUsers.size(), loaded);
+        return likeUsers;
     }
 
     /**
@@ -277,9 +412,11 @@ public class CommentLikeCacheManager {
         String countKey = COMMENT_LIKE_COUNT_PREFIX + commentId;
         String emptyKey = COMMENT_LIKE_EMPTY_PREFIX + commentId;
 
-        stringRedisTemplate.delete(setKey);
-        stringRedisTemplate.delete(countKey);
-        stringRedisTemplate.delete(emptyKey);
+        redisOperationMetrics.record(METRIC_MANAGER, "clear", () -> {
+            stringRedisTemplate.delete(setKey);
+            stringRedisTemplate.delete(countKey);
+            stringRedisTemplate.delete(emptyKey);
+        });
 
         log.debug("清除评论点赞缓存: commentId={}", commentId);
     }
@@ -287,26 +424,69 @@ public class CommentLikeCacheManager {
     // ==================== 定时任务相关 ====================
 
     /**
-     * 获取需要同步的评论ID列表
+     * 用 SSCAN 逐批遍历待同步的评论ID，不会像 SMEMBERS 一样一次取出整个集合阻塞 Redis
+     *
+     * @param scanCount 每次 SSCAN 的 COUNT 参数
+     * @param consumer  评论ID消费者
      */
-    public Set<String> getCommentIdsToSync() {
-        return stringRedisTemplate.opsForSet().members(COMMENT_LIKE_SYNC_SET);
+    public void scanCommentIdsToSync(int scanCount, Consumer<Long> consumer) {
+        ScanOptions options = ScanOptions.scanOptions().count(scanCount).build();
+        try (Cursor<String> cursor = stringRedisTemplate.opsForSet().scan(COMMENT_LIKE_SYNC_SET, options)) {
+            while (cursor.hasNext()) {
+                String commentId = cursor.next();
+                if (StringUtils.isNumeric(commentId)) {
+                    consumer.accept(Long.parseLong(commentId));
+                }
+            }
+        }
     }
 
     /**
-     * 获取评论的所有点赞用户ID（从 Redis）
+     * 批量获取评论的所有点赞用户ID（从 Redis，一次 pipeline）
+     *
+     * @return 评论ID -> 点赞用户ID集合；点赞数据未加载到 Redis 的评论不包含在内（无法判断，不能当作0处理）
      */
-    public Set<String> getLikeUserIds(Long commentId) {
-        String setKey = COMMENT_LIKE_SET_PREFIX + commentId;
-        return stringRedisTemplate.opsForSet().members(setKey);
+    public Map<Long, Set<Long>> getLikeUserIds(Collection<Long> commentIds) {
+        List<Long> ids = new ArrayList<>(commentIds);
+        List<Object> replies = redisOperationMetrics.record(METRIC_MANAGER, "getLikeUserIds", () -> executePipelined(ops -> {
+            for (Long id : ids) {
+                ops.opsForSet().members(COMMENT_LIKE_SET_PREFIX + id);
+                ops.hasKey(COMMENT_LIKE_EMPTY_PREFIX + id);
+            }
+        }));
+
+        Map<Long, Set<Long>> result = new LinkedHashMap<>(ids.size());
+        for (int i = 0; i < ids.size(); i++) {
+            Set<?> members = (Set<?>) replies.get(2 * i);
+            if (members != null && !members.isEmpty()) {
+                result.put(ids.get(i), members.stream()
+                        .map(member -> Long.parseLong(member.toString()))
+                        .collect(Collectors.toSet()));
+            } else if (Boolean.TRUE.equals(replies.get(2 * i + 1))) {
+                result.put(ids.get(i), Set.of());
+            }
+        }
+        return result;
     }
 
     /**
-     * 移除待同步标记
+     * 批量移除待同步标记
+     * 需在读取点赞数据之前移除：移除之后的点赞变更会重新打上标记，由下次同步处理
      */
-    public void removeSyncMark(Long commentId) {
-        stringRedisTemplate.opsForSet().remove(COMMENT_LIKE_SYNC_SET, commentId.toString());
-        log.debug("移除同步标记: commentId={}", commentId);
+    public void removeSyncMarks(Collection<Long> commentIds) {
+        String[] members = commentIds.stream().map(String::valueOf).toArray(String[]::new);
+        redisOperationMetrics.record(METRIC_MANAGER, "removeSyncMarks",
+                () -> stringRedisTemplate.opsForSet().remove(COMMENT_LIKE_SYNC_SET, (Object[]) members));
+        log.debug("移除同步标记: commentIds={}", commentIds);
+    }
+
+    /**
+     * 批量恢复待同步标记（同步失败时调用，下次重试）
+     */
+    public void addSyncMarks(Collection<Long> commentIds) {
+        String[] members = commentIds.stream().map(String::valueOf).toArray(String[]::new);
+        redisOperationMetrics.record(METRIC_MANAGER, "addSyncMarks",
+                () -> stringRedisTemplate.opsForSet().add(COMMENT_LIKE_SYNC_SET, members));
     }
 
     /**
@@ -314,6 +494,23 @@ public class CommentLikeCacheManager {
      */
     public Long getLikeCountFromRedis(Long commentId) {
         String setKey = COMMENT_LIKE_SET_PREFIX + commentId;
-        return stringRedisTemplate.opsForSet().size(setKey);
+        return redisOperationMetrics.record(METRIC_MANAGER, "getLikeSetSize",
+                () -> stringRedisTemplate.opsForSet().size(setKey));
+    }
+
+    /**
+     * 在一次 pipeline 中执行多条命令
+     *
+     * @return 各命令的返回值，顺序与命令一致
+     */
+    private List<Object> executePipelined(Consumer<RedisOperations<String, String>> commands) {
+        return stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                commands.accept((RedisOperations<String, String>) operations);
+                return null;
+            }
+        });
     }
 }
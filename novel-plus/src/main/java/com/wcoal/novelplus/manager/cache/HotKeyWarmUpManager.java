@@ -0,0 +1,274 @@
+package com.wcoal.novelplus.manager.cache;
+
+import com.wcoal.novelplus.core.common.constant.CacheConsts;
+import com.wcoal.novelplus.core.config.HotKeyWarmUpProperties;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * 热点 key 快照与启动预热
+ * <p>
+ * 快照：定期从本节点的 Caffeine 缓存中按访问频率取出最热的 key（小说ID、章节ID），
+ * 按热度顺序写入 Redis 列表（Cache::Novel::HotKeys::{缓存名}），多个节点的快照以最后一次为准。
+ * 预热：应用启动完成、对外报告就绪（readiness）之前回放快照——
+ * 先从二级缓存的 Redis 层回填本地缓存，未命中的 key 按批次批量查询数据库，并发数和总耗时均有上限；
+ * 排行榜和首页推荐直接调用各自的缓存方法加载。
+ *
+ * @author wcoal
+ * @since 2025-12-14
+ */
+@Slf4j
+@Component
+public class HotKeyWarmUpManager implements ApplicationRunner {
+
+    /**
+     * 热点 key 快照 Key 前缀
+     */
+    private static final String SNAPSHOT_KEY_PREFIX = CacheConsts.REDIS_CACHE_PREFIX + "HotKeys::";
+
+    private final CacheManager caffeineCacheManager;
+
+    private final CacheManager twoLevelCacheManager;
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final HotKeyWarmUpProperties properties;
+
+    private final HomeBookCacheManager homeBookCacheManager;
+
+    private final BookRankCacheManager bookRankCacheManager;
+
+    /**
+     * 缓存名 -> 批量加载方法（key 列表 -> key 到缓存值的映射）
+     */
+    private final Map<String, Function<List<Long>, Map<Long, ?>>> loaders = new LinkedHashMap<>();
+
+    private final ScheduledExecutorService scheduler;
+
+    public HotKeyWarmUpManager(@Qualifier(CacheConsts.CAFFEINE_CACHE_MANAGER) CacheManager caffeineCacheManager,
+                               @Qualifier(CacheConsts.TWO_LEVEL_CACHE_MANAGER) CacheManager twoLevelCacheManager,
+                               StringRedisTemplate stringRedisTemplate,
+                               HotKeyWarmUpProperties properties,
+                               HomeBookCacheManager homeBookCacheManager,
+                               BookRankCacheManager bookRankCacheManager,
+                               BookInfoCacheManager bookInfoCacheManager,
+                               BookChapterCacheManager bookChapterCacheManager,
+                               BookContentCacheManager bookContentCacheManager,
+                               BookChapterCatalogCacheManager bookChapterCatalogCacheManager) {
+        this.caffeineCacheManager = caffeineCacheManager;
+        this.twoLevelCacheManager = twoLevelCacheManager;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.properties = properties;
+        this.homeBookCacheManager = homeBookCacheManager;
+        this.bookRankCacheManager = bookRankCacheManager;
+
+        loaders.put(CacheConsts.BOOK_INFO_CACHE_NAME, bookInfoCacheManager::loadBookInfos);
+        loaders.put(CacheConsts.BOOK_CHAPTER_CACHE_NAME, bookChapterCacheManager::loadChapters);
+        loaders.put(CacheConsts.BOOK_CONTENT_CACHE_NAME, bookContentCacheManager::loadEncodedContents);
+        // 目录按单本构建，getCatalog 加载后自行写入缓存
+        loaders.put(CacheConsts.BOOK_CHAPTER_CATALOG_CACHE_NAME, bookIds -> {
+            bookIds.forEach(bookChapterCatalogCacheManager::getCatalog);
+            return Map.of();
+        });
+
+        if (!properties.isEnabled()) {
+            this.scheduler = null;
+            return;
+        }
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "hot-key-snapshot");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long interval = properties.getSnapshotInterval().toMillis();
+        this.scheduler.scheduleWithFixedDelay(this::snapshotQuietly, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        if (properties.isEnabled()) {
+            warmUp();
+        }
+    }
+
+    /**
+     * 把本节点各缓存最热的 key 写入 Redis
+     *
+     * @return 快照的 key 总数
+     */
+    public int snapshot() {
+        int total = 0;
+        for (String cacheName : loaders.keySet()) {
+            List<String> hotKeys = hottestKeys(cacheName);
+            if (hotKeys.isEmpty()) {
+                continue;
+            }
+            // 先写临时 key 再整体替换，读取方不会看到写了一半的快照
+            String key = SNAPSHOT_KEY_PREFIX + cacheName;
+            String tmpKey = key + "::" + UUID.randomUUID();
+            stringRedisTemplate.opsForList().rightPushAll(tmpKey, hotKeys);
+            stringRedisTemplate.rename(tmpKey, key);
+            stringRedisTemplate.expire(key, properties.getSnapshotTtl());
+            total += hotKeys.size();
+        }
+        return total;
+    }
+
+    /**
+     * 回放热点 key 快照，预热本地缓存
+     *
+     * @return 预热成功的 key 数量
+     */
+    public int warmUp() {
+        long startTime = System.currentTimeMillis();
+        warmUpRanks();
+
+        ExecutorService executor = Executors.newFixedThreadPool(properties.getConcurrency(), r -> {
+            Thread thread = new Thread(r, "hot-key-warm-up");
+            thread.setDaemon(true);
+            return thread;
+        });
+        List<Future<Integer>> futures = new ArrayList<>();
+        try {
+            loaders.forEach((cacheName, loader) -> {
+                Cache cache = twoLevelCacheManager.getCache(cacheName);
+                List<Long> keys = readSnapshot(cacheName);
+                if (cache == null || keys.isEmpty()) {
+                    return;
+                }
+                for (int from = 0; from < keys.size(); from += properties.getBatchSize()) {
+                    List<Long> batch = keys.subList(from, Math.min(from + properties.getBatchSize(), keys.size()));
+                    futures.add(executor.submit(() -> warmUpBatch(cache, batch, loader)));
+                }
+            });
+        } finally {
+            executor.shutdown();
+        }
+
+        boolean finished = false;
+        try {
+            finished = executor.awaitTermination(properties.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (!finished) {
+            executor.shutdownNow();
+            log.warn("热点 key 预热超时，剩余部分放弃: timeout={}", properties.getTimeout());
+        }
+
+        int warmed = 0;
+        for (Future<Integer> future : futures) {
+            if (future.isDone() && !future.isCancelled()) {
+                try {
+                    warmed += future.get();
+                } catch (ExecutionException e) {
+                    log.warn("热点 key 批次预热失败", e.getCause());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        log.info("热点 key 预热完成: 批次数={}, 预热key数={}, 耗时={}ms",
+                futures.size(), warmed, System.currentTimeMillis() - startTime);
+        return warmed;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private void snapshotQuietly() {
+        try {
+            int total = snapshot();
+            log.debug("热点 key 快照完成: keys={}", total);
+        } catch (Exception e) {
+            log.error("热点 key 快照失败", e);
+        }
+    }
+
+    /**
+     * 预热一批 key：先读缓存（二级缓存会从 Redis 回填本地），未命中的批量查询数据库后写入缓存
+     */
+    private int warmUpBatch(Cache cache, List<Long> keys, Function<List<Long>, Map<Long, ?>> loader) {
+        List<Long> misses = new ArrayList<>();
+        for (Long key : keys) {
+            if (cache.get(key) == null) {
+                misses.add(key);
+            }
+        }
+        Map<Long, ?> values = loader.apply(misses);
+        values.forEach(cache::put);
+        return keys.size() - misses.size() + values.size();
+    }
+
+    private void warmUpRanks() {
+        try {
+            homeBookCacheManager.listHomeBooks();
+            bookRankCacheManager.listVisitRankBooks();
+            bookRankCacheManager.listNewestRankBooks();
+            bookRankCacheManager.listUpdateRankBooks();
+        } catch (Exception e) {
+            log.warn("排行榜预热失败", e);
+        }
+    }
+
+    /**
+     * 本节点缓存中访问频率最高的 key（按热度降序）
+     */
+    private List<String> hottestKeys(String cacheName) {
+        Cache cache = caffeineCacheManager.getCache(cacheName);
+        if (cache == null
+                || !(cache.getNativeCache() instanceof com.github.benmanes.caffeine.cache.Cache<?, ?> caffeine)) {
+            return List.of();
+        }
+        return caffeine.policy().eviction()
+                .map(eviction -> eviction.hottest(properties.getKeysPerCache()).keySet().stream()
+                        .map(String::valueOf)
+                        .toList())
+                .orElse(List.of());
+    }
+
+    private List<Long> readSnapshot(String cacheName) {
+        List<String> values;
+        try {
+            values = stringRedisTemplate.opsForList().range(SNAPSHOT_KEY_PREFIX + cacheName, 0, -1);
+        } catch (Exception e) {
+            log.warn("读取热点 key 快照失败: cache={}", cacheName, e);
+            return List.of();
+        }
+        if (values == null) {
+            return List.of();
+        }
+        List<Long> keys = new ArrayList<>(values.size());
+        for (String value : values) {
+            if (StringUtils.isNumeric(value)) {
+                keys.add(Long.parseLong(value));
+            }
+        }
+        return keys;
+    }
+}
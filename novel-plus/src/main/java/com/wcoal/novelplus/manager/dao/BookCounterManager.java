@@ -0,0 +1,82 @@
+package com.wcoal.novelplus.manager.dao;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.wcoal.novelplus.core.common.constant.DatabaseConsts;
+import com.wcoal.novelplus.core.common.utils.TransactionUtils;
+import com.wcoal.novelplus.dao.entity.BookInfo;
+import com.wcoal.novelplus.dao.mapper.BookCommentMapper;
+import com.wcoal.novelplus.dao.mapper.BookInfoMapper;
+import com.wcoal.novelplus.manager.cache.BookCommentCacheManager;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 小说冗余计数管理类
+ * 统一维护评论回复数（book_comment.reply_count）、小说评论数（book_info.comment_count）
+ * 和小说总字数（book_info.word_count）：每次增减都是一条原子 SQL（SET x = x + ?），
+ * 不再先读后写，并发下不会丢失更新；计数变化所在事务提交后清除对应的评论第一页缓存，
+ * 避免提交前被其他请求按旧计数重新缓存。
+ * 计数与明细数据之间的偏差（历史数据、异常中断）由 CounterReconcileJob 定期校正。
+ *
+ * @author wcoal
+ * @since 2025-12-23
+ */
+@Component
+@RequiredArgsConstructor
+public class BookCounterManager {
+
+    private final BookCommentMapper bookCommentMapper;
+
+    private final BookInfoMapper bookInfoMapper;
+
+    private final BookCommentCacheManager bookCommentCacheManager;
+
+    /**
+     * 增减评论回复数
+     *
+     * @param bookId    评论所属小说ID
+     * @param commentId 评论ID
+     * @param delta     回复数增量（可为负数）
+     */
+    public void addReplyCount(Long bookId, Long commentId, int delta) {
+        bookCommentMapper.addReplyCount(commentId, delta);
+        TransactionUtils.afterCommit(() -> bookCommentCacheManager.evictFirstPage(bookId));
+    }
+
+    /**
+     * 批量增减小说评论数
+     *
+     * @param deltas 小说ID -> 评论数增量（可为负数，为0的忽略）
+     */
+    public void addCommentCounts(Map<Long, Integer> deltas) {
+        Map<Long, Integer> nonZeroDeltas = new HashMap<>(deltas);
+        nonZeroDeltas.values().removeIf(delta -> delta == 0);
+        if (nonZeroDeltas.isEmpty()) {
+            return;
+        }
+        bookInfoMapper.batchAddCommentCount(nonZeroDeltas);
+        TransactionUtils.afterCommit(() -> nonZeroDeltas.keySet().forEach(bookCommentCacheManager::evictFirstPage));
+    }
+
+    /**
+     * 增减小说总字数，需在调用方事务内执行，返回的新值与本次更新一致
+     *
+     * @param bookId 小说ID
+     * @param delta  字数增量（可为负数）
+     * @return 更新后的小说总字数
+     */
+    public int addWordCount(Long bookId, int delta) {
+        if (delta != 0) {
+            bookInfoMapper.addWordCount(bookId, delta);
+        }
+        QueryWrapper<BookInfo> queryWrapper = new QueryWrapper<>();
+        queryWrapper.select(DatabaseConsts.BookTable.COLUMN_WORD_COUNT)
+                .eq(DatabaseConsts.CommonColumnEnum.ID.getName(), bookId);
+        BookInfo bookInfo = bookInfoMapper.selectOne(queryWrapper);
+        return bookInfo == null ? 0 : Objects.requireNonNullElse(bookInfo.getWordCount(), 0);
+    }
+}
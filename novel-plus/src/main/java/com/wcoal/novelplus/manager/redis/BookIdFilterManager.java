@@ -0,0 +1,323 @@
+package com.wcoal.novelplus.manager.redis;
+
+import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
+import com.wcoal.novelplus.core.common.constant.CacheConsts;
+import com.wcoal.novelplus.core.common.constant.DatabaseConsts;
+import com.wcoal.novelplus.core.common.utils.TransactionUtils;
+import com.wcoal.novelplus.core.config.IdFilterProperties;
+import com.wcoal.novelplus.dao.entity.BookChapter;
+import com.wcoal.novelplus.dao.entity.BookInfo;
+import com.wcoal.novelplus.dao.mapper.BookChapterMapper;
+import com.wcoal.novelplus.dao.mapper.BookInfoMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.dao.DataAccessException;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.LongFunction;
+
+/**
+ * 小说/章节ID存在性过滤管理器
+ * <p>
+ * 两道防线拦截不存在的ID，避免爬虫随机探测ID时每次都查询数据库：
+ * 1. 布隆过滤器：Redis 位图，按主键流式扫描重建，新增时同步置位；判定不存在的ID一定不存在。
+ * 删除无法从布隆过滤器中移除，由负缓存兜底，下次重建后自然清除。
+ * 2. 负缓存：查询数据库确认不存在（或已删除）的ID短时间缓存在本地和 Redis 两级缓存中。
+ * 位图尚未构建或 Redis 异常时放行，不影响正常读取。
+ *
+ * @author wcoal
+ * @since 2025-12-12
+ */
+@Component
+@Slf4j
+public class BookIdFilterManager {
+
+    private static final String BOOK_FILTER_KEY_PREFIX = "Cache::Novel::BookIdFilter::";
+
+    private static final String CHAPTER_FILTER_KEY_PREFIX = "Cache::Novel::ChapterIdFilter::";
+
+    private static final String BOOK_MISSING_KEY_PREFIX = "Book::";
+
+    private static final String CHAPTER_MISSING_KEY_PREFIX = "Chapter::";
+
+    /**
+     * 位图不存在（尚未构建）时返回 1 放行；任一位为 0 返回 0
+     */
+    private static final DefaultRedisScript<Long> CONTAINS_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('exists', KEYS[1]) == 0 then return 1 end " +
+                    "for i = 1, #ARGV do " +
+                    "if redis.call('getbit', KEYS[1], ARGV[i]) == 0 then return 0 end " +
+                    "end " +
+                    "return 1", Long.class);
+
+    /**
+     * 只对已存在的位图置位（正式位图和正在重建的临时位图），不存在的位图由重建生成
+     */
+    private static final DefaultRedisScript<Long> ADD_SCRIPT = new DefaultRedisScript<>(
+            "for k = 1, #KEYS do " +
+                    "if redis.call('exists', KEYS[k]) == 1 then " +
+                    "for i = 1, #ARGV do redis.call('setbit', KEYS[k], ARGV[i], 1) end " +
+                    "end " +
+                    "end " +
+                    "return 1", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+
+    private final BookInfoMapper bookInfoMapper;
+
+    private final BookChapterMapper bookChapterMapper;
+
+    private final IdFilterProperties properties;
+
+    private final Cache missingIdCache;
+
+    private final BloomFilter bookFilter;
+
+    private final BloomFilter chapterFilter;
+
+    public BookIdFilterManager(StringRedisTemplate stringRedisTemplate, BookInfoMapper bookInfoMapper,
+                               BookChapterMapper bookChapterMapper, IdFilterProperties properties,
+                               @Qualifier(CacheConsts.TWO_LEVEL_CACHE_MANAGER) CacheManager twoLevelCacheManager) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.bookInfoMapper = bookInfoMapper;
+        this.bookChapterMapper = bookChapterMapper;
+        this.properties = properties;
+        this.missingIdCache = twoLevelCacheManager.getCache(CacheConsts.MISSING_ID_CACHE_NAME);
+        this.bookFilter = new BloomFilter(BOOK_FILTER_KEY_PREFIX, properties.getBookExpectedInsertions(),
+                properties.getFalsePositiveProbability());
+        this.chapterFilter = new BloomFilter(CHAPTER_FILTER_KEY_PREFIX, properties.getChapterExpectedInsertions(),
+                properties.getFalsePositiveProbability());
+    }
+
+    /**
+     * 小说ID是否一定不存在
+     */
+    public boolean isBookMissing(Long bookId) {
+        return isMissing(bookFilter, BOOK_MISSING_KEY_PREFIX, bookId);
+    }
+
+    /**
+     * 章节ID是否一定不存在
+     */
+    public boolean isChapterMissing(Long chapterId) {
+        return isMissing(chapterFilter, CHAPTER_MISSING_KEY_PREFIX, chapterId);
+    }
+
+    /**
+     * 记录数据库中不存在的小说ID（负缓存）
+     */
+    public void markBookMissing(Long bookId) {
+        missingIdCache.put(BOOK_MISSING_KEY_PREFIX + bookId, Boolean.TRUE);
+    }
+
+    /**
+     * 记录数据库中不存在的章节ID（负缓存）
+     */
+    public void markChapterMissing(Long chapterId) {
+        missingIdCache.put(CHAPTER_MISSING_KEY_PREFIX + chapterId, Boolean.TRUE);
+    }
+
+    /**
+     * 新增小说后加入过滤器，事务提交后清除负缓存
+     */
+    public void onBookAdded(Long bookId) {
+        onAdded(bookFilter, BOOK_MISSING_KEY_PREFIX, bookId);
+    }
+
+    /**
+     * 新增章节后加入过滤器，事务提交后清除负缓存
+     */
+    public void onChapterAdded(Long chapterId) {
+        onAdded(chapterFilter, CHAPTER_MISSING_KEY_PREFIX, chapterId);
+    }
+
+    /**
+     * 删除小说后写入负缓存（事务提交后执行）
+     */
+    public void onBookDeleted(Long bookId) {
+        TransactionUtils.afterCommit(() -> markBookMissing(bookId));
+    }
+
+    /**
+     * 删除章节后写入负缓存（事务提交后执行）
+     */
+    public void onChapterDeleted(Long chapterId) {
+        TransactionUtils.afterCommit(() -> markChapterMissing(chapterId));
+    }
+
+    /**
+     * 从数据库重建小说ID过滤器
+     *
+     * @return 写入的ID数量
+     */
+    public long rebuildBookFilter() {
+        return rebuild(bookFilter, lastId -> {
+            QueryWrapper<BookInfo> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select(DatabaseConsts.CommonColumnEnum.ID.getName())
+                    .gt(DatabaseConsts.CommonColumnEnum.ID.getName(), lastId)
+                    .orderByAsc(DatabaseConsts.CommonColumnEnum.ID.getName())
+                    .last("limit " + properties.getRebuildPageSize());
+            return bookInfoMapper.selectList(queryWrapper).stream().map(BookInfo::getId).toList();
+        });
+    }
+
+    /**
+     * 从数据库重建章节ID过滤器
+     *
+     * @return 写入的ID数量
+     */
+    public long rebuildChapterFilter() {
+        return rebuild(chapterFilter, lastId -> {
+            QueryWrapper<BookChapter> queryWrapper = new QueryWrapper<>();
+            queryWrapper.select(DatabaseConsts.CommonColumnEnum.ID.getName())
+                    .gt(DatabaseConsts.CommonColumnEnum.ID.getName(), lastId)
+                    .orderByAsc(DatabaseConsts.CommonColumnEnum.ID.getName())
+                    .last("limit " + properties.getRebuildPageSize());
+            return bookChapterMapper.selectList(queryWrapper).stream().map(BookChapter::getId).toList();
+        });
+    }
+
+    private boolean isMissing(BloomFilter filter, String missingKeyPrefix, Long id) {
+        if (id == null) {
+            return true;
+        }
+        if (missingIdCache.get(missingKeyPrefix + id) != null) {
+            return true;
+        }
+        if (!properties.isEnabled()) {
+            return false;
+        }
+        try {
+            Long result = stringRedisTemplate.execute(CONTAINS_SCRIPT, List.of(filter.getKey()),
+                    filter.offsetArgs(id));
+            return result != null && result == 0;
+        } catch (Exception e) {
+            log.warn("查询ID过滤器失败，放行: key={}, id={}", filter.getKey(), id, e);
+            return false;
+        }
+    }
+
+    private void onAdded(BloomFilter filter, String missingKeyPrefix, Long id) {
+        // 立即置位，事务提交后的读取不会被误拦截；提交后再置位一次，覆盖期间开始的重建
+        add(filter, id);
+        TransactionUtils.afterCommit(() -> {
+            add(filter, id);
+            missingIdCache.evict(missingKeyPrefix + id);
+        });
+    }
+
+    private void add(BloomFilter filter, Long id) {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        try {
+            stringRedisTemplate.execute(ADD_SCRIPT, List.of(filter.getKey(), filter.getRebuildingKey()),
+                    filter.offsetArgs(id));
+        } catch (Exception e) {
+            // 置位失败会导致误拦截，删除位图退化为放行，等待重建
+            log.warn("写入ID过滤器失败，删除过滤器等待重建: key={}, id={}", filter.getKey(), id, e);
+            stringRedisTemplate.delete(filter.getKey());
+        }
+    }
+
+    /**
+     * 按主键分页流式读取全部ID写入临时位图，完成后原子替换
+     */
+    private long rebuild(BloomFilter filter, LongFunction<List<Long>> pageLoader) {
+        String tmpKey = filter.getRebuildingKey();
+        stringRedisTemplate.delete(tmpKey);
+        // 预先分配位图，新增的ID在重建期间同时写入临时位图
+        stringRedisTemplate.opsForValue().setBit(tmpKey, filter.getBitSize() - 1, false);
+        long total = 0;
+        long lastId = 0;
+        while (true) {
+            List<Long> ids = pageLoader.apply(lastId);
+            if (ids.isEmpty()) {
+                break;
+            }
+            stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) throws DataAccessException {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (Long id : ids) {
+                        for (long offset : filter.offsets(id)) {
+                            ops.opsForValue().setBit(tmpKey, offset, true);
+                        }
+                    }
+                    return null;
+                }
+            });
+            total += ids.size();
+            lastId = ids.get(ids.size() - 1);
+        }
+        stringRedisTemplate.rename(tmpKey, filter.getKey());
+        log.info("ID过滤器重建完成: key={}, total={}", filter.getKey(), total);
+        return total;
+    }
+
+    /**
+     * 布隆过滤器参数
+     * 位图大小和哈希次数编码在 Key 中，调整预期数量后使用新的 Key，旧位图不会被误用
+     */
+    private static class BloomFilter {
+
+        private final long bitSize;
+
+        private final int hashCount;
+
+        private final String key;
+
+        BloomFilter(String keyPrefix, long expectedInsertions, double fpp) {
+            this.bitSize = (long) Math.ceil(-expectedInsertions * Math.log(fpp) / (Math.log(2) * Math.log(2)));
+            this.hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+            this.key = keyPrefix + bitSize + "::" + hashCount;
+        }
+
+        long getBitSize() {
+            return bitSize;
+        }
+
+        String getKey() {
+            return key;
+        }
+
+        String getRebuildingKey() {
+            return key + "::Rebuilding";
+        }
+
+        /**
+         * 双重哈希计算位偏移
+         */
+        long[] offsets(long id) {
+            long h1 = mix(id);
+            long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+            long[] offsets = new long[hashCount];
+            for (int i = 0; i < hashCount; i++) {
+                offsets[i] = Math.floorMod(h1 + i * h2, bitSize);
+            }
+            return offsets;
+        }
+
+        Object[] offsetArgs(long id) {
+            return Arrays.stream(offsets(id)).mapToObj(String::valueOf).toArray();
+        }
+
+        /**
+         * MurmurHash3 fmix64
+         */
+        private static long mix(long z) {
+            z = (z ^ (z >>> 33)) * 0xff51afd7ed558ccdL;
+            z = (z ^ (z >>> 33)) * 0xc4ceb9fe1a85ec53L;
+            return z ^ (z >>> 33);
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.wcoal.novelplus.manager.redis;
 
+import com.wcoal.novelplus.core.cache.RedisOperationMetrics;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.redis.core.StringRedisTemplate;
@@ -24,6 +25,13 @@ public class ReadProgressManager {
 
     private final StringRedisTemplate stringRedisTemplate;
 
+    private final RedisOperationMetrics redisOperationMetrics;
+
+    /**
+     * 指标中的管理器名称
+     */
+    private static final String METRIC_MANAGER = "readProgress";
+
     /**
      * 阅读进度缓存 Key 前缀
      * Key 格式: Cache::Novel::ReadProgress::{userId}:{bookId}
@@ -54,12 +62,14 @@ public class ReadProgressManager {
             String key = buildProgressKey(userId, bookId);
             String value = chapterId + ":" + System.currentTimeMillis();
 
-            // 1. 更新阅读进度
-            stringRedisTemplate.opsForValue().set(key, value, CACHE_EXPIRE_TIME);
-
-            // 2. 添加到待同步集合
             String pendingKey = userId + ":" + bookId;
-            stringRedisTemplate.opsForSet().add(SYNC_PENDING_KEY, pendingKey);
+            redisOperationMetrics.record(METRIC_MANAGER, "update", () -> {
+                // 1. 更新阅读进度
+                stringRedisTemplate.opsForValue().set(key, value, CACHE_EXPIRE_TIME);
+
+                // 2. 添加到待同步集合
+                stringRedisTemplate.opsForSet().add(SYNC_PENDING_KEY, pendingKey);
+            });
 
             log.debug("更新阅读进度到Redis: userId={}, bookId={}, chapterId={}", userId, bookId, chapterId);
 
@@ -79,12 +89,15 @@ public class ReadProgressManager {
     public Long getReadProgress(Long userId, Long bookId) {
         try {
             String key = buildProgressKey(userId, bookId);
-            String value = stringRedisTemplate.opsForValue().get(key);
+            String value = redisOperationMetrics.record(METRIC_MANAGER, "get",
+                    () -> stringRedisTemplate.opsForValue().get(key));
 
             if (value != null && value.contains(":")) {
+                redisOperationMetrics.hit(METRIC_MANAGER, "get");
                 String chapterIdStr = value.split(":")[0];
                 return Long.parseLong(chapterIdStr);
             }
+            redisOperationMetrics.miss(METRIC_MANAGER, "get");
 
         } catch (Exception e) {
             log.error("从Redis获取阅读进度失败: userId={}, bookId={}", userId, bookId, e);
@@ -100,7 +113,8 @@ public class ReadProgressManager {
      */
     public Set<String> getPendingProgressKeys() {
         try {
-            return stringRedisTemplate.opsForSet().members(SYNC_PENDING_KEY);
+            return redisOperationMetrics.record(METRIC_MANAGER, "getPendingKeys",
+                    () -> stringRedisTemplate.opsForSet().members(SYNC_PENDING_KEY));
         } catch (Exception e) {
             log.error("获取待同步阅读进度列表失败", e);
             return null;
@@ -132,7 +146,8 @@ public class ReadProgressManager {
                 Long bookId = Long.parseLong(parts[1]);
 
                 String key = buildProgressKey(userId, bookId);
-                String value = stringRedisTemplate.opsForValue().get(key);
+                String value = redisOperationMetrics.record(METRIC_MANAGER, "batchGet",
+                        () -> stringRedisTemplate.opsForValue().get(key));
 
                 if (value != null && value.contains(":")) {
                     String chapterIdStr = value.split(":")[0];
@@ -157,7 +172,8 @@ public class ReadProgressManager {
     public void removeSyncMark(Long userId, Long bookId) {
         try {
             String pendingKey = userId + ":" + bookId;
-            stringRedisTemplate.opsForSet().remove(SYNC_PENDING_KEY, pendingKey);
+            redisOperationMetrics.record(METRIC_MANAGER, "removeSyncMark",
+                    () -> stringRedisTemplate.opsForSet().remove(SYNC_PENDING_KEY, pendingKey));
 
             log.debug("移除待同步标记: userId={}, bookId={}", userId, bookId);
 
@@ -175,7 +191,7 @@ public class ReadProgressManager {
     public void deleteProgress(Long userId, Long bookId) {
         try {
             String key = buildProgressKey(userId, bookId);
-            stringRedisTemplate.delete(key);
+            redisOperationMetrics.record(METRIC_MANAGER, "delete", () -> stringRedisTemplate.delete(key));
 
             // 同时移除待同步标记
             removeSyncMark(userId, bookId);
@@ -0,0 +1,279 @@
+package com.wcoal.novelplus.manager.redis;
+
+import com.wcoal.novelplus.core.config.VisitCounterProperties;
+import com.wcoal.novelplus.dao.mapper.BookInfoMapper;
+import com.wcoal.novelplus.manager.cache.BookTrendingRankManager;
+import com.wcoal.novelplus.manager.cache.BookVisitRankManager;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 小说点击量聚合器
+ * <p>
+ * 点击只在内存中累加（每本书一个 LongAdder），定时批量写入数据库并同步增量到 Redis 点击榜和热榜，
+ * 把每次点击的多次数据库往返合并为每个周期一条批量 SQL。
+ * 写库失败时增量放回内存等待下次刷盘，同步点击榜失败时增量保留到下次刷盘重新累加；
+ * 应用关闭时会执行最后一次刷盘，异常退出最多丢失一个刷盘周期内的点击量。
+ * 刷盘持有点击榜的读锁：点击榜重建期间跳过刷盘，增量留在内存中；
+ * 关闭时拿不到锁（或 Redis 不可用）仍然写库，只是不同步点击榜，由下次重建校正。
+ *
+ * @author wcoal
+ * @since 2025-12-05
+ */
+@Component
+@Slf4j
+public class VisitCounterAggregator {
+
+    private final BookInfoMapper bookInfoMapper;
+
+    private final BookVisitRankManager bookVisitRankManager;
+
+    private final BookTrendingRankManager bookTrendingRankManager;
+
+    private final VisitCounterProperties properties;
+
+    /**
+     * 待刷盘的点击量增量
+     */
+    private final ConcurrentHashMap<Long, LongAdder> pendingCounts = new ConcurrentHashMap<>();
+
+    /**
+     * 已写库但同步 Redis 点击榜失败的增量
+     */
+    private final ConcurrentHashMap<Long, Long> unmirroredCounts = new ConcurrentHashMap<>();
+
+    /**
+     * 同步失败的增量所属的点击榜版本，版本变化（重建过）后不再重试
+     */
+    private volatile long unmirroredGeneration;
+
+    private final ScheduledExecutorService scheduler;
+
+    public VisitCounterAggregator(BookInfoMapper bookInfoMapper, BookVisitRankManager bookVisitRankManager,
+                                  BookTrendingRankManager bookTrendingRankManager, VisitCounterProperties properties) {
+        this.bookInfoMapper = bookInfoMapper;
+        this.bookVisitRankManager = bookVisitRankManager;
+        this.bookTrendingRankManager = bookTrendingRankManager;
+        this.properties = properties;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "visit-counter-flush");
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.scheduler.scheduleWithFixedDelay(this::flushQuietly, properties.getFlushInterval(),
+                properties.getFlushInterval(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 增加点击量（仅内存累加）
+     */
+    public void increment(Long bookId) {
+        add(bookId, 1);
+    }
+
+    /**
+     * 获取小说的最新点击量：Redis 中的总量 + 本节点尚未刷盘的增量
+     *
+     * @param bookId        小说ID
+     * @param fallbackCount Redis 不可用时使用的点击量
+     * @return 点击量
+     */
+    public long getVisitCount(Long bookId, long fallbackCount) {
+        Long visitCount = null;
+        try {
+            visitCount = bookVisitRankManager.getVisitCount(bookId);
+        } catch (Exception e) {
+            log.warn("获取小说点击量失败，使用缓存值: bookId={}", bookId, e);
+        }
+        // 点击榜中不存在（未初始化或暂无点击）时使用缓存值，不回源数据库
+        long count = visitCount != null ? visitCount : fallbackCount;
+        LongAdder pending = pendingCounts.get(bookId);
+        return pending != null ? count + pending.sum() : count;
+    }
+
+    /**
+     * 刷盘：批量写入数据库，并把增量同步到 Redis；点击榜正在重建时跳过本周期
+     */
+    public void flush() {
+        flush(false);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdown();
+        try {
+            scheduler.awaitTermination(properties.getFlushInterval(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flush(true);
+    }
+
+    /**
+     * @param force 为 true 时拿不到点击榜读锁也写库（不同步点击榜）
+     */
+    private synchronized void flush(boolean force) {
+        Long generation = null;
+        try {
+            generation = bookVisitRankManager.lockForFlush();
+        } catch (Exception e) {
+            log.warn("获取点击榜刷盘锁失败", e);
+            force = true;
+        }
+        if (generation == null && !force) {
+            log.debug("点击榜正在重建，本周期跳过刷盘");
+            return;
+        }
+        try {
+            if (generation != null) {
+                retryUnmirrored(generation);
+            }
+            Map<Long, Long> deltas = drain();
+            if (deltas.isEmpty()) {
+                return;
+            }
+            for (Map<Long, Long> batch : partition(deltas, properties.getBatchSize())) {
+                try {
+                    bookInfoMapper.batchAddVisitCount(batch);
+                } catch (Exception e) {
+                    log.error("点击量批量写库失败，增量放回等待下次刷盘: size={}", batch.size(), e);
+                    batch.forEach(this::add);
+                    continue;
+                }
+                mirrorToRedis(batch, generation);
+            }
+            log.debug("点击量刷盘完成: books={}", deltas.size());
+        } finally {
+            if (generation != null) {
+                bookVisitRankManager.unlockForFlush();
+            }
+        }
+    }
+
+    private void flushQuietly() {
+        try {
+            flush();
+        } catch (Exception e) {
+            log.error("点击量刷盘失败", e);
+        }
+    }
+
+    /**
+     * 累加待刷盘的增量
+     * 累加后 LongAdder 已被 drain 移出内存时，把 drain 没有取走的部分转移到新的 LongAdder：
+     * 本次累加发生在检查之前，检查时仍未移出则一定会被 drain 移出后的再次读取取走，
+     * 检查时已移出则由这里取走，两边都通过 sumThenReset 原子取值，每次累加只会被计入一次
+     */
+    private void add(Long bookId, long delta) {
+        while (delta != 0) {
+            LongAdder adder = pendingCounts.computeIfAbsent(bookId, k -> new LongAdder());
+            adder.add(delta);
+            if (pendingCounts.get(bookId) == adder) {
+                return;
+            }
+            delta = adder.sumThenReset();
+        }
+    }
+
+    /**
+     * 取出并清零所有待刷盘的增量
+     */
+    private Map<Long, Long> drain() {
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        for (Map.Entry<Long, LongAdder> entry : pendingCounts.entrySet()) {
+            LongAdder adder = entry.getValue();
+            long delta = adder.sumThenReset();
+            if (delta == 0) {
+                // 一个周期内没有点击的小说移出内存，移除前并发写入的增量在这里取走，移除后写入的由 add 转移
+                if (pendingCounts.remove(entry.getKey(), adder)) {
+                    long late = adder.sumThenReset();
+                    if (late != 0) {
+                        deltas.merge(entry.getKey(), late, Long::sum);
+                    }
+                }
+                continue;
+            }
+            deltas.put(entry.getKey(), delta);
+        }
+        return deltas;
+    }
+
+    /**
+     * 重新同步上次失败的点击榜增量，点击榜已重建过时丢弃（重建时已从数据库读到）
+     */
+    private void retryUnmirrored(long generation) {
+        if (unmirroredCounts.isEmpty()) {
+            return;
+        }
+        if (unmirroredGeneration != generation) {
+            unmirroredCounts.clear();
+            return;
+        }
+        Map<Long, Long> deltas = new LinkedHashMap<>();
+        for (Long bookId : unmirroredCounts.keySet()) {
+            Long delta = unmirroredCounts.remove(bookId);
+            if (delta != null) {
+                deltas.put(bookId, delta);
+            }
+        }
+        for (Map<Long, Long> batch : partition(deltas, properties.getBatchSize())) {
+            mirrorVisitRank(batch, generation);
+        }
+    }
+
+    /**
+     * @param generation 点击榜版本，为 null 时（未持有读锁）不同步点击榜
+     */
+    private void mirrorToRedis(Map<Long, Long> batch, Long generation) {
+        if (generation != null) {
+            mirrorVisitRank(batch, generation);
+        }
+        try {
+            bookTrendingRankManager.incrementVisitCounts(batch);
+        } catch (Exception e) {
+            // 热榜允许少量误差，失败不重试
+            log.warn("点击量同步热榜失败: size={}", batch.size(), e);
+        }
+    }
+
+    /**
+     * 增量累加到 Redis 点击榜，失败时保留增量等待下次刷盘重试
+     * （不移除小说等待重新初始化：从数据库回填与其它节点的累加并发时会覆盖增量，造成永久少计）
+     */
+    private void mirrorVisitRank(Map<Long, Long> batch, long generation) {
+        try {
+            bookVisitRankManager.incrementVisitCounts(batch);
+        } catch (Exception e) {
+            log.warn("点击量同步 Redis 失败，增量保留等待下次刷盘: size={}", batch.size(), e);
+            unmirroredGeneration = generation;
+            batch.forEach((bookId, delta) -> unmirroredCounts.merge(bookId, delta, Long::sum));
+        }
+    }
+
+    private static List<Map<Long, Long>> partition(Map<Long, Long> deltas, int batchSize) {
+        List<Map<Long, Long>> batches = new ArrayList<>();
+        Map<Long, Long> current = new LinkedHashMap<>();
+        for (Map.Entry<Long, Long> entry : deltas.entrySet()) {
+            current.put(entry.getKey(), entry.getValue());
+            if (current.size() >= batchSize) {
+                batches.add(current);
+                current = new LinkedHashMap<>();
+            }
+        }
+        if (!current.isEmpty()) {
+            batches.add(current);
+        }
+        return batches;
+    }
+}
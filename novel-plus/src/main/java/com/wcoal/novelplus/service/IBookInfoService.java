@@ -1,5 +1,7 @@
 package com.wcoal.novelplus.service;
 
+import com.wcoal.novelplus.core.common.enums.BookRankTypeEnum;
+import com.wcoal.novelplus.core.common.enums.TrendingWindowEnum;
 import com.wcoal.novelplus.core.common.req.PageReqDto;
 import com.wcoal.novelplus.core.common.resp.PageRespDto;
 import com.wcoal.novelplus.core.common.resp.RestResp;
@@ -105,6 +107,29 @@ public interface IBookInfoService extends IService<BookInfo> {
      */
     RestResp<List<BookRankRespDto>> listUpdateRankBooks();
 
+     /**
+     * 小说热榜查询接口
+     * @param window 统计窗口
+     * @return 小说热榜
+     */
+    RestResp<List<BookRankRespDto>> listTrendingRankBooks(TrendingWindowEnum window);
+
+     /**
+     * 小说分类排行榜查询接口
+     * @param rankType 排行榜类型
+     * @param categoryId 类别ID
+     * @return 小说分类排行榜
+     */
+    RestResp<List<BookRankRespDto>> listCategoryRankBooks(BookRankTypeEnum rankType, Long categoryId);
+
+     /**
+     * 小说作品方向排行榜查询接口
+     * @param rankType 排行榜类型
+     * @param workDirection 作品方向
+     * @return 小说作品方向排行榜
+     */
+    RestResp<List<BookRankRespDto>> listWorkDirectionRankBooks(BookRankTypeEnum rankType, Integer workDirection);
+
      /**
      * 小说最新评论查询接口
      * @param bookId 小说ID
@@ -112,6 +137,15 @@ public interface IBookInfoService extends IService<BookInfo> {
      */
     RestResp<BookCommentRespDto> listNewestComments(Long bookId);
 
+     /**
+     * 小说评论游标分页查询接口
+     * @param bookId 小说ID
+     * @param cursor 上一页返回的游标，为空时查询第一页
+     * @param pageSize 每页条数
+     * @return 一页评论
+     */
+    RestResp<BookCommentRespDto> listComments(Long bookId, String cursor, Integer pageSize);
+
      /**
      * 用户发表评论接口
      * @param dto 用户评论请求参数
@@ -56,7 +56,7 @@ public class AuthorInfoServiceImpl extends ServiceImpl<AuthorInfoMapper, AuthorI
         authorInfo.setUpdateTime(LocalDateTime.now());
         authorInfoMapper.insert(authorInfo);
         // 清除作家缓存
-        authorInfoCacheManager.evictAuthorCache();
+        authorInfoCacheManager.evictAuthorCache(dto.getUserId());
 
         return RestResp.ok();
     }
@@ -1,8 +1,6 @@
 package com.wcoal.novelplus.service.impl;
 
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
-import com.wcoal.novelplus.core.annotation.Key;
-import com.wcoal.novelplus.core.annotation.Lock;
 import com.wcoal.novelplus.core.common.enums.ErrorCodeEnum;
 import com.wcoal.novelplus.core.common.resp.RestResp;
 import com.wcoal.novelplus.dao.entity.BookComment;
@@ -18,8 +16,6 @@ import org.springframework.stereotype.Service;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.Set;
-import java.util.stream.Collectors;
 
 /**
  * 评论点赞服务实现类 - 纯 Redis 方案
@@ -38,8 +34,7 @@ public class BookCommentLikeServiceImpl extends ServiceImpl<BookCommentLikeMappe
     private final CommentLikeCacheManager commentLikeCacheManager;
 
     @Override
-    @Lock(prefix = "comment:like:toggle", isWait = false, timeout = 3, failCode = ErrorCodeEnum.USER_REQUEST_FREQUENT)
-    public RestResp<Void> toggleLike(@Key Long commentId, @Key Long userId, Boolean liked) {
+    public RestResp<Void> toggleLike(Long commentId, Long userId, Boolean liked) {
         if (Boolean.TRUE.equals(liked)) {
             // 点赞
             return like(commentId, userId);
@@ -50,39 +45,29 @@ public class BookCommentLikeServiceImpl extends ServiceImpl<BookCommentLikeMappe
     }
 
     @Override
-    @Lock(prefix = "comment:like", isWait = false, timeout = 3, failCode = ErrorCodeEnum.USER_REQUEST_FREQUENT)
-    public RestResp<Void> like(@Key Long commentId, @Key Long userId) {
-        // 1. 检查是否已点赞
-        Boolean isLiked = commentLikeCacheManager.isLiked(commentId, userId);
-        if (Boolean.TRUE.equals(isLiked)) {
-            return RestResp.fail(ErrorCodeEnum.COMMENT_ALREADY_LIKED);
-        }
-
-        // 2. 校验评论是否存在
+    public RestResp<Void> like(Long commentId, Long userId) {
+        // 1. 校验评论是否存在
         BookComment comment = bookCommentMapper.selectById(commentId);
         if (comment == null) {
             return RestResp.fail(ErrorCodeEnum.USER_COMMENT_NOT_EXIST);
         }
 
-        // 3. 执行点赞（只操作 Redis）
-        commentLikeCacheManager.like(commentId, userId);
+        // 2. 执行点赞（只操作 Redis，脚本原子判断是否已点赞）
+        if (!commentLikeCacheManager.like(commentId, userId)) {
+            return RestResp.fail(ErrorCodeEnum.COMMENT_ALREADY_LIKED);
+        }
 
         log.info("用户点赞成功: commentId={}, userId={}", commentId, userId);
         return RestResp.ok();
     }
 
     @Override
-    @Lock(prefix = "comment:unlike", isWait = false, timeout = 3, failCode = ErrorCodeEnum.USER_REQUEST_FREQUENT)
-    public RestResp<Void> unlike(@Key Long commentId, @Key Long userId) {
-        // 1. 检查是否已点赞
-        Boolean isLiked = commentLikeCacheManager.isLiked(commentId, userId);
-        if (Boolean.FALSE.equals(isLiked)) {
+    public RestResp<Void> unlike(Long commentId, Long userId) {
+        // 执行取消点赞（只操作 Redis，脚本原子判断是否已点赞）
+        if (!commentLikeCacheManager.unlike(commentId, userId)) {
             return RestResp.fail(ErrorCodeEnum.COMMENT_NOT_LIKED);
         }
 
-        // 2. 执行取消点赞（只操作 Redis）
-        commentLikeCacheManager.unlike(commentId, userId);
-
         log.info("用户取消点赞成功: commentId={}, userId={}", commentId, userId);
         return RestResp.ok();
     }
@@ -107,16 +92,8 @@ public class BookCommentLikeServiceImpl extends ServiceImpl<BookCommentLikeMappe
             return RestResp.ok(new HashMap<>());
         }
 
-        // 批量查询点赞状态（利用缓存）
-        Set<Long> commentIdSet = commentIds.stream().collect(Collectors.toSet());
-        Set<Long> likedComments = commentLikeCacheManager.getUserLikedComments(userId, commentIdSet);
-
-        // 转换为 Map
-        Map<Long, Boolean> result = commentIds.stream()
-                .collect(Collectors.toMap(
-                        id -> id,
-                        likedComments::contains
-                ));
+        // 批量查询点赞状态（一次 pipeline，未加载的评论一次查询数据库）
+        Map<Long, Boolean> result = commentLikeCacheManager.areLiked(userId, commentIds);
 
         return RestResp.ok(result);
     }
@@ -6,6 +6,7 @@ import com.wcoal.novelplus.core.auth.UserContext;
 import com.wcoal.novelplus.core.common.constant.DatabaseConsts;
 import com.wcoal.novelplus.core.common.enums.ErrorCodeEnum;
 import com.wcoal.novelplus.core.common.resp.RestResp;
+import com.wcoal.novelplus.core.sensitive.SensitiveWordFilter;
 import com.wcoal.novelplus.dao.entity.BookComment;
 import com.wcoal.novelplus.dao.entity.BookCommentReply;
 import com.wcoal.novelplus.dao.entity.UserInfo;
@@ -13,6 +14,7 @@ import com.wcoal.novelplus.dao.mapper.BookCommentMapper;
 import com.wcoal.novelplus.dao.mapper.BookCommentReplyMapper;
 import com.wcoal.novelplus.dto.req.BookCommentReplyReqDto;
 import com.wcoal.novelplus.dto.resp.BookCommentReplyRespDto;
+import com.wcoal.novelplus.manager.dao.BookCounterManager;
 import com.wcoal.novelplus.manager.dao.UserDaoManager;
 import com.wcoal.novelplus.service.IBookCommentReplyService;
 import lombok.RequiredArgsConstructor;
@@ -41,6 +43,8 @@ public class BookCommentReplyServiceImpl extends ServiceImpl<BookCommentReplyMap
     private final BookCommentReplyMapper bookCommentReplyMapper;
     private final BookCommentMapper bookCommentMapper;
     private final UserDaoManager userDaoManager;
+    private final BookCounterManager bookCounterManager;
+    private final SensitiveWordFilter sensitiveWordFilter;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -59,6 +63,11 @@ public class BookCommentReplyServiceImpl extends ServiceImpl<BookCommentReplyMap
             return RestResp.fail(ErrorCodeEnum.USER_COMMENT_CONTENT_TOO_LONG);
         }
 
+        // 回复直接审核通过，保存前校验敏感词
+        if (sensitiveWordFilter.contains(dto.getReplyContent())) {
+            return RestResp.fail(ErrorCodeEnum.USER_COMMENT_SENSITIVE);
+        }
+
         // 保存回复
         BookCommentReply reply = new BookCommentReply();
         reply.setCommentId(dto.getCommentId());
@@ -70,9 +79,8 @@ public class BookCommentReplyServiceImpl extends ServiceImpl<BookCommentReplyMap
         
         bookCommentReplyMapper.insert(reply);
 
-        // 更新评论的回复数量
-        comment.setReplyCount(comment.getReplyCount() + 1);
-        bookCommentMapper.updateById(comment);
+        // 原子增加评论的回复数量
+        bookCounterManager.addReplyCount(comment.getBookId(), comment.getId(), 1);
 
         return RestResp.ok();
     }
@@ -89,14 +97,15 @@ public class BookCommentReplyServiceImpl extends ServiceImpl<BookCommentReplyMap
             return RestResp.fail(ErrorCodeEnum.USER_COMMENT_NOT_EXIST);
         }
 
-        // 删除回复
-        bookCommentReplyMapper.delete(queryWrapper);
+        // 删除回复，并发删除同一条回复时只有实际删除成功的请求扣减回复数
+        if (bookCommentReplyMapper.delete(queryWrapper) == 0) {
+            return RestResp.ok();
+        }
 
-        // 更新评论的回复数量
+        // 原子减少评论的回复数量
         BookComment comment = bookCommentMapper.selectById(reply.getCommentId());
-        if (comment != null && comment.getReplyCount() > 0) {
-            comment.setReplyCount(comment.getReplyCount() - 1);
-            bookCommentMapper.updateById(comment);
+        if (comment != null) {
+            bookCounterManager.addReplyCount(comment.getBookId(), comment.getId(), -1);
         }
 
         return RestResp.ok();
@@ -8,28 +8,35 @@ import com.wcoal.novelplus.core.auth.UserContext;
 import com.wcoal.novelplus.core.common.constant.DatabaseConsts;
 import com.wcoal.novelplus.core.annotation.Key;
 import com.wcoal.novelplus.core.annotation.Lock;
+import com.wcoal.novelplus.core.common.enums.BookRankTypeEnum;
 import com.wcoal.novelplus.core.common.enums.ErrorCodeEnum;
+import com.wcoal.novelplus.core.common.enums.TrendingWindowEnum;
 import com.wcoal.novelplus.core.common.req.PageReqDto;
 import com.wcoal.novelplus.core.common.resp.PageRespDto;
 import com.wcoal.novelplus.core.common.resp.RestResp;
+import com.wcoal.novelplus.core.sensitive.SensitiveWordFilter;
 import com.wcoal.novelplus.core.utils.BeanUtils;
 import com.wcoal.novelplus.core.utils.CollUtils;
 import com.wcoal.novelplus.dao.entity.*;
 import com.wcoal.novelplus.dao.mapper.*;
 import com.wcoal.novelplus.dto.AuthorInfoDto;
+import com.wcoal.novelplus.dto.BookChapterCatalogDto;
 import com.wcoal.novelplus.dto.req.BookAddReqDto;
 import com.wcoal.novelplus.dto.req.ChapterAddReqDto;
 import com.wcoal.novelplus.dto.req.ChapterUpdateReqDto;
 import com.wcoal.novelplus.dto.req.UserCommentReqDto;
 import com.wcoal.novelplus.dto.resp.*;
 import com.wcoal.novelplus.manager.cache.*;
-import com.wcoal.novelplus.manager.dao.UserDaoManager;
+import com.wcoal.novelplus.manager.dao.BookCounterManager;
+import com.wcoal.novelplus.manager.redis.BookIdFilterManager;
+import com.wcoal.novelplus.manager.redis.VisitCounterAggregator;
 import com.wcoal.novelplus.service.IBookInfoService;
 import com.wcoal.novelplus.core.mq.CommentAuditProducer;
 import com.wcoal.novelplus.core.mq.BookshelfProgressProducer;
 import com.baomidou.mybatisplus.extension.service.impl.ServiceImpl;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.lang3.StringUtils;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.CollectionUtils;
@@ -37,9 +44,8 @@ import org.springframework.util.CollectionUtils;
 import java.time.LocalDateTime;
 import java.util.*;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
-import java.util.HashSet;
-import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -55,8 +61,6 @@ import java.util.stream.Collectors;
 @Slf4j
 public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> implements IBookInfoService {
 
-    private final BookRankCacheManager bookRankCacheManager;
-
     private final BookCategoryCacheManager bookCategoryCacheManager;
 
     private final BookInfoCacheManager bookInfoCacheManager;
@@ -65,6 +69,10 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
 
     private final BookChapterCacheManager bookChapterCacheManager;
 
+    private final BookChapterCatalogCacheManager bookChapterCatalogCacheManager;
+
+    private final ChapterPrefetchManager chapterPrefetchManager;
+
     private final BookChapterMapper bookChapterMapper;
 
     private final BookContentCacheManager bookContentCacheManager;
@@ -77,7 +85,7 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
 
     private static final Integer REC_BOOK_COUNT = 4;
 
-    private final UserDaoManager userDaoManager;
+    private static final Integer NEWEST_COMMENT_SIZE = 5;
 
     private final UserBookshelfMapper userBookshelfMapper;
 
@@ -87,10 +95,28 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
 
     private final CommentLikeCacheManager commentLikeCacheManager;
 
+    private final BookCommentCacheManager bookCommentCacheManager;
+
+    private final BookCounterManager bookCounterManager;
+
     private final com.wcoal.novelplus.service.IUserBookshelfService userBookshelfService;
 
     private final com.wcoal.novelplus.manager.redis.ReadProgressManager readProgressManager;
 
+    private final VisitCounterAggregator visitCounterAggregator;
+
+    private final BookVisitRankManager bookVisitRankManager;
+
+    private final BookTrendingRankManager bookTrendingRankManager;
+
+    private final BookLatestRankManager bookLatestRankManager;
+
+    private final BookRankCacheManager bookRankCacheManager;
+
+    private final BookIdFilterManager bookIdFilterManager;
+
+    private final SensitiveWordFilter sensitiveWordFilter;
+
     /**
      * 获取小说分类列表
      *
@@ -110,7 +136,15 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
      */
     @Override
     public RestResp<BookInfoRespDto> getBookInfo(Long bookId) {
-        return RestResp.ok(bookInfoCacheManager.getBookInfo(bookId));
+        BookInfoRespDto bookInfo = bookInfoCacheManager.getBookInfo(bookId);
+        if (bookInfo == null) {
+            return RestResp.ok(null);
+        }
+        // 缓存对象是共享的，复制后再填充最新点击量
+        BookInfoRespDto result = BeanUtils.copyBean(bookInfo, BookInfoRespDto.class);
+        long cachedCount = bookInfo.getVisitCount() != null ? bookInfo.getVisitCount() : 0L;
+        result.setVisitCount(visitCounterAggregator.getVisitCount(bookId, cachedCount));
+        return RestResp.ok(result);
     }
 
     /**
@@ -121,22 +155,8 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
      */
     @Override
     public RestResp<Void> addVisitCount(Long bookId) {
-        // 更新数据库中的点击量
-        bookInfoMapper.addVisitCount(bookId);
-
-        // 更新缓存中的点击量
-        BookInfoRespDto bookInfoRespDto = bookInfoCacheManager.getBookInfo(bookId);
-        if (bookInfoRespDto != null) {
-            // 从数据库重新获取最新的点击量
-            BookInfo bookInfo = bookInfoMapper.selectById(bookId);
-            if (bookInfo != null) {
-                // 更新缓存中的点击量
-                bookInfoRespDto.setVisitCount(bookInfo.getVisitCount());
-                // 使用CachePut更新缓存
-                bookInfoCacheManager.updateBookInfoVisitCount(bookId, bookInfo.getVisitCount());
-            }
-        }
-
+        // 点击量先在内存中累加，由聚合器定时批量写入数据库和 Redis
+        visitCounterAggregator.increment(bookId);
         return RestResp.ok();
     }
 
@@ -150,24 +170,28 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
     public RestResp<BookChapterAboutRespDto> getLastChapterAbout(Long bookId) {
         // 查询小说信息
         BookInfoRespDto bookInfo = bookInfoCacheManager.getBookInfo(bookId);
+        if (bookInfo == null) {
+            return RestResp.ok(null);
+        }
 
         // 查询最新章节信息
         BookChapterRespDto bookChapter = bookChapterCacheManager.getChapter(
                 bookInfo.getLastChapterId());
+        if (bookChapter == null) {
+            return RestResp.ok(null);
+        }
 
         // 查询章节内容
         String content = bookContentCacheManager.getBookContent(bookInfo.getLastChapterId());
 
-        // 查询章节总数
-        QueryWrapper<BookChapter> chapterQueryWrapper = new QueryWrapper<>();
-        chapterQueryWrapper.eq(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID, bookId);
-        Long chapterTotal = bookChapterMapper.selectCount(chapterQueryWrapper);
+        // 查询章节总数（章节目录长度）
+        long chapterTotal = bookChapterCatalogCacheManager.getChapterTotal(bookId);
 
         // 组装数据并返回
         return RestResp.ok(BookChapterAboutRespDto.builder()
                 .chapterInfo(bookChapter)
                 .chapterTotal(chapterTotal)
-                .contentSummary(content.substring(0, 30))
+                .contentSummary(StringUtils.substring(content, 0, 30))
                 .build());
     }
 
@@ -180,7 +204,11 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
     @Override
     public RestResp<List<BookInfoRespDto>> listRecBooks(Long bookId) {
         //查询分类id和每个类别下最新更新的小说id
-        Long categoryId = bookInfoCacheManager.getBookInfo(bookId).getCategoryId();
+        BookInfoRespDto currentBook = bookInfoCacheManager.getBookInfo(bookId);
+        if (currentBook == null) {
+            return RestResp.ok(List.of());
+        }
+        Long categoryId = currentBook.getCategoryId();
         List<Long> lastUpdateBookIds = bookInfoCacheManager.getLastUpdateBookIds(categoryId);//获取分类下最新更新的小说id列表
         ArrayList<BookInfoRespDto> respDtoList = new ArrayList<>();//推荐列表
         ArrayList<Integer> recBookIdIndex = new ArrayList<>();//推荐列表索引
@@ -193,7 +221,9 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
                 recBookIdIndex.add(recIdIndex);
                 bookId = lastUpdateBookIds.get(recIdIndex);
                 BookInfoRespDto bookInfo = bookInfoCacheManager.getBookInfo(bookId);
-                respDtoList.add(bookInfo);
+                if (bookInfo != null) {
+                    respDtoList.add(bookInfo);
+                }
                 count++;
             }
         }
@@ -209,15 +239,16 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
      */
     @Override
     public RestResp<List<BookChapterRespDto>> listChapters(Long bookId) {
-        QueryWrapper<BookChapter> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID, bookId)
-                .orderByAsc(DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM);
-        return RestResp.ok(bookChapterMapper.selectList(queryWrapper).stream()
-                .map(v -> BookChapterRespDto.builder()
-                        .id(v.getId())
-                        .chapterName(v.getChapterName())
-                        .isVip(v.getIsVip())
-                        .build()).toList());
+        BookChapterCatalogDto catalog = bookChapterCatalogCacheManager.getCatalog(bookId);
+        List<BookChapterRespDto> chapters = new ArrayList<>(catalog.size());
+        for (int i = 0; i < catalog.size(); i++) {
+            chapters.add(BookChapterRespDto.builder()
+                    .id(catalog.getChapterId(i))
+                    .chapterName(catalog.getChapterName(i))
+                    .isVip(catalog.getIsVip(i))
+                    .build());
+        }
+        return RestResp.ok(chapters);
     }
 
     /**
@@ -230,13 +261,21 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
     public RestResp<BookContentAboutRespDto> getBookContentAbout(Long chapterId) {
         //查询章节信息和内容
         BookChapterRespDto bookChapter = bookChapterCacheManager.getChapter(chapterId);
-        String bookContent = bookContentCacheManager.getBookContent(chapterId);
+        if (bookChapter == null) {
+            return RestResp.ok(null);
+        }
+        AtomicBoolean contentLoaded = new AtomicBoolean();
+        String bookContent = bookContentCacheManager.getBookContent(chapterId, () -> contentLoaded.set(true));
         //查询小说信息
         BookInfoRespDto bookInfo = bookInfoCacheManager.getBookInfo(bookChapter.getBookId());
 
         // 更新用户书架阅读进度（如果用户已登录且书籍在书架中）
         bookshelfProgressProducer.sendProgressUpdate(UserContext.getUserId(), bookChapter.getBookId(), chapterId);
 
+        // 异步预取后续章节，翻页时直接命中缓存
+        chapterPrefetchManager.onChapterRead(bookChapter.getBookId(), chapterId, bookChapter.getChapterNum(),
+                !contentLoaded.get());
+
         //组装数据并返回
         return RestResp.ok(BookContentAboutRespDto.builder()
                 .chapterInfo(bookChapter)
@@ -249,40 +288,28 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
     public RestResp<Long> getPreChapterId(Long chapterId) {
         // 查询小说ID 和 章节号
         BookChapterRespDto chapter = bookChapterCacheManager.getChapter(chapterId);
+        if (chapter == null) {
+            return RestResp.ok(null);
+        }
         Long bookId = chapter.getBookId();
         Integer chapterNum = chapter.getChapterNum();
 
-        // 查询上一章信息并返回章节ID
-        QueryWrapper<BookChapter> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID, bookId)
-                .lt(DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM, chapterNum)
-                .orderByDesc(DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM)
-                .last(DatabaseConsts.SqlEnum.LIMIT_1.getSql());
-        return RestResp.ok(
-                Optional.ofNullable(bookChapterMapper.selectOne(queryWrapper))
-                        .map(BookChapter::getId)
-                        .orElse(null)
-        );
+        // 在章节目录中二分查找上一章ID
+        return RestResp.ok(bookChapterCatalogCacheManager.getPreChapterId(bookId, chapterNum));
     }
 
     @Override
     public RestResp<Long> getNextChapterId(Long chapterId) {
         // 查询小说ID 和 章节号
         BookChapterRespDto chapter = bookChapterCacheManager.getChapter(chapterId);
+        if (chapter == null) {
+            return RestResp.ok(null);
+        }
         Long bookId = chapter.getBookId();
         Integer chapterNum = chapter.getChapterNum();
 
-        // 查询下一章信息并返回章节ID
-        QueryWrapper<BookChapter> queryWrapper = new QueryWrapper<>();
-        queryWrapper.eq(DatabaseConsts.BookChapterTable.COLUMN_BOOK_ID, bookId)
-                .gt(DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM, chapterNum)
-                .orderByAsc(DatabaseConsts.BookChapterTable.COLUMN_CHAPTER_NUM)
-                .last(DatabaseConsts.SqlEnum.LIMIT_1.getSql());
-        return RestResp.ok(
-                Optional.ofNullable(bookChapterMapper.selectOne(queryWrapper))
-                        .map(BookChapter::getId)
-                        .orElse(null)
-        );
+        // 在章节目录中二分查找下一章ID
+        return RestResp.ok(bookChapterCatalogCacheManager.getNextChapterId(bookId, chapterNum));
     }
 
     /**
@@ -292,7 +319,7 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
      */
     @Override
     public RestResp<List<BookRankRespDto>> listVisitRankBooks() {
-        return RestResp.ok(bookRankCacheManager.listVisitRankBooks());
+        return RestResp.ok(bookVisitRankManager.listVisitRankBooks());
     }
 
     /**
@@ -302,7 +329,7 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
      */
     @Override
     public RestResp<List<BookRankRespDto>> listNewestRankBooks() {
-        return RestResp.ok(bookRankCacheManager.listNewestRankBooks());
+        return RestResp.ok(bookLatestRankManager.listNewestRankBooks());
     }
 
     /**
@@ -312,7 +339,42 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
      */
     @Override
     public RestResp<List<BookRankRespDto>> listUpdateRankBooks() {
-        return RestResp.ok(bookRankCacheManager.listUpdateRankBooks());
+        return RestResp.ok(bookLatestRankManager.listUpdateRankBooks());
+    }
+
+    /**
+     * 小说热榜查询接口
+     *
+     * @param window 统计窗口
+     * @return 小说热榜
+     */
+    @Override
+    public RestResp<List<BookRankRespDto>> listTrendingRankBooks(TrendingWindowEnum window) {
+        return RestResp.ok(bookTrendingRankManager.listTrendingRankBooks(window));
+    }
+
+    /**
+     * 小说分类排行榜查询接口
+     *
+     * @param rankType   排行榜类型
+     * @param categoryId 类别ID
+     * @return 小说分类排行榜
+     */
+    @Override
+    public RestResp<List<BookRankRespDto>> listCategoryRankBooks(BookRankTypeEnum rankType, Long categoryId) {
+        return RestResp.ok(bookRankCacheManager.listCategoryRankBooks(rankType, categoryId));
+    }
+
+    /**
+     * 小说作品方向排行榜查询接口
+     *
+     * @param rankType      排行榜类型
+     * @param workDirection 作品方向
+     * @return 小说作品方向排行榜
+     */
+    @Override
+    public RestResp<List<BookRankRespDto>> listWorkDirectionRankBooks(BookRankTypeEnum rankType, Integer workDirection) {
+        return RestResp.ok(bookRankCacheManager.listWorkDirectionRankBooks(rankType, workDirection));
     }
 
     /**
@@ -323,62 +385,37 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
      */
     @Override
     public RestResp<BookCommentRespDto> listNewestComments(Long bookId) {
-        //查询评论总数
-        QueryWrapper<BookComment> bookCommentCountQueryWrapper = new QueryWrapper<>();
-        bookCommentCountQueryWrapper.eq(DatabaseConsts.BookCommentTable.COLUMN_BOOK_ID, bookId)
-                .eq(DatabaseConsts.BookCommentTable.AUDIT_STATUS_PENDING, DatabaseConsts.BookCommentTable.AUDIT_PASS);
-        Long commentCount = bookCommentMapper.selectCount(bookCommentCountQueryWrapper);
-        BookCommentRespDto bookCommentRespDto = BookCommentRespDto.builder().commentTotal(commentCount).build();//构建返回对象
-
-        if (commentCount > 0) {
-            //查询最新评论列表
-            QueryWrapper<BookComment> commentQueryWrapper = new QueryWrapper<>();
-            commentQueryWrapper.eq(DatabaseConsts.BookCommentTable.COLUMN_BOOK_ID, bookId)
-                    .orderByDesc(DatabaseConsts.CommonColumnEnum.CREATE_TIME.getName())
-                    .last(DatabaseConsts.SqlEnum.LIMIT_5.getSql());
-            List<BookComment> bookComments = bookCommentMapper.selectList(commentQueryWrapper);
-
-            //查询评论用户信息，设置需要返回的用户信息
-            List<Long> userList = bookComments.stream().map(BookComment::getUserId).toList();
-            List<UserInfo> userInfos = userDaoManager.listUserInfos(userList);
-            Map<Long, UserInfo> userInfoMap = userInfos.stream()
-                    .collect(Collectors.toMap(UserInfo::getId, Function.identity()));
-
-            // 记录数据一致性检查日志
-            Set<Long> uniqueUserIds = new HashSet<>(userList);
-            Set<Long> foundUserIds = userInfos.stream().map(UserInfo::getId).collect(Collectors.toSet());
-            if (!uniqueUserIds.equals(foundUserIds)) {
-                Set<Long> missingUserIds = new HashSet<>(uniqueUserIds);
-                missingUserIds.removeAll(foundUserIds);
-                log.warn("评论用户信息不完整，书籍ID: " + bookId + ", 缺失的用户ID: " + missingUserIds);
-            }
+        return listComments(bookId, null, NEWEST_COMMENT_SIZE);
+    }
 
-            if (CollUtils.isNotEmpty(userInfos)) {
-                List<BookCommentRespDto.CommentInfo> commentInfos = bookComments.stream()
-                        .filter(bookComment -> userInfoMap.containsKey(bookComment.getUserId())) // 过滤掉用户信息不存在的评论
-                        .map(bookComment -> {
-                            UserInfo userInfo = userInfoMap.get(bookComment.getUserId());
-                            // 从 Redis 获取最新的点赞数量
-                            Integer likeCount = commentLikeCacheManager.getLikeCount(bookComment.getId());
-                            return BookCommentRespDto.CommentInfo.builder()
-                                    .id(bookComment.getId())
-                                    .commentUserId(bookComment.getUserId())
-                                    .commentUser(userInfo.getUserName())
-                                    .commentUserPhoto(userInfo.getUserPhoto())
-                                    .commentContent(bookComment.getCommentContent())
-                                    .commentTime(bookComment.getCreateTime())
-                                    .replyCount(bookComment.getReplyCount())
-                                    .likeCount(likeCount)  // 使用从 Redis 获取的点赞数量
-                                    .build();
-                        }).toList();
-                bookCommentRespDto.setComments(commentInfos);
-            } else {
-                bookCommentRespDto.setComments(CollUtils.emptyList());
-            }
-        } else {
-            bookCommentRespDto.setComments(CollUtils.emptyList());
-        }
-        return RestResp.ok(bookCommentRespDto);
+    /**
+     * 小说评论游标分页查询接口
+     * 第一页和评论总数走缓存，点赞数量每次从 Redis 批量获取最新值
+     *
+     * @param bookId   小说ID
+     * @param cursor   上一页返回的游标，为空时查询第一页
+     * @param pageSize 每页条数
+     * @return 一页评论
+     */
+    @Override
+    public RestResp<BookCommentRespDto> listComments(Long bookId, String cursor, Integer pageSize) {
+        int size = pageSize == null ? BookCommentCacheManager.FIRST_PAGE_SIZE
+                : Math.min(Math.max(pageSize, 1), BookCommentCacheManager.FIRST_PAGE_SIZE);
+        BookCommentRespDto page = bookCommentCacheManager.listComments(bookId, cursor, size);
+
+        // 从 Redis 批量获取最新的点赞数量，缓存中的评论对象是共享的，复制后再设置
+        Map<Long, Integer> likeCounts = commentLikeCacheManager.getLikeCounts(
+                page.getComments().stream().map(BookCommentRespDto.CommentInfo::getId).toList());
+        List<BookCommentRespDto.CommentInfo> commentInfos = page.getComments().stream()
+                .map(commentInfo -> commentInfo.toBuilder()
+                        .likeCount(likeCounts.getOrDefault(commentInfo.getId(), commentInfo.getLikeCount()))
+                        .build())
+                .toList();
+        return RestResp.ok(BookCommentRespDto.builder()
+                .commentTotal(page.getCommentTotal())
+                .comments(commentInfos)
+                .nextCursor(page.getNextCursor())
+                .build());
     }
 
     /**
@@ -473,11 +510,25 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
      * @return 无
      */
     @Override
+    @Transactional(rollbackFor = Exception.class)
     public RestResp<Void> deleteComment(Long userId, Long commentId) {
+        // 锁定评论行：审核状态在删除前不会被审核消费者并发修改，计数增减与删除在同一事务中提交
+        QueryWrapper<BookComment> lockWrapper = new QueryWrapper<>();
+        lockWrapper.eq(DatabaseConsts.CommonColumnEnum.ID.getName(), commentId)
+                .eq(DatabaseConsts.BookCommentTable.COLUMN_USER_ID, userId)
+                .last("for update");
+        BookComment bookComment = bookCommentMapper.selectOne(lockWrapper);
         QueryWrapper<BookComment> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq(DatabaseConsts.CommonColumnEnum.ID.getName(), commentId)
                 .eq(DatabaseConsts.BookCommentTable.COLUMN_USER_ID, userId);
-        bookCommentMapper.delete(queryWrapper);
+        if (bookComment == null || bookCommentMapper.delete(queryWrapper) == 0) {
+            return RestResp.ok();
+        }
+
+        // 审核通过的评论同步减少小说评论数
+        if (DatabaseConsts.BookCommentTable.AUDIT_PASS.equals(bookComment.getAuditStatus())) {
+            bookCounterManager.addCommentCounts(Map.of(bookComment.getBookId(), -1));
+        }
         return RestResp.ok();
     }
 
@@ -490,6 +541,10 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
     @Override
     @Transactional(rollbackFor = Exception.class)
     public RestResp<Void> saveBook(BookAddReqDto dto) {
+        // 校验小说名和简介是否包含敏感词
+        if (sensitiveWordFilter.contains(dto.getBookName()) || sensitiveWordFilter.contains(dto.getBookDesc())) {
+            return RestResp.fail(ErrorCodeEnum.AUTHOR_CONTENT_SENSITIVE);
+        }
         // 校验小说名是否已存在
         QueryWrapper<BookInfo> queryWrapper = new QueryWrapper<>();
         queryWrapper.eq(DatabaseConsts.BookTable.COLUMN_BOOK_NAME, dto.getBookName());
@@ -511,6 +566,8 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
         bookInfo.setCreateTime(LocalDateTime.now());
         bookInfo.setUpdateTime(LocalDateTime.now());
         bookInfoMapper.insert(bookInfo);
+        // 加入小说ID过滤器
+        bookIdFilterManager.onBookAdded(bookInfo.getId());
         return RestResp.ok();
     }
 
@@ -555,6 +612,10 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
         if (!bookInfo.getAuthorId().equals(UserContext.getAuthorId())) {
             return RestResp.fail(ErrorCodeEnum.USER_UN_AUTH);
         }
+        //校验章节名和章节内容是否包含敏感词
+        if (sensitiveWordFilter.contains(dto.getChapterName()) || sensitiveWordFilter.contentContains(dto.getChapterContent())) {
+            return RestResp.fail(ErrorCodeEnum.AUTHOR_CONTENT_SENSITIVE);
+        }
         //保存小说章节相关信息到章节表
         //更新最新章节信息
         int chapterNum = 0;
@@ -566,8 +627,8 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
         if (bookChapter != null) {
             chapterNum = bookChapter.getChapterNum() + 1;
         } else {
-            //清除小说新书榜缓存
-            bookRankCacheManager.evictNewestRankCache();
+            //首个章节发布后加入新书榜
+            bookLatestRankManager.onBookPublished(dto.getBookId(), bookInfo.getCreateTime());
         }
         //设置章节相关信息并保存
         BookChapter newBookChapter = BeanUtils.copyBean(dto, BookChapter.class);
@@ -584,6 +645,8 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
         bookContent.setCreateTime(LocalDateTime.now());
         bookContent.setUpdateTime(LocalDateTime.now());
         bookContentMapper.insert(bookContent);
+        //加入章节ID过滤器
+        bookIdFilterManager.onChapterAdded(newBookChapter.getId());
 
         //更新小说表最新章节信息和小说总字数信息
         //更新小说表关于最新章节的信息
@@ -592,13 +655,16 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
         newBookInfo.setLastChapterId(newBookChapter.getId());
         newBookInfo.setLastChapterName(newBookChapter.getChapterName());
         newBookInfo.setLastChapterUpdateTime(LocalDateTime.now());
-        newBookInfo.setWordCount(bookInfo.getWordCount() + newBookChapter.getWordCount());
         newBookChapter.setUpdateTime(LocalDateTime.now());
         bookInfoMapper.updateById(newBookInfo);
+        //原子累加小说总字数
+        int wordCount = bookCounterManager.addWordCount(dto.getBookId(), newBookChapter.getWordCount());
+        //事务提交后清除章节目录缓存
+        bookChapterCatalogCacheManager.evictCatalog(dto.getBookId());
         //清除小说信息缓存
         bookInfoCacheManager.evictBookInfoCache(dto.getBookId());
-        //清除小说更新榜缓存
-        bookRankCacheManager.evictUpdateRankCache();
+        //增量更新小说更新榜
+        bookLatestRankManager.onBookUpdated(dto.getBookId(), wordCount, LocalDateTime.now());
         //发送小说信息更新的 MQ 消息
 //        amqpMsgManager.sendBookChangeMsg(dto.getBookId());
         return RestResp.ok();
@@ -640,6 +706,9 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
     public RestResp<Void> deleteBookChapter(Long chapterId) {
         // 查询章节信息
         BookChapterRespDto chapter = bookChapterCacheManager.getChapter(chapterId);
+        if (chapter == null) {
+            return RestResp.fail(ErrorCodeEnum.USER_REQUEST_PARAM_ERROR);
+        }
         // 查询小说信息
         BookInfoRespDto bookInfo = bookInfoCacheManager.getBookInfo(chapter.getBookId());
         // 删除章节信息
@@ -652,7 +721,6 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
         BookInfo newBookInfo = new BookInfo();
         newBookInfo.setId(chapter.getBookId());
         newBookInfo.setUpdateTime(LocalDateTime.now());
-        newBookInfo.setWordCount(bookInfo.getWordCount() - chapter.getChapterWordCount());
         if (Objects.equals(bookInfo.getLastChapterId(), chapterId)) {
             // 设置最新章节信息
             QueryWrapper<BookChapter> bookChapterQueryWrapper = new QueryWrapper<>();
@@ -673,14 +741,20 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
             newBookInfo.setLastChapterUpdateTime(lastChapterUpdateTime);
         }
         bookInfoMapper.updateById(newBookInfo);
+        // 原子扣减小说总字数
+        int wordCount = bookCounterManager.addWordCount(chapter.getBookId(), -chapter.getChapterWordCount());
         // 清理章节信息缓存
         bookChapterCacheManager.evictBookChapterCache(chapterId);
         // 清理章节内容缓存
         bookContentCacheManager.evictBookContentCache(chapterId);
+        // 事务提交后清除章节目录缓存
+        bookChapterCatalogCacheManager.evictCatalog(chapter.getBookId());
+        // 写入章节ID负缓存
+        bookIdFilterManager.onChapterDeleted(chapterId);
         // 清理小说信息缓存
         bookInfoCacheManager.evictBookInfoCache(chapter.getBookId());
-        //清理小说更新榜缓存
-        bookRankCacheManager.evictUpdateRankCache();
+        // 增量更新小说更新榜
+        bookLatestRankManager.onBookUpdated(chapter.getBookId(), wordCount, newBookInfo.getUpdateTime());
         // 发送小说信息更新的 MQ 消息
 //        amqpMsgManager.sendBookChangeMsg(chapter.getBookId());
         return RestResp.ok();
@@ -696,6 +770,9 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
     @Transactional(rollbackFor = Exception.class)
     public RestResp<ChapterContentRespDto> getBookChapter(Long chapterId) {
         BookChapterRespDto chapter = bookChapterCacheManager.getChapter(chapterId);
+        if (chapter == null) {
+            return RestResp.ok(null);
+        }
         String bookContent = bookContentCacheManager.getBookContent(chapterId);
         return RestResp.ok(
                 ChapterContentRespDto.builder()
@@ -717,6 +794,12 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
     public RestResp<Void> updateBookChapter(Long chapterId, ChapterUpdateReqDto dto) {
         // 1.查询章节信息
         BookChapterRespDto chapter = bookChapterCacheManager.getChapter(chapterId);
+        if (chapter == null) {
+            return RestResp.fail(ErrorCodeEnum.USER_REQUEST_PARAM_ERROR);
+        }
+        if (sensitiveWordFilter.contains(dto.getChapterName()) || sensitiveWordFilter.contentContains(dto.getChapterContent())) {
+            return RestResp.fail(ErrorCodeEnum.AUTHOR_CONTENT_SENSITIVE);
+        }
         // 2.查询小说信息
         BookInfoRespDto bookInfo = bookInfoCacheManager.getBookInfo(chapter.getBookId());
         // 3.更新章节信息
@@ -738,24 +821,27 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
         BookInfo newBookInfo = new BookInfo();
         newBookInfo.setId(chapter.getBookId());
         newBookInfo.setUpdateTime(LocalDateTime.now());
-        newBookInfo.setWordCount(
-                bookInfo.getWordCount() - chapter.getChapterWordCount() + dto.getChapterContent().length());
         if (Objects.equals(bookInfo.getLastChapterId(), chapterId)) {
             // 更新最新章节信息
             newBookInfo.setLastChapterName(dto.getChapterName());
             newBookInfo.setLastChapterUpdateTime(LocalDateTime.now());
         }
         bookInfoMapper.updateById(newBookInfo);
+        // 原子调整小说总字数
+        int wordCount = bookCounterManager.addWordCount(chapter.getBookId(),
+                dto.getChapterContent().length() - chapter.getChapterWordCount());
         // 6.清理章节信息缓存
         bookChapterCacheManager.evictBookChapterCache(chapterId);
         // 7.清理章节内容缓存
         bookContentCacheManager.evictBookContentCache(chapterId);
-        // 8.清理小说信息缓存
+        // 8.事务提交后清除章节目录缓存
+        bookChapterCatalogCacheManager.evictCatalog(chapter.getBookId());
+        // 9.清理小说信息缓存
         bookInfoCacheManager.evictBookInfoCache(chapter.getBookId());
-        // 9.发送小说信息更新的 MQ 消息
+        // 10.增量更新小说更新榜
+        bookLatestRankManager.onBookUpdated(chapter.getBookId(), wordCount, newBookInfo.getUpdateTime());
+        // 11.发送小说信息更新的 MQ 消息
 //        amqpMsgManager.sendBookChangeMsg(chapter.getBookId());
-        //清理小说更新榜缓存
-        bookRankCacheManager.evictUpdateRankCache();
         return RestResp.ok();
     }
 
@@ -807,13 +893,17 @@ public class BookInfoServiceImpl extends ServiceImpl<BookInfoMapper, BookInfo> i
         //删除小说信息
         bookInfoMapper.deleteById(bookId);
 
-        //清理小说信息缓存
+        //清理小说信息缓存和章节目录缓存
         bookInfoCacheManager.evictBookInfoCache(bookId);
+        bookChapterCatalogCacheManager.evictCatalog(bookId);
+
+        //移出排行榜
+        bookVisitRankManager.removeBooks(Set.of(bookId));
+        bookLatestRankManager.onBookDeleted(bookId);
 
-        //清理排行榜缓存
-        bookRankCacheManager.evictVisitRankCache();
-        bookRankCacheManager.evictNewestRankCache();
-        bookRankCacheManager.evictUpdateRankCache();
+        //写入小说ID、章节ID负缓存
+        bookIdFilterManager.onBookDeleted(bookId);
+        bookChapters.forEach(chapter -> bookIdFilterManager.onChapterDeleted(chapter.getId()));
 
         //发送小说信息更新的 MQ 消息
 //        amqpMsgManager.sendBookChangeMsg(bookId);
@@ -0,0 +1,81 @@
+package com.wcoal.novelplus.core.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 提前刷新缓存测试（后台刷新结果的版本检查）
+ *
+ * @author wcoal
+ * @since 2025-12-26
+ */
+class RefreshAheadCacheTest {
+
+    private static final String CACHE_NAME = "testCache";
+
+    /**
+     * 暂存后台刷新任务，由测试控制执行时机
+     */
+    private final List<Runnable> refreshTasks = new ArrayList<>();
+
+    /**
+     * 软过期时间为 0，每次读取都会触发后台刷新
+     */
+    private final RefreshAheadCache cache = new RefreshAheadCache(new ConcurrentMapCache(CACHE_NAME),
+            0, 0, 0, refreshTasks::add);
+
+    @Test
+    void refreshReplacesStaleValue() {
+        cache.put(1L, "old");
+
+        assertEquals("old", cache.get(1L, () -> "new"));
+        runRefreshTasks();
+
+        assertEquals("new", cache.get(1L, String.class));
+    }
+
+    @Test
+    void refreshStartedBeforeEvictDoesNotWriteBack() {
+        cache.put(1L, "old");
+
+        assertEquals("old", cache.get(1L, () -> "stale"));
+        cache.evict(1L);
+        runRefreshTasks();
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void refreshStartedBeforePutDoesNotOverwrite() {
+        cache.put(1L, "old");
+
+        assertEquals("old", cache.get(1L, () -> "stale"));
+        cache.put(1L, "updated");
+        runRefreshTasks();
+
+        assertEquals("updated", cache.get(1L, String.class));
+    }
+
+    @Test
+    void refreshStartedBeforeClearDoesNotWriteBack() {
+        cache.put(1L, "old");
+
+        assertEquals("old", cache.get(1L, () -> "stale"));
+        cache.clear();
+        runRefreshTasks();
+
+        assertNull(cache.get(1L));
+    }
+
+    private void runRefreshTasks() {
+        List<Runnable> tasks = new ArrayList<>(refreshTasks);
+        refreshTasks.clear();
+        tasks.forEach(Runnable::run);
+    }
+}
@@ -0,0 +1,156 @@
+package com.wcoal.novelplus.core.cache;
+
+import com.wcoal.novelplus.core.config.CacheSingleFlightProperties;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 合并加载缓存装饰器测试（节点内合并）
+ *
+ * @author wcoal
+ * @since 2025-12-25
+ */
+class SingleFlightCacheTest {
+
+    private static final String CACHE_NAME = "testCache";
+
+    private static final int THREADS = 8;
+
+    private final SingleFlightMetrics metrics = new SingleFlightMetrics();
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        SingleFlightCache cache = newCache(new CacheSingleFlightProperties());
+        SingleFlightMetrics.CacheStats stats = metrics.of(CACHE_NAME);
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> cache.get(1L, () -> {
+                    loads.incrementAndGet();
+                    release.await();
+                    return "value";
+                })));
+            }
+            // 其余线程都进入等待后再放行回源线程
+            awaitCount(stats.coalescedWaits::sum, THREADS - 1);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                assertEquals("value", result.get(5, TimeUnit.SECONDS));
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, loads.get());
+        assertEquals(1, stats.loads.sum());
+        assertEquals("value", cache.get(1L, String.class));
+    }
+
+    @Test
+    void loaderFailureIsSharedAndNotCached() throws Exception {
+        SingleFlightCache cache = newCache(new CacheSingleFlightProperties());
+        SingleFlightMetrics.CacheStats stats = metrics.of(CACHE_NAME);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            List<Future<String>> results = new ArrayList<>();
+            for (int i = 0; i < THREADS; i++) {
+                results.add(executor.submit(() -> cache.get(1L, () -> {
+                    release.await();
+                    throw new IllegalStateException("数据库不可用");
+                })));
+            }
+            awaitCount(stats.coalescedWaits::sum, THREADS - 1);
+            release.countDown();
+
+            for (Future<String> result : results) {
+                ExecutionException e = assertThrows(ExecutionException.class, () -> result.get(5, TimeUnit.SECONDS));
+                assertInstanceOf(Cache.ValueRetrievalException.class, e.getCause());
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        assertEquals(1, stats.loads.sum());
+        // 失败不写入缓存，下次读取重新回源
+        assertEquals("value", cache.get(1L, () -> "value"));
+    }
+
+    @Test
+    void nullResultIsNotCached() {
+        SingleFlightCache cache = newCache(new CacheSingleFlightProperties());
+        AtomicInteger loads = new AtomicInteger();
+
+        assertNull(cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return null;
+        }));
+        assertNull(cache.get(1L));
+        assertEquals("value", cache.get(1L, () -> {
+            loads.incrementAndGet();
+            return "value";
+        }));
+        assertEquals(2, loads.get());
+    }
+
+    @Test
+    void waiterLoadsItselfAfterTimeout() throws Exception {
+        CacheSingleFlightProperties properties = new CacheSingleFlightProperties();
+        properties.setWaitTimeout(50);
+        SingleFlightCache cache = newCache(properties);
+        SingleFlightMetrics.CacheStats stats = metrics.of(CACHE_NAME);
+        CountDownLatch release = new CountDownLatch(1);
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<String> slow = executor.submit(() -> cache.get(1L, () -> {
+                release.await();
+                return "slow";
+            }));
+            awaitCount(stats.loads::sum, 1);
+
+            assertEquals("fast", cache.get(1L, () -> "fast"));
+            assertEquals(1, stats.waitTimeouts.sum());
+            assertEquals(2, stats.loads.sum());
+
+            release.countDown();
+            assertEquals("slow", slow.get(5, TimeUnit.SECONDS));
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private SingleFlightCache newCache(CacheSingleFlightProperties properties) {
+        return SingleFlightCache.local(new ConcurrentMapCache(CACHE_NAME, false), properties, metrics);
+    }
+
+    private static void awaitCount(LongSupplier counter, long expected) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (counter.getAsLong() < expected) {
+            assertTrue(System.nanoTime() < deadline, "等待计数超时");
+            Thread.sleep(5);
+        }
+    }
+}
@@ -0,0 +1,53 @@
+package com.wcoal.novelplus.core.cache;
+
+import com.wcoal.novelplus.core.common.utils.NoOpTransactionManager;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 二级缓存测试（事务中失效）
+ *
+ * @author wcoal
+ * @since 2025-12-26
+ */
+class TwoLevelCacheTest {
+
+    private static final String CACHE_NAME = "testCache";
+
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+
+    @Test
+    void readBeforeCommitDoesNotPinStaleValueInLocalCache() {
+        Cache localCache = new ConcurrentMapCache(CACHE_NAME);
+        Cache remoteCache = new TransactionAwareCacheDecorator(new ConcurrentMapCache(CACHE_NAME));
+        TwoLevelCache cache = new TwoLevelCache(CACHE_NAME, localCache, remoteCache);
+        cache.put(1L, "old");
+
+        transactionTemplate.executeWithoutResult(status -> {
+            cache.evict(1L);
+            // 提交前 L2 仍是旧值，读取会回填 L1
+            assertEquals("old", cache.get(1L, String.class));
+        });
+
+        assertNull(localCache.get(1L));
+        assertNull(cache.get(1L));
+        assertEquals("new", cache.get(1L, () -> "new"));
+    }
+
+    @Test
+    void evictWithoutTransactionIsImmediate() {
+        Cache localCache = new ConcurrentMapCache(CACHE_NAME);
+        TwoLevelCache cache = new TwoLevelCache(CACHE_NAME, localCache, new ConcurrentMapCache(CACHE_NAME));
+        cache.put(1L, "old");
+
+        cache.evict(1L);
+
+        assertNull(cache.get(1L));
+    }
+}
@@ -0,0 +1,124 @@
+package com.wcoal.novelplus.core.codec;
+
+import com.wcoal.novelplus.core.cache.RefreshAheadValue;
+import com.wcoal.novelplus.dto.BookChapterCatalogDto;
+import com.wcoal.novelplus.dto.resp.BookInfoRespDto;
+import com.wcoal.novelplus.dto.resp.BookRankRespDto;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis 缓存值序列化基准测试
+ * 用与线上结构一致的缓存对象（排行榜、小说详情、章节目录、小说内容）对比 JDK 与 KRYO 两种格式的
+ * 序列化后字节数和单次序列化、反序列化耗时，用于选择 novel-plus.cache-serializer.format；
+ * 默认不执行，手动运行：mvn test -Dtest=CacheValueSerializerBenchmarkTest -Dbenchmark=true
+ *
+ * @author wcoal
+ * @since 2025-12-16
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class CacheValueSerializerBenchmarkTest {
+
+    /**
+     * 每种格式每个样本的测量次数（预热同样次数后再计时）
+     */
+    private static final int ITERATIONS = 5000;
+
+    private static final String[] FORMATS = {"JDK", "KRYO"};
+
+    @Test
+    void jdkVersusKryo() {
+        Map<String, Object> samples = samples();
+        for (String format : FORMATS) {
+            CacheValueSerializer serializer = CacheValueSerializer.of(format);
+            samples.forEach((name, value) -> measure(serializer, format, name, value));
+        }
+    }
+
+    private static Map<String, Object> samples() {
+        Map<String, Object> samples = new LinkedHashMap<>();
+        List<BookRankRespDto> rank = new ArrayList<>();
+        for (long i = 1; i <= 30; i++) {
+            BookRankRespDto book = new BookRankRespDto();
+            book.setId(i);
+            book.setCategoryId(i % 8);
+            book.setCategoryName("玄幻奇幻");
+            book.setPicUrl("/image/cover/" + i + ".jpg");
+            book.setBookName("小说" + i);
+            book.setAuthorName("作者" + i);
+            book.setBookDesc("这是一段小说简介。".repeat(10));
+            book.setWordCount(1_000_000 + (int) i);
+            book.setLastChapterName("第" + i + "章 风起云涌");
+            book.setLastChapterUpdateTime(LocalDateTime.now());
+            rank.add(book);
+        }
+        samples.put("visitRank(30)", rank);
+
+        BookInfoRespDto bookInfo = BookInfoRespDto.builder()
+                .id(1L)
+                .categoryId(1L)
+                .categoryName("玄幻奇幻")
+                .picUrl("/image/cover/1.jpg")
+                .bookName("斗破苍穹")
+                .authorId(1L)
+                .authorName("天蚕土豆")
+                .bookDesc("这是一段小说简介。".repeat(20))
+                .bookStatus(1)
+                .visitCount(123456789L)
+                .wordCount(5_000_000)
+                .commentCount(100)
+                .firstChapterId(1L)
+                .lastChapterId(2000L)
+                .lastChapterName("第两千章 大结局")
+                .updateTime(LocalDateTime.now())
+                .build();
+        samples.put("bookInfo", bookInfo);
+        samples.put("bookInfo(refreshAhead)", new RefreshAheadValue(bookInfo, System.currentTimeMillis(), 5));
+
+        int chapters = 2000;
+        long[] chapterIds = new long[chapters];
+        int[] chapterNums = new int[chapters];
+        String[] chapterNames = new String[chapters];
+        byte[] vipFlags = new byte[chapters];
+        for (int i = 0; i < chapters; i++) {
+            chapterIds[i] = 10_000L + i;
+            chapterNums[i] = i + 1;
+            chapterNames[i] = "第" + (i + 1) + "章 少年出山";
+            vipFlags[i] = (byte) (i > 100 ? 1 : 0);
+        }
+        samples.put("catalog(2000)", new BookChapterCatalogDto(1L, chapterIds, chapterNums, chapterNames, vipFlags));
+        samples.put("content", new byte[4096]);
+        return samples;
+    }
+
+    private static void measure(CacheValueSerializer serializer, String format, String name, Object value) {
+        byte[] bytes = serializer.serialize(value);
+        // 预热，让 JIT 编译完成
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializer.deserialize(serializer.serialize(value));
+        }
+
+        long serializeStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            bytes = serializer.serialize(value);
+        }
+        long serializeNanos = (System.nanoTime() - serializeStart) / ITERATIONS;
+
+        long deserializeStart = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            serializer.deserialize(bytes);
+        }
+        long deserializeNanos = (System.nanoTime() - deserializeStart) / ITERATIONS;
+
+        log.info("[{}] {}: {} bytes, 序列化 {} ns/次, 反序列化 {} ns/次",
+                format, name, bytes.length, serializeNanos, deserializeNanos);
+    }
+}
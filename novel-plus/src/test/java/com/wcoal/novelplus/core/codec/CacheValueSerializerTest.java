@@ -0,0 +1,104 @@
+package com.wcoal.novelplus.core.codec;
+
+import com.wcoal.novelplus.dto.AuthorInfoDto;
+import com.wcoal.novelplus.dto.BookChapterCatalogDto;
+import com.wcoal.novelplus.dto.resp.BookInfoRespDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.support.NullValue;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Redis 缓存值序列化器测试
+ *
+ * @author wcoal
+ * @since 2025-12-25
+ */
+class CacheValueSerializerTest {
+
+    private final CacheValueSerializer kryo = CacheValueSerializer.of("KRYO");
+
+    private final CacheValueSerializer jdk = CacheValueSerializer.of("JDK");
+
+    @Test
+    void registeredDtoRoundTrips() {
+        BookInfoRespDto bookInfo = BookInfoRespDto.builder()
+                .id(1L)
+                .bookName("斗破苍穹")
+                .authorName("天蚕土豆")
+                .visitCount(123456789L)
+                .wordCount(5_000_000)
+                .updateTime(LocalDateTime.of(2025, 12, 25, 10, 30, 15, 123_456_789))
+                .build();
+
+        assertEquals(bookInfo, kryo.deserialize(kryo.serialize(bookInfo)));
+    }
+
+    @Test
+    void catalogWithoutNoArgConstructorRoundTrips() {
+        BookChapterCatalogDto catalog = new BookChapterCatalogDto(1L, new long[]{11L, 12L, 13L},
+                new int[]{1, 2, 3}, new String[]{"第一章", "第二章", "第三章"}, new byte[]{0, 0, 1});
+
+        BookChapterCatalogDto copy = (BookChapterCatalogDto) kryo.deserialize(kryo.serialize(catalog));
+
+        assertEquals(catalog.getBookId(), copy.getBookId());
+        assertEquals(catalog.size(), copy.size());
+        for (int i = 0; i < catalog.size(); i++) {
+            assertEquals(catalog.getChapterId(i), copy.getChapterId(i));
+            assertEquals(catalog.getChapterNum(i), copy.getChapterNum(i));
+            assertEquals(catalog.getChapterName(i), copy.getChapterName(i));
+            assertEquals(catalog.getIsVip(i), copy.getIsVip(i));
+        }
+    }
+
+    @Test
+    void immutableAndMutableCollectionsRoundTrip() {
+        List<AuthorInfoDto> authors = Stream.of(1L, 2L)
+                .map(id -> AuthorInfoDto.builder().id(id).penName("作者" + id).status(0).build())
+                .toList();
+        Map<String, Long> counts = new HashMap<>(Map.of("a", 1L, "b", 2L));
+
+        assertEquals(authors, kryo.deserialize(kryo.serialize(authors)));
+        assertEquals(List.of("x", "y"), kryo.deserialize(kryo.serialize(List.of("x", "y"))));
+        assertEquals(counts, kryo.deserialize(kryo.serialize(counts)));
+    }
+
+    @Test
+    void nullValueKeepsSingleton() {
+        assertSame(NullValue.INSTANCE, kryo.deserialize(kryo.serialize(NullValue.INSTANCE)));
+    }
+
+    @Test
+    void readsBothFormatsRegardlessOfWriteFormat() {
+        AuthorInfoDto author = AuthorInfoDto.builder().id(7L).penName("唐家三少").status(0).build();
+
+        assertEquals(author, kryo.deserialize(jdk.serialize(author)));
+        assertEquals(author, jdk.deserialize(kryo.serialize(author)));
+    }
+
+    @Test
+    void unreadableDataIsTreatedAsMiss() {
+        byte[] data = kryo.serialize("章节内容");
+        data[1] = 99;
+
+        assertNull(kryo.deserialize(data));
+        assertNull(kryo.deserialize(new byte[]{(byte) 0xC5, 1, -1, -1, -1}));
+        assertNull(kryo.deserialize(new byte[]{1, 2, 3}));
+    }
+
+    @Test
+    void nullAndEmpty() {
+        assertArrayEquals(new byte[0], kryo.serialize(null));
+        assertNull(kryo.deserialize(null));
+        assertNull(kryo.deserialize(new byte[0]));
+    }
+}
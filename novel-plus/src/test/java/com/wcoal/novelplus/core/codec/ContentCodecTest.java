@@ -0,0 +1,95 @@
+package com.wcoal.novelplus.core.codec;
+
+import com.wcoal.novelplus.core.config.ContentCodecProperties;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 小说内容编解码测试
+ *
+ * @author wcoal
+ * @since 2025-12-25
+ */
+class ContentCodecTest {
+
+    private static final String LONG_CONTENT = "第一章 风起\n少年站在山巅，望着远处翻涌的云海。🌊 ".repeat(50);
+
+    @Test
+    void longContentIsCompressedAndRoundTrips() {
+        ContentCodec codec = new ContentCodec(new ContentCodecProperties());
+
+        String column = codec.encodeColumn(LONG_CONTENT);
+
+        assertTrue(codec.isEncodedColumn(column));
+        assertTrue(column.length() < LONG_CONTENT.length());
+        assertEquals(LONG_CONTENT, codec.decodeColumn(column));
+        assertEquals(LONG_CONTENT, codec.decode(codec.encode(LONG_CONTENT)));
+    }
+
+    @Test
+    void shortAndHistoricalContentIsStoredAsIs() {
+        ContentCodec codec = new ContentCodec(new ContentCodecProperties());
+
+        assertSame("短内容", codec.encodeColumn("短内容"));
+        assertFalse(codec.isEncodedColumn("未压缩的历史数据"));
+        assertEquals("未压缩的历史数据", codec.decodeColumn("未压缩的历史数据"));
+    }
+
+    @Test
+    void incompressibleContentIsStoredAsIs() {
+        ContentCodec codec = new ContentCodec(new ContentCodecProperties());
+        // 随机可打印 ASCII 压缩率超过 3/4，Base64 后会比原文大
+        Random random = new Random(42);
+        StringBuilder content = new StringBuilder();
+        for (int i = 0; i < 2000; i++) {
+            content.append((char) (' ' + random.nextInt(95)));
+        }
+
+        String column = codec.encodeColumn(content.toString());
+
+        assertFalse(codec.isEncodedColumn(column));
+        assertTrue(column.getBytes(StandardCharsets.UTF_8).length <= content.length());
+        assertEquals(content.toString(), codec.decodeColumn(column));
+    }
+
+    @Test
+    void contentStartingWithMarkerIsNotAmbiguous() {
+        ContentCodec codec = new ContentCodec(new ContentCodecProperties());
+        String content = ContentCodec.COLUMN_MARKER + "以标记字符开头";
+
+        String column = codec.encodeColumn(content);
+
+        assertTrue(codec.isEncodedColumn(column));
+        assertEquals(content, codec.decodeColumn(column));
+    }
+
+    @Test
+    void uncompressedAlgorithmRoundTrips() {
+        ContentCodecProperties properties = new ContentCodecProperties();
+        properties.setAlgorithm("NONE");
+        ContentCodec codec = new ContentCodec(properties);
+
+        assertSame(LONG_CONTENT, codec.encodeColumn(LONG_CONTENT));
+        assertEquals(LONG_CONTENT, codec.decode(codec.encode(LONG_CONTENT)));
+    }
+
+    @Test
+    void emptyAndNullContent() {
+        ContentCodec codec = new ContentCodec(new ContentCodecProperties());
+
+        assertEquals("", codec.decode(codec.encode("")));
+        assertEquals("", codec.decode(new byte[0]));
+        assertNull(codec.encode(null));
+        assertNull(codec.decode(null));
+        assertNull(codec.encodeColumn(null));
+        assertNull(codec.decodeColumn(null));
+    }
+}
@@ -0,0 +1,72 @@
+package com.wcoal.novelplus.core.common.utils;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+/**
+ * 事务工具类测试
+ *
+ * @author wcoal
+ * @since 2025-12-26
+ */
+class TransactionUtilsTest {
+
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+
+    @Test
+    void runsImmediatelyWithoutTransaction() {
+        AtomicInteger runs = new AtomicInteger();
+
+        TransactionUtils.afterCommit(runs::incrementAndGet);
+
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void runsOnlyAfterCommit() {
+        AtomicInteger runs = new AtomicInteger();
+
+        transactionTemplate.executeWithoutResult(status -> {
+            TransactionUtils.afterCommit(runs::incrementAndGet);
+            assertEquals(0, runs.get());
+        });
+        assertEquals(1, runs.get());
+
+        transactionTemplate.executeWithoutResult(status -> {
+            TransactionUtils.afterCommit(runs::incrementAndGet);
+            status.setRollbackOnly();
+        });
+        assertEquals(1, runs.get());
+    }
+
+    @Test
+    void transactionAwareEvictInsideCallbackIsNotDropped() {
+        // 与 Redis 缓存管理器开启 transactionAware 后的行为一致：事务中的 evict 会登记为事务同步
+        Cache cache = new TransactionAwareCacheDecorator(new ConcurrentMapCache("test"));
+        cache.put(1L, "stale");
+
+        transactionTemplate.executeWithoutResult(status ->
+                TransactionUtils.afterCommit(() -> cache.evict(1L)));
+
+        assertNull(cache.get(1L));
+    }
+
+    @Test
+    void afterCommitIfInTransactionReportsRegistration() {
+        AtomicInteger runs = new AtomicInteger();
+
+        assertFalse(TransactionUtils.afterCommitIfInTransaction(runs::incrementAndGet));
+        assertEquals(Boolean.TRUE, transactionTemplate.execute(status ->
+                TransactionUtils.afterCommitIfInTransaction(runs::incrementAndGet)));
+        assertEquals(1, runs.get());
+    }
+}
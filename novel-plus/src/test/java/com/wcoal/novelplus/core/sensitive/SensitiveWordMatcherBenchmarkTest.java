@@ -0,0 +1,109 @@
+package com.wcoal.novelplus.core.sensitive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Predicate;
+
+/**
+ * 敏感词匹配基准测试
+ * 随机生成词典和文本，对比逐词 String.contains 与 Aho-Corasick 自动机的单条文本匹配耗时；
+ * 默认不执行，手动运行：mvn test -Dtest=SensitiveWordMatcherBenchmarkTest -Dbenchmark=true
+ *
+ * @author wcoal
+ * @since 2025-12-20
+ */
+@Slf4j
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SensitiveWordMatcherBenchmarkTest {
+
+    /**
+     * 词典大小
+     */
+    private static final int[] WORD_COUNTS = {1000, 10000};
+
+    /**
+     * 样本文本数量
+     */
+    private static final int SAMPLE_SIZE = 200;
+
+    /**
+     * 样本文本长度
+     */
+    private static final int TEXT_LENGTH = 100;
+
+    /**
+     * 预热轮数
+     */
+    private static final int WARMUP_ROUNDS = 20;
+
+    /**
+     * 测量轮数（每轮匹配全部样本）
+     */
+    private static final int ROUNDS = 50;
+
+    private final Random random = new Random(42);
+
+    @Test
+    void containsVersusAhoCorasick() {
+        List<String> texts = new ArrayList<>(SAMPLE_SIZE);
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            texts.add(randomText(TEXT_LENGTH));
+        }
+        for (int wordCount : WORD_COUNTS) {
+            List<String> words = new ArrayList<>(wordCount);
+            for (int i = 0; i < wordCount; i++) {
+                // 2~4 个汉字的词
+                words.add(randomText(2 + random.nextInt(3)));
+            }
+
+            long compileStart = System.nanoTime();
+            SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(words, true);
+            log.info("词典: {} 词, 编译耗时: {} ms, 样本: {} 条", matcher.size(),
+                    (System.nanoTime() - compileStart) / 1_000_000, texts.size());
+
+            List<String> lowerWords = words.stream().map(String::toLowerCase).toList();
+            measure("String.contains", texts, text -> {
+                String lowerText = text.toLowerCase();
+                for (String word : lowerWords) {
+                    if (lowerText.contains(word)) {
+                        return true;
+                    }
+                }
+                return false;
+            });
+            measure("Aho-Corasick", texts, matcher::contains);
+        }
+    }
+
+    private static void measure(String name, List<String> texts, Predicate<String> matcher) {
+        int hits = 0;
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            hits = 0;
+            for (String text : texts) {
+                hits += matcher.test(text) ? 1 : 0;
+            }
+        }
+        long start = System.nanoTime();
+        for (int round = 0; round < ROUNDS; round++) {
+            for (String text : texts) {
+                matcher.test(text);
+            }
+        }
+        long nanosPerText = (System.nanoTime() - start) / ((long) ROUNDS * texts.size());
+        log.info("[{}] {} ns/条, 命中: {} 条", name, nanosPerText, hits);
+    }
+
+    private String randomText(int length) {
+        StringBuilder text = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            // 常用汉字区间
+            text.append((char) (0x4E00 + random.nextInt(3500)));
+        }
+        return text.toString();
+    }
+}
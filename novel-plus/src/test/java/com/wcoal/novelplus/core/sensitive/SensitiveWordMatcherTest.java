@@ -0,0 +1,90 @@
+package com.wcoal.novelplus.core.sensitive;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 敏感词匹配器测试
+ *
+ * @author wcoal
+ * @since 2025-12-25
+ */
+class SensitiveWordMatcherTest {
+
+    @Test
+    void findAllReportsOverlappingWordsAndSuffixesViaOutputLinks() {
+        SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(List.of("中国", "中国人", "国人", "人民"), false);
+
+        // “国人”是“中国人”的后缀，只能经由输出链接命中
+        assertEquals(List.of("中国", "中国人", "国人", "人民"), List.copyOf(matcher.findAll("我们中国人民")));
+    }
+
+    @Test
+    void findFirstReturnsWordThatEndsFirst() {
+        SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(List.of("人民", "中国"), false);
+
+        assertEquals("中国", matcher.findFirst("中国人民"));
+    }
+
+    @Test
+    void failLinkContinuesMatchAfterPartialPrefix() {
+        SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(List.of("赌博机", "博彩"), false);
+
+        // “赌博”匹配到一半失败后沿失败指针转到“博”，继续命中“博彩”
+        assertEquals(Set.of("博彩"), matcher.findAll("赌博彩票"));
+        assertEquals(Set.of("赌博机"), matcher.findAll("赌博机"));
+    }
+
+    @Test
+    void fullWidthAndUpperCaseAreNormalized() {
+        SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(List.of("sb"), false);
+
+        assertEquals("sb", matcher.findFirst("ＳＢ"));
+        assertEquals("sb", matcher.findFirst("ｓｂ"));
+        assertEquals("sb", matcher.findFirst("SB!"));
+    }
+
+    @Test
+    void symbolsBetweenCharactersAreSkippedOnlyWhenIgnoringSymbols() {
+        SensitiveWordMatcher ignoring = SensitiveWordMatcher.compile(List.of("sb", "傻逼"), true);
+        SensitiveWordMatcher strict = SensitiveWordMatcher.compile(List.of("sb", "傻逼"), false);
+
+        assertEquals("傻逼", ignoring.findFirst("傻 逼"));
+        assertEquals("傻逼", ignoring.findFirst("傻，逼"));
+        assertEquals("sb", ignoring.findFirst("s.b"));
+        assertNull(ignoring.findFirst("傻ｘ逼"));
+
+        assertNull(strict.findFirst("傻 逼"));
+        assertNull(strict.findFirst("s.b"));
+    }
+
+    @Test
+    void asciiWordsRequireWordBoundaries() {
+        SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(List.of("sb"), true);
+
+        assertFalse(matcher.contains("this book"));
+        assertFalse(matcher.contains("was bad"));
+        assertFalse(matcher.contains("his brother"));
+        assertFalse(matcher.contains("sbx"));
+        assertTrue(matcher.contains("a sb"));
+        assertTrue(matcher.contains("你是sb吗"));
+    }
+
+    @Test
+    void blankAndDuplicateWordsAreIgnored() {
+        SensitiveWordMatcher matcher = SensitiveWordMatcher.compile(Arrays.asList("", " ", null, "赌博", "赌博"), true);
+
+        assertEquals(1, matcher.size());
+        assertNull(SensitiveWordMatcher.EMPTY.findFirst("赌博"));
+        assertNull(matcher.findFirst(null));
+        assertTrue(matcher.findAll(null).isEmpty());
+    }
+}
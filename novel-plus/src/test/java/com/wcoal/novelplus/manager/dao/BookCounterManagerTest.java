@@ -0,0 +1,100 @@
+package com.wcoal.novelplus.manager.dao;
+
+import com.wcoal.novelplus.core.common.constant.CacheConsts;
+import com.wcoal.novelplus.core.common.utils.NoOpTransactionManager;
+import com.wcoal.novelplus.dao.mapper.BookCommentMapper;
+import com.wcoal.novelplus.dao.mapper.BookInfoMapper;
+import com.wcoal.novelplus.dto.resp.BookCommentRespDto;
+import com.wcoal.novelplus.manager.cache.BookCommentCacheManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+import org.springframework.cache.support.SimpleCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheDecorator;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 小说冗余计数管理类测试（事务提交后清除评论第一页缓存）
+ *
+ * @author wcoal
+ * @since 2025-12-26
+ */
+class BookCounterManagerTest {
+
+    private final BookCommentMapper bookCommentMapper = mock(BookCommentMapper.class);
+
+    private final BookInfoMapper bookInfoMapper = mock(BookInfoMapper.class);
+
+    private final TransactionTemplate transactionTemplate = new TransactionTemplate(new NoOpTransactionManager());
+
+    private Cache firstPageCache;
+
+    private BookCounterManager counterManager;
+
+    @BeforeEach
+    void setUp() {
+        // 与 Redis 缓存管理器一样使用事务感知的缓存，缓存操作本身也会推迟到事务提交后
+        firstPageCache = new TransactionAwareCacheDecorator(
+                new ConcurrentMapCache(CacheConsts.BOOK_COMMENT_FIRST_PAGE_CACHE_NAME));
+        SimpleCacheManager cacheManager = new SimpleCacheManager();
+        cacheManager.setCaches(List.of(firstPageCache));
+        cacheManager.afterPropertiesSet();
+
+        BookCommentCacheManager bookCommentCacheManager = new BookCommentCacheManager(
+                bookCommentMapper, bookInfoMapper, mock(UserDaoManager.class), cacheManager);
+        counterManager = new BookCounterManager(bookCommentMapper, bookInfoMapper, bookCommentCacheManager);
+
+        firstPageCache.put(1L, new BookCommentRespDto());
+        firstPageCache.put(2L, new BookCommentRespDto());
+    }
+
+    @Test
+    void replyCountEvictsFirstPageAfterCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            counterManager.addReplyCount(1L, 10L, 1);
+            assertNotNull(firstPageCache.get(1L));
+        });
+
+        verify(bookCommentMapper).addReplyCount(10L, 1);
+        assertNull(firstPageCache.get(1L));
+    }
+
+    @Test
+    void commentCountsEvictFirstPagesAfterCommit() {
+        transactionTemplate.executeWithoutResult(status -> {
+            counterManager.addCommentCounts(Map.of(1L, 1, 2L, -1));
+            assertNotNull(firstPageCache.get(1L));
+            assertNotNull(firstPageCache.get(2L));
+        });
+
+        verify(bookInfoMapper).batchAddCommentCount(Map.of(1L, 1, 2L, -1));
+        assertNull(firstPageCache.get(1L));
+        assertNull(firstPageCache.get(2L));
+    }
+
+    @Test
+    void rollbackKeepsFirstPage() {
+        transactionTemplate.executeWithoutResult(status -> {
+            counterManager.addReplyCount(1L, 10L, 1);
+            status.setRollbackOnly();
+        });
+
+        assertNotNull(firstPageCache.get(1L));
+    }
+
+    @Test
+    void evictsImmediatelyWithoutTransaction() {
+        counterManager.addCommentCounts(Map.of(2L, 1));
+
+        assertNull(firstPageCache.get(2L));
+    }
+}